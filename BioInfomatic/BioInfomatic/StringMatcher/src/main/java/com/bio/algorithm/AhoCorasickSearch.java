@@ -0,0 +1,190 @@
+package com.bio.algorithm;
+
+import com.bio.utils.IntList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick multi-pattern automaton over the DNA alphabet {A, C, G, T}.
+ *
+ * The automaton is a complete DFA stored in flat int arrays (4 transitions per state), so the scan is one
+ * table lookup per text character regardless of how many patterns are loaded. Outputs are chained through
+ * dictionary-suffix links. Any non-ACGT text symbol (e.g. N) resets the automaton to the root, since no
+ * pattern can match across it. Like every other engine it is case-sensitive: a pattern must be upper-case
+ * ACGT, and lower-case text never matches.
+ */
+public class AhoCorasickSearch {
+
+    private static final int SIGMA = 4;
+    private static final byte[] CODES = new byte[128];
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        CODES['A'] = 0;
+        CODES['C'] = 1;
+        CODES['G'] = 2;
+        CODES['T'] = 3;
+    }
+
+    private final List<String> patterns;
+    private final int[] patternLengths;
+    private final int maxPatternLength;
+
+    private final int[] delta;      // delta[state * SIGMA + code] -> next state (complete DFA)
+    private final int[] terminal;   // first pattern id ending at this state, or -1
+    private final int[] dictLink;   // nearest state on the failure chain with terminal >= 0, or -1
+    private final int[] samePatternNext; // next pattern id with identical text (duplicates), or -1
+
+    /**
+     * Callback receiving each occurrence as (pattern id, absolute start position).
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+        void onMatch(int patternId, int position);
+    }
+
+    public AhoCorasickSearch(List<String> rawPatterns) {
+        if (rawPatterns == null || rawPatterns.isEmpty()) {
+            throw new IllegalArgumentException("At least one pattern is required.");
+        }
+        int count = rawPatterns.size();
+        this.patterns = new ArrayList<>(count);
+        this.patternLengths = new int[count];
+        int totalLength = 0, maxLength = 0;
+        for (int id = 0; id < count; id++) {
+            String p = rawPatterns.get(id) == null ? "" : rawPatterns.get(id);
+            if (p.isEmpty()) {
+                throw new IllegalArgumentException("Pattern " + id + " is empty.");
+            }
+            for (int j = 0; j < p.length(); j++) {
+                if (code(p.charAt(j)) < 0) {
+                    throw new IllegalArgumentException("Pattern " + id + " contains non-ACGT symbol '" + p.charAt(j) + "'.");
+                }
+            }
+            patterns.add(p);
+            patternLengths[id] = p.length();
+            totalLength += p.length();
+            maxLength = Math.max(maxLength, p.length());
+        }
+        this.maxPatternLength = maxLength;
+
+        // 1. Trie
+        int maxStates = totalLength + 1;
+        int[] goTo = new int[maxStates * SIGMA];
+        Arrays.fill(goTo, -1);
+        int[] term = new int[maxStates];
+        Arrays.fill(term, -1);
+        int[] same = new int[count];
+        Arrays.fill(same, -1);
+        int states = 1;
+        for (int id = 0; id < count; id++) {
+            String p = patterns.get(id);
+            int state = 0;
+            for (int j = 0; j < p.length(); j++) {
+                int slot = state * SIGMA + code(p.charAt(j));
+                if (goTo[slot] < 0) goTo[slot] = states++;
+                state = goTo[slot];
+            }
+            if (term[state] >= 0) {
+                same[id] = term[state];
+            }
+            term[state] = id;
+        }
+
+        // 2. Failure + dictionary links by BFS, completing the DFA in place
+        int[] fail = new int[states];
+        int[] dict = new int[states];
+        Arrays.fill(dict, -1);
+        int[] queue = new int[states];
+        int head = 0, tail = 0;
+        for (int a = 0; a < SIGMA; a++) {
+            int v = goTo[a];
+            if (v < 0) {
+                goTo[a] = 0;
+            } else {
+                fail[v] = 0;
+                queue[tail++] = v;
+            }
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = 0; a < SIGMA; a++) {
+                int slot = u * SIGMA + a;
+                int v = goTo[slot];
+                int viaFail = goTo[fail[u] * SIGMA + a];
+                if (v < 0) {
+                    goTo[slot] = viaFail;
+                } else {
+                    fail[v] = viaFail;
+                    dict[v] = term[viaFail] >= 0 ? viaFail : dict[viaFail];
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        this.delta = Arrays.copyOf(goTo, states * SIGMA);
+        this.terminal = Arrays.copyOf(term, states);
+        this.dictLink = dict;
+        this.samePatternNext = same;
+    }
+
+    private static int code(char c) {
+        return c < 128 ? CODES[c] : -1;
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    public int patternCount() {
+        return patterns.size();
+    }
+
+    public int maxPatternLength() {
+        return maxPatternLength;
+    }
+
+    public int stateCount() {
+        return terminal.length;
+    }
+
+    /**
+     * Finds all occurrences of every pattern in one pass.
+     *
+     * @return start positions grouped by pattern id (index in the constructor list), each sorted ascending
+     */
+    public List<List<Integer>> search(CharSequence text) {
+        List<IntList> lists = new ArrayList<>(patterns.size());
+        for (int id = 0; id < patterns.size(); id++) {
+            lists.add(new IntList());
+        }
+        search(text, 0, text.length(), text.length(), (id, position) -> lists.get(id).addInt(position));
+        return new ArrayList<>(lists);
+    }
+
+    /**
+     * Scans text[from, to) and reports occurrences whose start lies in [from, ownedEnd). Positions are absolute.
+     * Within one pattern, positions are reported in ascending order.
+     */
+    public void search(CharSequence text, int from, int to, int ownedEnd, MatchListener listener) {
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            int c = code(text.charAt(i));
+            if (c < 0) {
+                state = 0;
+                continue;
+            }
+            state = delta[state * SIGMA + c];
+            for (int s = terminal[state] >= 0 ? state : dictLink[state]; s >= 0; s = dictLink[s]) {
+                for (int id = terminal[s]; id >= 0; id = samePatternNext[id]) {
+                    int start = i - patternLengths[id] + 1;
+                    if (start < ownedEnd) {
+                        listener.onMatch(id, start);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.bio.algorithm;
+
+/**
+ * Callback receiving approximate matches as (absolute position, distance).
+ */
+@FunctionalInterface
+public interface ApproximateMatchListener {
+    void onMatch(int position, int distance);
+
+    // Checked after each match: returning true ends the scan early
+    default boolean isDone() {
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bio.algorithm;
+
+import com.bio.model.MatchResult;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SearchAlgorithm for the bit-parallel approximate matchers: Shift-And with k mismatches (start positions)
+ * and Myers with k edits (end positions).
+ */
+public final class ApproximateScanAlgorithm implements SearchAlgorithm {
+
+    private final boolean editDistance;
+
+    private ApproximateScanAlgorithm(boolean editDistance) {
+        this.editDistance = editDistance;
+    }
+
+    public static ApproximateScanAlgorithm hamming() {
+        return new ApproximateScanAlgorithm(false);
+    }
+
+    public static ApproximateScanAlgorithm editDistance() {
+        return new ApproximateScanAlgorithm(true);
+    }
+
+    @Override
+    public String name() {
+        return editDistance ? "myers" : "hamming";
+    }
+
+    @Override
+    public String displayName() {
+        return editDistance ? "Myers Edit Distance (end positions)" : "Shift-And Hamming";
+    }
+
+    @Override
+    public List<String> aliases() {
+        return editDistance ? Arrays.asList("edit", "edit-distance") : Arrays.asList("shiftand", "shift-and");
+    }
+
+    @Override
+    public boolean approximate() {
+        return true;
+    }
+
+    @Override
+    public boolean reportsEndPositions() {
+        return editDistance;
+    }
+
+    @Override
+    public MatchResult search(CharSequence text, String pattern, int maxErrors) {
+        return editDistance
+                ? new MyersSearch().search(text, pattern, maxErrors)
+                : new ShiftAndSearch().search(text, pattern, maxErrors);
+    }
+
+    @Override
+    public Scanner prepare(String pattern, int maxErrors) {
+        if (editDistance) {
+            MyersSearch myers = new MyersSearch();
+            return (text, from, to, sink) -> myers.search(text, from, to, pattern, maxErrors, sink);
+        }
+        ShiftAndSearch shiftAnd = new ShiftAndSearch();
+        return (text, from, to, sink) -> shiftAnd.search(text, from, to, pattern, maxErrors, sink);
+    }
+}
@@ -0,0 +1,169 @@
+package com.bio.algorithm;
+
+import com.bio.utils.IntList;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Both-strand search support (MatchRequest.bothStrands): the DNA reverse complement, and a combined scanner
+ * for algorithms without a single-pass scan of their own (see CompiledPattern.bothStrands).
+ *
+ * The combined scanner walks the range in tiles of TILE bases and runs the forward and the reverse-complement
+ * scanner over each tile before moving on, so the text streams from memory once and the second scan reads it
+ * from cache. The hits of a tile are merged in position order (forward first on ties) and the reverse ones
+ * reported through SearchSink.onReverseMatch. A hit on the reverse strand is reported at the forward-strand
+ * position of the reverse complement, i.e. where the pattern's reverse complement occurs in the text.
+ */
+public final class BothStrands {
+
+    public static final char FORWARD = '+';
+    public static final char REVERSE = '-';
+
+    // Tile of the combined scanner: both scans of a tile stay within L2
+    static final int TILE = 1 << 15;
+
+    // IUPAC complements: A-T, C-G, R-Y, K-M, B-V, D-H; S, W and N are their own complement
+    private static final char[] COMPLEMENT = new char[128];
+
+    static {
+        String pairs = "ATCGRYKMBVDHSSWWNN";
+        for (int i = 0; i < pairs.length(); i += 2) {
+            char a = pairs.charAt(i), b = pairs.charAt(i + 1);
+            COMPLEMENT[a] = b;
+            COMPLEMENT[b] = a;
+            COMPLEMENT[Character.toLowerCase(a)] = Character.toLowerCase(b);
+            COMPLEMENT[Character.toLowerCase(b)] = Character.toLowerCase(a);
+        }
+    }
+
+    private BothStrands() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the pattern contains a character that is not a DNA (IUPAC) base
+     */
+    public static String reverseComplement(String pattern) {
+        int m = pattern.length();
+        char[] reverse = new char[m];
+        for (int i = 0; i < m; i++) {
+            char c = pattern.charAt(i);
+            char complement = c < 128 ? COMPLEMENT[c] : 0;
+            if (complement == 0) {
+                throw new IllegalArgumentException("bothStrands needs a DNA pattern; '" + c + "' has no complement.");
+            }
+            reverse[m - 1 - i] = complement;
+        }
+        return new String(reverse);
+    }
+
+    /**
+     * @return occurrences of the pattern and its reverse complement (once for a palindrome) without locating them,
+     *         or -1 if the algorithm cannot count cheaper than it can search
+     */
+    public static long count(SearchAlgorithm algorithm, CharSequence text, String pattern) {
+        String reverse = reverseComplement(pattern);
+        long forward = algorithm.count(text, pattern);
+        if (forward < 0 || reverse.equals(pattern)) return forward;
+        long reverseCount = algorithm.count(text, reverse);
+        return reverseCount < 0 ? -1 : forward + reverseCount;
+    }
+
+    /**
+     * Scans text with {@code forward} and {@code reverse} tile by tile, as one scanner.
+     *
+     * @param context      m - 1 + k: how far a hit reaches past its start (or, for end positions, before its end)
+     * @param endPositions whether the scanners report match end positions (see SearchAlgorithm.reportsEndPositions)
+     * @param tile         bases per tile; Integer.MAX_VALUE scans the whole range at once (indexes, which
+     *                     do not read the text)
+     */
+    static SearchAlgorithm.Scanner interleave(SearchAlgorithm.Scanner forward, SearchAlgorithm.Scanner reverse,
+                                              int context, boolean endPositions, int tile) {
+        return (text, from, to, sink) -> {
+            Hits forwardHits = new Hits();
+            Hits reverseHits = new Hits();
+            for (int t = from; t < to && !sink.isDone(); t = (int) Math.min((long) t + tile, to)) {
+                // Tile owns the hits in [t, ownedEnd); start positions read context past it, end positions before it
+                int ownedEnd = (int) Math.min((long) t + tile, to);
+                int scanFrom = endPositions ? Math.max(from, t - context) : t;
+                int scanTo = endPositions ? ownedEnd : (int) Math.min((long) ownedEnd + context, to);
+                forwardHits.clear();
+                reverseHits.clear();
+                forward.scan(text, scanFrom, scanTo, new OwnedRangeSink(forwardHits, t, ownedEnd));
+                reverse.scan(text, scanFrom, scanTo, new OwnedRangeSink(reverseHits, t, ownedEnd));
+                merge(forwardHits, reverseHits, sink);
+            }
+        };
+    }
+
+    private static void merge(Hits forward, Hits reverse, SearchSink sink) {
+        int f = 0, r = 0;
+        int fn = forward.positions.size(), rn = reverse.positions.size();
+        while ((f < fn || r < rn) && !sink.isDone()) {
+            if (r == rn || (f < fn && forward.positions.getInt(f) <= reverse.positions.getInt(r))) {
+                forward.report(f++, sink, false);
+            } else {
+                reverse.report(r++, sink, true);
+            }
+        }
+    }
+
+    /**
+     * @return a read-only '+' / '-' view of strand flags (0 forward, 1 reverse)
+     */
+    public static List<Character> strands(IntList flags) {
+        return new StrandList(flags);
+    }
+
+    private static final class StrandList extends AbstractList<Character> implements RandomAccess {
+        private final IntList flags;
+
+        private StrandList(IntList flags) {
+            this.flags = flags;
+        }
+
+        @Override
+        public Character get(int index) {
+            return flags.getInt(index) == 0 ? FORWARD : REVERSE;
+        }
+
+        @Override
+        public int size() {
+            return flags.size();
+        }
+    }
+
+    // Hits of one tile; distances only for approximate scanners
+    private static final class Hits implements SearchSink {
+        private final IntList positions = new IntList();
+        private final IntList distances = new IntList();
+
+        @Override
+        public void onMatch(int position) {
+            positions.addInt(position);
+        }
+
+        @Override
+        public void onMatch(int position, int distance) {
+            positions.addInt(position);
+            distances.addInt(distance);
+        }
+
+        private void report(int i, SearchSink sink, boolean reverse) {
+            int position = positions.getInt(i);
+            if (distances.isEmpty()) {
+                if (reverse) sink.onReverseMatch(position);
+                else sink.onMatch(position);
+            } else {
+                if (reverse) sink.onReverseMatch(position, distances.getInt(i));
+                else sink.onMatch(position, distances.getInt(i));
+            }
+        }
+
+        private void clear() {
+            positions.clear();
+            distances.clear();
+        }
+    }
+}
@@ -1,40 +1,168 @@
 package com.bio.algorithm;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import com.bio.model.MatchResult;
+import com.bio.utils.IntList;
 
+/**
+ * Full Boyer-Moore: bad-character rule + strong good-suffix rule, with Galil's rule so that after a match the
+ * already-verified prefix (the pattern's period overlap) is not compared again. This bounds the worst case to
+ * O(n + m) even on highly repetitive DNA such as poly-A runs or microsatellites.
+ */
 public class BoyerMooreSearch {
-    public MatchResult search(String text, String pattern) {
-        List<Integer> matches = new ArrayList<>();
-        int n = text.length();
+
+    public MatchResult search(CharSequence text, String pattern) {
+        return compile(pattern).search(text);
+    }
+
+    // Range form: searches text[from, to) without copying it; positions are absolute
+    public MatchResult search(CharSequence text, int from, int to, String pattern) {
+        return compile(pattern).search(text, from, to);
+    }
+
+    // Build the bad-character and good-suffix tables once; the result can be reused for any number of texts
+    public Compiled compile(String pattern) {
+        return new Compiled(pattern, new BadCharTable(pattern), goodSuffixShifts(pattern));
+    }
+
+    public static final class Compiled implements CompiledPattern {
+        private final String pattern;
+        private final BadCharTable badChar;
+        private final int[] goodSuffix;
+
+        private Compiled(String pattern, BadCharTable badChar, int[] goodSuffix) {
+            this.pattern = pattern;
+            this.badChar = badChar;
+            this.goodSuffix = goodSuffix;
+        }
+
+        @Override
+        public String algorithm() {
+            return "bm";
+        }
+
+        @Override
+        public String pattern() {
+            return pattern;
+        }
+
+        @Override
+        public MatchResult search(CharSequence text, int from, int to) {
+            IntList matches = new IntList();
+            int m = pattern.length();
+            if (m == 0) return new MatchResult("Boyer-Moore", 0, matches, to - from, m);
+
+            long startTime = System.nanoTime();
+            long comparisons = scan(text, from, to, matches::addInt);
+            long executionTimeNs = System.nanoTime() - startTime;
+            return new MatchResult("Boyer-Moore Search", executionTimeNs, matches, to - from, m, comparisons);
+        }
+
+        @Override
+        public void search(CharSequence text, int from, int to, MatchSink sink) {
+            if (!pattern.isEmpty()) scan(text, from, to, sink);
+        }
+
+        // @return the number of character comparisons
+        private long scan(CharSequence text, int from, int to, MatchSink sink) {
+            int n = to;
+            int m = pattern.length();
+            int period = goodSuffix[0];
+            long comparisons = 0;
+
+            int s = from;
+            int verified = 0; // Galil: pattern[0, verified) is known to match at this alignment
+            while (s <= (n - m)) {
+                int j = m - 1;
+                while (j >= verified) {
+                    comparisons++;
+                    if (pattern.charAt(j) != text.charAt(s + j)) break;
+                    j--;
+                }
+
+                if (j < verified) {
+                    sink.onMatch(s);
+                    if (sink.isDone()) break;
+                    s += period;
+                    verified = m - period;
+                } else {
+                    int bcShift = j - badChar.lastIndexOf(text.charAt(s + j));
+                    s += Math.max(goodSuffix[j + 1], bcShift);
+                    verified = 0;
+                }
+            }
+            return comparisons;
+        }
+    }
+
+    /**
+     * Strong good-suffix table: shift[j + 1] is the shift after a mismatch at pattern[j] (the suffix
+     * pattern[j + 1, m) matched); shift[0] is the shift after a full match, i.e. the pattern's period.
+     */
+    static int[] goodSuffixShifts(CharSequence pattern) {
         int m = pattern.length();
-        long startTime = System.nanoTime();
+        int[] shift = new int[m + 1];
+        int[] border = new int[m + 1];
 
-        if (m == 0) return new MatchResult("Boyer-Moore", 0, matches, n, m);
+        // Case 1: the matched suffix occurs elsewhere in the pattern, preceded by a different char
+        int i = m, j = m + 1;
+        border[i] = j;
+        while (i > 0) {
+            while (j <= m && pattern.charAt(i - 1) != pattern.charAt(j - 1)) {
+                if (shift[j] == 0) shift[j] = j - i;
+                j = border[j];
+            }
+            i--;
+            j--;
+            border[i] = j;
+        }
 
-        int[] badChar = new int[256];
-        Arrays.fill(badChar, -1);
-        for (int i = 0; i < m; i++) {
-            badChar[pattern.charAt(i)] = i;
+        // Case 2: only a prefix of the pattern matches a suffix of the matched part
+        j = border[0];
+        for (i = 0; i <= m; i++) {
+            if (shift[i] == 0) shift[i] = j;
+            if (i == j) j = border[j];
         }
+        return shift;
+    }
 
-        int s = 0;
-        while (s <= (n - m)) {
-            int j = m - 1;
-            while (j >= 0 && pattern.charAt(j) == text.charAt(s + j))
-                j--;
+    /**
+     * Last occurrence of each char in the pattern. Latin-1 chars use a flat table; any other char (rare in
+     * sequence data) is looked up in a small side list instead of overflowing the table.
+     */
+    static final class BadCharTable {
+        private final int[] latin1 = new int[256];
+        private final char[] otherChars;
+        private final int[] otherIndex;
 
-            if (j < 0) {
-                matches.add(s);
-                s += (s + m < n) ? m - badChar[text.charAt(s + m)] : 1;
-            } else {
-                s += Math.max(1, j - badChar[text.charAt(s + j)]);
+        BadCharTable(CharSequence pattern) {
+            Arrays.fill(latin1, -1);
+            int m = pattern.length();
+            char[] chars = new char[m];
+            int[] index = new int[m];
+            int others = 0;
+            for (int i = 0; i < m; i++) {
+                char c = pattern.charAt(i);
+                if (c < 256) {
+                    latin1[c] = i;
+                } else {
+                    int k = 0;
+                    while (k < others && chars[k] != c) k++;
+                    chars[k] = c;
+                    index[k] = i;
+                    if (k == others) others++;
+                }
             }
+            this.otherChars = Arrays.copyOf(chars, others);
+            this.otherIndex = Arrays.copyOf(index, others);
         }
 
-        long executionTimeNs = System.nanoTime() - startTime;
-        return new MatchResult("Boyer-Moore Search", executionTimeNs, matches, n, m);
+        int lastIndexOf(char c) {
+            if (c < 256) return latin1[c];
+            for (int k = 0; k < otherChars.length; k++) {
+                if (otherChars[k] == c) return otherIndex[k];
+            }
+            return -1;
+        }
     }
-}
\ No newline at end of file
+}
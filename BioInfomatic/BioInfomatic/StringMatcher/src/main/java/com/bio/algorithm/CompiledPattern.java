@@ -0,0 +1,50 @@
+package com.bio.algorithm;
+
+import com.bio.model.MatchResult;
+
+/**
+ * A pattern with its algorithm-specific preprocessing (LPS array, shift tables, packed words, ...) done once.
+ *
+ * Implementations are immutable, so one instance can be cached and shared read-only by any number of
+ * requests and worker threads. search() only allocates its own result.
+ */
+public interface CompiledPattern {
+
+    /** Canonical algorithm name, e.g. "kmp", "bm", "qgram", "naive". */
+    String algorithm();
+
+    String pattern();
+
+    default MatchResult search(CharSequence text) {
+        return search(text, 0, text.length());
+    }
+
+    /**
+     * Searches text[from, to) in place (no copy of the range is made) and reports every occurrence lying
+     * entirely inside it, as absolute positions in {@code text}.
+     */
+    MatchResult search(CharSequence text, int from, int to);
+
+    /**
+     * Same scan as search(text, from, to), but streams each start position to {@code sink} in ascending order
+     * instead of collecting a result.
+     */
+    void search(CharSequence text, int from, int to, MatchSink sink);
+
+    /**
+     * @return a resumable scanner over consecutive windows of one text, or null if the algorithm has no state
+     *         that can carry across a window boundary
+     */
+    default SearchAlgorithm.StreamScanner stream() {
+        return null;
+    }
+
+    /**
+     * @param reverse this pattern's reverse complement, compiled by the same algorithm
+     * @return a scanner that finds both patterns in a single pass over the text, reporting hits of
+     *         {@code reverse} through SearchSink.onReverseMatch, or null if the algorithm has no combined scan
+     */
+    default SearchAlgorithm.Scanner bothStrands(CompiledPattern reverse) {
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.bio.algorithm;
+
+import com.bio.model.MatchResult;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * SearchAlgorithm for the scanning exact matchers (naive, KMP, Boyer-Moore, q-gram Horspool): the pattern is
+ * compiled once (usually through CompiledPatternCache) and the compiled form scans the text in place.
+ */
+public final class ExactScanAlgorithm implements SearchAlgorithm {
+
+    private final String name;
+    private final List<String> aliases;
+    private final Function<String, CompiledPattern> compiler;
+
+    public ExactScanAlgorithm(String name, Function<String, CompiledPattern> compiler, String... aliases) {
+        this.name = name;
+        this.compiler = compiler;
+        this.aliases = Collections.unmodifiableList(Arrays.asList(aliases));
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public List<String> aliases() {
+        return aliases;
+    }
+
+    @Override
+    public MatchResult search(CharSequence text, String pattern, int maxErrors) {
+        return compiler.apply(pattern).search(text);
+    }
+
+    @Override
+    public Scanner prepare(String pattern, int maxErrors) {
+        CompiledPattern compiled = compiler.apply(pattern);
+        return compiled::search;
+    }
+
+    // KMP advances both automata per character; the others (Boyer-Moore, whose shifts would have to be shared)
+    // use the tiled scan
+    @Override
+    public Scanner prepareBothStrands(String pattern, int maxErrors) {
+        String reverse = BothStrands.reverseComplement(pattern);
+        CompiledPattern forward = compiler.apply(pattern);
+        if (reverse.equals(pattern)) return forward::search;
+        CompiledPattern reverseCompiled = compiler.apply(reverse);
+        Scanner combined = forward.bothStrands(reverseCompiled);
+        return combined != null ? combined
+                : BothStrands.interleave(forward::search, reverseCompiled::search, pattern.length() - 1, false, BothStrands.TILE);
+    }
+
+    @Override
+    public StreamScanner prepareStream(String pattern, int maxErrors) {
+        return compiler.apply(pattern).stream();
+    }
+}
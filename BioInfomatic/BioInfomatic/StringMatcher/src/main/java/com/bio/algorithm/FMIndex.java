@@ -0,0 +1,283 @@
+package com.bio.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Immutable FM-index (Ferragina and Manzini, 2000) over a text.
+ *
+ * Layout:
+ * - BWT, bit-packed at ceil(log2(sigma)) bits per symbol (2 bits for pure ACGT, 3 with N); the '$' row is
+ *   stored separately as {@code primary} so it costs no extra symbol.
+ * - Occurrence checkpoints every {@code occSampleRate} rows; occ(c, i) scans at most that many symbols.
+ * - Suffix array samples for every text position divisible by {@code saSampleRate}, plus a marked-row
+ *   bitvector with per-word rank checkpoints. Locating a row takes fewer than saSampleRate LF steps.
+ *
+ * count() runs in O(m * occSampleRate) without touching the SA samples; locate() returns the matching rows
+ * and resolves positions lazily.
+ */
+public final class FMIndex {
+
+    private final int n;            // text length (BWT has n + 1 rows)
+    private final int[] symbolCode; // char -> code (or -1), indexed by char
+    private final int sigma;
+    private final int bitsPerSymbol;
+    private final long[] bwt;
+    private final int primary;      // row whose BWT symbol is '$' (i.e. SA[row] == 0)
+    private final int[] c;          // c[code] = 1 + number of text symbols smaller than code
+
+    private final int occSampleRate;
+    private final int[] occ;        // occ[block * sigma + code] = count of code in bwt[0, block * occSampleRate)
+
+    private final int saSampleRate;
+    private final long[] marked;    // rows whose SA value is divisible by saSampleRate
+    private final int[] markedRank; // number of marked rows before word w
+    private final int[] saSamples;  // SA values of the marked rows, in row order
+
+    private FMIndex(int n, int[] symbolCode, int sigma, int bitsPerSymbol, long[] bwt, int primary, int[] c,
+                    int occSampleRate, int[] occ, int saSampleRate, long[] marked, int[] markedRank, int[] saSamples) {
+        this.n = n;
+        this.symbolCode = symbolCode;
+        this.sigma = sigma;
+        this.bitsPerSymbol = bitsPerSymbol;
+        this.bwt = bwt;
+        this.primary = primary;
+        this.c = c;
+        this.occSampleRate = occSampleRate;
+        this.occ = occ;
+        this.saSampleRate = saSampleRate;
+        this.marked = marked;
+        this.markedRank = markedRank;
+        this.saSamples = saSamples;
+    }
+
+    public static FMIndex build(CharSequence text, int occSampleRate, int saSampleRate) {
+        if (occSampleRate <= 0 || saSampleRate <= 0) {
+            throw new IllegalArgumentException("Sampling rates must be positive.");
+        }
+        int n = text.length();
+        int rows = n + 1;
+
+        // 1. Alphabet: codes are assigned in char order to the symbols present in the text
+        int[] symbolCode = new int[Character.MAX_VALUE + 1];
+        Arrays.fill(symbolCode, -1);
+        for (int i = 0; i < n; i++) {
+            symbolCode[text.charAt(i)] = 0;
+        }
+        int sigma = 0;
+        for (int ch = 0; ch <= Character.MAX_VALUE; ch++) {
+            if (symbolCode[ch] == 0) symbolCode[ch] = sigma++;
+            else symbolCode[ch] = -1;
+        }
+        int bitsPerSymbol = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(1, sigma - 1)));
+
+        // 2. Suffix array (row 0 is the '$' suffix, rows 1..n follow the text suffix array)
+        int[] sa = SuffixArrayIndex.buildSuffixArray(text);
+
+        // 3. BWT + occurrence checkpoints + C array
+        int symbolsPerWord = 64 / bitsPerSymbol;
+        long[] bwt = new long[rows / symbolsPerWord + 1];
+        int blocks = rows / occSampleRate + 1;
+        int[] occ = new int[(blocks + 1) * sigma];
+        int[] counts = new int[sigma];
+        int primary = -1;
+        for (int row = 0; row < rows; row++) {
+            if (row % occSampleRate == 0) {
+                System.arraycopy(counts, 0, occ, (row / occSampleRate) * sigma, sigma);
+            }
+            int suffix = row == 0 ? n : sa[row - 1];
+            if (suffix == 0) {
+                primary = row;
+                continue; // '$' is not stored; the slot keeps code 0 and is excluded in occ()
+            }
+            int code = symbolCode[text.charAt(suffix - 1)];
+            bwt[row / symbolsPerWord] |= (long) code << ((row % symbolsPerWord) * bitsPerSymbol);
+            counts[code]++;
+        }
+        if (rows % occSampleRate == 0) {
+            System.arraycopy(counts, 0, occ, (rows / occSampleRate) * sigma, sigma);
+        }
+        int[] c = new int[sigma + 1];
+        c[0] = 1;
+        for (int code = 0; code < sigma; code++) {
+            c[code + 1] = c[code] + counts[code];
+        }
+
+        // 4. Sampled suffix array by text position
+        long[] marked = new long[rows / 64 + 1];
+        int sampleCount = 0;
+        for (int row = 0; row < rows; row++) {
+            int suffix = row == 0 ? n : sa[row - 1];
+            if (suffix % saSampleRate == 0) {
+                marked[row >>> 6] |= 1L << (row & 63);
+                sampleCount++;
+            }
+        }
+        int[] markedRank = new int[marked.length + 1];
+        for (int w = 0; w < marked.length; w++) {
+            markedRank[w + 1] = markedRank[w] + Long.bitCount(marked[w]);
+        }
+        int[] saSamples = new int[sampleCount];
+        for (int row = 0, k = 0; row < rows; row++) {
+            if ((marked[row >>> 6] & (1L << (row & 63))) != 0) {
+                saSamples[k++] = row == 0 ? n : sa[row - 1];
+            }
+        }
+
+        return new FMIndex(n, symbolCode, sigma, bitsPerSymbol, bwt, primary, c,
+                occSampleRate, occ, saSampleRate, marked, markedRank, saSamples);
+    }
+
+    public int textLength() {
+        return n;
+    }
+
+    public int occSampleRate() {
+        return occSampleRate;
+    }
+
+    public int saSampleRate() {
+        return saSampleRate;
+    }
+
+    /**
+     * @return approximate footprint of the index in bytes (the text itself is not retained).
+     */
+    public long memoryBytes() {
+        return (long) bwt.length * Long.BYTES
+                + (long) occ.length * Integer.BYTES
+                + (long) marked.length * Long.BYTES
+                + (long) markedRank.length * Integer.BYTES
+                + (long) saSamples.length * Integer.BYTES;
+    }
+
+    /**
+     * Backward search. O(m) steps, each costing at most occSampleRate symbol decodes.
+     *
+     * @return the BWT row interval {lo, hi} of suffixes prefixed by {@code pattern}; empty when lo == hi
+     */
+    public int[] findInterval(CharSequence pattern) {
+        int lo = 0, hi = n + 1;
+        for (int j = pattern.length() - 1; j >= 0 && lo < hi; j--) {
+            char ch = pattern.charAt(j);
+            int code = symbolCode[ch];
+            if (code < 0) return new int[]{0, 0};
+            lo = c[code] + occ(code, lo);
+            hi = c[code] + occ(code, hi);
+        }
+        return lo < hi ? new int[]{lo, hi} : new int[]{0, 0};
+    }
+
+    public int count(CharSequence pattern) {
+        if (pattern.length() == 0) return 0;
+        int[] interval = findInterval(pattern);
+        return interval[1] - interval[0];
+    }
+
+    /**
+     * @return the occurrences of {@code pattern}; positions are resolved only when asked for.
+     */
+    public Occurrences locate(CharSequence pattern) {
+        int[] interval = pattern.length() == 0 ? new int[]{0, 0} : findInterval(pattern);
+        return new Occurrences(interval[0], interval[1]);
+    }
+
+    /**
+     * Resolves the text position of a BWT row by walking LF until a sampled row is reached.
+     */
+    public int position(int row) {
+        int steps = 0;
+        while ((marked[row >>> 6] & (1L << (row & 63))) == 0) {
+            row = lf(row);
+            steps++;
+        }
+        return saSamples[markedRank(row)] + steps;
+    }
+
+    // --- Internals ---
+
+    private int symbolAt(int row) {
+        int symbolsPerWord = 64 / bitsPerSymbol;
+        long word = bwt[row / symbolsPerWord];
+        return (int) (word >>> ((row % symbolsPerWord) * bitsPerSymbol)) & ((1 << bitsPerSymbol) - 1);
+    }
+
+    // Number of occurrences of code in bwt[0, row)
+    private int occ(int code, int row) {
+        int block = row / occSampleRate;
+        return occ[block * sigma + code] + countInRange(code, block * occSampleRate, row);
+    }
+
+    // Occurrences of code in bwt[from, to), excluding the '$' slot
+    private int countInRange(int code, int from, int to) {
+        int count = 0;
+        if (bitsPerSymbol == 2) {
+            // DNA fast path: compare 32 symbols per word and popcount the equal pairs
+            long broadcast = code * 0x5555555555555555L;
+            for (int r = from; r < to; ) {
+                int inWord = r & 31;
+                int take = Math.min(32 - inWord, to - r);
+                long x = bwt[r >>> 5] ^ broadcast;
+                long equal = (~(x | (x >>> 1)) & 0x5555555555555555L) >>> (inWord << 1);
+                long mask = take == 32 ? -1L : (1L << (take << 1)) - 1;
+                count += Long.bitCount(equal & mask);
+                r += take;
+            }
+        } else {
+            for (int r = from; r < to; r++) {
+                if (symbolAt(r) == code) count++;
+            }
+        }
+        if (code == 0 && primary >= from && primary < to) count--;
+        return count;
+    }
+
+    private int lf(int row) {
+        int code = symbolAt(row);
+        return c[code] + occ(code, row);
+    }
+
+    private int markedRank(int row) {
+        int w = row >>> 6;
+        long below = marked[w] & ((1L << (row & 63)) - 1);
+        return markedRank[w] + Long.bitCount(below);
+    }
+
+    /**
+     * Lazy view over the matching rows [lo, hi).
+     */
+    public final class Occurrences {
+        private final int lo;
+        private final int hi;
+
+        private Occurrences(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        public int size() {
+            return hi - lo;
+        }
+
+        /**
+         * Resolves the k-th occurrence (in suffix order, not text order).
+         */
+        public int position(int k) {
+            if (k < 0 || k >= size()) {
+                throw new IndexOutOfBoundsException("occurrence " + k + ", count " + size());
+            }
+            return FMIndex.this.position(lo + k);
+        }
+
+        /**
+         * Resolves every occurrence and returns them sorted by text position.
+         */
+        public int[] positions() {
+            int[] positions = new int[size()];
+            for (int k = 0; k < positions.length; k++) {
+                positions[k] = FMIndex.this.position(lo + k);
+            }
+            Arrays.sort(positions);
+            return positions;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.bio.algorithm;
+
+import com.bio.model.MatchResult;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SearchAlgorithm for the FM-Index: counts in O(m) without locating, locates through the sampled suffix array.
+ */
+public final class FMIndexAlgorithm implements SearchAlgorithm {
+
+    private final int occSampleRate;
+    private final int saSampleRate;
+
+    public FMIndexAlgorithm(int occSampleRate, int saSampleRate) {
+        this.occSampleRate = occSampleRate;
+        this.saSampleRate = saSampleRate;
+    }
+
+    @Override
+    public String name() {
+        return "fm";
+    }
+
+    @Override
+    public String displayName() {
+        return "FM-Index Search";
+    }
+
+    @Override
+    public List<String> aliases() {
+        return Arrays.asList("fmindex", "fm-index");
+    }
+
+    @Override
+    public boolean indexed() {
+        return true;
+    }
+
+    @Override
+    public boolean indexReady(CharSequence text) {
+        return newSearch().isIndexed(text);
+    }
+
+    @Override
+    public void buildIndex(CharSequence text) {
+        newSearch().indexFor(text);
+    }
+
+    // The full suffix array and ranked text (plus a trimmed copy of the suffix array) exist while the BWT is derived
+    @Override
+    public long indexBuildBytes(int textLength) {
+        return 13L * textLength;
+    }
+
+    @Override
+    public MatchResult search(CharSequence text, String pattern, int maxErrors) {
+        return newSearch().search(text, pattern);
+    }
+
+    @Override
+    public long count(CharSequence text, String pattern) {
+        return newSearch().count(text, pattern).getMatchCount();
+    }
+
+    @Override
+    public Scanner prepare(String pattern, int maxErrors) {
+        return new IndexedScanner(pattern.length(), text -> newSearch().search(text, pattern).getMatchPositions());
+    }
+
+    private FMIndexSearch newSearch() {
+        return new FMIndexSearch(occSampleRate, saSampleRate);
+    }
+}
@@ -0,0 +1,112 @@
+package com.bio.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.bio.model.MatchResult;
+import com.bio.utils.IntList;
+
+public class FMIndexSearch {
+
+    public static final int DEFAULT_OCC_SAMPLE_RATE = 64;
+    public static final int DEFAULT_SA_SAMPLE_RATE = 32;
+
+    // Index cache keyed by genome (same policy as SuffixTreeSearch): built once per genome and sampling configuration
+    private static final TextIndexCache<FMIndex> INDEXES = new TextIndexCache<>(2);
+
+    private final int occSampleRate;
+    private final int saSampleRate;
+
+    public FMIndexSearch() {
+        this(DEFAULT_OCC_SAMPLE_RATE, DEFAULT_SA_SAMPLE_RATE);
+    }
+
+    public FMIndexSearch(int occSampleRate, int saSampleRate) {
+        this.occSampleRate = occSampleRate;
+        this.saSampleRate = saSampleRate;
+    }
+
+    // Locate every occurrence: backward search, then resolve each row through the sampled suffix array
+    public MatchResult search(CharSequence text, String pattern) {
+        long startTime = System.nanoTime();
+        int n = text.length();
+        int m = pattern.length();
+        if (m == 0 || m > n) return new MatchResult("FM-Index", 0, new IntList(), n, m);
+
+        FMIndex index = indexFor(text);
+        long constructionTimeNs = System.nanoTime() - startTime;
+
+        List<Integer> matches = IntList.wrap(index.locate(pattern).positions());
+
+        long executionTimeNs = System.nanoTime() - startTime;
+        return new MatchResult("FM-Index Search", executionTimeNs, constructionTimeNs, matches, n, m, 0);
+    }
+
+    // Range form: occurrences lying entirely inside text[from, to), as absolute positions (whole-genome index)
+    public MatchResult search(CharSequence text, int from, int to, String pattern) {
+        long startTime = System.nanoTime();
+        int m = pattern.length();
+        IntList matches = new IntList();
+
+        if (m == 0 || m > to - from) return new MatchResult("FM-Index", 0, matches, to - from, m);
+
+        FMIndex index = indexFor(text);
+        long constructionTimeNs = System.nanoTime() - startTime;
+
+        for (int position : index.locate(pattern).positions()) {
+            if (position >= from && position + m <= to) matches.addInt(position);
+        }
+
+        long executionTimeNs = System.nanoTime() - startTime;
+        return new MatchResult("FM-Index Search", executionTimeNs, constructionTimeNs, matches, to - from, m, 0);
+    }
+
+    // Count only: O(m) backward-search steps, no positions are resolved or stored
+    public MatchResult count(CharSequence text, String pattern) {
+        long startTime = System.nanoTime();
+        int n = text.length();
+        int m = pattern.length();
+
+        MatchResult result;
+        if (m == 0 || m > n) {
+            result = new MatchResult("FM-Index Count", 0, new ArrayList<>(), n, m);
+        } else {
+            FMIndex index = indexFor(text);
+            long constructionTimeNs = System.nanoTime() - startTime;
+            int count = index.count(pattern);
+            result = new MatchResult("FM-Index Count", System.nanoTime() - startTime, constructionTimeNs, new ArrayList<>(), n, m, 0);
+            result.setMatchCount(count);
+        }
+        return result;
+    }
+
+    /**
+     * @return true if an index of {@code text} with these sampling rates is cached (no build on the next query)
+     */
+    public boolean isIndexed(CharSequence text) {
+        return INDEXES.isBuilt(text, variant());
+    }
+
+    /**
+     * Returns the cached index for {@code text} and these sampling rates, building it on first use. Builds of
+     * different genomes run in parallel; queries on one genome wait only for that genome's build.
+     */
+    public FMIndex indexFor(CharSequence text) {
+        return INDEXES.get(text, variant(), t -> FMIndex.build(t, occSampleRate, saSampleRate));
+    }
+
+    /**
+     * Sets how many genomes keep an FM-index (app.index.max-genomes); the least recently used index is
+     * dropped beyond that.
+     */
+    public static void setMaxIndexedGenomes(int maxGenomes) {
+        INDEXES.setCapacity(maxGenomes);
+    }
+
+    static void release(CharSequence text) {
+        INDEXES.remove(text);
+    }
+
+    private long variant() {
+        return ((long) occSampleRate << 32) | (saSampleRate & 0xFFFFFFFFL);
+    }
+}
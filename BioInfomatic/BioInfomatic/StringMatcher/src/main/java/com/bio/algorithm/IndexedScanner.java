@@ -0,0 +1,44 @@
+package com.bio.algorithm;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Scanner over a whole-genome index: the pattern is located once per text (on the first chunk that asks) and
+ * every range scan then binary-searches the sorted positions, so chunked callers do not query the index
+ * once per chunk.
+ */
+final class IndexedScanner implements SearchAlgorithm.Scanner {
+
+    private final int patternLength;
+    private final Function<CharSequence, int[]> locate;
+
+    private CharSequence locatedText;
+    private int[] positions;
+
+    IndexedScanner(int patternLength, Function<CharSequence, int[]> locate) {
+        this.patternLength = patternLength;
+        this.locate = locate;
+    }
+
+    @Override
+    public void scan(CharSequence text, int from, int to, SearchSink sink) {
+        int[] sorted = positionsFor(text);
+        int i = Arrays.binarySearch(sorted, from);
+        if (i < 0) i = -i - 1;
+        for (; i < sorted.length && sorted[i] + patternLength <= to; i++) {
+            sink.onMatch(sorted[i]);
+            if (sink.isDone()) return;
+        }
+    }
+
+    private synchronized int[] positionsFor(CharSequence text) {
+        if (locatedText != text) {
+            int[] located = locate.apply(text);
+            Arrays.sort(located);
+            positions = located;
+            locatedText = text;
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,71 @@
+package com.bio.algorithm;
+
+import com.bio.model.MatchResult;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SearchAlgorithm for IUPAC ambiguity-code patterns (see IupacSearch): Shift-And with k mismatches, and exact
+ * Horspool. Neither is an exact matcher for the planner, since N or R in the pattern is a set of bases here.
+ */
+public final class IupacAlgorithm implements SearchAlgorithm {
+
+    private final boolean horspool;
+
+    private IupacAlgorithm(boolean horspool) {
+        this.horspool = horspool;
+    }
+
+    public static IupacAlgorithm shiftAnd() {
+        return new IupacAlgorithm(false);
+    }
+
+    public static IupacAlgorithm horspool() {
+        return new IupacAlgorithm(true);
+    }
+
+    @Override
+    public String name() {
+        return horspool ? "iupac-horspool" : "iupac";
+    }
+
+    @Override
+    public String displayName() {
+        return horspool ? "IUPAC Horspool" : "IUPAC Shift-And";
+    }
+
+    @Override
+    public List<String> aliases() {
+        return horspool ? Collections.emptyList() : Arrays.asList("iupac-shiftand", "degenerate");
+    }
+
+    // Shift-And takes maxErrors as mismatches; Horspool is exact
+    @Override
+    public boolean approximate() {
+        return !horspool;
+    }
+
+    @Override
+    public boolean ambiguityCodes() {
+        return true;
+    }
+
+    @Override
+    public MatchResult search(CharSequence text, String pattern, int maxErrors) {
+        IupacSearch search = new IupacSearch();
+        return horspool ? search.compileHorspool(pattern).search(text) : search.search(text, pattern, maxErrors);
+    }
+
+    @Override
+    public Scanner prepare(String pattern, int maxErrors) {
+        IupacSearch search = new IupacSearch();
+        if (horspool) {
+            CompiledPattern compiled = search.compileHorspool(pattern);
+            return compiled::search;
+        }
+        IupacSearch.ShiftAnd compiled = search.compileShiftAnd(pattern);
+        return (text, from, to, sink) -> compiled.scan(text, from, to, maxErrors, sink);
+    }
+}
@@ -0,0 +1,269 @@
+package com.bio.algorithm;
+
+import com.bio.model.MatchResult;
+import com.bio.utils.IntList;
+import com.bio.utils.PackedGenome;
+
+/**
+ * IUPAC ambiguity-code matching for degenerate primers and motifs. Every symbol is a 4-bit mask of the bases it
+ * stands for (A=1, C=2, G=4, T=8; R = A|G, Y = C|T, ..., N = all four), and a pattern position matches a text
+ * base when the two masks share a bit, so GAYTCN finds GATTCA and GACTCG without being expanded.
+ *
+ * Pattern symbols: A C G T U and R Y S W K M B D H V N, in either case; anything else is rejected. Text symbols
+ * use the same masks except N, which like every non-IUPAC character ('-', '*', ...) is mask 0 and matches
+ * nothing: an unknown base never confirms a hit, and the N gaps of an assembly do not match everywhere.
+ *
+ * Two flavours share the masks. Shift-And runs ShiftAndSearch's bit-parallel scan over a table of ambiguity
+ * classes, with k mismatches and a cost independent of the pattern's content (exact patterns of up to 64
+ * bases keep a single state word). Horspool is exact; the shift of a text base is its distance from the end of
+ * the pattern to the last earlier position whose mask it intersects, so on four bases shifts stay short, and
+ * ambiguity codes near the end of the pattern shorten them further. On a PackedGenome both read the 2-bit
+ * codes directly and only its non-ACGT runs go through charAt.
+ */
+public class IupacSearch {
+
+    private static final int ALPHABET = 128;
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    private static final byte[] MASKS = new byte[ALPHABET];
+    private static final byte[] TEXT_MASKS = new byte[ALPHABET];
+
+    static {
+        String symbols = "ACGTURYSWKMBDHVN";
+        int[] masks = {1, 2, 4, 8, 8, 5, 10, 6, 9, 12, 3, 14, 13, 11, 7, 15};
+        for (int i = 0; i < symbols.length(); i++) {
+            char c = symbols.charAt(i);
+            MASKS[c] = (byte) masks[i];
+            MASKS[Character.toLowerCase(c)] = (byte) masks[i];
+        }
+        System.arraycopy(MASKS, 0, TEXT_MASKS, 0, ALPHABET);
+        TEXT_MASKS['N'] = 0;
+        TEXT_MASKS['n'] = 0;
+    }
+
+    /**
+     * @return the bases {@code c} stands for in a pattern (bit 0 A, 1 C, 2 G, 3 T), or 0 if it is not IUPAC
+     */
+    public static int mask(char c) {
+        return c < ALPHABET ? MASKS[c] : 0;
+    }
+
+    private static int textMask(char c) {
+        return c < ALPHABET ? TEXT_MASKS[c] : 0;
+    }
+
+    // Pattern masks; throws on a symbol that is not an IUPAC code
+    private static int[] patternMasks(String pattern) {
+        int[] masks = new int[pattern.length()];
+        for (int j = 0; j < masks.length; j++) {
+            masks[j] = mask(pattern.charAt(j));
+            if (masks[j] == 0) {
+                throw new IllegalArgumentException("'" + pattern.charAt(j) + "' is not an IUPAC nucleotide code.");
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Shift-And search of the whole text with at most maxMismatches non-matching positions.
+     */
+    public MatchResult search(CharSequence text, String pattern, int maxMismatches) {
+        IntList matches = new IntList();
+        IntList distances = new IntList();
+        int n = text.length();
+        int m = pattern.length();
+        ShiftAnd compiled = compileShiftAnd(pattern);
+        long startTime = System.nanoTime();
+
+        if (m <= n && maxMismatches >= 0) {
+            compiled.scan(text, 0, n, maxMismatches, (position, distance) -> {
+                matches.addInt(position);
+                distances.addInt(distance);
+            });
+        }
+
+        long executionTimeNs = System.nanoTime() - startTime;
+        MatchResult result = new MatchResult("IUPAC Shift-And Search (k=" + maxMismatches + ")", executionTimeNs, matches, n, m);
+        result.setMatchDistances(distances);
+        return result;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the pattern is empty or contains a symbol that is not an IUPAC code
+     */
+    public ShiftAnd compileShiftAnd(String pattern) {
+        return new ShiftAnd(pattern, patternMasks(pattern));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the pattern is empty or contains a symbol that is not an IUPAC code
+     */
+    public Horspool compileHorspool(String pattern) {
+        return new Horspool(pattern, patternMasks(pattern));
+    }
+
+    /**
+     * Shift-And over ambiguity classes: bit j of the table entry for text symbol c is set when c and pattern[j]
+     * share a base. Immutable once built.
+     */
+    public static final class ShiftAnd {
+        private final int m;
+        private final long[] masks;      // ShiftAndSearch.scan layout: masks[c * words + w]
+        private final long[] codeMasks;  // entries of A, C, G, T for patterns of one word
+
+        private ShiftAnd(String pattern, int[] patternMasks) {
+            this.m = pattern.length();
+            if (m == 0) throw new IllegalArgumentException("Pattern must not be empty.");
+            int words = (m + 63) >>> 6;
+            this.masks = new long[ALPHABET * words];
+            for (int c = 0; c < ALPHABET; c++) {
+                int t = TEXT_MASKS[c];
+                if (t == 0) continue;
+                for (int j = 0; j < m; j++) {
+                    if ((patternMasks[j] & t) != 0) masks[c * words + (j >>> 6)] |= 1L << (j & 63);
+                }
+            }
+            this.codeMasks = new long[BASES.length];
+            if (words == 1) {
+                for (int code = 0; code < BASES.length; code++) {
+                    codeMasks[code] = masks[BASES[code]];
+                }
+            }
+        }
+
+        /**
+         * Reports every start position in text[from, to) whose m-window has at most k positions without a
+         * common base, with the exact count. Positions are absolute.
+         */
+        public void scan(CharSequence text, int from, int to, int k, ApproximateMatchListener listener) {
+            if (k < 0) return;
+            if (k == 0 && m <= 64) {
+                if (text instanceof PackedGenome) scanPacked((PackedGenome) text, from, to, listener);
+                else scanChars(text, from, to, listener);
+            } else {
+                ShiftAndSearch.scan(text, from, to, masks, m, k, listener);
+            }
+        }
+
+        // Exact, one word: a single state register instead of ShiftAndSearch's k + 1 rows
+        private void scanChars(CharSequence text, int from, int to, ApproximateMatchListener listener) {
+            long r = 0;
+            long hit = 1L << (m - 1);
+            for (int i = from; i < to; i++) {
+                char c = text.charAt(i);
+                r = ((r << 1) | 1) & (c < ALPHABET ? masks[c] : 0);
+                if ((r & hit) != 0) {
+                    listener.onMatch(i - m + 1, 0);
+                    if (listener.isDone()) return;
+                }
+            }
+        }
+
+        // Exact, one word: 32 codes per readBases over ACGT stretches, charAt over the non-ACGT runs
+        private void scanPacked(PackedGenome genome, int from, int to, ApproximateMatchListener listener) {
+            long r = 0;
+            long hit = 1L << (m - 1);
+            int i = from;
+            while (i < to) {
+                int exception = Math.min(genome.nextException(i), to);
+                while (i < exception) {
+                    long bases = genome.readBases(i);
+                    int end = Math.min(exception, i + PackedGenome.BASES_PER_WORD);
+                    for (; i < end; i++, bases >>>= 2) {
+                        r = ((r << 1) | 1) & codeMasks[(int) bases & 3];
+                        if ((r & hit) != 0) {
+                            listener.onMatch(i - m + 1, 0);
+                            if (listener.isDone()) return;
+                        }
+                    }
+                }
+                int runEnd = Math.min(genome.nextBase(i), to);
+                for (; i < runEnd; i++) {
+                    char c = genome.charAt(i);
+                    r = ((r << 1) | 1) & (c < ALPHABET ? masks[c] : 0);
+                    if ((r & hit) != 0) {
+                        listener.onMatch(i - m + 1, 0);
+                        if (listener.isDone()) return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Exact Horspool over ambiguity classes. The shift table is indexed by the text base's mask (16 entries),
+     * so packed codes (mask 1 << code) and characters share it. Immutable once built.
+     */
+    public static final class Horspool implements CompiledPattern {
+        private final String pattern;
+        private final int m;
+        private final int[] masks;
+        private final int[] shifts = new int[16];
+
+        private Horspool(String pattern, int[] masks) {
+            this.pattern = pattern;
+            this.m = pattern.length();
+            if (m == 0) throw new IllegalArgumentException("Pattern must not be empty.");
+            this.masks = masks;
+            for (int t = 0; t < shifts.length; t++) {
+                shifts[t] = m;
+                for (int j = 0; j < m - 1; j++) {
+                    if ((masks[j] & t) != 0) shifts[t] = m - 1 - j;
+                }
+            }
+        }
+
+        @Override
+        public String algorithm() {
+            return "iupac-horspool";
+        }
+
+        @Override
+        public String pattern() {
+            return pattern;
+        }
+
+        @Override
+        public MatchResult search(CharSequence text, int from, int to) {
+            IntList matches = new IntList();
+            long startTime = System.nanoTime();
+            search(text, from, to, matches::addInt);
+            long executionTimeNs = System.nanoTime() - startTime;
+            return new MatchResult("IUPAC Horspool Search", executionTimeNs, matches, to - from, m);
+        }
+
+        @Override
+        public void search(CharSequence text, int from, int to, MatchSink sink) {
+            if (text instanceof PackedGenome) {
+                searchPacked((PackedGenome) text, from, to, sink);
+                return;
+            }
+            for (int s = from; s <= to - m; ) {
+                int j = m - 1;
+                while (j >= 0 && (masks[j] & textMask(text.charAt(s + j))) != 0) j--;
+                if (j < 0) {
+                    sink.onMatch(s);
+                    if (sink.isDone()) return;
+                }
+                s += shifts[textMask(text.charAt(s + m - 1))];
+            }
+        }
+
+        // Windows free of non-ACGT runs compare 2-bit codes; the others fall back to charAt
+        private void searchPacked(PackedGenome genome, int from, int to, MatchSink sink) {
+            int exception = genome.nextException(from);
+            for (int s = from; s <= to - m; ) {
+                if (s > exception) exception = genome.nextException(s);
+                boolean codes = s + m <= exception;
+                int j = m - 1;
+                while (j >= 0 && (masks[j] & (codes ? 1 << genome.codeAt(s + j) : textMask(genome.charAt(s + j)))) != 0) j--;
+                if (j < 0) {
+                    sink.onMatch(s);
+                    if (sink.isDone()) return;
+                }
+                int last = s + m - 1;
+                s += shifts[codes ? 1 << genome.codeAt(last) : textMask(genome.charAt(last))];
+            }
+        }
+    }
+}
@@ -1,23 +1,24 @@
 package com.bio.algorithm;
 
-import java.util.ArrayList;
-import java.util.List;
 import com.bio.model.MatchResult;
+import com.bio.utils.IntList;
 
 public class KMPSearch {
-    public MatchResult search(String text, String pattern) {
-        List<Integer> matches = new ArrayList<>();
-        int n = text.length();
-        int m = pattern.length();
-        long startTime = System.nanoTime();
+    public MatchResult search(CharSequence text, String pattern) {
+        return compile(pattern).search(text);
+    }
 
-        if (m == 0) return new MatchResult("KMP", 0, matches, n, m);
+    // Range form: searches text[from, to) without copying it; positions are absolute
+    public MatchResult search(CharSequence text, int from, int to, String pattern) {
+        return compile(pattern).search(text, from, to);
+    }
 
-        // Compute LPS array
+    // Compute the LPS array once; the result can be reused for any number of texts
+    public Compiled compile(String pattern) {
+        int m = pattern.length();
         int[] lps = new int[m];
         int len = 0;
         int i = 1;
-        lps[0] = 0;
         while (i < m) {
             if (pattern.charAt(i) == pattern.charAt(len)) {
                 len++;
@@ -32,27 +33,115 @@ public class KMPSearch {
                 }
             }
         }
+        return new Compiled(pattern, lps);
+    }
 
-        // Search
-        int j = 0; // index for pattern
-        i = 0; // index for text
-        while (i < n) {
-            if (pattern.charAt(j) == text.charAt(i)) {
-                j++;
-                i++;
+    public static final class Compiled implements CompiledPattern {
+        private final String pattern;
+        private final int[] lps;
+
+        private Compiled(String pattern, int[] lps) {
+            this.pattern = pattern;
+            this.lps = lps;
+        }
+
+        @Override
+        public String algorithm() {
+            return "kmp";
+        }
+
+        @Override
+        public String pattern() {
+            return pattern;
+        }
+
+        @Override
+        public MatchResult search(CharSequence text, int from, int to) {
+            IntList matches = new IntList();
+            int m = pattern.length();
+            if (m == 0) return new MatchResult("KMP", 0, matches, to - from, m);
+
+            long startTime = System.nanoTime();
+            search(text, from, to, matches::addInt);
+            long executionTimeNs = System.nanoTime() - startTime;
+            return new MatchResult("KMP Search", executionTimeNs, matches, to - from, m);
+        }
+
+        @Override
+        public void search(CharSequence text, int from, int to, MatchSink sink) {
+            search(text, from, to, 0, sink);
+        }
+
+        // The matched prefix length is all the state KMP has, so windows of a text need no overlap
+        @Override
+        public SearchAlgorithm.StreamScanner stream() {
+            int[] matched = new int[1];
+            return (window, from, to, sink) -> matched[0] = search(window, from, to, matched[0], sink);
+        }
+
+        // Both strands in one pass: every text character advances this automaton and the reverse complement's
+        @Override
+        public SearchAlgorithm.Scanner bothStrands(CompiledPattern reverse) {
+            if (!(reverse instanceof Compiled) || pattern.isEmpty()) return null;
+            Compiled other = (Compiled) reverse;
+            return (text, from, to, sink) -> searchBoth(other, text, from, to, sink);
+        }
+
+        private void searchBoth(Compiled reverse, CharSequence text, int from, int to, SearchSink sink) {
+            int m = pattern.length();
+            String reversePattern = reverse.pattern;
+            int[] reverseLps = reverse.lps;
+            int j = 0; // matched prefix of the pattern
+            int r = 0; // matched prefix of its reverse complement
+            for (int i = from; i < to; i++) {
+                char c = text.charAt(i);
+                while (j > 0 && pattern.charAt(j) != c) j = lps[j - 1];
+                if (pattern.charAt(j) == c) j++;
+                while (r > 0 && reversePattern.charAt(r) != c) r = reverseLps[r - 1];
+                if (reversePattern.charAt(r) == c) r++;
+
+                if (j == m) {
+                    j = lps[m - 1];
+                    sink.onMatch(i - m + 1);
+                    if (sink.isDone()) return;
+                }
+                if (r == m) {
+                    r = reverseLps[m - 1];
+                    sink.onReverseMatch(i - m + 1);
+                    if (sink.isDone()) return;
+                }
             }
-            if (j == m) {
-                matches.add(i - j);
-                j = lps[j - 1];
-            } else if (i < n && pattern.charAt(j) != text.charAt(i)) {
-                if (j != 0)
-                    j = lps[j - 1];
-                else
+        }
+
+        /**
+         * Scans text[from, to) starting with {@code j} pattern characters already matched before {@code from}.
+         *
+         * @return the matched prefix length at the end of the range
+         */
+        private int search(CharSequence text, int from, int to, int j, MatchSink sink) {
+            int n = to;
+            int m = pattern.length();
+            if (m == 0) return 0;
+
+            // Search (j: index for pattern)
+            int i = from; // index for text
+            while (i < n) {
+                if (pattern.charAt(j) == text.charAt(i)) {
+                    j++;
                     i++;
+                }
+                if (j == m) {
+                    sink.onMatch(i - j);
+                    j = lps[j - 1];
+                    if (sink.isDone()) return j;
+                } else if (i < n && pattern.charAt(j) != text.charAt(i)) {
+                    if (j != 0)
+                        j = lps[j - 1];
+                    else
+                        i++;
+                }
             }
+            return j;
         }
-
-        long executionTimeNs = System.nanoTime() - startTime;
-        return new MatchResult("KMP Search", executionTimeNs, matches, n, m);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,238 @@
+package com.bio.algorithm;
+
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import com.bio.model.ResultMode;
+import com.bio.utils.IntList;
+import com.bio.utils.LongList;
+
+import java.util.Arrays;
+
+/**
+ * Sink that applies a ResultMode while a scan runs: it counts every hit but stores only the positions the mode
+ * asks for, and reports isDone() once no later hit can change the answer, which ends the scan early.
+ * Hits must arrive in ascending text order.
+ *
+ * A collector made with {@link #windowed} stores 64-bit positions instead: each hit is added to the current
+ * {@link #setBase base}, the offset of the window being scanned (see WindowedSearchService).
+ *
+ * Collectors of both-strand searches ({@link #withStrands}) also record the strand of every stored hit.
+ */
+public final class MatchCollector implements SearchSink {
+
+    private final ResultMode mode;
+    private final long skip;        // hits counted but not stored (PAGE offset)
+    private final int limit;        // positions stored after the skipped ones
+    private final long stopAfter;   // hit count after which the scan can stop; Long.MAX_VALUE = never
+
+    private final IntList positions = new IntList();
+    private final IntList distances = new IntList();
+    private long count;
+
+    private final LongList offsets;     // windowed collectors: base + position, instead of positions
+    private long base;
+
+    private IntList strands;            // both-strand searches: 0 forward, 1 reverse, parallel to the stored hits
+
+    public MatchCollector(ResultMode mode, int offset, int limit) {
+        this(mode, offset, limit, false);
+    }
+
+    private MatchCollector(ResultMode mode, int offset, int limit, boolean windowed) {
+        this.offsets = windowed ? new LongList() : null;
+        this.mode = mode != null ? mode : ResultMode.ALL;
+        switch (this.mode) {
+            case COUNT:
+                this.skip = 0;
+                this.limit = 0;
+                break;
+            case EXISTS:
+                this.skip = 0;
+                this.limit = 1;
+                break;
+            case FIRST_K:
+                this.skip = 0;
+                this.limit = Math.max(0, limit);
+                break;
+            case PAGE:
+                this.skip = Math.max(0, offset);
+                this.limit = Math.max(0, limit);
+                break;
+            case ALL:
+            default:
+                this.skip = 0;
+                this.limit = Integer.MAX_VALUE;
+                break;
+        }
+        boolean bounded = this.mode == ResultMode.EXISTS || this.mode == ResultMode.FIRST_K || this.mode == ResultMode.PAGE;
+        this.stopAfter = bounded ? skip + this.limit : Long.MAX_VALUE;
+    }
+
+    public static MatchCollector of(MatchRequest request) {
+        return new MatchCollector(request.getResultMode(), request.getOffset(), request.getLimit())
+                .withStrands(request.isBothStrands());
+    }
+
+    public static MatchCollector windowed(MatchRequest request) {
+        return new MatchCollector(request.getResultMode(), request.getOffset(), request.getLimit(), true)
+                .withStrands(request.isBothStrands());
+    }
+
+    /**
+     * Records the strand of every stored hit if {@code enabled} (see SearchSink.onReverseMatch).
+     */
+    public MatchCollector withStrands(boolean enabled) {
+        if (enabled && strands == null) strands = new IntList();
+        return this;
+    }
+
+    /**
+     * Sets the offset added to the positions that follow (windowed collectors only).
+     */
+    public void setBase(long base) {
+        this.base = base;
+    }
+
+    @Override
+    public void onMatch(int position) {
+        if (count++ >= skip && stored() < limit) {
+            store(position, 0);
+        }
+    }
+
+    @Override
+    public void onMatch(int position, int distance) {
+        if (count++ >= skip && stored() < limit) {
+            store(position, 0);
+            distances.addInt(distance);
+        }
+    }
+
+    @Override
+    public void onReverseMatch(int position) {
+        if (count++ >= skip && stored() < limit) {
+            store(position, 1);
+        }
+    }
+
+    @Override
+    public void onReverseMatch(int position, int distance) {
+        if (count++ >= skip && stored() < limit) {
+            store(position, 1);
+            distances.addInt(distance);
+        }
+    }
+
+    private int stored() {
+        return offsets != null ? offsets.size() : positions.size();
+    }
+
+    private void store(int position, int strand) {
+        if (offsets != null) offsets.addLong(base + position);
+        else positions.addInt(position);
+        if (strands != null) strands.addInt(strand);
+    }
+
+    @Override
+    public boolean isDone() {
+        return count >= stopAfter;
+    }
+
+    /**
+     * Adds hits that were counted without being located (e.g. an index count query). COUNT mode only.
+     */
+    public void addCount(long hits) {
+        count += hits;
+    }
+
+    /**
+     * Feeds already located positions (any order) until the collector is done.
+     */
+    public void addAll(int[] located) {
+        int[] sorted = located.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length && !isDone(); i++) {
+            onMatch(sorted[i]);
+        }
+    }
+
+    /**
+     * Feeds ascending positions (and matching distances, or null) until the collector is done.
+     */
+    public void addAll(IntList located, IntList locatedDistances) {
+        addAll(located, locatedDistances, null);
+    }
+
+    /**
+     * Same as addAll(located, locatedDistances), with the strand of each hit (0 forward, 1 reverse), or null
+     * if all are forward.
+     */
+    public void addAll(IntList located, IntList locatedDistances, IntList locatedStrands) {
+        for (int i = 0; i < located.size() && !isDone(); i++) {
+            boolean reverse = locatedStrands != null && locatedStrands.getInt(i) != 0;
+            if (locatedDistances != null) {
+                if (reverse) onReverseMatch(located.getInt(i), locatedDistances.getInt(i));
+                else onMatch(located.getInt(i), locatedDistances.getInt(i));
+            } else {
+                if (reverse) onReverseMatch(located.getInt(i));
+                else onMatch(located.getInt(i));
+            }
+        }
+    }
+
+    public ResultMode mode() {
+        return mode;
+    }
+
+    /**
+     * @return the hit count after which nothing more is needed (Long.MAX_VALUE for ALL and COUNT)
+     */
+    public long stopAfter() {
+        return stopAfter;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public IntList positions() {
+        return positions;
+    }
+
+    public LongList offsets() {
+        return offsets;
+    }
+
+    public IntList distances() {
+        return distances;
+    }
+
+    /**
+     * @return the strand of each stored hit (0 forward, 1 reverse), or null if strands are not recorded
+     */
+    public IntList strands() {
+        return strands;
+    }
+
+    /**
+     * Builds the result: matchIndices holds the stored positions, matchCount the hits seen. When the scan stopped
+     * early (truncated), matchCount is a lower bound on the total. Windowed collectors fill matchOffsets instead,
+     * and both-strand collectors add matchStrands.
+     */
+    public MatchResult toResult(String algorithm, long executionTimeNs, long textLength, int patternLength) {
+        MatchResult result = new MatchResult(algorithm + " [" + mode + "]", executionTimeNs, positions, 0, patternLength);
+        result.setTextLength(textLength);
+        if (offsets != null) {
+            result.setMatchOffsets(offsets);
+        }
+        if (!distances.isEmpty()) {
+            result.setMatchDistances(distances);
+        }
+        if (strands != null) {
+            result.setMatchStrands(BothStrands.strands(strands));
+        }
+        result.setMatchCount(count);
+        result.setTruncated(isDone());
+        return result;
+    }
+}
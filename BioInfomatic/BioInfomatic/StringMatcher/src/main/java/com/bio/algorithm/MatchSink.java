@@ -0,0 +1,17 @@
+package com.bio.algorithm;
+
+/**
+ * Receives exact-match start positions (absolute, ascending) as a scan finds them, so callers can count,
+ * filter or buffer hits without a List being built first.
+ */
+@FunctionalInterface
+public interface MatchSink {
+    void onMatch(int position);
+
+    /**
+     * Checked by the scan after each hit: returning true ends the scan early (e.g. EXISTS, FIRST_K).
+     */
+    default boolean isDone() {
+        return false;
+    }
+}
@@ -0,0 +1,94 @@
+package com.bio.algorithm;
+
+import java.util.Arrays;
+import com.bio.model.MatchResult;
+import com.bio.utils.IntList;
+
+/**
+ * Myers' bit-vector algorithm (1999) for approximate search under edit distance, in the block-based form
+ * of Hyyrö: one 64-bit word per pattern block, with horizontal deltas carried between blocks so patterns of
+ * any length are supported.
+ *
+ * The search is semi-global (the match may start anywhere in the text) and reports END positions: index i is
+ * reported with distance d when some substring ending at i aligns to the whole pattern with d <= k edits.
+ */
+public class MyersSearch {
+
+    private static final int ALPHABET = 128;
+
+    public MatchResult search(CharSequence text, String pattern, int maxEdits) {
+        IntList matches = new IntList();
+        IntList distances = new IntList();
+        int n = text.length();
+        int m = pattern.length();
+        long startTime = System.nanoTime();
+
+        if (m == 0 || maxEdits < 0) return new MatchResult("Myers (Edit Distance)", 0, matches, n, m);
+
+        search(text, 0, n, pattern, maxEdits, (position, distance) -> {
+            matches.addInt(position);
+            distances.addInt(distance);
+        });
+
+        long executionTimeNs = System.nanoTime() - startTime;
+        MatchResult result = new MatchResult("Myers Edit Distance Search (k=" + maxEdits + ", end positions)", executionTimeNs, matches, n, m);
+        result.setMatchDistances(distances);
+        return result;
+    }
+
+    /**
+     * Scans text[from, to) and reports every end position with edit distance <= k. Positions are absolute.
+     * Alignments are only allowed to start at or after {@code from}.
+     */
+    public void search(CharSequence text, int from, int to, String pattern, int k, ApproximateMatchListener listener) {
+        int m = pattern.length();
+        if (m == 0 || k < 0) return;
+        int blocks = (m + 63) >>> 6;
+
+        long[] peq = new long[ALPHABET * blocks];
+        for (int j = 0; j < m; j++) {
+            char c = pattern.charAt(j);
+            if (c < ALPHABET) peq[c * blocks + (j >>> 6)] |= 1L << (j & 63);
+        }
+
+        long[] pv = new long[blocks];
+        long[] mv = new long[blocks];
+        Arrays.fill(pv, -1L);
+        long lastHigh = 1L << ((m - 1) & 63);
+        int score = m;
+
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            int base = c < ALPHABET ? c * blocks : -1;
+
+            int hin = 0; // semi-global: the top row is all zeros
+            for (int b = 0; b < blocks; b++) {
+                long eq = base < 0 ? 0 : peq[base + b];
+                long pvb = pv[b], mvb = mv[b];
+                long xv = eq | mvb;
+                if (hin < 0) eq |= 1L;
+                long xh = (((eq & pvb) + pvb) ^ pvb) | eq;
+                long ph = mvb | ~(xh | pvb);
+                long mh = pvb & xh;
+
+                long high = (b == blocks - 1) ? lastHigh : Long.MIN_VALUE;
+                int hout = (ph & high) != 0 ? 1 : ((mh & high) != 0 ? -1 : 0);
+
+                ph <<= 1;
+                mh <<= 1;
+                if (hin < 0) mh |= 1L;
+                else if (hin > 0) ph |= 1L;
+
+                pv[b] = mh | ~(xv | ph);
+                mv[b] = ph & xv;
+                hin = hout;
+            }
+            score += hin;
+
+            if (score <= k) {
+                listener.onMatch(i, score);
+                if (listener.isDone()) return;
+            }
+        }
+    }
+}
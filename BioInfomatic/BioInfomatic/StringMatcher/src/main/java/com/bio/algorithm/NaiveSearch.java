@@ -4,41 +4,124 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.bio.model.MatchResult;
+import com.bio.utils.IntList;
+import com.bio.utils.MappedGenome;
+import com.bio.utils.PackedGenome;
+
+import java.nio.charset.StandardCharsets;
 
 public class NaiveSearch {
 
     // Basic Naive String Search (no comparison counter)
-    public MatchResult search(String text, String pattern) {
-        List<Integer> matchIndices = new ArrayList<>();
-        int N = text.length();
-        int M = pattern.length();
-        long startTime = System.nanoTime();
+    public MatchResult search(CharSequence text, String pattern) {
+        return compile(pattern).search(text);
+    }
 
-        // Outer loop over the text
-        for (int i = 0; i <= N - M; i++) {
-            int j;
+    // Range form: searches text[from, to) without copying it; positions are absolute
+    public MatchResult search(CharSequence text, int from, int to, String pattern) {
+        return compile(pattern).search(text, from, to);
+    }
 
-            // Inner loop over the pattern
-            for (j = 0; j < M; j++) {
-                if (text.charAt(i + j) != pattern.charAt(j)) {
-                    break; // Mismatch found
-                }
+    // Pack the pattern into a 2-bit word and Latin-1 bytes once, for the packed and mapped fast paths
+    public Compiled compile(String pattern) {
+        long packedPattern = PackedGenome.packPattern(pattern);
+        byte[] patternBytes = !pattern.isEmpty() && pattern.chars().allMatch(c -> c < 256)
+                ? pattern.getBytes(StandardCharsets.ISO_8859_1) : null;
+        return new Compiled(pattern, packedPattern, patternBytes);
+    }
+
+    public static final class Compiled implements CompiledPattern {
+        private final String pattern;
+        private final long packedPattern; // -1 if the pattern cannot be packed
+        private final byte[] patternBytes; // null if the pattern is empty or not Latin-1
+
+        private Compiled(String pattern, long packedPattern, byte[] patternBytes) {
+            this.pattern = pattern;
+            this.packedPattern = packedPattern;
+            this.patternBytes = patternBytes;
+        }
+
+        @Override
+        public String algorithm() {
+            return "naive";
+        }
+
+        @Override
+        public String pattern() {
+            return pattern;
+        }
+
+        @Override
+        public MatchResult search(CharSequence text, int from, int to) {
+            IntList matchIndices = new IntList();
+            long startTime = System.nanoTime();
+            search(text, from, to, matchIndices::addInt);
+            long executionTimeNs = System.nanoTime() - startTime;
+            return new MatchResult("Naive Search", executionTimeNs, matchIndices, to - from, pattern.length());
+        }
+
+        @Override
+        public void search(CharSequence text, int from, int to, MatchSink sink) {
+            int N = to;
+            int M = pattern.length();
+
+            // Packed genome: compare up to 31 bases per step with one word read instead of M charAt calls
+            if (text instanceof PackedGenome && packedPattern != -1) {
+                searchPacked((PackedGenome) text, from, to, packedPattern, M, sink);
+                return;
             }
 
-            // If pattern[0...M-1] matched
-            if (j == M) {
-                matchIndices.add(i); // Pattern found at index i
+            // Memory-mapped genome: compare raw bytes straight from the mapped buffer (no char decoding),
+            // a vector of positions at a time where the JVM allows it (see SimdScan)
+            if (text instanceof MappedGenome && patternBytes != null) {
+                SimdScan.scan(((MappedGenome) text).buffer(), from, to, patternBytes, sink);
+                return;
+            }
+
+            // Outer loop over the text
+            for (int i = from; i <= N - M; i++) {
+                int j;
+
+                // Inner loop over the pattern
+                for (j = 0; j < M; j++) {
+                    if (text.charAt(i + j) != pattern.charAt(j)) {
+                        break; // Mismatch found
+                    }
+                }
+
+                // If pattern[0...M-1] matched
+                if (j == M) {
+                    sink.onMatch(i); // Pattern found at index i
+                    if (sink.isDone()) return;
+                }
             }
         }
+    }
 
-        long endTime = System.nanoTime();
-        long executionTimeNs = endTime - startTime;
+    // Word-at-a-time scan over a 2-bit packed genome (pattern must be pure ACGT, see PackedGenome.packPattern)
+    private static void searchPacked(PackedGenome genome, int from, int to, long packedPattern, int M, MatchSink sink) {
+        int N = to;
+        long mask = PackedGenome.baseMask(M);
+        int nextException = genome.nextException(from);
 
-        return new MatchResult("Naive Search", executionTimeNs, matchIndices, N, M);
+        for (int i = from; i <= N - M; i++) {
+            if (nextException < i) {
+                nextException = genome.nextException(i);
+            }
+            // A window touching an N (or any other exception) can never match an ACGT-only pattern
+            if (nextException < i + M) {
+                i = genome.nextBase(nextException) - 1; // resume right after the exception run
+                continue;
+            }
+            if ((genome.readBases(i) & mask) == packedPattern) {
+                sink.onMatch(i);
+                if (sink.isDone()) return;
+            }
+        }
     }
 
     // Improved Naive Search (tracks comparisons for analysis)
-    public MatchResult ImproviseSearch(String text, String pattern) {
+    public MatchResult ImproviseSearch(CharSequence text, String pattern) {
         List<Integer> matchIndices = new ArrayList<>();
         int N = text.length();
         int M = pattern.length();
@@ -27,4 +27,20 @@ public class NativeJavaSearch {
 
      return new MatchResult("Native Java indexOf()", executionTimeNs, matchIndices, text.length(), pattern.length());
  }
+
+ // Range form: indexOf from 'from', stopping once a match would cross 'to'; positions are absolute
+ public MatchResult search(String text, int from, int to, String pattern) {
+     List<Integer> matchIndices = new ArrayList<>();
+     int m = pattern.length();
+     long startTime = System.nanoTime();
+
+     int index = text.indexOf(pattern, from);
+     while (index != -1 && index + m <= to) {
+         matchIndices.add(index);
+         index = text.indexOf(pattern, index + 1);
+     }
+
+     long executionTimeNs = System.nanoTime() - startTime;
+     return new MatchResult("Native Java indexOf()", executionTimeNs, matchIndices, to - from, m);
+ }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.bio.algorithm;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Forwards only the hits a chunk owns, [ownedFrom, ownedTo), so overlapping chunks never report the same hit
+ * twice. The scan also ends once the delegate is done or {@code cancelled} turns true.
+ */
+public final class OwnedRangeSink implements SearchSink {
+
+    private final SearchSink delegate;
+    private final int ownedFrom;
+    private final int ownedTo;
+    private final BooleanSupplier cancelled;
+
+    public OwnedRangeSink(SearchSink delegate, int ownedFrom, int ownedTo, BooleanSupplier cancelled) {
+        this.delegate = delegate;
+        this.ownedFrom = ownedFrom;
+        this.ownedTo = ownedTo;
+        this.cancelled = cancelled;
+    }
+
+    public OwnedRangeSink(SearchSink delegate, int ownedFrom, int ownedTo) {
+        this(delegate, ownedFrom, ownedTo, () -> false);
+    }
+
+    /**
+     * Owned hit range of a chunk that owns text[from, ownedEnd). Start positions are owned as-is; end positions
+     * (see SearchAlgorithm.reportsEndPositions) are only exact after {@code context} = m - 1 + k characters, so
+     * the range moves right by that much (except at the start of the text).
+     */
+    public static int ownedFrom(int from, boolean endPositions, int context) {
+        return endPositions && from > 0 ? from + context : from;
+    }
+
+    public static int ownedTo(int ownedEnd, boolean endPositions, int context) {
+        return endPositions ? ownedEnd + context : ownedEnd;
+    }
+
+    @Override
+    public void onMatch(int position) {
+        if (position >= ownedFrom && position < ownedTo) delegate.onMatch(position);
+    }
+
+    @Override
+    public void onMatch(int position, int distance) {
+        if (position >= ownedFrom && position < ownedTo) delegate.onMatch(position, distance);
+    }
+
+    @Override
+    public void onReverseMatch(int position) {
+        if (position >= ownedFrom && position < ownedTo) delegate.onReverseMatch(position);
+    }
+
+    @Override
+    public void onReverseMatch(int position, int distance) {
+        if (position >= ownedFrom && position < ownedTo) delegate.onReverseMatch(position, distance);
+    }
+
+    @Override
+    public boolean isDone() {
+        return delegate.isDone() || cancelled.getAsBoolean();
+    }
+
+    public int ownedFrom() {
+        return ownedFrom;
+    }
+
+    public int ownedTo() {
+        return ownedTo;
+    }
+}
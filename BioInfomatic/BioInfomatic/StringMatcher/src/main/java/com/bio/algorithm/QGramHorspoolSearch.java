@@ -0,0 +1,193 @@
+package com.bio.algorithm;
+
+import java.util.Arrays;
+import com.bio.model.MatchResult;
+import com.bio.utils.IntList;
+
+/**
+ * Horspool over q-grams of 2-4 bases. On a 4-letter alphabet a single-char bad-character rule almost always
+ * finds the char near the end of the pattern and shifts by 1-3; a q-gram (4^q possible values) is far more
+ * selective, so typical shifts approach m - q + 1.
+ *
+ * Patterns that are shorter than q or contain non-ACGT symbols fall back to the full BoyerMooreSearch.
+ */
+public class QGramHorspoolSearch {
+
+    private static final byte[] CODES = new byte[128];
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        CODES['A'] = 0;
+        CODES['C'] = 1;
+        CODES['G'] = 2;
+        CODES['T'] = 3;
+    }
+
+    private final int q; // 0 = choose from the pattern length
+
+    public QGramHorspoolSearch() {
+        this(0);
+    }
+
+    public QGramHorspoolSearch(int q) {
+        if (q != 0 && (q < 2 || q > 4)) {
+            throw new IllegalArgumentException("q must be between 2 and 4.");
+        }
+        this.q = q;
+    }
+
+    // Longer patterns can afford longer q-grams (fewer false hits) and still shift far
+    static int defaultQ(int m) {
+        return m >= 16 ? 4 : (m >= 6 ? 3 : 2);
+    }
+
+    public MatchResult search(CharSequence text, String pattern) {
+        return compile(pattern).search(text);
+    }
+
+    // Range form: searches text[from, to) without copying it; positions are absolute
+    public MatchResult search(CharSequence text, int from, int to, String pattern) {
+        return compile(pattern).search(text, from, to);
+    }
+
+    /**
+     * Builds the q-gram shift table once. Patterns shorter than q or with non-ACGT symbols compile to
+     * the Boyer-Moore fallback.
+     */
+    public CompiledPattern compile(String pattern) {
+        int m = pattern.length();
+        int qLen = q != 0 ? q : defaultQ(m);
+        if (m < qLen || !isAcgt(pattern)) {
+            return new Fallback(new BoyerMooreSearch().compile(pattern));
+        }
+
+        // shift[g] = distance from the last occurrence of q-gram g (ending before m - 1) to the pattern end
+        int[] shift = new int[1 << (2 * qLen)];
+        Arrays.fill(shift, m - qLen + 1);
+        for (int end = qLen - 1; end < m - 1; end++) {
+            shift[hash(pattern, end - qLen + 1, qLen)] = m - 1 - end;
+        }
+        return new Compiled(pattern, qLen, hash(pattern, m - qLen, qLen), shift);
+    }
+
+    public static final class Compiled implements CompiledPattern {
+        private final String pattern;
+        private final int q;
+        private final int patternHash;
+        private final int[] shift;
+
+        private Compiled(String pattern, int q, int patternHash, int[] shift) {
+            this.pattern = pattern;
+            this.q = q;
+            this.patternHash = patternHash;
+            this.shift = shift;
+        }
+
+        @Override
+        public String algorithm() {
+            return "qgram";
+        }
+
+        @Override
+        public String pattern() {
+            return pattern;
+        }
+
+        @Override
+        public MatchResult search(CharSequence text, int from, int to) {
+            IntList matches = new IntList();
+            long startTime = System.nanoTime();
+            long comparisons = scan(text, from, to, matches::addInt);
+            long executionTimeNs = System.nanoTime() - startTime;
+            return new MatchResult("Boyer-Moore q-gram Search (q=" + q + ")", executionTimeNs, matches, to - from, pattern.length(), comparisons);
+        }
+
+        @Override
+        public void search(CharSequence text, int from, int to, MatchSink sink) {
+            scan(text, from, to, sink);
+        }
+
+        // @return the number of character comparisons
+        private long scan(CharSequence text, int from, int to, MatchSink sink) {
+            int n = to;
+            int m = pattern.length();
+            int maxShift = m - q + 1;
+
+            long comparisons = 0;
+            int s = from;
+            while (s <= n - m) {
+                int g = hash(text, s + m - q, q);
+                if (g < 0) {
+                    // The window's last q-gram holds a non-ACGT symbol, so it occurs nowhere in the pattern
+                    s += maxShift;
+                    continue;
+                }
+                if (g == patternHash) {
+                    int j = m - q - 1;
+                    while (j >= 0) {
+                        comparisons++;
+                        if (pattern.charAt(j) != text.charAt(s + j)) break;
+                        j--;
+                    }
+                    if (j < 0) {
+                        sink.onMatch(s);
+                        if (sink.isDone()) break;
+                    }
+                }
+                s += shift[g];
+            }
+            return comparisons;
+        }
+    }
+
+    private static final class Fallback implements CompiledPattern {
+        private final BoyerMooreSearch.Compiled delegate;
+
+        private Fallback(BoyerMooreSearch.Compiled delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String algorithm() {
+            return "qgram";
+        }
+
+        @Override
+        public String pattern() {
+            return delegate.pattern();
+        }
+
+        @Override
+        public MatchResult search(CharSequence text, int from, int to) {
+            MatchResult result = delegate.search(text, from, to);
+            result.setAlgorithm("Boyer-Moore Search (q-gram fallback)");
+            return result;
+        }
+
+        @Override
+        public void search(CharSequence text, int from, int to, MatchSink sink) {
+            delegate.search(text, from, to, sink);
+        }
+    }
+
+    private static boolean isAcgt(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 128 || CODES[c] < 0) return false;
+        }
+        return true;
+    }
+
+    // 2-bit code of s[from, from + q), or -1 if it contains a non-ACGT symbol
+    private static int hash(CharSequence s, int from, int q) {
+        if (from < 0) return -1;
+        int h = 0;
+        for (int i = 0; i < q; i++) {
+            char c = s.charAt(from + i);
+            int code = c < 128 ? CODES[c] : -1;
+            if (code < 0) return -1;
+            h = (h << 2) | code;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,157 @@
+package com.bio.algorithm;
+
+import com.bio.model.MatchResult;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A search algorithm the services can run without knowing which one it is. Implementations are registered as
+ * beans (see SearchAlgorithmConfig) and looked up by name through SearchAlgorithmRegistry; the "auto" planner
+ * chooses among them using the capability methods below.
+ */
+public interface SearchAlgorithm {
+
+    /**
+     * Canonical registry name, e.g. "kmp".
+     */
+    String name();
+
+    /**
+     * Name used in result labels, e.g. "Suffix Array Search".
+     */
+    default String displayName() {
+        return name();
+    }
+
+    /**
+     * Other names accepted in requests (e.g. "boyermoore" for "bm").
+     */
+    default List<String> aliases() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * True for searches with maxErrors mismatches/edits; false for exact matching.
+     */
+    default boolean approximate() {
+        return false;
+    }
+
+    /**
+     * True if IUPAC codes in the pattern stand for sets of bases (R = A or G, N = any base) rather than for
+     * themselves. The planner never picks such an algorithm for a request that did not ask for it.
+     */
+    default boolean ambiguityCodes() {
+        return false;
+    }
+
+    /**
+     * True if hits are match END positions (edit distance), false for start positions. A scan of
+     * text[from, to) then needs m - 1 + k characters of left context before its hits are exact.
+     */
+    default boolean reportsEndPositions() {
+        return false;
+    }
+
+    /**
+     * True if queries are answered from a whole-genome index rather than by scanning the text.
+     */
+    default boolean indexed() {
+        return false;
+    }
+
+    /**
+     * @return true if the index for {@code text} is already built, so a query costs no construction
+     */
+    default boolean indexReady(CharSequence text) {
+        return false;
+    }
+
+    /**
+     * Builds the index for {@code text} on the calling thread if it is not built yet; nothing for scans.
+     */
+    default void buildIndex(CharSequence text) {
+    }
+
+    /**
+     * @return peak heap in bytes needed to build the index of a {@code textLength}-base text (0 for scans)
+     */
+    default long indexBuildBytes(int textLength) {
+        return 0;
+    }
+
+    /**
+     * Validates a request's maxErrors at the service boundary, before any table sized by k is allocated.
+     *
+     * @return the k to search with: maxErrors for approximate algorithms, 0 for exact ones (which ignore it)
+     * @throws IllegalArgumentException if an approximate search asks for fewer than 0 or at least m errors
+     */
+    default int errorBudget(String pattern, int maxErrors) {
+        if (!approximate()) return 0;
+        if (maxErrors < 0 || maxErrors >= pattern.length()) {
+            throw new IllegalArgumentException("maxErrors must be between 0 and pattern length - 1.");
+        }
+        return maxErrors;
+    }
+
+    /**
+     * Whole-text search returning the algorithm's own result (timings, comparisons, construction overhead).
+     */
+    MatchResult search(CharSequence text, String pattern, int maxErrors);
+
+    /**
+     * @return the number of occurrences without locating them, or -1 if the algorithm cannot count cheaper
+     *         than it can search
+     */
+    default long count(CharSequence text, String pattern) {
+        return -1;
+    }
+
+    /**
+     * Preprocesses the pattern once per request. The scanner is read-only and shared by every parallel chunk.
+     */
+    Scanner prepare(String pattern, int maxErrors);
+
+    /**
+     * Preprocesses the pattern and its DNA reverse complement for a both-strand search: one scan reports forward
+     * hits through onMatch and reverse-complement hits through SearchSink.onReverseMatch, in position order.
+     * By default both are scanned tile by tile (see BothStrands); a palindromic pattern (equal to its reverse
+     * complement) is scanned once and its hits reported as forward.
+     *
+     * @throws IllegalArgumentException if the pattern is not DNA
+     */
+    default Scanner prepareBothStrands(String pattern, int maxErrors) {
+        String reverse = BothStrands.reverseComplement(pattern);
+        Scanner forward = prepare(pattern, maxErrors);
+        if (reverse.equals(pattern)) return forward;
+        return BothStrands.interleave(forward, prepare(reverse, maxErrors), pattern.length() - 1 + maxErrors,
+                reportsEndPositions(), indexed() ? Integer.MAX_VALUE : BothStrands.TILE);
+    }
+
+    /**
+     * @return a new scanner that carries its state from one window of a text to the next, or null if the
+     *         algorithm only scans self-contained ranges (windowed searches then overlap windows by m - 1 + k)
+     */
+    default StreamScanner prepareStream(String pattern, int maxErrors) {
+        return null;
+    }
+
+    @FunctionalInterface
+    interface StreamScanner {
+        /**
+         * Continues the scan of one text over its next window, window[from, to). Positions are relative to the
+         * window and negative for a match that began in an earlier window. Not thread-safe: one per text.
+         */
+        void scan(CharSequence window, int from, int to, SearchSink sink);
+    }
+
+    @FunctionalInterface
+    interface Scanner {
+        /**
+         * Reports the hits found in text[from, to), in ascending order, until {@code sink.isDone()}.
+         * Exact hits lie entirely inside the range; positions are absolute.
+         */
+        void scan(CharSequence text, int from, int to, SearchSink sink);
+    }
+}
@@ -0,0 +1,25 @@
+package com.bio.algorithm;
+
+/**
+ * Sink for any SearchAlgorithm scan: exact algorithms report start positions through onMatch(position),
+ * approximate ones report (position, distance). isDone() ends the scan early.
+ */
+public interface SearchSink extends MatchSink, ApproximateMatchListener {
+
+    /**
+     * Hit of the pattern's reverse complement in a both-strand scan (see SearchAlgorithm.prepareBothStrands).
+     * Sinks that do not track strands take it as a plain hit.
+     */
+    default void onReverseMatch(int position) {
+        onMatch(position);
+    }
+
+    default void onReverseMatch(int position, int distance) {
+        onMatch(position, distance);
+    }
+
+    @Override
+    default boolean isDone() {
+        return false;
+    }
+}
@@ -0,0 +1,91 @@
+package com.bio.algorithm;
+
+import com.bio.model.MatchResult;
+import com.bio.utils.IntList;
+
+/**
+ * Bit-parallel Shift-And for k-mismatch (Hamming distance) search, after Baeza-Yates/Gonnet and Wu/Manber.
+ *
+ * State R[d] has bit j set when pattern[0..j] matches the text ending at the current position with at most d
+ * mismatches. Patterns up to 64 bases use one word per error level; longer patterns use ceil(m / 64) words with
+ * the shift carried across words. Cost is O(n * (k + 1) * ceil(m / 64)) word operations.
+ */
+public class ShiftAndSearch {
+
+    private static final int ALPHABET = 128;
+
+    public MatchResult search(CharSequence text, String pattern, int maxMismatches) {
+        IntList matches = new IntList();
+        IntList distances = new IntList();
+        int n = text.length();
+        int m = pattern.length();
+        long startTime = System.nanoTime();
+
+        if (m == 0 || m > n || maxMismatches < 0) return new MatchResult("Shift-And (Hamming)", 0, matches, n, m);
+
+        search(text, 0, n, pattern, maxMismatches, (position, distance) -> {
+            matches.addInt(position);
+            distances.addInt(distance);
+        });
+
+        long executionTimeNs = System.nanoTime() - startTime;
+        MatchResult result = new MatchResult("Shift-And Hamming Search (k=" + maxMismatches + ")", executionTimeNs, matches, n, m);
+        result.setMatchDistances(distances);
+        return result;
+    }
+
+    /**
+     * Scans text[from, to) and reports every start position whose m-window has at most k mismatches,
+     * together with the exact mismatch count. Positions are absolute.
+     */
+    public void search(CharSequence text, int from, int to, String pattern, int k, ApproximateMatchListener listener) {
+        int m = pattern.length();
+        if (m == 0 || k < 0) return;
+        int words = (m + 63) >>> 6;
+
+        // B[c]: bit j set when pattern[j] == c (chars >= 128 never match)
+        long[] masks = new long[ALPHABET * words];
+        for (int j = 0; j < m; j++) {
+            char c = pattern.charAt(j);
+            if (c < ALPHABET) masks[c * words + (j >>> 6)] |= 1L << (j & 63);
+        }
+        scan(text, from, to, masks, m, k, listener);
+    }
+
+    /**
+     * The Shift-And scan itself, for any character class table: bit j of masks[c * words + (j / 64)] is set when
+     * text character c matches pattern position j (IupacSearch builds the table from ambiguity codes).
+     */
+    static void scan(CharSequence text, int from, int to, long[] masks, int m, int k, ApproximateMatchListener listener) {
+        int words = (m + 63) >>> 6;
+        int top = (m - 1) >>> 6;
+        long hit = 1L << ((m - 1) & 63);
+        long[] r = new long[(k + 1) * words]; // r[d * words + w]
+
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            int base = c < ALPHABET ? c * words : -1;
+
+            // Descending d and w so R[d - 1] and R[d][w - 1] still hold the previous column
+            for (int d = k; d >= 0; d--) {
+                int row = d * words;
+                for (int w = words - 1; w >= 0; w--) {
+                    long shifted = (r[row + w] << 1) | (w > 0 ? r[row + w - 1] >>> 63 : 1L);
+                    long value = base < 0 ? 0 : shifted & masks[base + w];
+                    if (d > 0) {
+                        int prev = row - words;
+                        value |= (r[prev + w] << 1) | (w > 0 ? r[prev + w - 1] >>> 63 : 1L);
+                    }
+                    r[row + w] = value;
+                }
+            }
+
+            if (i - from >= m - 1 && (r[k * words + top] & hit) != 0) {
+                int distance = 0;
+                while ((r[distance * words + top] & hit) == 0) distance++;
+                listener.onMatch(i - m + 1, distance);
+                if (listener.isDone()) return;
+            }
+        }
+    }
+}
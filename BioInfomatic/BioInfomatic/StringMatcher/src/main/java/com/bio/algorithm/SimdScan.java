@@ -0,0 +1,128 @@
+package com.bio.algorithm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exact byte-level scan for byte-backed genomes (MappedGenome) with a first/last-byte filter: a window is only
+ * verified when both the pattern's first byte and its last byte match, which on DNA leaves about one window in
+ * sixteen instead of one in four.
+ *
+ * The engine is chosen once per JVM. On JDK 17 and 18, when the build compiled VectorFirstLastScan (Maven
+ * profile jdk17) and the JVM runs with {@code --add-modules jdk.incubator.vector}, the filter is evaluated for a
+ * whole vector of text positions per instruction (32 on AVX2, 64 on AVX-512) by VectorFirstLastScan. Everywhere
+ * else, including Java 11, the scalar loop below runs. {@code -Dbio.simd=false} forces the scalar engine.
+ *
+ * The incubating API changes between releases (JDK 19 replaced ByteVector.fromByteBuffer with
+ * fromMemorySegment), so a vector engine compiled for JDK 17 may link on a newer JVM and only fail at its first
+ * load. The engine therefore has to pass a trial scan against the scalar loop before it is chosen.
+ */
+public final class SimdScan {
+
+    private static final Logger log = LoggerFactory.getLogger(SimdScan.class);
+
+    // Compiled by the jdk17 profile only; absent from Java 11 builds
+    private static final String VECTOR_ENGINE = "com.bio.algorithm.VectorFirstLastScan";
+
+    interface Engine {
+        String name();
+
+        /**
+         * Reports every start position in text[from, to) where {@code pattern} occurs, in ascending order,
+         * until {@code sink.isDone()}. Positions are absolute buffer indexes; the buffer's position is ignored.
+         */
+        void scan(ByteBuffer text, int from, int to, byte[] pattern, MatchSink sink);
+    }
+
+    static final Engine SCALAR = new Engine() {
+        @Override
+        public String name() {
+            return "scalar";
+        }
+
+        @Override
+        public void scan(ByteBuffer text, int from, int to, byte[] pattern, MatchSink sink) {
+            scanScalar(text, from, to, pattern, sink);
+        }
+    };
+
+    private static final Engine ENGINE = load();
+
+    private SimdScan() {
+    }
+
+    /**
+     * Scans with the engine chosen for this JVM (see the class comment).
+     */
+    public static void scan(ByteBuffer text, int from, int to, byte[] pattern, MatchSink sink) {
+        ENGINE.scan(text, from, to, pattern, sink);
+    }
+
+    /**
+     * @return "vector (N lanes)" or "scalar"
+     */
+    public static String engineName() {
+        return ENGINE.name();
+    }
+
+    public static void scanScalar(ByteBuffer text, int from, int to, byte[] pattern, MatchSink sink) {
+        int m = pattern.length;
+        byte first = pattern[0];
+        byte last = pattern[m - 1];
+
+        for (int i = from; i <= to - m; i++) {
+            if (text.get(i) != first || text.get(i + m - 1) != last) continue;
+            if (verify(text, i, pattern)) {
+                sink.onMatch(i);
+                if (sink.isDone()) return;
+            }
+        }
+    }
+
+    // Compares the bytes between the first and the last, which the filter has already matched
+    static boolean verify(ByteBuffer text, int position, byte[] pattern) {
+        for (int j = 1; j < pattern.length - 1; j++) {
+            if (text.get(position + j) != pattern[j]) return false;
+        }
+        return true;
+    }
+
+    private static Engine load() {
+        if (!Boolean.parseBoolean(System.getProperty("bio.simd", "true"))
+                || !ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            return SCALAR;
+        }
+        try {
+            Engine engine = (Engine) Class.forName(VECTOR_ENGINE).getDeclaredConstructor().newInstance();
+            if (!agreesWithScalar(engine)) {
+                log.warn("SimdScan: the {} engine disagrees with the scalar scan, using scalar", engine.name());
+                return SCALAR;
+            }
+            log.info("SimdScan: using the {} engine", engine.name());
+            return engine;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // Not compiled into this build, compiled against another JDK's incubator API (NoSuchMethodError on
+            // the trial scan), or no usable vector shape on this CPU
+            log.info("SimdScan: vector engine unavailable ({}), using scalar", e.toString());
+            return SCALAR;
+        }
+    }
+
+    // Trial scan over several vector blocks and a scalar tail: links every API method the engine calls
+    private static boolean agreesWithScalar(Engine engine) {
+        ByteBuffer text = ByteBuffer.allocateDirect(300);
+        for (int i = 0; i < text.capacity(); i++) {
+            text.put(i, (byte) "ACGTTGCA".charAt((i * 7 + i / 5) & 7));
+        }
+        byte[] pattern = {'G', 'T', 'T'};
+        List<Integer> expected = new ArrayList<>();
+        List<Integer> actual = new ArrayList<>();
+        scanScalar(text, 1, 299, pattern, expected::add);
+        engine.scan(text, 1, 299, pattern, actual::add);
+        return !expected.isEmpty() && expected.equals(actual);
+    }
+}
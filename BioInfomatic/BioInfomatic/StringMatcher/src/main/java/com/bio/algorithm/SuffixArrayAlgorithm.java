@@ -0,0 +1,67 @@
+package com.bio.algorithm;
+
+import com.bio.model.MatchResult;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SearchAlgorithm for the suffix array (SA-IS + LCP): built once per genome and cached, then every query is a
+ * binary search independent of the genome size.
+ */
+public final class SuffixArrayAlgorithm implements SearchAlgorithm {
+
+    @Override
+    public String name() {
+        return "suffix";
+    }
+
+    @Override
+    public String displayName() {
+        return "Suffix Array Search";
+    }
+
+    @Override
+    public List<String> aliases() {
+        return Arrays.asList("suffixtree", "suffix-tree", "suffixarray", "suffix-array");
+    }
+
+    @Override
+    public boolean indexed() {
+        return true;
+    }
+
+    @Override
+    public boolean indexReady(CharSequence text) {
+        return SuffixTreeSearch.isIndexed(text);
+    }
+
+    @Override
+    public void buildIndex(CharSequence text) {
+        SuffixTreeSearch.indexFor(text);
+    }
+
+    // sa + lcp (8 bytes per base) plus the ranked text and SA-IS/Kasai work arrays while building
+    @Override
+    public long indexBuildBytes(int textLength) {
+        return 17L * textLength;
+    }
+
+    @Override
+    public MatchResult search(CharSequence text, String pattern, int maxErrors) {
+        return new SuffixTreeSearch().search(text, pattern);
+    }
+
+    @Override
+    public long count(CharSequence text, String pattern) {
+        if (pattern.isEmpty() || pattern.length() > text.length()) return 0;
+        int[] interval = SuffixTreeSearch.indexFor(text).findInterval(pattern, null);
+        return interval[1] - interval[0];
+    }
+
+    @Override
+    public Scanner prepare(String pattern, int maxErrors) {
+        return new IndexedScanner(pattern.length(), text -> pattern.isEmpty() || pattern.length() > text.length()
+                ? new int[0] : SuffixTreeSearch.indexFor(text).search(pattern, null));
+    }
+}
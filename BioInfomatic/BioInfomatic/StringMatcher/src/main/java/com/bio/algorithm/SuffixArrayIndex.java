@@ -0,0 +1,282 @@
+package com.bio.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Immutable suffix array index over a text.
+ *
+ * Construction is linear time: the suffix array comes from SA-IS (Nong, Zhang and Chan, 2009) and the
+ * LCP array from Kasai's algorithm. Queries use the Manber-Myers "mlr" binary search, which resumes every
+ * comparison after min(lcp(P, low), lcp(P, high)) characters and never allocates substrings, then walks
+ * the LCP array to collect the whole match interval without further character comparisons.
+ *
+ * Memory: 8 bytes per base (sa + lcp) once built, plus ~9 bytes per base transiently during construction.
+ */
+public final class SuffixArrayIndex {
+
+    private final CharSequence text;
+    private final int offset; // absolute position of text[0] in the sequence it was taken from
+    private final int[] sa;
+    private final int[] lcp; // lcp[i] = LCP(suffix sa[i-1], suffix sa[i]); lcp[0] = 0
+
+    private SuffixArrayIndex(CharSequence text, int offset, int[] sa, int[] lcp) {
+        this.text = text;
+        this.offset = offset;
+        this.sa = sa;
+        this.lcp = lcp;
+    }
+
+    public static SuffixArrayIndex build(CharSequence text) {
+        return build(text, 0, text.length());
+    }
+
+    /**
+     * Indexes only text[from, to), reading it through a view. search() reports absolute positions in
+     * {@code text}, so callers indexing chunks need no remapping.
+     */
+    public static SuffixArrayIndex build(CharSequence text, int from, int to) {
+        CharSequence range = from == 0 && to == text.length() ? text : text.subSequence(from, to);
+        int[] s = rankAlphabet(range);
+        int[] suffixArray = suffixArray(s);
+        int[] lcp = kasai(s, suffixArray);
+        return new SuffixArrayIndex(range, from, suffixArray, lcp);
+    }
+
+    /**
+     * Builds only the suffix array (no LCP) in linear time. Used by indexes that do not need LCP, e.g. FMIndex.
+     */
+    static int[] buildSuffixArray(CharSequence text) {
+        return suffixArray(rankAlphabet(text));
+    }
+
+    private static int[] suffixArray(int[] s) {
+        int n = s.length - 1;
+        int[] sa = new int[n + 1];
+        sais(s, sa, n + 1, alphabetSize(s));
+        // sa[0] is the sentinel suffix; drop it
+        return Arrays.copyOfRange(sa, 1, n + 1);
+    }
+
+    public CharSequence text() {
+        return text;
+    }
+
+    public int[] suffixArray() {
+        return sa;
+    }
+
+    public int[] lcpArray() {
+        return lcp;
+    }
+
+    /**
+     * Finds the suffix-array interval [lo, hi) of suffixes starting with {@code pattern}.
+     *
+     * @param comparisons optional single-element counter receiving the number of character comparisons
+     * @return {lo, hi}; empty when lo == hi
+     */
+    public int[] findInterval(CharSequence pattern, long[] comparisons) {
+        int n = sa.length;
+        int m = pattern.length();
+        long cmp = 0;
+
+        // Invariant: suffix(sa[lo]) < P <= suffix(sa[hi]), with virtual sentinels at -1 and n
+        int lo = -1, hi = n;
+        int lcpLo = 0, lcpHi = 0;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            int pos = sa[mid];
+            int k = Math.min(lcpLo, lcpHi);
+            while (k < m && pos + k < n) {
+                cmp++;
+                if (text.charAt(pos + k) != pattern.charAt(k)) break;
+                k++;
+            }
+            if (k == m || (pos + k < n && text.charAt(pos + k) > pattern.charAt(k))) {
+                hi = mid;
+                lcpHi = k;
+            } else {
+                lo = mid;
+                lcpLo = k;
+            }
+        }
+
+        int first = hi;
+        if (first == n || lcpHi < m) {
+            if (comparisons != null) comparisons[0] += cmp;
+            return new int[]{first, first};
+        }
+
+        // Every following suffix sharing >= m characters with its predecessor also starts with P
+        int end = first + 1;
+        while (end < n && lcp[end] >= m) {
+            end++;
+        }
+        if (comparisons != null) comparisons[0] += cmp;
+        return new int[]{first, end};
+    }
+
+    /**
+     * @return all start positions of {@code pattern} (absolute, see build(text, from, to)), sorted ascending.
+     */
+    public int[] search(CharSequence pattern, long[] comparisons) {
+        if (pattern.length() == 0 || pattern.length() > sa.length) return new int[0];
+        int[] interval = findInterval(pattern, comparisons);
+        int[] positions = Arrays.copyOfRange(sa, interval[0], interval[1]);
+        Arrays.sort(positions);
+        if (offset != 0) {
+            for (int i = 0; i < positions.length; i++) positions[i] += offset;
+        }
+        return positions;
+    }
+
+    // --- Construction ---
+
+    // Maps the text onto dense ranks 1..K and appends a unique smallest sentinel 0
+    private static int[] rankAlphabet(CharSequence text) {
+        int n = text.length();
+        boolean[] present = new boolean[Character.MAX_VALUE + 1];
+        for (int i = 0; i < n; i++) {
+            present[text.charAt(i)] = true;
+        }
+        int[] rank = new int[Character.MAX_VALUE + 1];
+        int next = 1;
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            if (present[c]) rank[c] = next++;
+        }
+        int[] s = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            s[i] = rank[text.charAt(i)];
+        }
+        s[n] = 0;
+        return s;
+    }
+
+    private static int alphabetSize(int[] s) {
+        int max = 0;
+        for (int v : s) max = Math.max(max, v);
+        return max + 1;
+    }
+
+    private static boolean isLms(boolean[] sType, int i) {
+        return i > 0 && sType[i] && !sType[i - 1];
+    }
+
+    private static void buckets(int[] s, int[] bkt, int n, int k, boolean ends) {
+        Arrays.fill(bkt, 0);
+        for (int i = 0; i < n; i++) bkt[s[i]]++;
+        int sum = 0;
+        for (int c = 0; c < k; c++) {
+            sum += bkt[c];
+            bkt[c] = ends ? sum : sum - bkt[c];
+        }
+    }
+
+    private static void induceL(boolean[] sType, int[] sa, int[] s, int[] bkt, int n, int k) {
+        buckets(s, bkt, n, k, false);
+        for (int i = 0; i < n; i++) {
+            int j = sa[i] - 1;
+            if (j >= 0 && !sType[j]) sa[bkt[s[j]]++] = j;
+        }
+    }
+
+    private static void induceS(boolean[] sType, int[] sa, int[] s, int[] bkt, int n, int k) {
+        buckets(s, bkt, n, k, true);
+        for (int i = n - 1; i >= 0; i--) {
+            int j = sa[i] - 1;
+            if (j >= 0 && sType[j]) sa[--bkt[s[j]]] = j;
+        }
+    }
+
+    /**
+     * SA-IS over s[0..n) with alphabet [0, k); s[n-1] must be a unique smallest sentinel.
+     */
+    private static void sais(int[] s, int[] sa, int n, int k) {
+        boolean[] sType = new boolean[n];
+        sType[n - 1] = true;
+        for (int i = n - 2; i >= 0; i--) {
+            sType[i] = s[i] < s[i + 1] || (s[i] == s[i + 1] && sType[i + 1]);
+        }
+        int[] bkt = new int[k];
+
+        // Stage 1: sort LMS substrings by induction
+        buckets(s, bkt, n, k, true);
+        Arrays.fill(sa, 0, n, -1);
+        for (int i = 1; i < n; i++) {
+            if (isLms(sType, i)) sa[--bkt[s[i]]] = i;
+        }
+        induceL(sType, sa, s, bkt, n, k);
+        induceS(sType, sa, s, bkt, n, k);
+
+        int n1 = 0;
+        for (int i = 0; i < n; i++) {
+            if (isLms(sType, sa[i])) sa[n1++] = sa[i];
+        }
+
+        // Name the sorted LMS substrings; LMS positions are >= 2 apart so pos / 2 is collision-free
+        Arrays.fill(sa, n1, n, -1);
+        int name = 0, prev = -1;
+        for (int i = 0; i < n1; i++) {
+            int pos = sa[i];
+            boolean diff = false;
+            for (int d = 0; d < n; d++) {
+                if (prev == -1 || s[pos + d] != s[prev + d] || sType[pos + d] != sType[prev + d]) {
+                    diff = true;
+                    break;
+                } else if (d > 0 && (isLms(sType, pos + d) || isLms(sType, prev + d))) {
+                    break;
+                }
+            }
+            if (diff) {
+                name++;
+                prev = pos;
+            }
+            sa[n1 + (pos >> 1)] = name - 1;
+        }
+        int[] s1 = new int[n1];
+        for (int i = n - 1, j = n1 - 1; i >= n1; i--) {
+            if (sa[i] >= 0) s1[j--] = sa[i];
+        }
+
+        // Stage 2: sort the reduced problem (recursively if names are not yet unique)
+        int[] sa1 = new int[n1];
+        if (name < n1) {
+            sais(s1, sa1, n1, name);
+        } else {
+            for (int i = 0; i < n1; i++) sa1[s1[i]] = i;
+        }
+
+        // Stage 3: induce the full suffix array from the sorted LMS suffixes
+        for (int i = 1, j = 0; i < n; i++) {
+            if (isLms(sType, i)) s1[j++] = i;
+        }
+        buckets(s, bkt, n, k, true);
+        Arrays.fill(sa, 0, n, -1);
+        for (int i = n1 - 1; i >= 0; i--) {
+            int j = s1[sa1[i]];
+            sa[--bkt[s[j]]] = j;
+        }
+        induceL(sType, sa, s, bkt, n, k);
+        induceS(sType, sa, s, bkt, n, k);
+    }
+
+    // Kasai et al. (2001): LCP of adjacent suffixes in O(n)
+    private static int[] kasai(int[] s, int[] sa) {
+        int n = sa.length;
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) rank[sa[i]] = i;
+        int[] lcp = new int[n];
+        int h = 0;
+        for (int i = 0; i < n; i++) {
+            if (rank[i] > 0) {
+                int j = sa[rank[i] - 1];
+                while (i + h < n && j + h < n && s[i + h] == s[j + h]) h++;
+                lcp[rank[i]] = h;
+                if (h > 0) h--;
+            } else {
+                h = 0;
+            }
+        }
+        return lcp;
+    }
+}
@@ -1,79 +1,81 @@
 package com.bio.algorithm;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import com.bio.model.MatchResult;
+import com.bio.utils.IntList;
 
 public class SuffixTreeSearch {
-    // Implementing Suffix Array + Binary Search for stability on large strings
-    public MatchResult search(String text, String pattern) {
+
+    // Index cache keyed by genome: each index is built once and reused by every later query on that genome.
+    // Keyed by identity; regenerating the genome produces a new text object and therefore a rebuild.
+    private static final TextIndexCache<SuffixArrayIndex> INDEXES = new TextIndexCache<>(2);
+
+    // Implementing Suffix Array (SA-IS) + LCP-accelerated Binary Search for stability on large strings
+    public MatchResult search(CharSequence text, String pattern) {
         long startTime = System.nanoTime();
         int n = text.length();
         int m = pattern.length();
-        List<Integer> matches = new ArrayList<>();
-
-        if (m == 0 || m > n) return new MatchResult("Suffix Array", 0, matches, n, m);
-
-        // 1. Build Suffix Array (O(N log N) or O(N log^2 N))
-        // Using Java's sort is O(N log N * avg_compare), can be slow for massive strings
-        // but robust for this demo.
-        Integer[] suffixArr = new Integer[n];
-        for (int i = 0; i < n; i++) suffixArr[i] = i;
-
-        Arrays.sort(suffixArr, (a, b) -> {
-            // Optimization: Only compare up to pattern length + 1 for search purposes
-            // This makes sorting faster for the specific purpose of finding this pattern
-            int len = Math.min(n - a, n - b);
-            int lim = Math.min(len, m + 50);
-            for (int k = 0; k < lim; k++) {
-                char c1 = text.charAt(a + k);
-                char c2 = text.charAt(b + k);
-                if (c1 != c2) return c1 - c2;
-            }
-            return (n - a) - (n - b);
-        });
-
-        // 2. Binary Search for the Pattern
-        int l = 0, r = n - 1;
-        while (l <= r) {
-            int mid = l + (r - l) / 2;
-            int idx = suffixArr[mid];
-            String suffix = text.substring(idx, Math.min(idx + m, n));
-
-            int cmp = suffix.compareTo(pattern);
-            if (cmp == 0) {
-                // Found one, now expand to find all duplicates
-                // (Linear scan neighbors - simplified for demo)
-                int temp = mid;
-                while (temp >= 0 && text.substring(suffixArr[temp], Math.min(suffixArr[temp] + m, n)).equals(pattern)) {
-                    matches.add(suffixArr[temp]);
-                    temp--;
-                }
-                temp = mid + 1;
-                while (temp < n && text.substring(suffixArr[temp], Math.min(suffixArr[temp] + m, n)).equals(pattern)) {
-                    matches.add(suffixArr[temp]);
-                    temp++;
-                }
-                break;
-            } else if (cmp < 0) {
-                l = mid + 1;
-            } else {
-                r = mid - 1;
-            }
-        }
+        if (m == 0 || m > n) return new MatchResult("Suffix Array", 0, new IntList(), n, m);
+
+        // 1. Build (or reuse) the Suffix Array + LCP index: O(N) once per genome
+        SuffixArrayIndex index = indexFor(text);
+        long constructionTimeNs = System.nanoTime() - startTime;
+
+        // 2. mlr Binary Search for the Pattern: O(M + log N), no substring allocation
+        long[] comparisons = new long[1];
+        List<Integer> matches = IntList.wrap(index.search(pattern, comparisons));
+
+        long executionTimeNs = System.nanoTime() - startTime;
+        return new MatchResult("Suffix Array Search", executionTimeNs, constructionTimeNs, matches, n, m, comparisons[0]);
+    }
+
+    /**
+     * Range form: occurrences lying entirely inside text[from, to), as absolute positions. Queries the cached
+     * whole-genome index, so no chunk is copied or re-indexed.
+     */
+    public MatchResult search(CharSequence text, int from, int to, String pattern) {
+        long startTime = System.nanoTime();
+        int m = pattern.length();
+        IntList matches = new IntList();
 
-        // Dedup and sort
-        matches.sort(Integer::compareTo);
-        List<Integer> distinct = new ArrayList<>();
-        if (!matches.isEmpty()) {
-            distinct.add(matches.get(0));
-            for(int i=1; i<matches.size(); i++) {
-                if(!matches.get(i).equals(matches.get(i-1))) distinct.add(matches.get(i));
-            }
+        if (m == 0 || m > to - from) return new MatchResult("Suffix Array", 0, matches, to - from, m);
+
+        SuffixArrayIndex index = indexFor(text);
+        long constructionTimeNs = System.nanoTime() - startTime;
+
+        long[] comparisons = new long[1];
+        for (int position : index.search(pattern, comparisons)) {
+            if (position >= from && position + m <= to) matches.addInt(position);
         }
 
         long executionTimeNs = System.nanoTime() - startTime;
-        return new MatchResult("Suffix Array Search", executionTimeNs, distinct, n, m);
+        return new MatchResult("Suffix Array Search", executionTimeNs, constructionTimeNs, matches, to - from, m, comparisons[0]);
+    }
+
+    /**
+     * @return true if an index of {@code text} is cached, i.e. a query will not trigger a build
+     */
+    public static boolean isIndexed(CharSequence text) {
+        return INDEXES.isBuilt(text, 0);
+    }
+
+    /**
+     * Returns the cached index for {@code text}, building it on first use. Builds of different genomes run
+     * in parallel; queries on one genome wait only for that genome's build.
+     */
+    public static SuffixArrayIndex indexFor(CharSequence text) {
+        return INDEXES.get(text, 0, SuffixArrayIndex::build);
+    }
+
+    /**
+     * Sets how many genomes keep a suffix array index (app.index.max-genomes); the least recently used
+     * index is dropped beyond that.
+     */
+    public static void setMaxIndexedGenomes(int maxGenomes) {
+        INDEXES.setCapacity(maxGenomes);
+    }
+
+    static void release(CharSequence text) {
+        INDEXES.remove(text);
     }
-}
\ No newline at end of file
+}
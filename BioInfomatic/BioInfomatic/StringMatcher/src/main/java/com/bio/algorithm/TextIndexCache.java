@@ -0,0 +1,117 @@
+package com.bio.algorithm;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+
+/**
+ * Whole-text indexes (suffix array, FM-index), one per genome, built on first use and shared by every later
+ * query on that genome.
+ *
+ * Entries are keyed by the identity of the text object: the default genome's packed and mapped views and every
+ * GenomeRepository genome are distinct long-lived objects, and a regenerated or reloaded genome is a new one.
+ * A variant number tells apart indexes of one text built with different parameters (FM sampling rates).
+ * At most {@code capacity} indexes are kept; creating one more drops the least recently used. Since an entry
+ * holds its text strongly, owners of a text that goes away release it (see TextIndexes) instead of leaving
+ * the bases and the index to the LRU.
+ *
+ * Every entry has its own lock, so a build only blocks the queries on the same text and variant; queries on
+ * the other genomes and lookups in the cache go on meanwhile.
+ */
+final class TextIndexCache<I> {
+
+    // Access order: the least recently used entry comes first. Guarded by 'this'.
+    private final LinkedHashMap<Key, Slot<I>> slots = new LinkedHashMap<>(16, 0.75f, true);
+    private int capacity;
+
+    TextIndexCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    synchronized void setCapacity(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        trim();
+    }
+
+    /**
+     * @return the index of {@code text}, built by {@code build} (on this thread) if there is none yet
+     */
+    I get(CharSequence text, long variant, Function<CharSequence, I> build) {
+        Slot<I> slot;
+        synchronized (this) {
+            Key key = new Key(text, variant);
+            slot = slots.get(key);
+            if (slot == null) {
+                slot = new Slot<>();
+                slots.put(key, slot);
+                trim();
+            }
+        }
+        return slot.get(text, build);
+    }
+
+    /**
+     * @return true if the index of {@code text} is built, so a query on it costs no construction
+     */
+    synchronized boolean isBuilt(CharSequence text, long variant) {
+        Slot<I> slot = slots.get(new Key(text, variant));
+        return slot != null && slot.index != null;
+    }
+
+    /**
+     * Drops every index of {@code text} (all variants).
+     */
+    synchronized void remove(CharSequence text) {
+        slots.keySet().removeIf(key -> key.text == text);
+    }
+
+    synchronized int size() {
+        return slots.size();
+    }
+
+    // A dropped entry that is still being built finishes for the queries waiting on it, then is collected
+    private void trim() {
+        Iterator<Slot<I>> it = slots.values().iterator();
+        while (slots.size() > capacity && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static final class Slot<I> {
+        private volatile I index;
+
+        I get(CharSequence text, Function<CharSequence, I> build) {
+            I built = index;
+            if (built != null) return built;
+            synchronized (this) {
+                if (index == null) {
+                    index = build.apply(text);
+                }
+                return index;
+            }
+        }
+    }
+
+    private static final class Key {
+        private final CharSequence text;
+        private final long variant;
+
+        private Key(CharSequence text, long variant) {
+            this.text = text;
+            this.variant = variant;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return text == other.text && variant == other.variant;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(text) + Long.hashCode(variant);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.bio.algorithm;
+
+/**
+ * Entry point for owners of a genome text (GenomeRepository, the default genome) to drop the whole-text
+ * indexes built on it once it is removed, replaced or evicted. The index caches hold the text strongly, so
+ * without this a gone genome's bases and indexes would stay on the heap until the LRU turned them over.
+ *
+ * A search still running on the old text may build its index again; that entry is an ordinary LRU victim.
+ */
+public final class TextIndexes {
+
+    private TextIndexes() {
+    }
+
+    public static void release(CharSequence text) {
+        SuffixTreeSearch.release(text);
+        FMIndexSearch.release(text);
+    }
+}
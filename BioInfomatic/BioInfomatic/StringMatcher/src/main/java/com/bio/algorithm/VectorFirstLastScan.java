@@ -0,0 +1,58 @@
+package com.bio.algorithm;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * SimdScan engine on jdk.incubator.vector (JDK 17 and 18, compiled by the jdk17 Maven profile). For a block of L text
+ * positions i..i+L-1 it loads text[i..i+L) and text[i+m-1..i+m-1+L), compares them with the broadcast first and
+ * last pattern bytes, and ANDs the two masks; only the set bits, usually none, are verified byte by byte.
+ * Positions too close to the end of the range for a full second load go to the scalar loop.
+ *
+ * Loaded reflectively by SimdScan, so nothing else in the code base depends on this class or the module.
+ */
+final class VectorFirstLastScan implements SimdScan.Engine {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    VectorFirstLastScan() {
+        // Below 16 lanes (no SIMD unit, or one the JIT does not use) the scalar loop is as fast
+        if (SPECIES.length() < 16 || SPECIES.length() > 64) {
+            throw new UnsupportedOperationException(SPECIES.length() + " byte lanes");
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector (" + SPECIES.length() + " lanes)";
+    }
+
+    @Override
+    public void scan(ByteBuffer text, int from, int to, byte[] pattern, MatchSink sink) {
+        int m = pattern.length;
+        int lanes = SPECIES.length();
+        ByteVector first = ByteVector.broadcast(SPECIES, pattern[0]);
+        ByteVector last = ByteVector.broadcast(SPECIES, pattern[m - 1]);
+
+        int i = from;
+        // Last block start whose second load, text[i + m - 1, i + m - 1 + lanes), stays inside the range
+        int blockEnd = to - m + 1 - lanes;
+        for (; i <= blockEnd; i += lanes) {
+            ByteVector head = ByteVector.fromByteBuffer(SPECIES, text, i, ByteOrder.nativeOrder());
+            ByteVector tail = ByteVector.fromByteBuffer(SPECIES, text, i + m - 1, ByteOrder.nativeOrder());
+            long candidates = head.eq(first).and(tail.eq(last)).toLong();
+            while (candidates != 0) {
+                int position = i + Long.numberOfTrailingZeros(candidates);
+                if (SimdScan.verify(text, position, pattern)) {
+                    sink.onMatch(position);
+                    if (sink.isDone()) return;
+                }
+                candidates &= candidates - 1;
+            }
+        }
+        SimdScan.scanScalar(text, i, to, pattern, sink);
+    }
+}
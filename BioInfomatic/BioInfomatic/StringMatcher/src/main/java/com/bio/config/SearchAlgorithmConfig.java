@@ -0,0 +1,76 @@
+package com.bio.config;
+
+import com.bio.algorithm.ApproximateScanAlgorithm;
+import com.bio.algorithm.ExactScanAlgorithm;
+import com.bio.algorithm.FMIndexAlgorithm;
+import com.bio.algorithm.FMIndexSearch;
+import com.bio.algorithm.IupacAlgorithm;
+import com.bio.algorithm.SearchAlgorithm;
+import com.bio.algorithm.SuffixArrayAlgorithm;
+import com.bio.algorithm.SuffixTreeSearch;
+import com.bio.service.CompiledPatternCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The algorithms available to SearchAlgorithmRegistry. A new algorithm only needs a SearchAlgorithm bean here
+ * (or anywhere in the context) to become reachable by name from every endpoint and to the "auto" planner.
+ */
+@Configuration
+public class SearchAlgorithmConfig {
+
+    @Bean
+    public SearchAlgorithm naiveAlgorithm(CompiledPatternCache patternCache) {
+        return new ExactScanAlgorithm("naive", pattern -> patternCache.get("naive", pattern));
+    }
+
+    @Bean
+    public SearchAlgorithm kmpAlgorithm(CompiledPatternCache patternCache) {
+        return new ExactScanAlgorithm("kmp", pattern -> patternCache.get("kmp", pattern));
+    }
+
+    @Bean
+    public SearchAlgorithm boyerMooreAlgorithm(CompiledPatternCache patternCache) {
+        return new ExactScanAlgorithm("bm", pattern -> patternCache.get("bm", pattern), "boyermoore", "boyer-moore");
+    }
+
+    @Bean
+    public SearchAlgorithm qgramAlgorithm(CompiledPatternCache patternCache) {
+        return new ExactScanAlgorithm("qgram", pattern -> patternCache.get("qgram", pattern), "horspool", "q-gram");
+    }
+
+    @Bean
+    public SearchAlgorithm suffixArrayAlgorithm(@Value("${app.index.max-genomes:2}") int maxIndexedGenomes) {
+        SuffixTreeSearch.setMaxIndexedGenomes(maxIndexedGenomes);
+        return new SuffixArrayAlgorithm();
+    }
+
+    @Bean
+    public SearchAlgorithm fmIndexAlgorithm(@Value("${app.fmindex.occ-sample-rate:64}") int occSampleRate,
+                                            @Value("${app.fmindex.sa-sample-rate:32}") int saSampleRate,
+                                            @Value("${app.index.max-genomes:2}") int maxIndexedGenomes) {
+        FMIndexSearch.setMaxIndexedGenomes(maxIndexedGenomes);
+        return new FMIndexAlgorithm(occSampleRate, saSampleRate);
+    }
+
+    @Bean
+    public SearchAlgorithm hammingAlgorithm() {
+        return ApproximateScanAlgorithm.hamming();
+    }
+
+    @Bean
+    public SearchAlgorithm editDistanceAlgorithm() {
+        return ApproximateScanAlgorithm.editDistance();
+    }
+
+    @Bean
+    public SearchAlgorithm iupacAlgorithm() {
+        return IupacAlgorithm.shiftAnd();
+    }
+
+    @Bean
+    public SearchAlgorithm iupacHorspoolAlgorithm() {
+        return IupacAlgorithm.horspool();
+    }
+}
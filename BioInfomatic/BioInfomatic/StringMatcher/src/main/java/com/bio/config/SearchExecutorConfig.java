@@ -0,0 +1,36 @@
+package com.bio.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class SearchExecutorConfig {
+
+    /**
+     * One work-stealing pool shared by every parallel search, so concurrent requests share the cores instead
+     * of each creating its own thread pool. Sized from the machine unless app.parallel.num-threads is set.
+     * Workers stay alive between requests, keeping thread creation out of the timed search.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool searchPool(@Value("${app.parallel.num-threads:0}") int numThreads) {
+        int parallelism = numThreads > 0 ? numThreads : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("search-worker-" + worker.getPoolIndex());
+            return worker;
+        };
+        ForkJoinPool pool = new ForkJoinPool(parallelism, factory, null, false,
+                parallelism, Math.max(parallelism, 256), 1, null, 10, TimeUnit.MINUTES);
+
+        // Start the workers now rather than inside the first request
+        for (int i = 0; i < parallelism; i++) {
+            pool.execute(() -> { });
+        }
+        return pool;
+    }
+}
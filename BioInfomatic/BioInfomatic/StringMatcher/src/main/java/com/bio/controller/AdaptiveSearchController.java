@@ -0,0 +1,84 @@
+package com.bio.controller;
+
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import com.bio.service.AdaptiveSearchService;
+import com.bio.service.SearchAlgorithmRegistry;
+import com.bio.service.SearchMetrics;
+import com.bio.service.SearchPlanner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Adaptive search: the planner chooses the algorithm and the parallelism from the pattern, the genome size,
+ * the indexes already built and the latencies observed so far. The other endpoints also accept "auto" as an
+ * algorithm name; these additionally choose between sequential and parallel execution.
+ */
+@RestController
+@RequestMapping("/api/bioinfo/auto")
+@CrossOrigin(origins = "*")
+public class AdaptiveSearchController {
+
+    private final AdaptiveSearchService adaptiveService;
+    private final SearchPlanner planner;
+    private final SearchAlgorithmRegistry registry;
+    private final SearchMetrics metrics;
+
+    public AdaptiveSearchController(AdaptiveSearchService adaptiveService, SearchPlanner planner,
+                                    SearchAlgorithmRegistry registry, SearchMetrics metrics) {
+        this.adaptiveService = adaptiveService;
+        this.planner = planner;
+        this.registry = registry;
+        this.metrics = metrics;
+    }
+
+    @PostMapping("/search")
+    public ResponseEntity<MatchResult> search(@RequestBody MatchRequest request) {
+        if (request.getPattern() == null || request.getPattern().isEmpty()) {
+            return ResponseEntity.badRequest().body(new MatchResult("Pattern is required."));
+        }
+        try {
+            MatchResult result = metrics.time("auto", "auto", () -> adaptiveService.executeSearch(request));
+            System.out.printf("Adaptive Search (%s) completed in %.4f ms. Matches: %d%n",
+                    result.getPlan(), result.getExecutionTimeNs() / 1_000_000.0, result.getMatchCount());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MatchResult("Adaptive search failed: " + e.getMessage()));
+        }
+    }
+
+    // The plan the search endpoint would follow, without running it, plus the planner's latency statistics
+    @PostMapping("/plan")
+    public ResponseEntity<?> plan(@RequestBody MatchRequest request) {
+        if (request.getPattern() == null || request.getPattern().isEmpty()) {
+            return ResponseEntity.badRequest().body(new MatchResult("Pattern is required."));
+        }
+        try {
+            SearchPlanner.Plan plan = adaptiveService.plan(request);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("algorithm", plan.algorithm().name());
+            body.put("parallel", plan.parallel());
+            body.put("estimatedNs", plan.estimatedNs());
+            body.put("reason", plan.reason());
+            body.put("observedLatencies", planner.observedLatencies());
+            return ResponseEntity.ok(body);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MatchResult("Planning failed: " + e.getMessage()));
+        }
+    }
+
+    // Registered algorithms and the names each one answers to
+    @GetMapping("/algorithms")
+    public Map<String, List<String>> algorithms() {
+        return registry.all().stream().collect(Collectors.toMap(
+                algorithm -> algorithm.name(), algorithm -> algorithm.aliases(), (a, b) -> a, LinkedHashMap::new));
+    }
+}
@@ -10,6 +10,7 @@ import com.bio.algorithm.SuffixTreeSearch;
 import com.bio.model.MatchRequest;
 import com.bio.model.MatchResult;
 import com.bio.service.NaiveSearchService;
+import com.bio.service.SearchMetrics;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,9 +24,11 @@ import java.util.List;
 public class BioinformaticsController {
 	// Inject the NaiveSearchService
     private final NaiveSearchService naiveSearchService;
+    private final SearchMetrics metrics;
 
-    public BioinformaticsController(NaiveSearchService naiveSearchService) {
+    public BioinformaticsController(NaiveSearchService naiveSearchService, SearchMetrics metrics) {
         this.naiveSearchService = naiveSearchService;
+        this.metrics = metrics;
     }
 
     // --- Data Transfer Object (DTO) for Request Body ---
@@ -42,7 +45,7 @@ public class BioinformaticsController {
     }
     
     // Helper method for error handling
-    private ResponseEntity<MatchResult> handleSearch(String algorithmName, SearchRequest request, SearchExecutor executor) {
+    private ResponseEntity<MatchResult> handleSearch(String algorithmName, String algorithmTag, SearchRequest request, SearchExecutor executor) {
         if (request.getText() == null || request.getPattern() == null || request.getPattern().isEmpty()) {
             return new ResponseEntity<>(
                 new MatchResult(algorithmName, 0, Collections.emptyList(), 0, 0),
@@ -50,7 +53,7 @@ public class BioinformaticsController {
             );
         }
         try {
-            MatchResult result = executor.execute(request.getText(), request.getPattern());
+            MatchResult result = metrics.time("match", algorithmTag, () -> executor.execute(request.getText(), request.getPattern()));
             return new ResponseEntity<>(result, HttpStatus.OK);
         } catch (Exception e) {
             System.err.println("Error running " + algorithmName + ": " + e.getMessage());
@@ -71,7 +74,7 @@ public class BioinformaticsController {
     // 1. Naive Search (Mid-Term Requirement)
     @PostMapping("/naive")
     public ResponseEntity<MatchResult> runNaiveSearch(@RequestBody SearchRequest request) {
-        return handleSearch("Naive Search", request, (text, pattern) -> 
+        return handleSearch("Naive Search", "naive", request, (text, pattern) -> 
             new NaiveSearch().search(text, pattern)
         );
     }
@@ -83,7 +86,7 @@ public class BioinformaticsController {
 
         try {
             // Call the new service method that handles 10M data generation
-            MatchResult result = naiveSearchService.executeSearch(request);
+            MatchResult result = metrics.time("match", "naive", () -> naiveSearchService.executeSearch(request));
 
             double timeMs = (double) result.getExecutionTimeNs() / 1_000_000.0;
             System.out.printf("Sequential Naive Search on 10M bases completed in %.4f ms. Matches: %d\n",
@@ -101,7 +104,7 @@ public class BioinformaticsController {
     @PostMapping("/kmp")
     public ResponseEntity<MatchResult> runKMPSearch(@RequestBody SearchRequest request) {
         // *** FIX: Replace the placeholder with the actual KMPSearch class ***
-        return handleSearch("KMP Search", request, (text, pattern) -> 
+        return handleSearch("KMP Search", "kmp", request, (text, pattern) -> 
             new KMPSearch().search(text, pattern)
         );
     }
@@ -110,7 +113,7 @@ public class BioinformaticsController {
     @PostMapping("/boyer-moore")
     public ResponseEntity<MatchResult> runBoyerMooreSearch(@RequestBody SearchRequest request) {
         // *** FIX: Replace the placeholder with the actual BoyerMooreSearch class ***
-        return handleSearch("Boyer-Moore Search", request, (text, pattern) -> 
+        return handleSearch("Boyer-Moore Search", "boyer-moore", request, (text, pattern) -> 
             new BoyerMooreSearch().search(text, pattern)
         );
     }
@@ -118,15 +121,15 @@ public class BioinformaticsController {
     // 4. Native Java Search (Performance Baseline)
     @PostMapping("/native")
     public ResponseEntity<MatchResult> runNativeJavaSearch(@RequestBody SearchRequest request) {
-        return handleSearch("Native Java indexOf()", request, (text, pattern) -> 
+        return handleSearch("Native Java indexOf()", "native", request, (text, pattern) -> 
             new NativeJavaSearch().search(text, pattern)
         );
     }
 
-    // 5. BioJava Search (Library Integration)
+    // 5. IUPAC ambiguity-code search (formerly BioJava/Regex; the path is kept for existing clients)
     @PostMapping("/biojava")
     public ResponseEntity<MatchResult> runBioJavaSearch(@RequestBody SearchRequest request) {
-        return handleSearch("BioJava/Regex Search", request, (text, pattern) -> 
+        return handleSearch("IUPAC Shift-And Search", "biojava", request, (text, pattern) -> 
             new BioJavaSearch().search(text, pattern)
         );
     }
@@ -141,6 +144,6 @@ public class BioinformaticsController {
         SuffixTreeSearch searcher = new SuffixTreeSearch();
         
         // The search method handles timing and comparison counting internally
-        return searcher.search(request.getText(), request.getPattern());
+        return metrics.time("match", "suffix-tree", () -> searcher.search(request.getText(), request.getPattern()));
     }
 }
\ No newline at end of file
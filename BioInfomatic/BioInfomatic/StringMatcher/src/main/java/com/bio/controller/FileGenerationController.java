@@ -1,9 +1,13 @@
 package com.bio.controller;
 
+import com.bio.service.GenomeRepository;
 import com.bio.utils.GenomeDataGeneratorPro;
+import com.bio.utils.ParallelGenomeGenerator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 @RestController
@@ -11,6 +15,21 @@ import java.nio.file.Path;
 @CrossOrigin(origins = "*") // Allow requests from your frontend
 public class FileGenerationController {
 
+    // The default genome is searched in memory, so it stays within the int range
+    @Value("${app.generator.max-size:1000000000}")
+    private int maxSize = 1_000_000_000;
+
+    // Large corpora are only written to disk (searched by /api/bioinfo/window), so the disk is the limit
+    @Value("${app.generator.max-file-bases:17179869184}")
+    private long maxFileBases = 17_179_869_184L;
+
+    private final GenomeRepository genomes;
+
+    public FileGenerationController(GenomeRepository genomes) {
+        this.genomes = genomes;
+    }
+
+    // Synchronous; /api/bioinfo/jobs/generate-file/{pattern} runs the same generation as a job
     @GetMapping("/generate-file/{pattern}")
     public ResponseEntity<String> generateFile(
             @PathVariable String pattern,
@@ -21,8 +40,8 @@ public class FileGenerationController {
         }
 
         // Safety check to prevent server overload
-        if (size <= 0 || size > 200_000_000) {
-            return ResponseEntity.badRequest().body("Size must be between 1 and 200,000,000 bases.");
+        if (size <= 0 || size > maxSize) {
+            return ResponseEntity.badRequest().body("Size must be between 1 and " + maxSize + " bases (app.generator.max-size).");
         }
 
         try {
@@ -35,4 +54,40 @@ public class FileGenerationController {
             return ResponseEntity.internalServerError().body("Failed to generate and save file: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Writes a synthetic corpus of up to app.generator.max-file-bases into the genome data directory
+    // (app.genomes.data-dir) without loading it; packed=true stores 4 bases per byte (ACGT patterns only).
+    // Search it with /api/bioinfo/window/search?file=..., or load it with /api/bioinfo/genomes/{id}/load-file.
+    @GetMapping("/generate-large/{pattern}")
+    public ResponseEntity<String> generateLargeFile(
+            @PathVariable String pattern,
+            @RequestParam long size,
+            @RequestParam String file,
+            @RequestParam(defaultValue = "false") boolean packed) {
+
+        if (pattern == null || pattern.isEmpty()) {
+            return ResponseEntity.badRequest().body("Pattern is required.");
+        }
+        if (size <= 0 || size > maxFileBases) {
+            return ResponseEntity.badRequest().body("Size must be between 1 and " + maxFileBases
+                    + " bases (app.generator.max-file-bases).");
+        }
+
+        try {
+            Path filePath = genomes.dataPath(file);
+            Files.createDirectories(filePath.getParent());
+
+            long startTime = System.nanoTime();
+            long bytes = new ParallelGenomeGenerator(pattern, size).write(filePath, packed);
+            long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+
+            return ResponseEntity.ok("Successfully generated genome file (" + size + " bases, " + bytes + " bytes"
+                    + (packed ? ", 2-bit packed" : "") + ", " + elapsedMs + " ms): " + filePath);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().body("Failed to generate and save file: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.bio.controller;
+
+import com.bio.model.GenomeInfo;
+import com.bio.service.GenomeRepository;
+import com.bio.utils.GenomeRecords;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manages the genomes of the GenomeRepository. A loaded genome is searched by passing its id as
+ * {@code genomeId} in any search request; requests without one search the default genome (/api/bioinfo/data).
+ */
+@RestController
+@RequestMapping("/api/bioinfo/genomes")
+@CrossOrigin(origins = "*")
+public class GenomeRepositoryController {
+
+    private final GenomeRepository genomes;
+
+    public GenomeRepositoryController(GenomeRepository genomes) {
+        this.genomes = genomes;
+    }
+
+    @GetMapping
+    public Map<String, Object> list() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("genomes", genomes.list());
+        body.put("usedBytes", genomes.usedBytes());
+        body.put("maxBytes", genomes.maxBytes());
+        body.put("evictions", genomes.getEvictions());
+        return body;
+    }
+
+    // Upload: the request body (plain sequence, FASTA or FASTQ) is streamed straight into off-heap memory
+    @PutMapping("/{id}")
+    public ResponseEntity<?> upload(@PathVariable String id, HttpServletRequest request) {
+        return load(() -> genomes.loadStream(id, request.getInputStream(), request.getContentLengthLong()));
+    }
+
+    // Loads a plain sequence, FASTA or FASTQ file from the server's genome data directory (app.genomes.data-dir)
+    @PostMapping("/{id}/load-file")
+    public ResponseEntity<?> loadFile(@PathVariable String id, @RequestParam String file) {
+        return load(() -> genomes.loadFile(id, file));
+    }
+
+    @PostMapping("/{id}/generate")
+    public ResponseEntity<?> generate(@PathVariable String id, @RequestParam String pattern,
+                                      @RequestParam(defaultValue = "1000000") int size) {
+        if (pattern.isEmpty()) {
+            return ResponseEntity.badRequest().body("Pattern is required.");
+        }
+        if (size <= 0) {
+            return ResponseEntity.badRequest().body("Size must be positive.");
+        }
+        return load(() -> genomes.generate(id, pattern, size));
+    }
+
+    // Record layout of a FASTA/FASTQ genome: name, start (global offset) and length of each record, paged
+    @GetMapping("/{id}/records")
+    public ResponseEntity<?> records(@PathVariable String id,
+                                     @RequestParam(defaultValue = "0") int offset,
+                                     @RequestParam(defaultValue = "1000") int limit) {
+        GenomeRecords records;
+        try {
+            records = genomes.records(id);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+        List<Map<String, Object>> page = new ArrayList<>();
+        int total = records != null ? records.size() : 0;
+        for (int i = Math.max(0, offset); i < total && page.size() < Math.max(0, limit); i++) {
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("name", records.name(i));
+            record.put("start", records.start(i));
+            record.put("length", records.length(i));
+            page.add(record);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("total", total);
+        body.put("records", page);
+        return ResponseEntity.ok(body);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<String> remove(@PathVariable String id) {
+        return genomes.remove(id)
+                ? ResponseEntity.ok("Genome '" + id + "' removed.")
+                : ResponseEntity.status(HttpStatus.NOT_FOUND).body("Genome '" + id + "' is not loaded.");
+    }
+
+    @FunctionalInterface
+    private interface Load {
+        GenomeInfo run() throws IOException;
+    }
+
+    private ResponseEntity<?> load(Load load) {
+        try {
+            return ResponseEntity.ok(load.run());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body("Failed to load genome: " + e.getMessage());
+        } catch (OutOfMemoryError e) {
+            // Direct memory exhausted (-XX:MaxDirectMemorySize below app.genomes.max-bytes)
+            return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body("Out of direct memory: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.bio.controller;
+
+import com.bio.model.MultiMatchRequest;
+import com.bio.model.MultiMatchResult;
+import com.bio.service.MultiPatternSearchService;
+import com.bio.service.SearchMetrics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/bioinfo/multi")
+@CrossOrigin(origins = "*")
+public class MultiPatternSearchController {
+
+    private final MultiPatternSearchService multiPatternService;
+    private final SearchMetrics metrics;
+
+    public MultiPatternSearchController(MultiPatternSearchService multiPatternService, SearchMetrics metrics) {
+        this.multiPatternService = multiPatternService;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Finds every occurrence of every pattern (probe/primer panel) in a single scan of the genome.
+     *
+     * @param request Contains the list of patterns; results come back grouped by pattern id (list index).
+     */
+    @PostMapping("/aho-corasick")
+    public ResponseEntity<MultiMatchResult> runAhoCorasick(@RequestBody MultiMatchRequest request) {
+        if (request.getPatterns() == null || request.getPatterns().isEmpty()) {
+            return ResponseEntity.badRequest().body(new MultiMatchResult("At least one pattern is required."));
+        }
+        try {
+            long startTime = System.nanoTime();
+            MultiMatchResult result = multiPatternService.executeSearch(request);
+            recordMetrics("multi", result, System.nanoTime() - startTime);
+            System.out.printf("Aho-Corasick search for %d patterns completed in %.4f ms. Matches: %d%n",
+                    result.getPatternCount(), result.getExecutionTimeNs() / 1_000_000.0, result.getTotalMatches());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MultiMatchResult(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new MultiMatchResult("Error: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/aho-corasick-parallel")
+    public ResponseEntity<MultiMatchResult> runAhoCorasickParallel(@RequestBody MultiMatchRequest request) {
+        if (request.getPatterns() == null || request.getPatterns().isEmpty()) {
+            return ResponseEntity.badRequest().body(new MultiMatchResult("At least one pattern is required."));
+        }
+        if (request.getNumChunks() <= 0) {
+            return ResponseEntity.badRequest().body(new MultiMatchResult("A positive number of chunks (numChunks) is required."));
+        }
+        try {
+            long startTime = System.nanoTime();
+            MultiMatchResult result = multiPatternService.executeParallelSearch(request);
+            recordMetrics("multi-parallel", result, System.nanoTime() - startTime);
+            System.out.printf("Parallel Aho-Corasick search for %d patterns completed in %.4f ms. Matches: %d%n",
+                    result.getPatternCount(), result.getExecutionTimeNs() / 1_000_000.0, result.getTotalMatches());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MultiMatchResult(e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().body(new MultiMatchResult("Parallel execution failed: " + e.getMessage()));
+        }
+    }
+
+    private void recordMetrics(String endpoint, MultiMatchResult result, long elapsedNs) {
+        metrics.record(endpoint, "aho-corasick", result.getErrorMessage() == null ? "success" : "error", false,
+                elapsedNs, result.getTextLength(), result.getTotalMatches(), 0);
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.*;
 import com.bio.model.MatchRequest;
 import com.bio.model.MatchResult;
 import com.bio.service.ParallelGenericSearchService;
+import com.bio.service.SearchMetrics;
 
 @RestController
 @RequestMapping("/api/bioinfo/parallel")
@@ -15,14 +16,17 @@ import com.bio.service.ParallelGenericSearchService;
 public class ParallelSearchController {
 
     private final ParallelGenericSearchService parallelService;
+    private final SearchMetrics metrics;
 
-    public ParallelSearchController(ParallelGenericSearchService parallelService) {
+    public ParallelSearchController(ParallelGenericSearchService parallelService, SearchMetrics metrics) {
         this.parallelService = parallelService;
+        this.metrics = metrics;
     }
 
     /**
      * Runs the specified algorithm (e.g., Naive, KMP, etc.) dynamically
      * in a load-balanced parallel fashion on a large DNA sequence.
+     * Holds the request until the search ends; long searches can be submitted to /api/bioinfo/jobs/search instead.
      *
      * @param request Contains the pattern and number of chunks to divide the genome into.
      * @return Combined match result after parallel execution.
@@ -50,7 +54,8 @@ public class ParallelSearchController {
             // Get available logical CPU cores for the system (where the API is running)
             int availableCores = Runtime.getRuntime().availableProcessors();
             // Execute and aggregate results from all threads
-            MatchResult result = parallelService.executeParallelSearch(request);
+            MatchResult result = metrics.time("parallel", request.getAlgorithm(),
+                    () -> parallelService.executeParallelSearch(request));
 
             // Log performance metrics
             double timeMs = (double) result.getExecutionTimeNs() / 1_000_000.0;
@@ -64,6 +69,8 @@ public class ParallelSearchController {
 
             return ResponseEntity.ok(result);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MatchResult(e.getMessage()));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity
@@ -72,5 +79,44 @@ public class ParallelSearchController {
         }
     }
 
+    /**
+     * Approximate parallel search: algorithm "hamming" (k mismatches) or "myers" (k edits), k = maxErrors.
+     */
+    @PostMapping("/run-approximate")
+    public ResponseEntity<MatchResult> runApproximateParallelSearch(@RequestBody MatchRequest request) {
+        if (request.getPattern() == null || request.getPattern().isEmpty()) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new MatchResult("Pattern is required."));
+        }
+
+        if (request.getMaxErrors() < 0 || request.getMaxErrors() >= request.getPattern().length()) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new MatchResult("maxErrors must be between 0 and pattern length - 1."));
+        }
+
+        try {
+            MatchResult result = metrics.time("parallel-approximate", request.getAlgorithm(),
+                    () -> parallelService.executeApproximateSearch(request));
+
+            double timeMs = (double) result.getExecutionTimeNs() / 1_000_000.0;
+            System.out.printf(
+                    "Approximate Parallel Search (%s) completed in %.4f ms. Matches: %d%n",
+                    result.getAlgorithm(),
+                    timeMs,
+                    result.getMatchIndices().size()
+            );
+
+            return ResponseEntity.ok(result);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MatchResult(e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MatchResult("Parallel execution failed: " + e.getMessage()));
+        }
+    }
 }
@@ -0,0 +1,114 @@
+package com.bio.controller;
+
+import com.bio.model.JobStatus;
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import com.bio.service.SearchJobService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Asynchronous parallel searches and genome generations (see SearchJobService). Submitting answers 202 with the
+ * job's status at once; poll GET /{id} for state and progress (bases done of totalBases), then fetch the
+ * search result from GET /{id}/result. DELETE /{id} cancels the job.
+ */
+@RestController
+@RequestMapping("/api/bioinfo/jobs")
+@CrossOrigin(origins = "*")
+public class SearchJobController {
+
+    // Same cap as the synchronous /api/bioinfo/data/generate-file
+    @Value("${app.generator.max-size:1000000000}")
+    private int maxSize = 1_000_000_000;
+
+    private final SearchJobService jobs;
+
+    public SearchJobController(SearchJobService jobs) {
+        this.jobs = jobs;
+    }
+
+    // Body as for /api/bioinfo/parallel/run-dynamic; numChunks <= 0 leaves the split to the grain size
+    @PostMapping("/search")
+    public ResponseEntity<?> submitSearch(@RequestBody MatchRequest request,
+                                          @RequestParam(defaultValue = "0") int priority) {
+        if (request.getPattern() == null || request.getPattern().isEmpty()) {
+            return ResponseEntity.badRequest().body("Pattern is required.");
+        }
+        return submit(() -> jobs.submitSearch(request, priority));
+    }
+
+    @PostMapping("/generate-file/{pattern}")
+    public ResponseEntity<?> submitGeneration(@PathVariable String pattern,
+                                              @RequestParam(defaultValue = "1000000") int size,
+                                              @RequestParam(defaultValue = "0") int priority) {
+        if (pattern == null || pattern.isEmpty()) {
+            return ResponseEntity.badRequest().body("Pattern is required.");
+        }
+        if (size <= 0 || size > maxSize) {
+            return ResponseEntity.badRequest().body("Size must be between 1 and " + maxSize + " bases (app.generator.max-size).");
+        }
+        return submit(() -> jobs.submitGeneration(pattern, size, priority));
+    }
+
+    @GetMapping
+    public List<JobStatus> list() {
+        return jobs.list();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> status(@PathVariable String id) {
+        JobStatus status = jobs.status(id);
+        return status != null ? ResponseEntity.ok(status) : unknown(id);
+    }
+
+    // 200 with the result once the search succeeded; 202 while it is queued or running
+    @GetMapping("/{id}/result")
+    public ResponseEntity<MatchResult> result(@PathVariable String id) {
+        JobStatus status = jobs.status(id);
+        if (status == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MatchResult("Unknown or expired job: " + id));
+        }
+        switch (status.getState()) {
+            case QUEUED:
+            case RUNNING:
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(new MatchResult("Job is " + status.getState()
+                        + String.format(Locale.ROOT, " (%.1f%% done).", status.getProgress() * 100)));
+            case SUCCEEDED:
+                MatchResult result = jobs.result(id);
+                return result != null ? ResponseEntity.ok(result)
+                        : ResponseEntity.status(HttpStatus.CONFLICT).body(new MatchResult(
+                                "Job " + id + " has no match result: " + status.getMessage()));
+            default:
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(new MatchResult("Job " + status.getState()
+                        + ": " + status.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancel(@PathVariable String id) {
+        JobStatus status = jobs.cancel(id);
+        return status != null ? ResponseEntity.ok(status) : unknown(id);
+    }
+
+    private interface Submission {
+        JobStatus submit();
+    }
+
+    private ResponseEntity<?> submit(Submission submission) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(submission.submit());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<?> unknown(String id) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown or expired job: " + id);
+    }
+}
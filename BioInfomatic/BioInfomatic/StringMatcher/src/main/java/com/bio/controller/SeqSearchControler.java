@@ -2,6 +2,7 @@ package com.bio.controller;
 
 import com.bio.model.MatchRequest;
 import com.bio.model.MatchResult;
+import com.bio.service.SearchMetrics;
 import com.bio.service.SequentialSearchService; // Renamed from NaiveSearchService
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,9 +13,11 @@ import org.springframework.web.bind.annotation.*;
 public class SeqSearchControler {
 
     private final SequentialSearchService searchService;
+    private final SearchMetrics metrics;
 
-    public SeqSearchControler(SequentialSearchService searchService) {
+    public SeqSearchControler(SequentialSearchService searchService, SearchMetrics metrics) {
         this.searchService = searchService;
+        this.metrics = metrics;
     }
 
     @PostMapping("/naive-search")
@@ -32,15 +35,67 @@ public class SeqSearchControler {
         return runSearch(request, "bm");
     }
 
+    // Horspool over 2-4 base q-grams: longer shifts than single-char BM on the 4-letter alphabet
+    @PostMapping("/qgram-search")
+    public ResponseEntity<MatchResult> runQGram(@RequestBody MatchRequest request) {
+        return runSearch(request, "qgram");
+    }
+
     @PostMapping("/suffix-search")
     public ResponseEntity<MatchResult> runSuffix(@RequestBody MatchRequest request) {
         return runSearch(request, "suffix");
     }
 
+    // Approximate search: up to maxErrors mismatches (Hamming distance)
+    @PostMapping("/hamming-search")
+    public ResponseEntity<MatchResult> runHamming(@RequestBody MatchRequest request) {
+        return runSearch(request, "hamming");
+    }
+
+    // Approximate search: up to maxErrors insertions/deletions/substitutions (reports end positions)
+    @PostMapping("/edit-distance-search")
+    public ResponseEntity<MatchResult> runEditDistance(@RequestBody MatchRequest request) {
+        return runSearch(request, "myers");
+    }
+
+    // IUPAC ambiguity codes in the pattern (R, Y, N, ...), up to maxErrors mismatches
+    @PostMapping("/iupac-search")
+    public ResponseEntity<MatchResult> runIupac(@RequestBody MatchRequest request) {
+        return runSearch(request, "iupac");
+    }
+
+    // IUPAC ambiguity codes in the pattern, exact
+    @PostMapping("/iupac-horspool-search")
+    public ResponseEntity<MatchResult> runIupacHorspool(@RequestBody MatchRequest request) {
+        return runSearch(request, "iupac-horspool");
+    }
+
+    @PostMapping("/fm-index-search")
+    public ResponseEntity<MatchResult> runFMIndex(@RequestBody MatchRequest request) {
+        return runSearch(request, "fm");
+    }
+
+    // Planner-chosen algorithm (see SearchPlanner); the plan is returned in the result
+    @PostMapping("/auto-search")
+    public ResponseEntity<MatchResult> runAuto(@RequestBody MatchRequest request) {
+        return runSearch(request, "auto");
+    }
+
+    @PostMapping("/fm-index-count")
+    public ResponseEntity<MatchResult> runFMIndexCount(@RequestBody MatchRequest request) {
+        try {
+            return ResponseEntity.ok(metrics.time("sequential", "fm-count", () -> searchService.executeCount(request)));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new MatchResult("Error: " + e.getMessage()));
+        }
+    }
+
     private ResponseEntity<MatchResult> runSearch(MatchRequest request, String algo) {
         try {
-            MatchResult result = searchService.executeSearch(request, algo);
+            MatchResult result = metrics.time("sequential", algo, () -> searchService.executeSearch(request, algo));
             return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MatchResult(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(new MatchResult("Error: " + e.getMessage()));
         }
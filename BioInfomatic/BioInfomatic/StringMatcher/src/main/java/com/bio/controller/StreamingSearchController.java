@@ -0,0 +1,63 @@
+package com.bio.controller;
+
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import com.bio.service.MatchStreamWriter;
+import com.bio.service.StreamingSearchService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Streaming search endpoints: matches are written as NDJSON lines (default) or Server-Sent Events while the
+ * scan runs, followed by a summary frame. Use these instead of the buffered endpoints for patterns with
+ * millions of hits, or to show the first hits before the whole genome is scanned.
+ */
+@RestController
+@RequestMapping("/api/bioinfo/stream")
+@CrossOrigin(origins = "*")
+public class StreamingSearchController {
+
+    private final StreamingSearchService streamingService;
+
+    public StreamingSearchController(StreamingSearchService streamingService) {
+        this.streamingService = streamingService;
+    }
+
+    // algo: naive, kmp, bm, qgram, suffix, fm, hamming, myers (same names as /Seqsearch)
+    @PostMapping("/sequential/{algo}")
+    public ResponseEntity<?> streamSequential(@PathVariable String algo, @RequestBody MatchRequest request,
+                                              @RequestParam(defaultValue = "ndjson") String format) {
+        if (request.getPattern() == null || request.getPattern().isEmpty()) {
+            return ResponseEntity.badRequest().body(new MatchResult("Pattern is required."));
+        }
+
+        MatchStreamWriter.Format streamFormat = MatchStreamWriter.Format.of(format);
+        StreamingResponseBody body = out -> streamingService.streamSequential(request, algo, streamFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(streamFormat.contentType()))
+                .body(body);
+    }
+
+    @PostMapping("/parallel")
+    public ResponseEntity<?> streamParallel(@RequestBody MatchRequest request,
+                                            @RequestParam(defaultValue = "ndjson") String format) {
+        if (request.getPattern() == null || request.getPattern().isEmpty()) {
+            return ResponseEntity.badRequest().body(new MatchResult("Pattern is required."));
+        }
+
+        MatchStreamWriter.Format streamFormat = MatchStreamWriter.Format.of(format);
+        StreamingResponseBody body = out -> {
+            try {
+                streamingService.streamParallel(request, streamFormat, out);
+            } catch (Exception e) {
+                // The error frame has already been written; headers are committed, so just log it
+                System.out.printf("Streaming parallel search failed: %s%n", e.getMessage());
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(streamFormat.contentType()))
+                .body(body);
+    }
+}
@@ -0,0 +1,45 @@
+package com.bio.controller;
+
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import com.bio.service.SearchMetrics;
+import com.bio.service.WindowedSearchService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Windowed search over genome files of any size, including those beyond 2 GB that the other endpoints cannot
+ * load. Match positions come back as 64-bit matchOffsets; resultMode, limit and offset apply as usual.
+ */
+@RestController
+@RequestMapping("/api/bioinfo/window")
+@CrossOrigin(origins = "*")
+public class WindowedSearchController {
+
+    private final WindowedSearchService windowedService;
+    private final SearchMetrics metrics;
+
+    public WindowedSearchController(WindowedSearchService windowedService, SearchMetrics metrics) {
+        this.windowedService = windowedService;
+        this.metrics = metrics;
+    }
+
+    // file: plain, FASTA or FASTQ file in app.genomes.data-dir; without it the default genome file is searched
+    @PostMapping("/search")
+    public ResponseEntity<MatchResult> search(@RequestBody MatchRequest request,
+                                              @RequestParam(required = false) String file) {
+        if (request.getPattern() == null || request.getPattern().isEmpty()) {
+            return ResponseEntity.badRequest().body(new MatchResult("Pattern is required."));
+        }
+        try {
+            return ResponseEntity.ok(metrics.time("windowed", request.getAlgorithm(),
+                    () -> windowedService.search(request, file)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MatchResult(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MatchResult("Windowed search failed: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.bio.model;
+
+/**
+ * Description of a genome held by the GenomeRepository (returned by the /api/bioinfo/genomes endpoints).
+ */
+public class GenomeInfo {
+
+    private String id;
+    private String origin;      // "file:<name>", "upload" or "generated:<pattern>"
+    private long length;        // bases
+    private long offHeapBytes;  // direct memory held by the sequence
+    private long version;       // changes whenever the id is (re)loaded; result caches key on it
+    private long loadTimeNs;
+    private String format;      // PLAIN, FASTA or FASTQ
+    private int records;        // FASTA/FASTQ records (0 for a plain sequence)
+
+    public GenomeInfo() {
+    }
+
+    public GenomeInfo(String id, String origin, long length, long offHeapBytes, long version, long loadTimeNs) {
+        this.id = id;
+        this.origin = origin;
+        this.length = length;
+        this.offHeapBytes = offHeapBytes;
+        this.version = version;
+        this.loadTimeNs = loadTimeNs;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public void setLength(long length) {
+        this.length = length;
+    }
+
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+
+    public void setOffHeapBytes(long offHeapBytes) {
+        this.offHeapBytes = offHeapBytes;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getLoadTimeNs() {
+        return loadTimeNs;
+    }
+
+    public void setLoadTimeNs(long loadTimeNs) {
+        this.loadTimeNs = loadTimeNs;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public int getRecords() {
+        return records;
+    }
+
+    public void setRecords(int records) {
+        this.records = records;
+    }
+}
@@ -0,0 +1,139 @@
+package com.bio.model;
+
+/**
+ * Snapshot of an asynchronous job (returned by the /api/bioinfo/jobs endpoints). Times are epoch milliseconds,
+ * 0 until the event has happened.
+ */
+public class JobStatus {
+
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    private String id;
+    private String type;            // "search" or "generate-file"
+    private String description;     // pattern and algorithm, or pattern and size
+    private int priority;           // higher runs first
+    private State state;
+    private long basesDone;         // bases scanned (search) or written (generation) so far
+    private long totalBases;        // -1 until the job knows its size
+    private long submittedAt;
+    private long startedAt;
+    private long finishedAt;
+    private long expiresAt;         // when a finished job and its result are dropped
+    private String message;         // outcome: the generated file, the failure or the cancellation
+
+    public JobStatus() {
+    }
+
+    public JobStatus(String id, String type, String description, int priority) {
+        this.id = id;
+        this.type = type;
+        this.description = description;
+        this.priority = priority;
+    }
+
+    /**
+     * @return fraction of the work done, 0 to 1 (0 while the size is unknown)
+     */
+    public double getProgress() {
+        if (state == State.SUCCEEDED) return 1.0;
+        return totalBases > 0 ? Math.min(1.0, (double) basesDone / totalBases) : 0.0;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public long getBasesDone() {
+        return basesDone;
+    }
+
+    public void setBasesDone(long basesDone) {
+        this.basesDone = basesDone;
+    }
+
+    public long getTotalBases() {
+        return totalBases;
+    }
+
+    public void setTotalBases(long totalBases) {
+        this.totalBases = totalBases;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(long submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
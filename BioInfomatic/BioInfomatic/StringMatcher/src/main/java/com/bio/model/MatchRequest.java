@@ -12,6 +12,20 @@ public class MatchRequest {
     // ADDED FIELD: The name of the sequential base algorithm (e.g., "Naive")
     private String algorithm; 
     private int numChunks; // <--- NEW FIELD
+    // Genome source: "packed" (default, in-memory cache, see PackedGenome.compact) or "mapped" (zero-copy memory-mapped file)
+    private String source;
+    // Repository genome to search (see GenomeRepository); null or blank searches the default genome
+    private String genomeId;
+    // Approximate searches: maximum mismatches (Hamming) or edits (Myers) allowed per match
+    private int maxErrors;
+    // Result mode (ALL, COUNT, EXISTS, FIRST_K, PAGE); FIRST_K and PAGE return at most limit positions,
+    // PAGE starting at the offset-th match
+    private ResultMode resultMode = ResultMode.ALL;
+    private int limit = 100;
+    private int offset;
+    // DNA patterns: also match the pattern's reverse complement in the same scan; hits are strand-tagged
+    // in MatchResult.matchStrands
+    private boolean bothStrands;
     // --- Constructors ---
     // Default constructor is required by some Jackson JSON deserializers
     public MatchRequest() {
@@ -24,6 +38,21 @@ public class MatchRequest {
         this.algorithm = algorithm;
     }
 
+    // Copy constructor: lets a service adjust one field (e.g. the planned algorithm) without touching the caller's request
+    public MatchRequest(MatchRequest other) {
+        this.text = other.text;
+        this.pattern = other.pattern;
+        this.algorithm = other.algorithm;
+        this.numChunks = other.numChunks;
+        this.source = other.source;
+        this.genomeId = other.genomeId;
+        this.maxErrors = other.maxErrors;
+        this.resultMode = other.resultMode;
+        this.limit = other.limit;
+        this.offset = other.offset;
+        this.bothStrands = other.bothStrands;
+    }
+
     // --- Getters (Required by Spring/Jackson to read data) ---
     public String getText() {
         return text;
@@ -60,4 +89,60 @@ public class MatchRequest {
     public void setNumChunks(int numChunks) {
         this.numChunks = numChunks;
     }
-}
\ No newline at end of file
+
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    public void setMaxErrors(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getGenomeId() {
+        return genomeId;
+    }
+
+    public void setGenomeId(String genomeId) {
+        this.genomeId = genomeId;
+    }
+
+    public ResultMode getResultMode() {
+        return resultMode;
+    }
+
+    public void setResultMode(ResultMode resultMode) {
+        this.resultMode = resultMode != null ? resultMode : ResultMode.ALL;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public boolean isBothStrands() {
+        return bothStrands;
+    }
+
+    public void setBothStrands(boolean bothStrands) {
+        this.bothStrands = bothStrands;
+    }
+}
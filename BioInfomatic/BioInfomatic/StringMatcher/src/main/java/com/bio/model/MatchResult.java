@@ -1,5 +1,9 @@
 package com.bio.model;
 
+import com.bio.utils.GenomeRecords;
+import com.bio.utils.IntList;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,7 +17,12 @@ public class MatchResult {
     private String algorithm;
     private long executionTimeNs;
     private List<Integer> matchIndices;
-    private int textLength;
+    private long matchCount;        // Number of matches (may be set without materializing matchIndices, e.g. FM-Index count)
+    private List<Integer> matchDistances; // Approximate searches only: distance of each match, parallel to matchIndices
+    private List<GenomeRecords.Location> matchLocations; // Multi-record genomes only: record name + local position, parallel to matchIndices
+    private List<Character> matchStrands; // Both-strand searches only: '+' or '-' per match, parallel to matchIndices (or matchOffsets)
+    private List<Long> matchOffsets;    // Windowed searches only: 64-bit match positions (matchIndices stays empty)
+    private long textLength;        // long for windowed searches over genomes larger than 2 GB
     private int patternLength;
     private String errorMessage;
     
@@ -21,6 +30,18 @@ public class MatchResult {
     private long overheadTimeNs;    // Time spent on preprocessing/construction (e.g., Suffix Tree build)
     private long comparisonCount;   // Total character comparisons made
 
+    // --- Result cache ---
+    private boolean cached;         // true if this answer was served from the result cache
+    private long cacheHits;         // cache-wide hit/miss totals at the time of the response
+    private long cacheMisses;
+
+    // --- Result modes (MatchRequest.resultMode) ---
+    private boolean truncated;      // true if the scan stopped early (EXISTS/FIRST_K/PAGE); matchCount is then a lower bound
+
+    // --- Adaptive planner (algorithm "auto") ---
+    private String plan;            // the algorithm and parallelism the planner chose, and why
+    private String plannedAlgorithm; // registry name of the algorithm the planner chose (metrics tag, not serialized)
+
     // --- FIX 1: Default (No-Argument) Constructor ---
     // Required for Spring/Jackson deserialization and simple object creation (new MatchResult())
     public MatchResult() {
@@ -41,6 +62,7 @@ public class MatchResult {
         this.algorithm = algorithm;
         this.executionTimeNs = executionTimeNs;
         this.matchIndices = matchIndices;
+        this.matchCount = matchIndices != null ? matchIndices.size() : 0;
         this.textLength = textLength;
         this.patternLength = patternLength;
     }
@@ -58,7 +80,34 @@ public class MatchResult {
         this(algorithm, executionTimeNs, matchIndices, textLength, patternLength, comparisonCount);
         this.overheadTimeNs = overheadTimeNs;
     }
-    
+
+    // --- Copy Constructor ---
+    // Used by the result cache so each response gets its own metadata; the index lists are shared
+    public MatchResult(MatchResult other) {
+        this.availableCores = other.availableCores;
+        this.cpuArchitecture = other.cpuArchitecture;
+        this.operatingSystem = other.operatingSystem;
+        this.totalMemoryMB = other.totalMemoryMB;
+        this.algorithm = other.algorithm;
+        this.executionTimeNs = other.executionTimeNs;
+        this.matchIndices = other.matchIndices;
+        this.matchCount = other.matchCount;
+        this.matchDistances = other.matchDistances;
+        this.matchLocations = other.matchLocations;
+        this.matchStrands = other.matchStrands;
+        this.matchOffsets = other.matchOffsets;
+        this.textLength = other.textLength;
+        this.patternLength = other.patternLength;
+        this.errorMessage = other.errorMessage;
+        this.overheadTimeNs = other.overheadTimeNs;
+        this.comparisonCount = other.comparisonCount;
+        this.cached = other.cached;
+        this.cacheHits = other.cacheHits;
+        this.cacheMisses = other.cacheMisses;
+        this.truncated = other.truncated;
+        this.plan = other.plan;
+        this.plannedAlgorithm = other.plannedAlgorithm;
+    }
 
     // --- Getters and Setters ---
     
@@ -84,13 +133,75 @@ public class MatchResult {
 
     public void setMatchIndices(List<Integer> matchIndices) {
         this.matchIndices = matchIndices;
+        this.matchCount = matchIndices != null ? matchIndices.size() : 0;
+    }
+
+    /**
+     * Primitive view of the match positions. Unboxes only if the indices were set as a boxed list.
+     */
+    @JsonIgnore
+    public int[] getMatchPositions() {
+        if (matchIndices instanceof IntList) {
+            return ((IntList) matchIndices).toIntArray();
+        }
+        int[] positions = new int[matchIndices == null ? 0 : matchIndices.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = matchIndices.get(i);
+        }
+        return positions;
+    }
+
+    // Stores the positions as-is (4 bytes per hit, no boxing); the array must not be modified afterwards
+    @JsonIgnore
+    public void setMatchPositions(int[] positions) {
+        setMatchIndices(IntList.wrap(positions));
+    }
+
+    public List<Integer> getMatchDistances() {
+        return matchDistances;
+    }
+
+    public void setMatchDistances(List<Integer> matchDistances) {
+        this.matchDistances = matchDistances;
+    }
+
+    public List<GenomeRecords.Location> getMatchLocations() {
+        return matchLocations;
+    }
+
+    public void setMatchLocations(List<GenomeRecords.Location> matchLocations) {
+        this.matchLocations = matchLocations;
+    }
+
+    public List<Character> getMatchStrands() {
+        return matchStrands;
+    }
+
+    public void setMatchStrands(List<Character> matchStrands) {
+        this.matchStrands = matchStrands;
+    }
+
+    public List<Long> getMatchOffsets() {
+        return matchOffsets;
+    }
+
+    public void setMatchOffsets(List<Long> matchOffsets) {
+        this.matchOffsets = matchOffsets;
+    }
+
+    public long getMatchCount() {
+        return matchCount;
+    }
+
+    public void setMatchCount(long matchCount) {
+        this.matchCount = matchCount;
     }
     
-    public int getTextLength() {
+    public long getTextLength() {
         return textLength;
     }
 
-    public void setTextLength(int textLength) {
+    public void setTextLength(long textLength) {
         this.textLength = textLength;
     }
 
@@ -141,4 +252,24 @@ public class MatchResult {
 
     public long getTotalMemoryMB() { return totalMemoryMB; }
     public void setTotalMemoryMB(long totalMemoryMB) { this.totalMemoryMB = totalMemoryMB; }
+
+    public boolean isCached() { return cached; }
+    public void setCached(boolean cached) { this.cached = cached; }
+
+    public long getCacheHits() { return cacheHits; }
+    public void setCacheHits(long cacheHits) { this.cacheHits = cacheHits; }
+
+    public long getCacheMisses() { return cacheMisses; }
+    public void setCacheMisses(long cacheMisses) { this.cacheMisses = cacheMisses; }
+
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+
+    public String getPlan() { return plan; }
+    public void setPlan(String plan) { this.plan = plan; }
+
+    @JsonIgnore
+    public String getPlannedAlgorithm() { return plannedAlgorithm; }
+    @JsonIgnore
+    public void setPlannedAlgorithm(String plannedAlgorithm) { this.plannedAlgorithm = plannedAlgorithm; }
 }
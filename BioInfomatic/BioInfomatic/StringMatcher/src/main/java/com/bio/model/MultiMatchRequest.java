@@ -0,0 +1,53 @@
+package com.bio.model;
+
+import java.util.List;
+
+/**
+ * Request body for multi-pattern (probe panel) searches: one pass over the genome for every pattern.
+ */
+public class MultiMatchRequest {
+
+    private List<String> patterns;
+    private int numChunks;  // Only used by the parallel endpoint
+    private String source;  // Genome source: "packed" (default) or "mapped"
+    private String genomeId; // Repository genome (GenomeRepository); null searches the default genome
+
+    public MultiMatchRequest() {
+    }
+
+    public MultiMatchRequest(List<String> patterns) {
+        this.patterns = patterns;
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    public void setPatterns(List<String> patterns) {
+        this.patterns = patterns;
+    }
+
+    public int getNumChunks() {
+        return numChunks;
+    }
+
+    public void setNumChunks(int numChunks) {
+        this.numChunks = numChunks;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getGenomeId() {
+        return genomeId;
+    }
+
+    public void setGenomeId(String genomeId) {
+        this.genomeId = genomeId;
+    }
+}
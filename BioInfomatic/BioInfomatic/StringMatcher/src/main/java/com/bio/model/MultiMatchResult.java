@@ -0,0 +1,57 @@
+package com.bio.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a multi-pattern search, grouped by pattern id.
+ */
+public class MultiMatchResult {
+
+    private String algorithm;
+    private long executionTimeNs;
+    private long overheadTimeNs;    // Automaton construction time
+    private int textLength;
+    private int patternCount;
+    private long totalMatches;
+    private List<PatternMatches> results;
+    private int availableCores;
+    private String errorMessage;
+
+    public MultiMatchResult() {
+        this.results = new ArrayList<>();
+    }
+
+    // Used by Controllers for handling bad requests or internal errors
+    public MultiMatchResult(String errorMessage) {
+        this();
+        this.errorMessage = errorMessage;
+    }
+
+    public String getAlgorithm() { return algorithm; }
+    public void setAlgorithm(String algorithm) { this.algorithm = algorithm; }
+
+    public long getExecutionTimeNs() { return executionTimeNs; }
+    public void setExecutionTimeNs(long executionTimeNs) { this.executionTimeNs = executionTimeNs; }
+
+    public long getOverheadTimeNs() { return overheadTimeNs; }
+    public void setOverheadTimeNs(long overheadTimeNs) { this.overheadTimeNs = overheadTimeNs; }
+
+    public int getTextLength() { return textLength; }
+    public void setTextLength(int textLength) { this.textLength = textLength; }
+
+    public int getPatternCount() { return patternCount; }
+    public void setPatternCount(int patternCount) { this.patternCount = patternCount; }
+
+    public long getTotalMatches() { return totalMatches; }
+    public void setTotalMatches(long totalMatches) { this.totalMatches = totalMatches; }
+
+    public List<PatternMatches> getResults() { return results; }
+    public void setResults(List<PatternMatches> results) { this.results = results; }
+
+    public int getAvailableCores() { return availableCores; }
+    public void setAvailableCores(int availableCores) { this.availableCores = availableCores; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+}
@@ -0,0 +1,41 @@
+package com.bio.model;
+
+import com.bio.utils.GenomeRecords;
+
+import java.util.List;
+
+/**
+ * Matches of a single pattern inside a multi-pattern result.
+ */
+public class PatternMatches {
+
+    private int patternId;      // Index of the pattern in the request list
+    private String pattern;
+    private List<Integer> matchIndices;
+    private List<GenomeRecords.Location> matchLocations;   // Multi-record genomes only: record name + local position
+
+    public PatternMatches() {
+    }
+
+    public PatternMatches(int patternId, String pattern, List<Integer> matchIndices) {
+        this.patternId = patternId;
+        this.pattern = pattern;
+        this.matchIndices = matchIndices;
+    }
+
+    public int getPatternId() { return patternId; }
+    public void setPatternId(int patternId) { this.patternId = patternId; }
+
+    public String getPattern() { return pattern; }
+    public void setPattern(String pattern) { this.pattern = pattern; }
+
+    public List<Integer> getMatchIndices() { return matchIndices; }
+    public void setMatchIndices(List<Integer> matchIndices) { this.matchIndices = matchIndices; }
+
+    public List<GenomeRecords.Location> getMatchLocations() { return matchLocations; }
+    public void setMatchLocations(List<GenomeRecords.Location> matchLocations) { this.matchLocations = matchLocations; }
+
+    public int getMatchCount() {
+        return matchIndices != null ? matchIndices.size() : 0;
+    }
+}
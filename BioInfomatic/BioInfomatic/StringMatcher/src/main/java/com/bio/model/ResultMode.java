@@ -0,0 +1,27 @@
+package com.bio.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * How much of a search result the caller needs (MatchRequest.resultMode).
+ *
+ * - ALL:     every match position (default)
+ * - COUNT:   only the number of matches; no positions are stored
+ * - EXISTS:  whether there is at least one match; the scan stops at the first hit
+ * - FIRST_K: the first {@code limit} positions in text order; the scan stops once they are found
+ * - PAGE:    positions [offset, offset + limit) in text order; the scan stops after offset + limit hits
+ */
+public enum ResultMode {
+    ALL,
+    COUNT,
+    EXISTS,
+    FIRST_K,
+    PAGE;
+
+    // Accepts "count", "first-k", "FIRST_K", ...; null or blank means ALL
+    @JsonCreator
+    public static ResultMode of(String name) {
+        if (name == null || name.trim().isEmpty()) return ALL;
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
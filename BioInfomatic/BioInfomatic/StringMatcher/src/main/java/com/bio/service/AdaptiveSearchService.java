@@ -0,0 +1,55 @@
+package com.bio.service;
+
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+/**
+ * Algorithm "auto" end to end: SearchPlanner picks the algorithm and whether to run it on the parallel pool,
+ * and the search runs through the regular sequential or parallel service (so it shares their result cache
+ * and feeds the planner's latency statistics).
+ */
+@Service
+public class AdaptiveSearchService {
+
+    private final SearchPlanner planner;
+    private final GenomeRepository genomes;
+    private final SequentialSearchService sequentialService;
+    private final ParallelGenericSearchService parallelService;
+
+    public AdaptiveSearchService(SearchPlanner planner, GenomeRepository genomes, SequentialSearchService sequentialService,
+                                 ParallelGenericSearchService parallelService) {
+        this.planner = planner;
+        this.genomes = genomes;
+        this.sequentialService = sequentialService;
+        this.parallelService = parallelService;
+    }
+
+    public SearchPlanner.Plan plan(MatchRequest request) throws IOException {
+        return planner.plan(request, genomes.genome(request.getGenomeId(), request.getSource()));
+    }
+
+    public MatchResult executeSearch(MatchRequest request) throws Exception {
+        SearchPlanner.Plan plan = plan(request);
+        String algorithm = plan.algorithm().name();
+        MatchRequest planned = new MatchRequest(request);
+        planned.setAlgorithm(algorithm);
+
+        MatchResult result;
+        if (!plan.parallel()) {
+            result = sequentialService.executeSearch(planned, algorithm);
+        } else if (plan.algorithm().approximate()) {
+            result = parallelService.executeApproximateSearch(planned);
+        } else {
+            result = parallelService.executeParallelSearch(planned);
+        }
+
+        // The result may be the cached instance: annotate a copy
+        MatchResult annotated = new MatchResult(result);
+        annotated.setPlan(plan.toString());
+        annotated.setPlannedAlgorithm(algorithm);
+        return annotated;
+    }
+}
@@ -0,0 +1,115 @@
+package com.bio.service;
+
+import com.bio.algorithm.BoyerMooreSearch;
+import com.bio.algorithm.CompiledPattern;
+import com.bio.algorithm.KMPSearch;
+import com.bio.algorithm.NaiveSearch;
+import com.bio.algorithm.QGramHorspoolSearch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of compiled patterns keyed by (algorithm, pattern). The algorithm is a registry name
+ * ("naive", "kmp", "bm", "qgram"); aliases are resolved by SearchAlgorithmRegistry before they get here.
+ *
+ * The workload repeats the same few hundred patterns, so the LPS arrays / shift tables are built once and
+ * then shared read-only by every request and every parallel chunk. Compilation runs outside the lock; two
+ * threads racing on the same miss both compile, and the first one stored wins.
+ */
+@Service
+public class CompiledPatternCache {
+
+    private final int maxEntries;
+    private final Map<Key, CompiledPattern> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CompiledPatternCache(@Value("${app.pattern-cache.max-entries:1024}") int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<Key, CompiledPattern>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CompiledPattern> eldest) {
+                return size() > CompiledPatternCache.this.maxEntries;
+            }
+        });
+    }
+
+    /**
+     * @param algorithm "naive", "kmp", "bm" or "qgram"
+     * @return the cached compiled pattern, compiling it on a miss
+     * @throws IllegalArgumentException if the algorithm has no compiled form (index-based and approximate
+     *                                  algorithms, or an unresolved alias)
+     */
+    public CompiledPattern get(String algorithm, String pattern) {
+        Key key = new Key(algorithm, pattern);
+        CompiledPattern compiled = cache.get(key);
+        if (compiled != null) {
+            hits.incrementAndGet();
+            return compiled;
+        }
+        misses.incrementAndGet();
+        compiled = compile(algorithm, pattern);
+        CompiledPattern existing = cache.putIfAbsent(key, compiled);
+        return existing != null ? existing : compiled;
+    }
+
+    private static CompiledPattern compile(String algorithm, String pattern) {
+        switch (algorithm) {
+            case "naive":
+                return new NaiveSearch().compile(pattern);
+            case "kmp":
+                return new KMPSearch().compile(pattern);
+            case "bm":
+                return new BoyerMooreSearch().compile(pattern);
+            case "qgram":
+                return new QGramHorspoolSearch().compile(pattern);
+            default:
+                throw new IllegalArgumentException("Algorithm '" + algorithm + "' has no compiled pattern form.");
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private static final class Key {
+        private final String algorithm;
+        private final String pattern;
+
+        private Key(String algorithm, String pattern) {
+            this.algorithm = algorithm;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return algorithm.equals(other.algorithm) && pattern.equals(other.pattern);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(algorithm, pattern);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.bio.service;
+
+import com.bio.algorithm.TextIndexes;
+import com.bio.model.GenomeInfo;
+import com.bio.model.MatchResult;
+import com.bio.utils.FastxReader;
+import com.bio.utils.GenomeDataGeneratorPro;
+import com.bio.utils.GenomeRecords;
+import com.bio.utils.MappedGenome;
+import com.bio.utils.PackedGenomeFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Named genomes (reference chromosomes, pathogen panels, plasmids, ...) held side by side, addressed by the
+ * {@code genomeId} of a search request. Requests without a genomeId keep using the single default genome of
+ * GenomeDataGeneratorPro.
+ *
+ * Files and uploads are parsed by FastxReader (plain, multi-record FASTA or FASTQ) straight into off-heap
+ * memory; the record layout travels with the sequence, so hits can be reported per record (see locate).
+ * Sequences live off-heap in direct buffers (one byte per base, searched in place through MappedGenome), so
+ * gigabytes of reference add nothing to GC marking or copying. The repository is bounded by
+ * {@code app.genomes.max-bytes}: storing a genome evicts the least recently searched ones until it fits.
+ * An evicted buffer is released by the GC once no running search (or cached index) still references it, so
+ * -XX:MaxDirectMemorySize should leave headroom above the budget.
+ *
+ * Loads of different ids run concurrently; reading happens outside the lock, which is only held to swap the
+ * finished genome in. A second load of an id that is still loading is rejected rather than queued. Each load
+ * reserves its expected size against the budget when it starts, so concurrent loads cannot overcommit it, and
+ * may not outgrow what the other loads left (a hard cap for uploads whose size is not known up front).
+ */
+@Service
+public class GenomeRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(GenomeRepository.class);
+
+    static {
+        // The default genome is resolved here too: its replaced views go the same way as removed genomes
+        GenomeDataGeneratorPro.onGenomeReplaced(TextIndexes::release);
+    }
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final long maxBytes;
+    private final Path dataDir;
+
+    // Access order: the least recently searched genome comes first. Guarded by 'this'.
+    private final LinkedHashMap<String, Entry> genomes = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;         // stored genomes plus reservedBytes
+    private long reservedBytes;     // size hints of the loads in progress
+
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public GenomeRepository(@Value("${app.genomes.max-bytes:2147483648}") long maxBytes,
+                            @Value("${app.genomes.data-dir:genomes}") String dataDir) {
+        this.maxBytes = maxBytes;
+        this.dataDir = Path.of(dataDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Resolves the text a request searches: the repository genome {@code genomeId}, or the default genome
+     * (packed or mapped, see GenomeDataGeneratorPro.loadGenome(source)) when no id is given.
+     */
+    public CharSequence genome(String genomeId, String source) throws IOException {
+        if (isDefault(genomeId)) {
+            return GenomeDataGeneratorPro.loadGenome(source);
+        }
+        return get(genomeId);
+    }
+
+    /**
+     * @return the repository genome, marking it as recently used
+     * @throws IOException if no genome with that id is loaded (never loaded, removed or evicted)
+     */
+    public synchronized CharSequence get(String genomeId) throws IOException {
+        Entry entry = genomes.get(genomeId);
+        if (entry == null) {
+            throw new IOException("Genome '" + genomeId + "' is not loaded. Load it through /api/bioinfo/genomes first.");
+        }
+        return entry.sequence;
+    }
+
+    /**
+     * @return the version of the genome a request would search, or -1 if it is not loaded. Every (re)load
+     *         gets a new version, so cached results for the old content are never served.
+     */
+    public long version(String genomeId) {
+        if (isDefault(genomeId)) {
+            return GenomeDataGeneratorPro.genomeVersion();
+        }
+        synchronized (this) {
+            Entry entry = genomes.get(genomeId);
+            return entry == null ? -1 : entry.info.getVersion();
+        }
+    }
+
+    /**
+     * @return the record layout of a loaded FASTA/FASTQ genome, or null for a plain sequence
+     * @throws IOException if no genome with that id is loaded
+     */
+    public GenomeRecords records(String genomeId) throws IOException {
+        return records(get(genomeId));
+    }
+
+    /**
+     * Adds record coordinates (record name + position within the record) to a result computed on {@code text},
+     * if the text is a multi-record genome. Taking the searched text rather than an id keeps the layout in step
+     * with the bases even if the genome is reloaded meanwhile.
+     */
+    public static MatchResult locate(CharSequence text, MatchResult result) {
+        GenomeRecords records = records(text);
+        if (records != null && result.getMatchIndices() != null) {
+            result.setMatchLocations(records.locate(result.getMatchIndices()));
+        }
+        return result;
+    }
+
+    public static GenomeRecords records(CharSequence text) {
+        return text instanceof MappedGenome ? ((MappedGenome) text).records() : null;
+    }
+
+    public static boolean isDefault(String genomeId) {
+        return genomeId == null || genomeId.isBlank();
+    }
+
+    /**
+     * Loads a plain sequence, FASTA, FASTQ or 2-bit packed file (see PackedGenomeFile) from the genome data
+     * directory ({@code app.genomes.data-dir}).
+     */
+    public GenomeInfo loadFile(String genomeId, String fileName) throws IOException {
+        Path file = dataFile(fileName);
+        long sizeHint;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bases = PackedGenomeFile.baseCount(channel);
+            sizeHint = bases >= 0 ? bases : channel.size();
+        }
+        try (ReadableByteChannel channel = PackedGenomeFile.openBases(file)) {
+            return load(genomeId, "file:" + fileName, channel, sizeHint);
+        }
+    }
+
+    /**
+     * Resolves a file name against the genome data directory, refusing paths that lead outside it.
+     *
+     * @throws IllegalArgumentException if the path escapes the data directory
+     * @throws IOException              if the file does not exist
+     */
+    public Path dataFile(String fileName) throws IOException {
+        Path file = dataPath(fileName);
+        if (!Files.isRegularFile(file)) {
+            throw new IOException("Genome file not found: " + file);
+        }
+        return file;
+    }
+
+    /**
+     * Resolves a file name against the genome data directory for writing (the file need not exist).
+     *
+     * @throws IllegalArgumentException if the path escapes the data directory
+     */
+    public Path dataPath(String fileName) {
+        Path file = dataDir.resolve(fileName).normalize();
+        if (!file.startsWith(dataDir) || file.equals(dataDir)) {
+            throw new IllegalArgumentException("Genome files must be inside " + dataDir);
+        }
+        return file;
+    }
+
+    /**
+     * Loads a plain sequence, FASTA or FASTQ stream (e.g. an upload body) straight into off-heap memory.
+     *
+     * @param sizeHint expected size in bytes, or -1 if unknown
+     */
+    public GenomeInfo loadStream(String genomeId, InputStream in, long sizeHint) throws IOException {
+        return load(genomeId, "upload", Channels.newChannel(in), sizeHint);
+    }
+
+    /**
+     * Generates a synthetic genome (same generator and seed as the default genome file) off-heap.
+     */
+    public GenomeInfo generate(String genomeId, String pattern, int size) throws IOException {
+        long reserved = beginLoad(genomeId, size);
+        boolean stored = false;
+        try {
+            long startTime = System.nanoTime();
+            ByteBuffer sequence = ByteBuffer.allocateDirect(size);
+            GenomeDataGeneratorPro.generateSequence(pattern, size, sequence);
+            stored = true;
+            return store(genomeId, "generated:" + pattern.toUpperCase(), sequence, null,
+                    FastxReader.Format.PLAIN, System.nanoTime() - startTime, reserved);
+        } finally {
+            endLoad(genomeId, stored ? 0 : reserved);
+        }
+    }
+
+    public synchronized boolean remove(String genomeId) {
+        Entry entry = genomes.remove(genomeId);
+        if (entry == null) return false;
+        usedBytes -= entry.info.getOffHeapBytes();
+        TextIndexes.release(entry.sequence);
+        return true;
+    }
+
+    /**
+     * @return the loaded genomes, least recently searched first (loads in progress are not listed)
+     */
+    public synchronized List<GenomeInfo> list() {
+        List<GenomeInfo> infos = new ArrayList<>(genomes.size());
+        for (Entry entry : genomes.values()) {
+            infos.add(entry.info);
+        }
+        return infos;
+    }
+
+    public synchronized int size() {
+        return genomes.size();
+    }
+
+    /**
+     * @return bytes held by loaded genomes plus those reserved by loads in progress
+     */
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private GenomeInfo load(String genomeId, String origin, ReadableByteChannel channel, long sizeHint) throws IOException {
+        long reserved = beginLoad(genomeId, sizeHint);
+        boolean stored = false;
+        try {
+            long startTime = System.nanoTime();
+            FastxReader.Result parsed = FastxReader.read(channel, sizeHint, budgetLeft(reserved), genomeId);
+            stored = true;
+            return store(genomeId, origin, parsed, System.nanoTime() - startTime, reserved);
+        } finally {
+            endLoad(genomeId, stored ? 0 : reserved);
+        }
+    }
+
+    /**
+     * Claims the id and reserves {@code sizeHint} bytes of the budget until the genome is stored or the load
+     * fails (see endLoad).
+     *
+     * @return the bytes reserved (0 when the size is unknown)
+     */
+    private long beginLoad(String genomeId, long sizeHint) {
+        if (genomeId == null || !VALID_ID.matcher(genomeId).matches()) {
+            throw new IllegalArgumentException("Genome ids are 1-64 letters, digits, '.', '_' or '-'.");
+        }
+        if (sizeHint > maxBytes) {
+            throw new IllegalArgumentException("Genome of " + sizeHint + " bytes exceeds the repository budget of "
+                    + maxBytes + " bytes (app.genomes.max-bytes).");
+        }
+        if (!loading.add(genomeId)) {
+            throw new IllegalStateException("Genome '" + genomeId + "' is already being loaded.");
+        }
+        long reserved = Math.max(0, sizeHint);
+        synchronized (this) {
+            if (reservedBytes + reserved > maxBytes) {
+                loading.remove(genomeId);
+                throw new IllegalStateException("Loads in progress have reserved " + reservedBytes + " of the "
+                        + maxBytes + " bytes budget (app.genomes.max-bytes); retry when they finish.");
+            }
+            reservedBytes += reserved;
+            usedBytes += reserved;
+        }
+        return reserved;
+    }
+
+    // Gives back a reservation the load did not turn into a stored genome, and releases the id
+    private void endLoad(String genomeId, long reserved) {
+        synchronized (this) {
+            reservedBytes -= reserved;
+            usedBytes -= reserved;
+        }
+        loading.remove(genomeId);
+    }
+
+    // The most a load holding 'reserved' may take: the budget less what the other loads in progress reserved
+    private synchronized long budgetLeft(long reserved) {
+        return maxBytes - (reservedBytes - reserved);
+    }
+
+    private GenomeInfo store(String genomeId, String origin, FastxReader.Result parsed, long loadTimeNs, long reserved) {
+        return store(genomeId, origin, parsed.sequence(), parsed.records(), parsed.format(), loadTimeNs, reserved);
+    }
+
+    // Swaps the load's reservation for the genome's real size, evicting others as needed
+    private GenomeInfo store(String genomeId, String origin, ByteBuffer sequence, GenomeRecords records,
+                             FastxReader.Format format, long loadTimeNs, long reserved) {
+        long bytes = sequence.capacity();
+        GenomeInfo info;
+        synchronized (this) {
+            reservedBytes -= reserved;
+            usedBytes -= reserved;
+            if (bytes > maxBytes - reservedBytes) {
+                throw new IllegalArgumentException("Genome '" + genomeId + "' needs " + bytes + " bytes, more than the "
+                        + (maxBytes - reservedBytes) + " bytes left for it in the repository budget of " + maxBytes
+                        + " bytes (app.genomes.max-bytes).");
+            }
+            info = new GenomeInfo(genomeId, origin, sequence.remaining(), bytes, versions.incrementAndGet(), loadTimeNs);
+            info.setFormat(format.name());
+            info.setRecords(records != null ? records.size() : 0);
+            Entry entry = new Entry(MappedGenome.wrap(sequence.asReadOnlyBuffer()).withRecords(records), info);
+
+            Entry previous = genomes.remove(genomeId);
+            if (previous != null) {
+                usedBytes -= previous.info.getOffHeapBytes();
+                TextIndexes.release(previous.sequence);
+            }
+
+            // LRU eviction: access order puts the least recently searched genome first
+            Iterator<Entry> it = genomes.values().iterator();
+            while (usedBytes + bytes > maxBytes && it.hasNext()) {
+                Entry evicted = it.next();
+                it.remove();
+                usedBytes -= evicted.info.getOffHeapBytes();
+                evictions.incrementAndGet();
+                TextIndexes.release(evicted.sequence);
+                log.info("Genome '{}' evicted from the repository ({} MB)", evicted.info.getId(),
+                        evicted.info.getOffHeapBytes() >> 20);
+            }
+
+            genomes.put(genomeId, entry);
+            usedBytes += bytes;
+        }
+
+        log.info("Genome '{}' loaded off-heap ({} bases, {} MB) in {} ms", genomeId, info.getLength(), bytes >> 20,
+                loadTimeNs / 1_000_000);
+        return info;
+    }
+
+    private static final class Entry {
+        private final MappedGenome sequence;
+        private final GenomeInfo info;
+
+        private Entry(MappedGenome sequence, GenomeInfo info) {
+            this.sequence = sequence;
+            this.info = info;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.bio.service;
+
+import com.bio.utils.GenomeRecords;
+import com.bio.utils.IntList;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a search to the response as a stream of JSON frames, either NDJSON (one frame per line) or
+ * Server-Sent Events ("event: type" + "data: frame").
+ *
+ * Frames:
+ * - hits:     {"type":"hits","count":n,"positions":[...]} (plus "distances" for approximate searches,
+ *             "from"/"to" for parallel chunks, which may arrive out of text order, "locations"
+ *             [{"record":..,"position":..}] for multi-record FASTA/FASTQ genomes, and "strands" ["+","-",..]
+ *             for both-strand searches)
+ * - progress: {"type":"progress","scanned":..,"textLength":..,"matches":..,"elapsedNs":..}
+ * - summary:  {"type":"summary","algorithm":..,"matchCount":..,"executionTimeNs":..,...}, always the last frame
+ * - error:    {"type":"error","message":..}
+ *
+ * The first hit is flushed immediately; later hits are batched and flushed every batchSize hits or every
+ * progress interval, so heap use is bounded by one batch and the client sees hits as they are found.
+ * Progress frames keep their own clock, so a steady flow of hits does not hold them back.
+ *
+ * Parallel searches never write from pool workers: chunk() only queues the finished frame (blocking the worker
+ * while MAX_PENDING_CHUNKS frames wait), and the request thread writes the queue to the socket in
+ * drainChunks(). A slow client thus throttles the search instead of pinning workers in socket writes.
+ * I/O failures (e.g. the client disconnected) surface as UncheckedIOException, which aborts the scan; workers
+ * still queueing then fail too instead of waiting for a writer that has gone.
+ */
+public final class MatchStreamWriter {
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        SSE("text/event-stream");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public static Format of(String name) {
+            return "sse".equalsIgnoreCase(name) ? SSE : NDJSON;
+        }
+    }
+
+    // Finished parallel chunks waiting for the request thread (bounds the frames held in memory)
+    static final int MAX_PENDING_CHUNKS = 256;
+
+    private final Writer out;
+    private final Format format;
+    private final int batchSize;
+    private final long progressIntervalNs;
+    private final long textLength;
+    private final long startNs = System.nanoTime();
+
+    private final IntList positions = new IntList();
+    private final IntList distances = new IntList();
+    private IntList strands;        // both-strand searches only: 0 forward, 1 reverse
+    private long matchCount;
+    private long scanned;
+    private long lastFlushNs = startNs;
+    private long lastProgressNs = startNs;
+    private boolean firstHitSent;
+    private volatile GenomeRecords records;   // also read by workers formatting chunk frames
+
+    private final BlockingQueue<PendingChunk> pendingChunks = new ArrayBlockingQueue<>(MAX_PENDING_CHUNKS);
+    private volatile boolean aborted;
+
+    public MatchStreamWriter(OutputStream out, Format format, long textLength, int batchSize, long progressIntervalMs) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        this.format = format;
+        this.textLength = textLength;
+        this.batchSize = Math.max(1, batchSize);
+        this.progressIntervalNs = progressIntervalMs * 1_000_000L;
+    }
+
+    /**
+     * Adds record coordinates to every hits frame; null (the default) writes global positions only.
+     */
+    public synchronized void locateWith(GenomeRecords records) {
+        this.records = records;
+    }
+
+    /**
+     * Adds the strand of every hit to the hits frames (both-strand searches).
+     */
+    public synchronized void withStrands() {
+        if (strands == null) strands = new IntList();
+    }
+
+    public synchronized void hit(int position) {
+        positions.addInt(position);
+        if (strands != null) strands.addInt(0);
+        afterHit();
+    }
+
+    public synchronized void hit(int position, int distance) {
+        distances.addInt(distance);
+        hit(position);
+    }
+
+    // Hit of the pattern's reverse complement (both-strand searches)
+    public synchronized void reverseHit(int position) {
+        positions.addInt(position);
+        if (strands != null) strands.addInt(1);
+        afterHit();
+    }
+
+    public synchronized void reverseHit(int position, int distance) {
+        distances.addInt(distance);
+        reverseHit(position);
+    }
+
+    private void afterHit() {
+        matchCount++;
+        if (!firstHitSent || positions.size() >= batchSize || System.nanoTime() - lastFlushNs >= progressIntervalNs) {
+            firstHitSent = true;
+            flushHits();
+            flush();
+        }
+    }
+
+    /**
+     * Queues one finished parallel chunk as its own frame: the hits it owns in [from, to), sorted, with their
+     * distances and strands (either may be null). Called by pool workers; the frame is formatted here and
+     * written by {@link #drainChunks}. Blocks while the queue is full.
+     *
+     * @throws UncheckedIOException if the stream failed, so the remaining leaves stop
+     */
+    public void chunk(int from, int to, IntList chunkPositions, IntList chunkDistances, IntList chunkStrands) {
+        StringBuilder frame = new StringBuilder(32 + chunkPositions.size() * 8);
+        frame.append("{\"type\":\"hits\",\"from\":").append(from).append(",\"to\":").append(to)
+                .append(",\"count\":").append(chunkPositions.size());
+        appendArray(frame, "positions", chunkPositions);
+        if (chunkDistances != null) {
+            appendArray(frame, "distances", chunkDistances);
+        }
+        appendStrands(frame, chunkStrands);
+        appendLocations(frame, chunkPositions);
+        frame.append('}');
+        PendingChunk chunk = new PendingChunk(frame.toString(), chunkPositions.size(), to - from);
+        try {
+            do {
+                if (aborted) throw new UncheckedIOException(new IOException("Stream closed"));
+            } while (!pendingChunks.offer(chunk, 10, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new IOException("Interrupted while queueing a frame", e));
+        }
+    }
+
+    /**
+     * Writes the frames queued by {@link #chunk} on the calling thread until {@code search} has finished and
+     * the queue is empty, with progress frames in between. The search's own outcome is left to the caller.
+     */
+    public void drainChunks(Future<?> search) {
+        // Short polls: the end of the search is noticed within 10 ms, progress frames keep their own interval
+        long pollNs = Math.max(1_000_000L, Math.min(progressIntervalNs, 10_000_000L));
+        try {
+            while (true) {
+                // Read before polling: once the search is done, every frame it queued is already visible
+                boolean finished = search.isDone();
+                PendingChunk chunk = pendingChunks.poll(pollNs, TimeUnit.NANOSECONDS);
+                if (chunk != null) {
+                    writeChunk(chunk);
+                } else if (finished) {
+                    return;
+                } else {
+                    idle();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort();
+            throw new UncheckedIOException(new IOException("Interrupted while streaming", e));
+        } catch (RuntimeException e) {
+            abort();
+            throw e;
+        }
+    }
+
+    private synchronized void writeChunk(PendingChunk chunk) {
+        matchCount += chunk.count;
+        scanned += chunk.length;
+        writeFrame("hits", chunk.frame);
+        maybeProgress();
+        // Frames waiting behind this one go out in the same flush
+        if (pendingChunks.isEmpty()) flush();
+    }
+
+    private synchronized void idle() {
+        maybeProgress();
+    }
+
+    private void abort() {
+        aborted = true;
+        pendingChunks.clear();
+    }
+
+    /**
+     * Records that the scan has reached {@code scannedTo} and emits a progress frame if the interval elapsed.
+     */
+    public synchronized void progress(long scannedTo) {
+        scanned = Math.max(scanned, scannedTo);
+        maybeProgress();
+    }
+
+    private void maybeProgress() {
+        long now = System.nanoTime();
+        if (now - lastProgressNs < progressIntervalNs) return;
+        lastProgressNs = now;
+        flushHits();
+        StringBuilder frame = new StringBuilder(128);
+        frame.append("{\"type\":\"progress\",\"scanned\":").append(scanned)
+                .append(",\"textLength\":").append(textLength)
+                .append(",\"matches\":").append(matchCount)
+                .append(",\"elapsedNs\":").append(now - startNs).append('}');
+        writeFrame("progress", frame);
+        flush();
+    }
+
+    /**
+     * Flushes pending hits and writes the final summary frame.
+     */
+    public synchronized void summary(String algorithm, int patternLength) {
+        flushHits();
+        StringBuilder frame = new StringBuilder(256);
+        frame.append("{\"type\":\"summary\",\"algorithm\":").append(quote(algorithm))
+                .append(",\"matchCount\":").append(matchCount)
+                .append(",\"textLength\":").append(textLength)
+                .append(",\"patternLength\":").append(patternLength)
+                .append(",\"executionTimeNs\":").append(System.nanoTime() - startNs)
+                .append(",\"availableCores\":").append(Runtime.getRuntime().availableProcessors()).append('}');
+        writeFrame("summary", frame);
+        flush();
+    }
+
+    public synchronized void error(String message) {
+        flushHits();
+        writeFrame("error", new StringBuilder("{\"type\":\"error\",\"message\":").append(quote(message)).append('}'));
+        flush();
+    }
+
+    public synchronized long matchCount() {
+        return matchCount;
+    }
+
+    // --- Internals ---
+
+    private void flushHits() {
+        if (positions.isEmpty()) return;
+        StringBuilder frame = new StringBuilder(32 + positions.size() * 8);
+        frame.append("{\"type\":\"hits\",\"count\":").append(positions.size());
+        appendArray(frame, "positions", positions);
+        if (!distances.isEmpty()) {
+            appendArray(frame, "distances", distances);
+        }
+        appendStrands(frame, strands);
+        appendLocations(frame, positions);
+        frame.append('}');
+        writeFrame("hits", frame);
+        positions.clear();
+        distances.clear();
+        if (strands != null) strands.clear();
+        lastFlushNs = System.nanoTime();
+    }
+
+    private static void appendArray(StringBuilder frame, String name, IntList values) {
+        frame.append(",\"").append(name).append("\":[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) frame.append(',');
+            frame.append(values.getInt(i));
+        }
+        frame.append(']');
+    }
+
+    private static void appendStrands(StringBuilder frame, IntList values) {
+        if (values == null) return;
+        frame.append(",\"strands\":[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) frame.append(',');
+            frame.append(values.getInt(i) == 0 ? "\"+\"" : "\"-\"");
+        }
+        frame.append(']');
+    }
+
+    private void appendLocations(StringBuilder frame, IntList values) {
+        if (records == null) return;
+        frame.append(",\"locations\":[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) frame.append(',');
+            int position = values.getInt(i);
+            int record = records.recordAt(position);
+            frame.append("{\"record\":").append(record < 0 ? "null" : quote(records.name(record)))
+                    .append(",\"position\":").append(record < 0 ? position : position - records.start(record)).append('}');
+        }
+        frame.append(']');
+    }
+
+    private void writeFrame(String type, CharSequence json) {
+        try {
+            if (format == Format.SSE) {
+                out.write("event: ");
+                out.write(type);
+                out.write("\ndata: ");
+                out.append(json);
+                out.write("\n\n");
+            } else {
+                out.append(json);
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lastFlushNs = System.nanoTime();
+    }
+
+    private static final class PendingChunk {
+        private final String frame;
+        private final int count;
+        private final int length;
+
+        private PendingChunk(String frame, int count, int length) {
+            this.frame = frame;
+            this.count = count;
+            this.length = length;
+        }
+    }
+
+    private static String quote(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.bio.service;
+
+import com.bio.algorithm.AhoCorasickSearch;
+import com.bio.model.MultiMatchRequest;
+import com.bio.model.MultiMatchResult;
+import com.bio.model.PatternMatches;
+import com.bio.utils.GenomeRecords;
+import com.bio.utils.IntList;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class MultiPatternSearchService {
+
+    private final ParallelGenericSearchService parallelService;
+    private final GenomeRepository genomes;
+
+    public MultiPatternSearchService(ParallelGenericSearchService parallelService, GenomeRepository genomes) {
+        this.parallelService = parallelService;
+        this.genomes = genomes;
+    }
+
+    // Single pass over the genome for every pattern in the panel
+    public MultiMatchResult executeSearch(MultiMatchRequest request) throws Exception {
+        CharSequence text = genomes.genome(request.getGenomeId(), request.getSource());
+
+        long startTime = System.nanoTime();
+        AhoCorasickSearch automaton = new AhoCorasickSearch(request.getPatterns());
+        long constructionTimeNs = System.nanoTime() - startTime;
+
+        List<List<Integer>> grouped = automaton.search(text);
+
+        long executionTimeNs = System.nanoTime() - startTime;
+        return buildResult("Aho-Corasick", automaton, grouped, text, executionTimeNs, constructionTimeNs);
+    }
+
+    // Chunked parallel pass; chunks overlap by (longest pattern - 1) and each keeps only the hits it owns
+    public MultiMatchResult executeParallelSearch(MultiMatchRequest request) throws Exception {
+        CharSequence text = genomes.genome(request.getGenomeId(), request.getSource());
+
+        long startTime = System.nanoTime();
+        AhoCorasickSearch automaton = new AhoCorasickSearch(request.getPatterns());
+        long constructionTimeNs = System.nanoTime() - startTime;
+
+        int numTasks = request.getNumChunks();
+        int patternCount = automaton.patternCount();
+
+        // Each leaf records its hits as (pattern id, position) pairs in report order, so a leaf costs two lists
+        // however large the panel is
+        List<LeafHits> chunkResults = parallelService.searchChunks(
+                text, numTasks, automaton.maxPatternLength() - 1,
+                (genome, from, to, ownedEnd) -> {
+                    LeafHits local = new LeafHits();
+                    automaton.search(genome, from, to, ownedEnd, local);
+                    return local;
+                });
+
+        // Bucket by pattern. Chunks are in text order and own disjoint ranges, and a leaf reports each pattern's
+        // hits in ascending order, so appending in leaf order keeps every list sorted
+        int[] counts = new int[patternCount];
+        for (LeafHits local : chunkResults) {
+            for (int i = 0; i < local.ids.size(); i++) {
+                counts[local.ids.getInt(i)]++;
+            }
+        }
+        List<IntList> buckets = new ArrayList<>(patternCount);
+        for (int id = 0; id < patternCount; id++) {
+            buckets.add(new IntList(counts[id]));
+        }
+        for (LeafHits local : chunkResults) {
+            for (int i = 0; i < local.ids.size(); i++) {
+                buckets.get(local.ids.getInt(i)).addInt(local.positions.getInt(i));
+            }
+        }
+        List<List<Integer>> grouped = new ArrayList<>(buckets);
+
+        long executionTimeNs = System.nanoTime() - startTime;
+        return buildResult("Aho-Corasick Parallel (Chunks: " + chunkResults.size() + ")",
+                automaton, grouped, text, executionTimeNs, constructionTimeNs);
+    }
+
+    // One leaf's hits: ids.getInt(i) occurs at positions.getInt(i)
+    private static final class LeafHits implements AhoCorasickSearch.MatchListener {
+        final IntList ids = new IntList();
+        final IntList positions = new IntList();
+
+        @Override
+        public void onMatch(int patternId, int position) {
+            ids.addInt(patternId);
+            positions.addInt(position);
+        }
+    }
+
+    private MultiMatchResult buildResult(String algorithm, AhoCorasickSearch automaton, List<List<Integer>> grouped,
+                                         CharSequence text, long executionTimeNs, long constructionTimeNs) {
+        MultiMatchResult result = new MultiMatchResult();
+        result.setAlgorithm(algorithm);
+        result.setExecutionTimeNs(executionTimeNs);
+        result.setOverheadTimeNs(constructionTimeNs);
+        result.setTextLength(text.length());
+        result.setPatternCount(automaton.patternCount());
+        result.setAvailableCores(Runtime.getRuntime().availableProcessors());
+
+        long total = 0;
+        GenomeRecords records = GenomeRepository.records(text);
+        List<PatternMatches> results = new ArrayList<>(grouped.size());
+        for (int id = 0; id < grouped.size(); id++) {
+            PatternMatches matches = new PatternMatches(id, automaton.getPatterns().get(id), grouped.get(id));
+            if (records != null) {
+                matches.setMatchLocations(records.locate(grouped.get(id)));
+            }
+            results.add(matches);
+            total += grouped.get(id).size();
+        }
+        result.setResults(results);
+        result.setTotalMatches(total);
+        return result;
+    }
+}
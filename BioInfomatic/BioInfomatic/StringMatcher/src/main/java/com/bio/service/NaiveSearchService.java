@@ -4,9 +4,10 @@ package com.bio.service;
 
 import com.bio.model.MatchRequest;
 import com.bio.model.MatchResult;
-import com.bio.utils.GenomeDataGenerator; 
-import com.bio.algorithm.NaiveSearch; // Assuming NaiveSearch has the .search(text, pattern) method
-import com.bio.utils.GenomeDataGeneratorPro;
+import com.bio.model.ResultMode;
+import com.bio.algorithm.CompiledPattern;
+import com.bio.algorithm.MatchCollector;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.io.IOException;
 import java.util.List;
@@ -14,19 +15,44 @@ import java.util.List;
 @Service
 public class NaiveSearchService {
 
+    private final SearchResultCache resultCache;
+    private final GenomeRepository genomes;
+    private final CompiledPatternCache patternCache;
+
+    @Autowired
+    public NaiveSearchService(SearchResultCache resultCache, GenomeRepository genomes, CompiledPatternCache patternCache) {
+        this.resultCache = resultCache;
+        this.genomes = genomes;
+        this.patternCache = patternCache;
+    }
+
     public MatchResult executeSearch(MatchRequest request) throws IOException {
+        // Repeated (genome, pattern) queries are answered from the result cache
+        return resultCache.getOrCompute("naive", request, () -> runSearch(request));
+    }
+
+    private MatchResult runSearch(MatchRequest request) throws IOException {
         
         // 1. Read the Massive Genomic Data from the file
-        String text = GenomeDataGeneratorPro.readGenomeFile();
+        CharSequence text = genomes.genome(request.getGenomeId(), request.getSource());
         String pattern = request.getPattern();
+        CompiledPattern compiled = patternCache.get("naive", pattern);
 
         // 2. Execute the search and return the result
-        // Assuming your NaiveSearch class is an algorithm implementation:
-        MatchResult result = new NaiveSearch().search(text, pattern);
+        if (request.getResultMode() != ResultMode.ALL) {
+            // COUNT / EXISTS / FIRST_K / PAGE: keep only what was asked for and stop the scan once it is found
+            long startTime = System.nanoTime();
+            MatchCollector collector = MatchCollector.of(request);
+            compiled.search(text, 0, text.length(), collector);
+            return GenomeRepository.locate(text,
+                    collector.toResult("Naive Search", System.nanoTime() - startTime, text.length(), pattern.length()));
+        }
+
+        MatchResult result = compiled.search(text);
         
         result.setAlgorithm("Naive Search");
         
-        return result;
+        return GenomeRepository.locate(text, result);
     }
     
     // The existing search method that ParallelGenericSearchService relies on:
@@ -1,150 +1,377 @@
 package com.bio.service;
 
-import com.bio.utils.GenomeDataGeneratorPro;
+import com.bio.algorithm.BothStrands;
+import com.bio.algorithm.MatchCollector;
+import com.bio.algorithm.OwnedRangeSink;
+import com.bio.algorithm.SearchAlgorithm;
+import com.bio.model.ResultMode;
+import com.bio.utils.IntList;
+import com.bio.utils.Progress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.bio.model.MatchRequest;
 import com.bio.model.MatchResult;
-import com.bio.utils.GenomeDataGenerator;
 import oshi.SystemInfo;
 import oshi.hardware.CentralProcessor;
 import oshi.hardware.GlobalMemory;
 import oshi.hardware.GraphicsCard;
 import oshi.hardware.HardwareAbstractionLayer;
 
+import javax.annotation.PostConstruct;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.io.IOException;
 
 @Service
 public class ParallelGenericSearchService {
 
-    private final NaiveSearchService naiveSearchService;
+    private static final Logger log = LoggerFactory.getLogger(ParallelGenericSearchService.class);
 
-    @Value("${app.parallel.num-threads:4}")
-    private int NUM_THREADS;
+    private final SearchAlgorithmRegistry registry;
+    private final SearchPlanner planner;
+    private final GenomeRepository genomes;
+    private final SearchResultCache resultCache;
+
+    private final ForkJoinPool searchPool;
+
+    // Leaf size for adaptive splitting: small enough for stealing to balance the load, large enough that
+    // per-leaf overhead (overlap re-scan, task bookkeeping) stays negligible
+    @Value("${app.parallel.grain-size:262144}")
+    private int grainSize = 262144;
 
     @Autowired
-    public ParallelGenericSearchService(NaiveSearchService naiveSearchService) {
-        this.naiveSearchService = naiveSearchService;
+    public ParallelGenericSearchService(SearchAlgorithmRegistry registry, SearchPlanner planner, GenomeRepository genomes,
+                                        SearchResultCache resultCache, ForkJoinPool searchPool) {
+        this.registry = registry;
+        this.planner = planner;
+        this.genomes = genomes;
+        this.resultCache = resultCache;
+        this.searchPool = searchPool;
+    }
+
+    /**
+     * Logs the hardware the searches run on, once at startup: an OSHI probe takes tens of milliseconds (hundreds
+     * the first time), far too slow for the request path.
+     */
+    @PostConstruct
+    void logHardware() {
+        try {
+            HardwareAbstractionLayer hal = new SystemInfo().getHardware();
+            CentralProcessor cpu = hal.getProcessor();
+            GlobalMemory memory = hal.getMemory();
+            log.info("CPU: {} ({} logical cores), total RAM: {} GB", cpu.getProcessorIdentifier().getName(),
+                    cpu.getLogicalProcessorCount(), memory.getTotal() / (1024 * 1024 * 1024));
+            for (GraphicsCard gc : hal.getGraphicsCards()) {
+                log.info("GPU: {}", gc.getName());
+            }
+        } catch (Exception | LinkageError e) {
+            log.info("OSHI info retrieval failed (optional dependency): {}", e.getMessage());
+        }
     }
 
+    // request.algorithm: any registered algorithm name or alias (naive if missing), or "auto"
     public MatchResult executeParallelSearch(MatchRequest request) throws Exception {
+        return executeParallelSearch(request, null);
+    }
+
+    /**
+     * Same search, reporting the bases of each finished leaf to {@code progress} (may be null). Once the progress
+     * is cancelled, leaves that have not started fail and the search throws a CancellationException.
+     */
+    public MatchResult executeParallelSearch(MatchRequest request, Progress progress) throws Exception {
+        return resultCache.getOrCompute("parallel", request,
+                () -> parallelSearch(request, SearchAlgorithmRegistry.DEFAULT_ALGORITHM, progress));
+    }
+
+    /**
+     * Parallel approximate search (k mismatches with Shift-And, or k edits with Myers; hamming if the request
+     * names no algorithm). Chunks overlap by m - 1 + k so that every match, including ones lengthened by
+     * insertions, fits entirely inside at least one chunk; each chunk then reports only the matches it owns.
+     */
+    public MatchResult executeApproximateSearch(MatchRequest request) throws Exception {
+        return resultCache.getOrCompute("parallel-approximate", request, () -> parallelSearch(request, "hamming", null));
+    }
+
+    private MatchResult parallelSearch(MatchRequest request, String defaultAlgorithm, Progress progress) throws Exception {
 
         // 1. Read the Massive Genomic Data from the file
         String pattern = request.getPattern();
 
-        // Read from file
-        String text;
+        // Read from file (packed or memory-mapped; chunks are searched in place, never copied)
+        CharSequence text;
         try {
-            text = GenomeDataGeneratorPro.readGenomeFile();
+            text = genomes.genome(request.getGenomeId(), request.getSource());
         } catch (IOException e) {
             throw new Exception("Failed to read genome file. Ensure the file generation endpoint was successfully called.", e);
         }
 
         int textLength = text.length();
         int patternLength = pattern.length();
+        if (progress != null) progress.setTotal(textLength);
 
-        // Use the number of chunks specified in the request
-        final int requestedChunks = request.getNumChunks();
-
-        // Ensure requestedChunks is a positive number, default to NUM_THREADS if invalid
-        final int NUM_TASKS = (requestedChunks > 0) ? requestedChunks : NUM_THREADS;
+        String requested = request.getAlgorithm() != null ? request.getAlgorithm() : defaultAlgorithm;
+        SearchPlanner.Plan plan = SearchAlgorithmRegistry.isAuto(requested) ? planner.plan(request, text) : null;
+        SearchAlgorithm algorithm = plan != null ? plan.algorithm() : registry.resolve(requested);
+        int k = algorithm.errorBudget(pattern, request.getMaxErrors());
 
         // 2. Prepare Chunks with Overlap (Master's role: Data Decomposition)
-        int chunkSizeBase = textLength / NUM_TASKS;
-        int overlapSize = patternLength - 1;
+        // Exact matches fit in m - 1 characters past a chunk; insertions can lengthen approximate ones by k
+        final int overlapSize = patternLength - 1 + k;
+        final boolean endPositions = algorithm.reportsEndPositions();
 
-        List<Callable<Set<Integer>>> tasks = new ArrayList<>();
+        // The requested chunk count is a lower bound on the split; <= 0 leaves it to the grain size
+        final int NUM_TASKS = request.getNumChunks();
 
-        for (int i = 0; i < NUM_TASKS; i++) {
-            final int start = i * chunkSizeBase;
-            int end = (i + 1) * chunkSizeBase;
+        // Preprocess the pattern once; every chunk shares the scanner read-only. Indexed algorithms locate
+        // the pattern once in the cached genome index and each chunk takes its own range of the hits.
+        // Both strands: each chunk finds the pattern and its reverse complement (same length) in one scan.
+        boolean buildsIndex = algorithm.indexed() && !algorithm.indexReady(text);
+        final boolean bothStrands = request.isBothStrands();
+        final SearchAlgorithm.Scanner scanner = bothStrands ? algorithm.prepareBothStrands(pattern, k) : algorithm.prepare(pattern, k);
 
-            // Add overlap to all but the last chunk
-            if (i < NUM_TASKS - 1) {
-                end += overlapSize;
-            }
+        String label = (plan != null ? "auto: " + algorithm.name()
+                : algorithm.approximate() ? algorithm.displayName() : requested) + " Parallel";
+        if (algorithm.approximate()) label += " (k=" + k + ")";
+        if (bothStrands) label += " (both strands)";
 
-            final String chunk = text.substring(start, Math.min(end, textLength));
-
-            // Create the Callable task (Worker's role)
-            tasks.add(() -> {
-                List<Integer> chunkMatches;
-                String algo = request.getAlgorithm() != null ? request.getAlgorithm().toLowerCase() : "naive";
-
-                // Select Algorithm for this Chunk
-                if (algo.contains("kmp")) {
-                    chunkMatches = new com.bio.algorithm.KMPSearch().search(chunk, pattern).getMatchIndices();
-                } else if (algo.contains("boyer") || algo.contains("bm")) {
-                    chunkMatches = new com.bio.algorithm.BoyerMooreSearch().search(chunk, pattern).getMatchIndices();
-                } else if (algo.contains("suffix")) {
-                    chunkMatches = new com.bio.algorithm.SuffixTreeSearch().search(chunk, pattern).getMatchIndices();
-                } else {
-                    // Default Naive
-                    chunkMatches = new com.bio.algorithm.NaiveSearch().search(chunk, pattern).getMatchIndices();
-                }
+        long startTime = System.nanoTime();
+        MatchResult result;
+        if (request.getResultMode() != ResultMode.ALL) {
+            // End positions are owned from m - 1 + k past the leaf start (see OwnedRangeSink)
+            result = searchWithMode(text, request, overlapSize, endPositions, label, scanner, progress);
+        } else {
+            result = searchAll(text, NUM_TASKS, overlapSize, endPositions, algorithm.approximate(), bothStrands, label,
+                    scanner, progress);
+        }
+        long elapsedNs = System.nanoTime() - startTime;
+        planner.observe(algorithm, true, text, patternLength, elapsedNs, buildsIndex);
 
-                // Aggregate and convert local indices to absolute indices
-                return chunkMatches.stream()
-                        .map(localIndex -> start + localIndex)
-                        .collect(Collectors.toSet());
-            });
+        // 4. Construct Final Result
+        result.setTextLength(textLength);
+        result.setPatternLength(patternLength);
+        if (plan != null) {
+            result.setPlan(plan.toString());
+            result.setPlannedAlgorithm(plan.algorithm().name());
         }
 
+        // Set System Properties
+        result.setAvailableCores(Runtime.getRuntime().availableProcessors());
+        result.setCpuArchitecture(System.getProperty("os.arch"));
+        result.setOperatingSystem(System.getProperty("os.name"));
+        result.setTotalMemoryMB(Runtime.getRuntime().totalMemory() / (1024 * 1024));
+        return GenomeRepository.locate(text, result);
+    }
+
+    private MatchResult searchAll(CharSequence text, int minChunks, int overlapSize, boolean endPositions,
+                                  boolean withDistances, boolean withStrands, String label,
+                                  SearchAlgorithm.Scanner scanner, Progress progress) throws Exception {
+        long startTime = System.nanoTime();
+
         // 3. Parallel Execution and Aggregation (Master's role: Dispatch & Gather)
+        // Worker's role: search text[from, to) in place and keep the hits it owns. Start positions are owned in
+        // [from, ownedEnd); with overlap = m - 1 (+ k) every exact match found already starts there.
+        // End positions (Myers) are only exact after m - 1 + k bases of context, so they are owned in
+        // [from + overlap, ownedEnd + overlap) (the first chunk from 0). Overlaps never yield duplicates.
+        List<MatchCollector> chunkResults = searchChunks(text, minChunks, overlapSize, tracked(progress, (genome, from, to, ownedEnd) -> {
+            MatchCollector hits = new MatchCollector(ResultMode.ALL, 0, 0).withStrands(withStrands);
+            scanner.scan(genome, from, to, new OwnedRangeSink(hits,
+                    OwnedRangeSink.ownedFrom(from, endPositions, overlapSize),
+                    OwnedRangeSink.ownedTo(ownedEnd, endPositions, overlapSize)));
+            return hits;
+        }));
+
+        // Aggregation: chunks come back in text order with disjoint matches, so concatenating is sorted
+        int total = 0;
+        for (MatchCollector chunkMatches : chunkResults) {
+            total += chunkMatches.positions().size();
+        }
+        IntList allMatches = new IntList(total);
+        IntList allDistances = withDistances ? new IntList(total) : null;
+        IntList allStrands = withStrands ? new IntList(total) : null;
+        for (MatchCollector chunkMatches : chunkResults) {
+            allMatches.addAll(chunkMatches.positions());
+            if (allDistances != null) allDistances.addAll(chunkMatches.distances());
+            if (allStrands != null) allStrands.addAll(chunkMatches.strands());
+        }
+
+        long endTime = System.nanoTime();
+
+        MatchResult result = new MatchResult();
+        result.setAlgorithm(label + " (Chunks: " + chunkResults.size() + " | Threads: " + searchPool.getParallelism() + ")");
+        result.setExecutionTimeNs(endTime - startTime);
+        result.setMatchIndices(allMatches);
+        if (allDistances != null) {
+            result.setMatchDistances(allDistances);
+        }
+        if (allStrands != null) {
+            result.setMatchStrands(BothStrands.strands(allStrands));
+        }
+        return result;
+    }
+
+    /**
+     * Parallel COUNT / EXISTS / FIRST_K / PAGE. Each leaf keeps at most the number of hits the whole request needs
+     * and stops there. A leaf that reaches that number alone proves the answer ends before its owned end, so it
+     * lowers a shared cutoff: leaves owning hits past the cutoff are cancelled before they scan, and running ones
+     * stop at their next hit. COUNT leaves only count.
+     */
+    private MatchResult searchWithMode(CharSequence text, MatchRequest request, int overlap, boolean endPositions,
+                                       String label, SearchAlgorithm.Scanner scanner, Progress progress) throws Exception {
         long startTime = System.nanoTime();
+        MatchCollector answer = MatchCollector.of(request);
+        long needed = answer.stopAfter();
+        ResultMode leafMode = answer.mode() == ResultMode.COUNT ? ResultMode.COUNT : ResultMode.FIRST_K;
+        int leafLimit = (int) Math.min(needed, Integer.MAX_VALUE);
+        AtomicInteger cutoff = new AtomicInteger(Integer.MAX_VALUE);
+
+        List<MatchCollector> leaves = searchChunks(text, request.getNumChunks(), overlap, tracked(progress, (genome, from, to, ownedEnd) -> {
+            MatchCollector hits = new MatchCollector(leafMode, 0, leafLimit).withStrands(request.isBothStrands());
+            int ownedFrom = OwnedRangeSink.ownedFrom(from, endPositions, overlap);
+            int ownedTo = OwnedRangeSink.ownedTo(ownedEnd, endPositions, overlap);
+            OwnedRangeSink sink = new OwnedRangeSink(hits, ownedFrom, ownedTo, () -> ownedFrom >= cutoff.get());
+            if (sink.isDone()) return hits; // cancelled: the answer is complete before this leaf
+            scanner.scan(genome, from, to, sink);
+            if (hits.isDone()) {
+                cutoff.accumulateAndGet(ownedTo, Math::min);
+            }
+            return hits;
+        }));
 
-        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
-        int cores = Runtime.getRuntime().availableProcessors();
+        // Leaves are in text order: feed them to the final collector until it has the answer
+        for (MatchCollector leaf : leaves) {
+            if (answer.isDone()) break;
+            if (answer.mode() == ResultMode.COUNT) {
+                answer.addCount(leaf.count());
+            } else {
+                IntList distances = leaf.distances();
+                answer.addAll(leaf.positions(), distances.isEmpty() ? null : distances, leaf.strands());
+            }
+        }
+
+        return answer.toResult(label + " (Chunks: " + leaves.size() + " | Threads: " + searchPool.getParallelism() + ")",
+                System.nanoTime() - startTime, text.length(), request.getPattern().length());
+    }
 
-        // System Info for Metadata
-        String osName = System.getProperty("os.name");
-        String osArch = System.getProperty("os.arch");
-        long totalMemoryMB = Runtime.getRuntime().totalMemory() / (1024 * 1024);
+    // Adds the owned bases of each finished leaf to progress; once it is cancelled, leaves fail before scanning
+    private static <T> ChunkSearch<T> tracked(Progress progress, ChunkSearch<T> chunkSearch) {
+        if (progress == null) return chunkSearch;
+        return (text, from, to, ownedEnd) -> {
+            progress.checkCancelled();
+            T result = chunkSearch.search(text, from, to, ownedEnd);
+            progress.add(ownedEnd - from);
+            return result;
+        };
+    }
+
+    /**
+     * Searches one chunk in place. The chunk reads text[from, to), of which [from, ownedEnd) belongs to it; the
+     * rest is overlap shared with the next chunk. All positions are absolute, so nothing is copied or remapped.
+     */
+    @FunctionalInterface
+    public interface ChunkSearch<T> {
+        T search(CharSequence text, int from, int to, int ownedEnd) throws Exception;
+    }
+
+    /**
+     * Runs {@code chunkSearch} over {@code text} on the shared work-stealing pool. The text is split recursively
+     * into leaves of at most the grain size (and never coarser than {@code minChunks} pieces, if positive);
+     * idle workers steal pending halves from busy ones, so one slow region does not stall the request.
+     * Every leaf except the last is extended by {@code overlap} characters so matches straddling a boundary
+     * are not lost.
+     *
+     * @return the per-leaf results, in text order
+     */
+    public <T> List<T> searchChunks(CharSequence text, int minChunks, int overlap, ChunkSearch<T> chunkSearch) throws Exception {
+        return joinChunks(forkChunks(text, minChunks, overlap, chunkSearch));
+    }
+
+    /**
+     * Starts {@link #searchChunks} on the pool and returns at once, so the caller can work (e.g. write streamed
+     * frames) while the leaves run. Collect the result with {@link #joinChunks}.
+     */
+    public <T> ForkJoinTask<List<T>> forkChunks(CharSequence text, int minChunks, int overlap, ChunkSearch<T> chunkSearch) {
+        int textLength = text.length();
+        int leafSize = grainSize;
+        if (minChunks > 0) {
+            leafSize = Math.min(leafSize, (int) ((textLength + (long) minChunks - 1) / minChunks));
+        }
+        // Keep the re-scanned overlap small next to the part each leaf owns
+        leafSize = Math.max(Math.max(1, leafSize), 4 * overlap);
+        return searchPool.submit(new ChunkTask<>(text, 0, textLength, leafSize, overlap, chunkSearch));
+    }
 
-        // OSHI Hardware Info (Logging only)
+    /**
+     * Waits for a search started by {@link #forkChunks} and rethrows the exception of a failed leaf.
+     *
+     * @return the per-leaf results, in text order
+     */
+    public <T> List<T> joinChunks(ForkJoinTask<List<T>> search) throws Exception {
         try {
-            SystemInfo si = new SystemInfo();
-            HardwareAbstractionLayer hal = si.getHardware();
-            CentralProcessor cpu = hal.getProcessor();
-            System.out.println("CPU: " + cpu.getProcessorIdentifier().getName());
-            GlobalMemory memory = hal.getMemory();
-            System.out.println("Total RAM: " + memory.getTotal() / (1024*1024*1024) + " GB");
-            for (GraphicsCard gc : hal.getGraphicsCards()) {
-                System.out.println("GPU: " + gc.getName());
+            return search.join();
+        } catch (ChunkFailure e) {
+            // ForkJoin may re-wrap the exception when it crosses threads; report the search's own failure
+            Throwable cause = e;
+            while (cause instanceof ChunkFailure && cause.getCause() != null) {
+                cause = cause.getCause();
             }
-        } catch (Exception e) {
-            System.out.println("OSHI info retrieval failed (optional dependency): " + e.getMessage());
+            if (cause instanceof Exception) throw (Exception) cause;
+            throw e;
         }
+    }
+
+    private static final class ChunkTask<T> extends RecursiveTask<List<T>> {
+        private static final long serialVersionUID = 1L;
 
-        List<Future<Set<Integer>>> futures = executor.invokeAll(tasks);
+        private final CharSequence text;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final int overlap;
+        private final ChunkSearch<T> chunkSearch;
 
-        Set<Integer> allMatches = new HashSet<>();
-        for (Future<Set<Integer>> future : futures) {
-            allMatches.addAll(future.get()); // Aggregation and Collection
+        private ChunkTask(CharSequence text, int from, int to, int leafSize, int overlap, ChunkSearch<T> chunkSearch) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.overlap = overlap;
+            this.chunkSearch = chunkSearch;
         }
 
-        executor.shutdown(); // Gracefully shut down the pool
-        long endTime = System.nanoTime();
+        @Override
+        protected List<T> compute() {
+            if (to - from <= leafSize) {
+                // Leaf: owns [from, to), reads up to overlap characters past it
+                int end = (int) Math.min((long) to + overlap, text.length());
+                try {
+                    List<T> result = new ArrayList<>(1);
+                    result.add(chunkSearch.search(text, from, end, to));
+                    return result;
+                } catch (Exception e) {
+                    throw new ChunkFailure(e);
+                }
+            }
 
-        // 4. Construct Final Result
-        MatchResult result = new MatchResult();
-        result.setAlgorithm(request.getAlgorithm() + " Parallel (Chunks: " + NUM_TASKS + " | Threads: " + NUM_THREADS + ")");
-        result.setExecutionTimeNs(endTime - startTime);
-        result.setMatchIndices(new ArrayList<>(allMatches));
-        result.setTextLength(textLength);
-        result.setPatternLength(patternLength);
+            // Split in half: fork the right half (stealable), work on the left half ourselves
+            int mid = from + (to - from) / 2;
+            ChunkTask<T> right = new ChunkTask<>(text, mid, to, leafSize, overlap, chunkSearch);
+            right.fork();
+            List<T> results = new ChunkTask<>(text, from, mid, leafSize, overlap, chunkSearch).compute();
+            results.addAll(right.join());
+            return results;
+        }
+    }
 
-        // Set System Properties
-        result.setAvailableCores(cores);
-        result.setCpuArchitecture(osArch);
-        result.setOperatingSystem(osName);
-        result.setTotalMemoryMB(totalMemoryMB);
+    private static final class ChunkFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
 
-        return result;
+        public ChunkFailure(Throwable cause) {
+            super(cause);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package com.bio.service;
+
+import com.bio.algorithm.SearchAlgorithm;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Every SearchAlgorithm bean, by name. This is the one place request algorithm names are interpreted.
+ *
+ * Names are matched ignoring case and punctuation, so "Boyer-Moore", "boyermoore" and "BM" all resolve to "bm";
+ * display names such as "KMP Search" also resolve. "auto" is not an algorithm: callers hand it to SearchPlanner.
+ */
+@Service
+public class SearchAlgorithmRegistry {
+
+    public static final String AUTO = "auto";
+    public static final String DEFAULT_ALGORITHM = "naive";
+
+    private final List<SearchAlgorithm> algorithms;
+    private final Map<String, SearchAlgorithm> byName = new HashMap<>();
+
+    public SearchAlgorithmRegistry(List<SearchAlgorithm> algorithms) {
+        this.algorithms = Collections.unmodifiableList(new ArrayList<>(algorithms));
+        for (SearchAlgorithm algorithm : algorithms) {
+            register(algorithm.name(), algorithm);
+            for (String alias : algorithm.aliases()) {
+                register(alias, algorithm);
+            }
+        }
+    }
+
+    private void register(String name, SearchAlgorithm algorithm) {
+        SearchAlgorithm previous = byName.put(normalize(name), algorithm);
+        if (previous != null && previous != algorithm) {
+            throw new IllegalStateException("Algorithm name '" + name + "' is registered by both "
+                    + previous.name() + " and " + algorithm.name());
+        }
+    }
+
+    public static boolean isAuto(String name) {
+        return name != null && AUTO.equalsIgnoreCase(name.trim());
+    }
+
+    /**
+     * @return the algorithm registered under {@code name}, or null if there is none
+     */
+    public SearchAlgorithm get(String name) {
+        if (name == null) return null;
+        String key = normalize(name);
+        SearchAlgorithm algorithm = byName.get(key);
+        if (algorithm == null && key.endsWith("search")) {
+            algorithm = byName.get(key.substring(0, key.length() - "search".length()));
+        }
+        return algorithm;
+    }
+
+    /**
+     * Resolves a request's algorithm name; a missing or unknown name falls back to naive search, as the
+     * search endpoints always have.
+     */
+    public SearchAlgorithm resolve(String name) {
+        SearchAlgorithm algorithm = get(name);
+        return algorithm != null ? algorithm : byName.get(DEFAULT_ALGORITHM);
+    }
+
+    public List<SearchAlgorithm> all() {
+        return algorithms;
+    }
+
+    private static String normalize(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) key.append(Character.toLowerCase(c));
+        }
+        return key.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,302 @@
+package com.bio.service;
+
+import com.bio.model.JobStatus;
+import com.bio.model.JobStatus.State;
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import com.bio.utils.GenomeDataGeneratorPro;
+import com.bio.utils.Progress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs parallel searches and genome generations as asynchronous jobs: submitting returns a job id at once, and
+ * clients poll its status and fetch the result later (see SearchJobController), so no request thread waits
+ * for the work and no client or proxy timeout applies to it.
+ *
+ * Jobs wait in priority queues (higher priority first, then submission order) holding at most app.jobs.max-queued
+ * entries together. app.jobs.workers searches run at a time, and a running search still spreads over the shared
+ * search pool. Generations rewrite the one default genome file, so they have a lane of their own with a single
+ * thread (and GenomeDataGeneratorPro also serializes them against /generate-file). Progress counts the bases
+ * scanned or written so far.
+ *
+ * A finished job keeps its status and result for app.jobs.result-ttl-ms and is dropped at the first access after
+ * that. At most app.jobs.max-retained finished jobs are kept meanwhile: each job that finishes beyond that drops
+ * the oldest finished ones, so a burst of large results cannot fill the heap before the TTL expires. Cancelling
+ * a queued job removes it from the queue; a running one stops before its next search leaf or generator block.
+ */
+@Service
+public class SearchJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchJobService.class);
+
+    public static final String TYPE_SEARCH = "search";
+    public static final String TYPE_GENERATE = "generate-file";
+
+    private final ParallelGenericSearchService parallelService;
+    private final SearchMetrics metrics;
+    private final int maxQueued;
+    private final long resultTtlMs;
+    private final int maxRetained;
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor generationLane;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong submissions = new AtomicLong();
+
+    public SearchJobService(ParallelGenericSearchService parallelService, SearchMetrics metrics,
+                            @Value("${app.jobs.workers:2}") int workers,
+                            @Value("${app.jobs.max-queued:64}") int maxQueued,
+                            @Value("${app.jobs.result-ttl-ms:600000}") long resultTtlMs,
+                            @Value("${app.jobs.max-retained:256}") int maxRetained) {
+        this.parallelService = parallelService;
+        this.metrics = metrics;
+        this.maxQueued = Math.max(0, maxQueued);
+        this.resultTtlMs = resultTtlMs;
+        this.maxRetained = Math.max(0, maxRetained);
+
+        this.executor = lane("search-job-", Math.max(1, workers));
+        this.generationLane = lane("search-job-generate-", 1);
+    }
+
+    private static ThreadPoolExecutor lane(String threadName, int threads) {
+        AtomicInteger created = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, threadName + created.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(Job::cancel);
+        executor.shutdownNow();
+        generationLane.shutdownNow();
+    }
+
+    /**
+     * Queues a parallel search (as /api/bioinfo/parallel/run-dynamic runs it).
+     *
+     * @throws RejectedExecutionException if app.jobs.max-queued jobs are already waiting
+     */
+    public JobStatus submitSearch(MatchRequest request, int priority) {
+        MatchRequest copy = new MatchRequest(request);
+        String description = copy.getPattern() + " (" + (copy.getAlgorithm() != null ? copy.getAlgorithm() : "naive")
+                + (copy.getGenomeId() != null ? ", genome " + copy.getGenomeId() : "") + ")";
+        return submit(TYPE_SEARCH, description, priority, executor, job ->
+                metrics.time("job", copy.getAlgorithm(), () -> parallelService.executeParallelSearch(copy, job.progress)));
+    }
+
+    /**
+     * Queues a regeneration of the default genome file (as /api/bioinfo/data/generate-file runs it).
+     *
+     * @throws RejectedExecutionException if app.jobs.max-queued jobs are already waiting
+     */
+    public JobStatus submitGeneration(String pattern, int size, int priority) {
+        return submit(TYPE_GENERATE, pattern + " (" + size + " bases)", priority, generationLane, job -> {
+            Path filePath = GenomeDataGeneratorPro.generateAndSaveFile(pattern, size, job.progress);
+            job.message = "Successfully generated genome file (" + size + " bases): " + filePath.toAbsolutePath();
+            return null;
+        });
+    }
+
+    /**
+     * @return the job's status, or null if the id is unknown or its retention has expired
+     */
+    public JobStatus status(String jobId) {
+        purgeExpired();
+        Job job = jobs.get(jobId);
+        return job == null ? null : job.status();
+    }
+
+    /**
+     * @return the result of a finished search job, or null if there is none (yet)
+     */
+    public MatchResult result(String jobId) {
+        purgeExpired();
+        Job job = jobs.get(jobId);
+        return job == null ? null : job.result;
+    }
+
+    /**
+     * @return all retained jobs, oldest first
+     */
+    public List<JobStatus> list() {
+        purgeExpired();
+        List<Job> retained = new ArrayList<>(jobs.values());
+        retained.sort(Comparator.comparingLong(job -> job.sequence));
+        List<JobStatus> statuses = new ArrayList<>(retained.size());
+        for (Job job : retained) {
+            statuses.add(job.status());
+        }
+        return statuses;
+    }
+
+    /**
+     * Cancels a queued or running job; a finished job is left as it is.
+     *
+     * @return the job's status after the request, or null if the id is unknown or expired
+     */
+    public JobStatus cancel(String jobId) {
+        purgeExpired();
+        Job job = jobs.get(jobId);
+        if (job == null) return null;
+        job.cancel();
+        return job.status();
+    }
+
+    // The size check and the enqueue are one step, so the queue never grows past maxQueued
+    private synchronized JobStatus submit(String type, String description, int priority, ThreadPoolExecutor lane,
+                                          Work work) {
+        purgeExpired();
+        if (executor.getQueue().size() + generationLane.getQueue().size() >= maxQueued) {
+            throw new RejectedExecutionException("The job queue is full (" + maxQueued
+                    + " jobs waiting, app.jobs.max-queued); try again later.");
+        }
+        Job job = new Job(type, description, priority, submissions.incrementAndGet(), lane, work);
+        jobs.put(job.id, job);
+        lane.execute(job);
+        return job.status();
+    }
+
+    private synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> job.expiresAt != 0 && now >= job.expiresAt);
+
+        // Over the retention cap: drop the oldest finished jobs; queued and running ones are never dropped
+        List<Job> finished = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            if (job.finishedAt != 0) finished.add(job);
+        }
+        if (finished.size() <= maxRetained) return;
+        finished.sort(Comparator.<Job>comparingLong(job -> job.finishedAt).thenComparingLong(job -> job.sequence));
+        for (Job job : finished.subList(0, finished.size() - maxRetained)) {
+            jobs.remove(job.id);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        /**
+         * @return the match result of a search, or null for work whose outcome is job.message
+         */
+        MatchResult run(Job job) throws Exception;
+    }
+
+    private final class Job implements Runnable, Comparable<Job> {
+        private final String id = UUID.randomUUID().toString();
+        private final String type;
+        private final String description;
+        private final int priority;
+        private final long sequence;
+        private final ThreadPoolExecutor lane;
+        private final Work work;
+        private final Progress progress = new Progress();
+        private final long submittedAt = System.currentTimeMillis();
+
+        private volatile State state = State.QUEUED;
+        private volatile long startedAt;
+        private volatile long finishedAt;
+        private volatile long expiresAt;
+        private volatile MatchResult result;
+        private volatile String message;
+
+        private Job(String type, String description, int priority, long sequence, ThreadPoolExecutor lane, Work work) {
+            this.type = type;
+            this.description = description;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.lane = lane;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (state != State.QUEUED) return; // cancelled while queued
+                state = State.RUNNING;
+                startedAt = System.currentTimeMillis();
+            }
+            try {
+                MatchResult searchResult = work.run(this);
+                if (searchResult != null && searchResult.getErrorMessage() != null) {
+                    finish(State.FAILED, searchResult.getErrorMessage());
+                } else {
+                    result = searchResult;
+                    finish(State.SUCCEEDED, message);
+                }
+            } catch (CancellationException e) {
+                finish(State.CANCELLED, "Cancelled after " + progress.done() + " bases.");
+            } catch (Exception e) {
+                // The message is the job's status; the trace is only for debugging the service itself
+                log.debug("Job {} failed", id, e);
+                finish(State.FAILED, e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+            // Search jobs are also timed by SearchMetrics (endpoint "job")
+            if (state == State.FAILED) {
+                log.warn("Job {} ({} {}) FAILED in {} ms: {}", id, type, description, finishedAt - startedAt, message);
+            } else {
+                log.info("Job {} ({} {}) {} in {} ms", id, type, description, state, finishedAt - startedAt);
+            }
+            // Enforce app.jobs.max-retained now rather than at the next request
+            purgeExpired();
+        }
+
+        private synchronized void finish(State outcome, String outcomeMessage) {
+            state = outcome;
+            message = outcomeMessage;
+            finishedAt = System.currentTimeMillis();
+            expiresAt = finishedAt + resultTtlMs;
+        }
+
+        private synchronized void cancel() {
+            if (state == State.QUEUED) {
+                lane.remove(this);
+                finish(State.CANCELLED, "Cancelled before it started.");
+            } else if (state == State.RUNNING) {
+                progress.cancel();
+            }
+        }
+
+        private synchronized JobStatus status() {
+            JobStatus status = new JobStatus(id, type, description, priority);
+            status.setState(state);
+            status.setBasesDone(progress.done());
+            status.setTotalBases(progress.total());
+            status.setSubmittedAt(submittedAt);
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            status.setExpiresAt(expiresAt);
+            status.setMessage(message != null ? message
+                    : state == State.RUNNING && progress.isCancelled() ? "Cancelling..." : null);
+            return status;
+        }
+
+        // Higher priority first; equal priorities in submission order
+        @Override
+        public int compareTo(Job other) {
+            if (priority != other.priority) return Integer.compare(other.priority, priority);
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.bio.service;
+
+import com.bio.algorithm.SearchAlgorithm;
+import com.bio.model.MatchResult;
+import com.bio.utils.GenomeDataGeneratorPro;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer metrics for the search endpoints, scraped from /actuator/prometheus.
+ *
+ * Per search (tags: endpoint, algorithm, and for the timer also outcome and cached). The algorithm tag is the
+ * registry name the request resolves to, so aliases share one series; "auto" requests are tagged with the
+ * algorithm the planner chose.
+ * - bioinfo.search              latency timer with p50/p95/p99 and a percentile histogram
+ * - bioinfo.search.scanned      text bases searched (0 for results served from the result cache)
+ * - bioinfo.search.matches      matches returned
+ * - bioinfo.search.comparisons  character comparisons, for algorithms that count them
+ *
+ * Gauges: parallel pool activity and queue depth, genome cache size, genome repository off-heap use and
+ * evictions, result/pattern cache size and hit counts.
+ */
+@Service
+public class SearchMetrics {
+
+    public static final String SEARCH_TIMER = "bioinfo.search";
+
+    // Endpoints that run a fixed engine outside the registry. Any other unregistered name is tagged "other" to
+    // keep the tag set bounded
+    private static final Set<String> UNREGISTERED_ALGORITHMS = new HashSet<>(Arrays.asList(
+            "fm-count", "native", "biojava", "aho-corasick"));
+
+    /**
+     * A search whose latency and work are recorded.
+     */
+    @FunctionalInterface
+    public interface Search<E extends Exception> {
+        MatchResult run() throws E;
+    }
+
+    private final MeterRegistry registry;
+    private final SearchAlgorithmRegistry algorithms;
+
+    public SearchMetrics(MeterRegistry registry, SearchAlgorithmRegistry algorithms, ForkJoinPool searchPool,
+                         SearchResultCache resultCache, CompiledPatternCache patternCache, GenomeRepository genomes) {
+        this.registry = registry;
+        this.algorithms = algorithms;
+
+        Gauge.builder("bioinfo.parallel.active.threads", searchPool, ForkJoinPool::getActiveThreadCount)
+                .description("Search pool workers currently running a chunk")
+                .register(registry);
+        Gauge.builder("bioinfo.parallel.pool.size", searchPool, ForkJoinPool::getPoolSize)
+                .description("Search pool workers started")
+                .register(registry);
+        Gauge.builder("bioinfo.parallel.queued.tasks", searchPool, ForkJoinPool::getQueuedTaskCount)
+                .description("Chunks forked but not yet started (executor queue depth)")
+                .register(registry);
+        Gauge.builder("bioinfo.parallel.queued.submissions", searchPool, ForkJoinPool::getQueuedSubmissionCount)
+                .description("Parallel searches waiting for a worker")
+                .register(registry);
+        FunctionCounter.builder("bioinfo.parallel.steals", searchPool, ForkJoinPool::getStealCount)
+                .description("Chunks stolen by idle workers")
+                .register(registry);
+
+        Gauge.builder("bioinfo.genome.cache.size", GenomeDataGeneratorPro::cachedGenomeBytes)
+                .description("Heap held by the in-memory genome cache")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("bioinfo.genome.length", GenomeDataGeneratorPro::cachedGenomeLength)
+                .description("Bases in the cached genome")
+                .register(registry);
+
+        Gauge.builder("bioinfo.genome.repository.size", genomes, GenomeRepository::usedBytes)
+                .description("Direct (off-heap) memory held by repository genomes")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("bioinfo.genome.repository.budget", genomes, GenomeRepository::maxBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("bioinfo.genome.repository.entries", genomes, GenomeRepository::size)
+                .register(registry);
+        FunctionCounter.builder("bioinfo.genome.repository.evictions", genomes, GenomeRepository::getEvictions)
+                .description("Genomes evicted to stay within the memory budget")
+                .register(registry);
+
+        Gauge.builder("bioinfo.result.cache.size", resultCache, SearchResultCache::totalBytes)
+                .description("Match positions held by the result cache")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("bioinfo.result.cache.entries", resultCache, SearchResultCache::size)
+                .register(registry);
+        FunctionCounter.builder("bioinfo.result.cache.requests", resultCache, SearchResultCache::getHits)
+                .tags("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("bioinfo.result.cache.requests", resultCache, SearchResultCache::getMisses)
+                .tags("result", "miss")
+                .register(registry);
+
+        Gauge.builder("bioinfo.pattern.cache.entries", patternCache, CompiledPatternCache::size)
+                .register(registry);
+        FunctionCounter.builder("bioinfo.pattern.cache.requests", patternCache, CompiledPatternCache::getHits)
+                .tags("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("bioinfo.pattern.cache.requests", patternCache, CompiledPatternCache::getMisses)
+                .tags("result", "miss")
+                .register(registry);
+    }
+
+    /**
+     * Runs {@code search} and records its latency and work. A thrown exception or an error result is
+     * recorded with outcome=error. For "auto", the result's planned algorithm is the tag.
+     */
+    public <E extends Exception> MatchResult time(String endpoint, String algorithm, Search<E> search) throws E {
+        long startTime = System.nanoTime();
+        MatchResult result = null;
+        try {
+            result = search.run();
+            return result;
+        } finally {
+            long elapsedNs = System.nanoTime() - startTime;
+            if (result == null || result.getErrorMessage() != null) {
+                record(endpoint, algorithm, "error", false, elapsedNs, 0, 0, 0);
+            } else {
+                String planned = SearchAlgorithmRegistry.isAuto(algorithm) ? result.getPlannedAlgorithm() : null;
+                record(endpoint, planned != null ? planned : algorithm, "success", result.isCached(), elapsedNs,
+                        result.isCached() ? 0 : result.getTextLength(), result.getMatchCount(), result.getComparisonCount());
+            }
+        }
+    }
+
+    /**
+     * Records one finished search, for callers without a MatchResult (multi-pattern, streaming).
+     */
+    public void record(String endpoint, String algorithm, String outcome, boolean cached, long elapsedNs,
+                       long basesScanned, long matches, long comparisons) {
+        String algorithmTag = algorithmTag(algorithm);
+
+        Timer.builder(SEARCH_TIMER)
+                .description("Search latency per endpoint and algorithm")
+                .tags("endpoint", endpoint, "algorithm", algorithmTag, "outcome", outcome, "cached", String.valueOf(cached))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNs, TimeUnit.NANOSECONDS);
+
+        if (basesScanned > 0) {
+            counter("bioinfo.search.scanned", "Text bases searched", endpoint, algorithmTag).increment(basesScanned);
+        }
+        if (matches > 0) {
+            counter("bioinfo.search.matches", "Matches returned", endpoint, algorithmTag).increment(matches);
+        }
+        if (comparisons > 0) {
+            counter("bioinfo.search.comparisons", "Character comparisons", endpoint, algorithmTag).increment(comparisons);
+        }
+    }
+
+    private Counter counter(String name, String description, String endpoint, String algorithmTag) {
+        return Counter.builder(name)
+                .description(description)
+                .tags("endpoint", endpoint, "algorithm", algorithmTag)
+                .register(registry);
+    }
+
+    String algorithmTag(String algorithm) {
+        if (algorithm == null || algorithm.isEmpty()) return SearchAlgorithmRegistry.DEFAULT_ALGORITHM;
+        if (SearchAlgorithmRegistry.isAuto(algorithm)) return SearchAlgorithmRegistry.AUTO;
+        SearchAlgorithm registered = algorithms.get(algorithm);
+        if (registered != null) return registered.name();
+        String name = algorithm.toLowerCase(Locale.ROOT);
+        return UNREGISTERED_ALGORITHMS.contains(name) ? name : "other";
+    }
+}
@@ -0,0 +1,344 @@
+package com.bio.service;
+
+import com.bio.algorithm.SearchAlgorithm;
+import com.bio.model.MatchRequest;
+import com.bio.model.ResultMode;
+import com.bio.utils.PackedGenome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chooses the algorithm and parallelism for algorithm "auto".
+ *
+ * Every registered candidate gets an estimated cost for this request; the cheapest one wins:
+ * - scanning algorithms: ns per base x text length (divided by the pool size when run in parallel)
+ * - indexed algorithms: ns per query, but only once their index for this genome is built
+ * The estimates start from a simple model of each algorithm (shift lengths grow with the pattern length and the
+ * alphabet, the naive search has a packed 2-bit fast path, ...) and are replaced by an exponentially weighted
+ * average of observed latencies once an (algorithm, pattern length class, parallel) combination has
+ * {@code app.planner.min-samples} samples, so the plan follows the hardware it runs on.
+ *
+ * maxErrors > 0 always runs the k-mismatch search, before any cost is estimated. A short pattern on a large
+ * genome also starts building the suffix array (its scans are slowest and the index is reused by every later
+ * query). The build runs in the background, one at a time, and only if the estimated build size fits the free
+ * heap. The request itself is planned from the costs, so it scans until the index is ready.
+ */
+@Service
+public class SearchPlanner {
+
+    // Weight of the newest sample in the latency average
+    private static final double EWMA_WEIGHT = 0.2;
+
+    private static final Logger log = LoggerFactory.getLogger(SearchPlanner.class);
+
+    @Value("${app.planner.min-samples:3}")
+    private int minSamples = 3;
+
+    // Texts at least this long are searched on the parallel pool
+    @Value("${app.planner.parallel-min-text:1048576}")
+    private int parallelMinText = 1 << 20;
+
+    // Patterns up to this length on genomes at least index-min-text long start a suffix array build
+    @Value("${app.planner.index-max-pattern:12}")
+    private int indexMaxPattern = 12;
+
+    @Value("${app.planner.index-min-text:33554432}")
+    private int indexMinText = 1 << 25;
+
+    private final SearchAlgorithmRegistry registry;
+    private final int parallelism;
+    private final ConcurrentMap<String, LatencyStats> observed = new ConcurrentHashMap<>();
+
+    // Background index builds: a single daemon thread, and no new build is queued while one is running
+    private final ExecutorService indexBuilder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "search-index-build");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean indexBuilding = new AtomicBoolean();
+
+    public SearchPlanner(SearchAlgorithmRegistry registry, ForkJoinPool searchPool) {
+        this.registry = registry;
+        this.parallelism = searchPool.getParallelism();
+    }
+
+    /**
+     * The planner's decision for one request.
+     */
+    public static final class Plan {
+        private final SearchAlgorithm algorithm;
+        private final boolean parallel;
+        private final double estimatedNs;
+        private final String reason;
+
+        private Plan(SearchAlgorithm algorithm, boolean parallel, double estimatedNs, String reason) {
+            this.algorithm = algorithm;
+            this.parallel = parallel;
+            this.estimatedNs = estimatedNs;
+            this.reason = reason;
+        }
+
+        public SearchAlgorithm algorithm() {
+            return algorithm;
+        }
+
+        public boolean parallel() {
+            return parallel;
+        }
+
+        // Estimated cost of the chosen algorithm, or -1 when a rule decided rather than the cost model
+        public double estimatedNs() {
+            return estimatedNs;
+        }
+
+        public String reason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return algorithm.name() + (parallel ? " parallel" : " sequential") + ": " + reason;
+        }
+    }
+
+    public Plan plan(MatchRequest request, CharSequence text) {
+        String pattern = request.getPattern();
+        int n = text.length();
+        int m = pattern.length();
+        boolean parallel = n >= parallelMinText && parallelism > 1;
+
+        if (request.getMaxErrors() > 0) {
+            SearchAlgorithm hamming = registry.resolve("hamming");
+            return new Plan(hamming, parallel, -1, "maxErrors=" + request.getMaxErrors()
+                    + " needs an approximate search: k-mismatch Shift-And (ask for myers explicitly for edit distance)");
+        }
+
+        ResultMode mode = request.getResultMode();
+        boolean earlyStop = mode == ResultMode.EXISTS || mode == ResultMode.FIRST_K || mode == ResultMode.PAGE;
+        PatternProfile profile = new PatternProfile(pattern, text instanceof PackedGenome);
+
+        SearchAlgorithm best = null;
+        double bestCost = Double.MAX_VALUE;
+        String bestSource = null;
+        boolean suffixBuildCandidate = false;
+        for (SearchAlgorithm algorithm : registry.all()) {
+            if (algorithm.approximate() || algorithm.ambiguityCodes()) continue;
+            if (algorithm.indexed()) {
+                if (!algorithm.indexReady(text)) {
+                    suffixBuildCandidate |= "suffix".equals(algorithm.name());
+                    continue;
+                }
+                // A query on a built index is independent of the genome size and never parallelized
+                LatencyStats stats = stats(algorithm, m, false, text);
+                double cost = stats != null ? stats.value() : indexPrior(algorithm, mode);
+                if (cost < bestCost) {
+                    best = algorithm;
+                    bestCost = cost;
+                    bestSource = source(stats) + " ns/query on the built index";
+                }
+                continue;
+            }
+            LatencyStats stats = stats(algorithm, m, parallel, text);
+            double cost = stats != null
+                    ? stats.value() * n
+                    : scanPrior(algorithm.name(), m, profile) * n / (parallel ? parallelism : 1);
+            if (cost < bestCost) {
+                best = algorithm;
+                bestCost = cost;
+                bestSource = source(stats) + " ns/base";
+            }
+        }
+
+        boolean indexChosen = best != null && best.indexed();
+        String indexNote = "";
+        if (!indexChosen && suffixBuildCandidate && !earlyStop && m <= indexMaxPattern && n >= indexMinText) {
+            indexNote = "; short pattern on a large genome: " + buildInBackground(registry.get("suffix"), text);
+        }
+        if (best == null) {
+            return new Plan(registry.resolve(SearchAlgorithmRegistry.DEFAULT_ALGORITHM), parallel, -1,
+                    "no exact algorithm is registered; using the default" + indexNote);
+        }
+        return new Plan(best, parallel && !indexChosen, bestCost, String.format(Locale.ROOT,
+                "lowest estimated cost %.0f ns (%s, m=%d, n=%d%s)", bestCost, bestSource, m, n,
+                profile.acgt ? ", ACGT pattern" : ", alphabet " + profile.sigma) + indexNote);
+    }
+
+    /**
+     * Starts building {@code algorithm}'s index for {@code text} on the background thread, unless a build is
+     * already running or the estimated build size does not fit the free heap.
+     *
+     * @return what happened, for the plan's reason
+     */
+    private String buildInBackground(SearchAlgorithm algorithm, CharSequence text) {
+        long needed = algorithm.indexBuildBytes(text.length());
+        long free = freeHeap();
+        if (needed > free) {
+            return String.format(Locale.ROOT, "not building the %s index (needs ~%d MB, %d MB free)",
+                    algorithm.name(), needed >> 20, free >> 20);
+        }
+        if (!indexBuilding.compareAndSet(false, true)) {
+            return "another index build is running";
+        }
+        try {
+            indexBuilder.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    algorithm.buildIndex(text);
+                    log.info("Built the {} index for {} bases in {} ms", algorithm.name(), text.length(),
+                            (System.nanoTime() - start) / 1_000_000);
+                } catch (RuntimeException | OutOfMemoryError e) {
+                    log.warn("Building the {} index for {} bases failed: {}", algorithm.name(), text.length(),
+                            e.toString());
+                } finally {
+                    indexBuilding.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            indexBuilding.set(false);
+            return "could not start the " + algorithm.name() + " index build";
+        }
+        return "building the " + algorithm.name() + " index in the background, later queries reuse it";
+    }
+
+    // Upper bound the heap can still grow into; garbage not yet collected counts as used, so this errs low
+    private static long freeHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexBuilder.shutdownNow();
+    }
+
+    /**
+     * Records the latency of a finished search. Scans are recorded as ns per base, indexed queries as ns per
+     * query; a search that had to build its index first is not representative and is ignored.
+     */
+    public void observe(SearchAlgorithm algorithm, boolean parallel, CharSequence text, int patternLength,
+                        long elapsedNs, boolean builtIndex) {
+        int textLength = text.length();
+        if (textLength <= 0 || patternLength <= 0 || builtIndex || algorithm.approximate()) return;
+        boolean parallelKey = parallel && !algorithm.indexed();
+        double value = algorithm.indexed() ? elapsedNs : (double) elapsedNs / textLength;
+        observed.computeIfAbsent(key(algorithm, patternLength, parallelKey, text), k -> new LatencyStats()).add(value);
+    }
+
+    /**
+     * @return the latency averages, keyed "algorithm/m=<length class>/sequential|parallel/<genome type>"
+     */
+    public Map<String, String> observedLatencies() {
+        Map<String, String> snapshot = new TreeMap<>();
+        observed.forEach((key, stats) -> snapshot.put(key, stats.toString()));
+        return snapshot;
+    }
+
+    private LatencyStats stats(SearchAlgorithm algorithm, int m, boolean parallel, CharSequence text) {
+        LatencyStats stats = observed.get(key(algorithm, m, parallel, text));
+        return stats != null && stats.samples() >= minSamples ? stats : null;
+    }
+
+    private static String source(LatencyStats stats) {
+        return stats != null ? "observed over " + stats.samples() + " searches" : "model";
+    }
+
+    // Length classes 1, 2-3, 4-7, 8-15, ...: algorithms behave alike within a class. The genome representation
+    // (packed, memory-mapped) is part of the key, since the scans take different fast paths on each.
+    private static String key(SearchAlgorithm algorithm, int m, boolean parallel, CharSequence text) {
+        int lengthClass = Integer.highestOneBit(Math.max(1, m));
+        return algorithm.name() + "/m=" + lengthClass + "-" + (2 * lengthClass - 1)
+                + (parallel ? "/parallel" : "/sequential") + "/" + text.getClass().getSimpleName();
+    }
+
+    /**
+     * Model cost of a sequential scan in ns per base. Only the relative order matters; observed latencies
+     * take over after a few searches.
+     */
+    static double scanPrior(String algorithm, int m, PatternProfile profile) {
+        switch (algorithm) {
+            case "naive":
+                // 2-bit word compare of the whole pattern per position; otherwise char by char
+                return profile.packedFastPath ? 0.8 : 2.5;
+            case "kmp":
+                return 3.0;
+            case "bm":
+                // Bad-character shifts average about min(m, sigma) on random text
+                return 0.4 + 4.0 / Math.min(m, profile.sigma);
+            case "qgram":
+                if (!profile.acgt || m < 2) return scanPrior("bm", m, profile) + 0.05; // compiles to Boyer-Moore
+                // q-gram shifts approach m - q + 1
+                int q = m >= 16 ? 4 : (m >= 6 ? 3 : 2);
+                return 0.3 + 3.0 / Math.max(1, m - q + 1);
+            default:
+                return 3.0;
+        }
+    }
+
+    // Model cost of one query on a built index, in ns
+    static double indexPrior(SearchAlgorithm algorithm, ResultMode mode) {
+        boolean count = mode == ResultMode.COUNT;
+        switch (algorithm.name()) {
+            case "fm":
+                // O(m) backward search to count; every located hit walks to a suffix array sample
+                return count ? 5_000 : 60_000;
+            case "suffix":
+                return count ? 15_000 : 20_000;
+            default:
+                return 50_000;
+        }
+    }
+
+    static final class PatternProfile {
+        final boolean acgt;
+        final int sigma;            // effective alphabet size for shift estimates
+        final boolean packedFastPath;
+
+        PatternProfile(String pattern, boolean packedText) {
+            boolean onlyAcgt = !pattern.isEmpty();
+            long distinct = pattern.chars().distinct().count();
+            for (int i = 0; i < pattern.length() && onlyAcgt; i++) {
+                char c = pattern.charAt(i);
+                onlyAcgt = c == 'A' || c == 'C' || c == 'G' || c == 'T';
+            }
+            this.acgt = onlyAcgt;
+            this.sigma = onlyAcgt ? 4 : (int) Math.max(4, distinct);
+            this.packedFastPath = packedText && onlyAcgt && pattern.length() <= 31;
+        }
+    }
+
+    private static final class LatencyStats {
+        private double average;
+        private long samples;
+
+        synchronized void add(double value) {
+            average = samples == 0 ? value : average + EWMA_WEIGHT * (value - average);
+            samples++;
+        }
+
+        synchronized double value() {
+            return average;
+        }
+
+        synchronized long samples() {
+            return samples;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format(Locale.ROOT, "%.4g (%d samples)", average, samples);
+        }
+    }
+}
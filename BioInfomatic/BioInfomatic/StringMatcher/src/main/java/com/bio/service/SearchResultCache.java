@@ -0,0 +1,245 @@
+package com.bio.service;
+
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import com.bio.model.ResultMode;
+import com.bio.utils.GenomeDataGeneratorPro;
+import com.bio.utils.IntList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of complete search results, shared by the sequential, naive and parallel services.
+ *
+ * Entries are keyed by the genome (default or GenomeRepository id) and its version plus everything in the
+ * request that changes the answer, so regenerating or reloading a genome makes its older entries unreachable;
+ * those entries are dropped as soon as a result for the new version of that genome is stored. The cache is bounded by the bytes
+ * held in match indices/distances rather than by entry count, since one result can hold millions of hits.
+ */
+@Service
+public class SearchResultCache {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    /**
+     * A search that is only run on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Computation<E extends Exception> {
+        MatchResult compute() throws E;
+    }
+
+    private final long maxBytes;
+    private final GenomeRepository genomes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private final Map<String, Long> newestVersions = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    public SearchResultCache(@Value("${app.result-cache.max-bytes:67108864}") long maxBytes, GenomeRepository genomes) {
+        this.maxBytes = maxBytes;
+        this.genomes = genomes;
+    }
+
+    // Default genome only (benchmarks and tools without a repository)
+    public SearchResultCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * Returns the cached result for (scope, request), or runs {@code computation} and caches its result.
+     * Error results are never cached. The returned object is always a fresh copy carrying the hit/miss stats;
+     * once a result is cached, its lists are read-only for every caller, including the one that computed it.
+     *
+     * @param scope distinguishes callers whose results differ for the same request (e.g. "sequential:kmp")
+     */
+    public <E extends Exception> MatchResult getOrCompute(String scope, MatchRequest request, Computation<E> computation) throws E {
+        // Read the version before searching: a regeneration mid-search files the result under the old version
+        long version = genomes != null ? genomes.version(request.getGenomeId()) : GenomeDataGeneratorPro.genomeVersion();
+        Key key = new Key(version, scope, request);
+
+        Entry entry = maxBytes > 0 ? lookup(key) : null;
+        if (entry != null) {
+            hits.incrementAndGet();
+            MatchResult served = new MatchResult(entry.result);
+            served.setCached(true);
+            return withStats(served);
+        }
+
+        misses.incrementAndGet();
+        MatchResult result = computation.compute();
+        if (result != null && result.getErrorMessage() == null && maxBytes > 0) {
+            MatchResult snapshot = store(key, result);
+            if (snapshot != null) {
+                return withStats(new MatchResult(snapshot));
+            }
+        }
+        return result == null ? null : withStats(result);
+    }
+
+    private MatchResult withStats(MatchResult result) {
+        result.setCacheHits(hits.get());
+        result.setCacheMisses(misses.get());
+        return result;
+    }
+
+    private synchronized Entry lookup(Key key) {
+        return entries.get(key);
+    }
+
+    // @return the cached snapshot, or null if the result was not cached
+    private synchronized MatchResult store(Key key, MatchResult result) {
+        long newestVersion = newestVersions.getOrDefault(key.genomeId, Long.MIN_VALUE);
+        if (key.version < newestVersion) {
+            return null; // computed against a genome that has since been replaced
+        }
+        if (key.version > newestVersion) {
+            newestVersions.put(key.genomeId, key.version);
+            evictOlderVersions(key.genomeId, key.version);
+        }
+
+        // Sized before freezing: the read-only views hide whether a list is an IntList
+        long bytes = ENTRY_OVERHEAD_BYTES + sizeOf(result.getMatchIndices()) + sizeOf(result.getMatchDistances())
+                + (result.getMatchStrands() == null ? 0 : (long) result.getMatchStrands().size() * Integer.BYTES);
+        if (bytes > maxBytes) {
+            return null;
+        }
+
+        // Snapshot with read-only lists, so no response can modify the cached entry
+        MatchResult snapshot = new MatchResult(result);
+        snapshot.setMatchIndices(freeze(result.getMatchIndices()));
+        snapshot.setMatchCount(result.getMatchCount());
+        snapshot.setMatchDistances(freeze(result.getMatchDistances()));
+        snapshot.setMatchStrands(freeze(result.getMatchStrands()));
+        snapshot.setMatchLocations(freeze(result.getMatchLocations()));
+        snapshot.setMatchOffsets(freeze(result.getMatchOffsets()));
+
+        Entry previous = entries.put(key, new Entry(snapshot, bytes));
+        if (previous != null) {
+            totalBytes -= previous.bytes;
+        }
+        totalBytes += bytes;
+
+        // LRU eviction: access order puts the least recently used entry first
+        Iterator<Entry> it = entries.values().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            totalBytes -= it.next().bytes;
+            it.remove();
+        }
+        return snapshot;
+    }
+
+    private void evictOlderVersions(String genomeId, long newestVersion) {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            if (e.getKey().genomeId.equals(genomeId) && e.getKey().version < newestVersion) {
+                totalBytes -= e.getValue().bytes;
+                it.remove();
+            }
+        }
+    }
+
+    private static <T> List<T> freeze(List<T> list) {
+        return list == null ? null : Collections.unmodifiableList(list);
+    }
+
+    // IntList stores 4 bytes per hit; a boxed list ~4 bytes reference + 16 bytes Integer
+    private static long sizeOf(List<Integer> list) {
+        if (list == null) return 0;
+        return (long) list.size() * (list instanceof IntList ? Integer.BYTES : 20);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    private static final class Entry {
+        private final MatchResult result;
+        private final long bytes;
+
+        private Entry(MatchResult result, long bytes) {
+            this.result = result;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class Key {
+        private final String genomeId;  // "" for the default genome
+        private final long version;
+        private final String scope;
+        private final String pattern;
+        private final String algorithm;
+        private final String source;
+        private final int numChunks;
+        private final int maxErrors;
+        private final ResultMode resultMode;
+        private final int limit;
+        private final int offset;
+        private final boolean bothStrands;
+
+        private Key(long version, String scope, MatchRequest request) {
+            this.genomeId = GenomeRepository.isDefault(request.getGenomeId()) ? "" : request.getGenomeId();
+            this.version = version;
+            this.scope = scope;
+            this.pattern = request.getPattern();
+            this.algorithm = request.getAlgorithm() == null ? "" : request.getAlgorithm().toLowerCase();
+            this.source = GenomeDataGeneratorPro.SOURCE_MAPPED.equalsIgnoreCase(request.getSource())
+                    ? GenomeDataGeneratorPro.SOURCE_MAPPED : GenomeDataGeneratorPro.SOURCE_PACKED;
+            this.numChunks = request.getNumChunks();
+            this.maxErrors = request.getMaxErrors();
+            this.resultMode = request.getResultMode();
+            this.limit = request.getLimit();
+            this.offset = request.getOffset();
+            this.bothStrands = request.isBothStrands();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return version == other.version && numChunks == other.numChunks && maxErrors == other.maxErrors
+                    && resultMode == other.resultMode && limit == other.limit && offset == other.offset
+                    && bothStrands == other.bothStrands
+                    && genomeId.equals(other.genomeId) && scope.equals(other.scope) && Objects.equals(pattern, other.pattern)
+                    && algorithm.equals(other.algorithm) && source.equals(other.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(genomeId, version, scope, pattern, algorithm, source, numChunks, maxErrors, resultMode, limit, offset,
+                    bothStrands);
+        }
+    }
+}
@@ -1,35 +1,103 @@
 package com.bio.service;
 
-import com.bio.algorithm.BoyerMooreSearch;
-import com.bio.algorithm.KMPSearch;
-import com.bio.algorithm.NaiveSearch;
-import com.bio.algorithm.SuffixTreeSearch;
+import com.bio.algorithm.BothStrands;
+import com.bio.algorithm.FMIndexSearch;
+import com.bio.algorithm.MatchCollector;
+import com.bio.algorithm.SearchAlgorithm;
 import com.bio.model.MatchRequest;
 import com.bio.model.MatchResult;
+import com.bio.model.ResultMode;
 import com.bio.utils.GenomeDataGenerator;
-import com.bio.utils.GenomeDataGeneratorPro;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.io.IOException;
 
 @Service
 public class SequentialSearchService {
 
+    // FM-Index sampling: smaller rates answer faster, larger rates shrink the index
+    @Value("${app.fmindex.occ-sample-rate:64}")
+    private int fmOccSampleRate;
+
+    @Value("${app.fmindex.sa-sample-rate:32}")
+    private int fmSaSampleRate;
+
+    private final SearchAlgorithmRegistry registry;
+    private final SearchPlanner planner;
+    private final GenomeRepository genomes;
+    private final SearchResultCache resultCache;
+
+    @Autowired
+    public SequentialSearchService(SearchAlgorithmRegistry registry, SearchPlanner planner, GenomeRepository genomes,
+                                   SearchResultCache resultCache) {
+        this.registry = registry;
+        this.planner = planner;
+        this.genomes = genomes;
+        this.resultCache = resultCache;
+    }
+
+    // algoType: any registered algorithm name or alias, or "auto" to let the planner choose
     public MatchResult executeSearch(MatchRequest request, String algoType) throws IOException {
-        String text = GenomeDataGeneratorPro.readGenomeFile();
+        return resultCache.getOrCompute("sequential:" + algoType.toLowerCase(), request, () -> search(request, algoType));
+    }
+
+    private MatchResult search(MatchRequest request, String algoType) throws IOException {
+        CharSequence text = genomes.genome(request.getGenomeId(), request.getSource());
         String pattern = request.getPattern();
 
-        switch (algoType.toLowerCase()) {
-            case "kmp":
-                return new KMPSearch().search(text, pattern);
-            case "bm":
-            case "boyermoore":
-                return new BoyerMooreSearch().search(text, pattern);
-            case "suffix":
-            case "suffixtree":
-                return new SuffixTreeSearch().search(text, pattern);
-            case "naive":
-            default:
-                return new NaiveSearch().search(text, pattern);
+        SearchPlanner.Plan plan = SearchAlgorithmRegistry.isAuto(algoType) ? planner.plan(request, text) : null;
+        SearchAlgorithm algorithm = plan != null ? plan.algorithm() : registry.resolve(algoType);
+        int maxErrors = algorithm.errorBudget(pattern, request.getMaxErrors());
+        boolean buildsIndex = algorithm.indexed() && !algorithm.indexReady(text);
+
+        long startTime = System.nanoTime();
+        // Both-strand searches always run through a collector, which records the strands
+        MatchResult result = request.getResultMode() == ResultMode.ALL && !request.isBothStrands()
+                ? algorithm.search(text, pattern, maxErrors)
+                : searchWithMode(text, request, algorithm, maxErrors);
+        planner.observe(algorithm, false, text, pattern.length(), System.nanoTime() - startTime, buildsIndex);
+
+        if (plan != null) {
+            result.setPlan(plan.toString());
+            result.setPlannedAlgorithm(plan.algorithm().name());
         }
+        return GenomeRepository.locate(text, result);
+    }
+
+    /**
+     * COUNT / EXISTS / FIRST_K / PAGE: the scan feeds a MatchCollector, which stores only the requested positions
+     * and stops the scan once the answer is complete. Algorithms that can count without locating (the indexes)
+     * answer COUNT that way. Also used for bothStrands in every mode: one scan finds the pattern and its reverse
+     * complement (see SearchAlgorithm.prepareBothStrands).
+     */
+    private MatchResult searchWithMode(CharSequence text, MatchRequest request, SearchAlgorithm algorithm, int maxErrors) {
+        long startTime = System.nanoTime();
+        String pattern = request.getPattern();
+        int n = text.length();
+        MatchCollector collector = MatchCollector.of(request);
+
+        boolean bothStrands = request.isBothStrands();
+        long count = collector.mode() != ResultMode.COUNT ? -1
+                : bothStrands ? BothStrands.count(algorithm, text, pattern) : algorithm.count(text, pattern);
+        if (count >= 0) {
+            collector.addCount(count);
+        } else if (!pattern.isEmpty()) {
+            SearchAlgorithm.Scanner scanner = bothStrands
+                    ? algorithm.prepareBothStrands(pattern, maxErrors) : algorithm.prepare(pattern, maxErrors);
+            scanner.scan(text, 0, n, collector);
+        }
+
+        String label = algorithm.displayName() + (algorithm.approximate() ? " (k=" + maxErrors + ")" : "")
+                + (bothStrands ? " (both strands)" : "");
+        return collector.toResult(label, System.nanoTime() - startTime, n, pattern.length());
+    }
+
+    // Count-only query against the FM-Index: no positions are located
+    public MatchResult executeCount(MatchRequest request) throws IOException {
+        return resultCache.getOrCompute("count:fm", request, () -> {
+            CharSequence text = genomes.genome(request.getGenomeId(), request.getSource());
+            return new FMIndexSearch(fmOccSampleRate, fmSaSampleRate).count(text, request.getPattern());
+        });
     }
-}
\ No newline at end of file
+}
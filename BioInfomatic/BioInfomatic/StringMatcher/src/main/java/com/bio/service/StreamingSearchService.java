@@ -0,0 +1,183 @@
+package com.bio.service;
+
+import com.bio.algorithm.MatchCollector;
+import com.bio.algorithm.OwnedRangeSink;
+import com.bio.algorithm.SearchAlgorithm;
+import com.bio.algorithm.SearchSink;
+import com.bio.model.MatchRequest;
+import com.bio.model.ResultMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Streaming variants of the sequential and parallel searches: hits are written to the response while the scan is
+ * still running (see MatchStreamWriter), so the first matches arrive after milliseconds and the server never
+ * holds the full hit list. Streams bypass the result cache, which needs the complete result.
+ */
+@Service
+public class StreamingSearchService {
+
+    // Sequential scans run segment by segment so progress frames can be sent between segments
+    @Value("${app.stream.segment-size:1048576}")
+    private int segmentSize = 1 << 20;
+
+    @Value("${app.stream.batch-size:8192}")
+    private int batchSize = 8192;
+
+    @Value("${app.stream.progress-interval-ms:250}")
+    private long progressIntervalMs = 250;
+
+    private final SearchAlgorithmRegistry registry;
+    private final SearchPlanner planner;
+    private final GenomeRepository genomes;
+    private final ParallelGenericSearchService parallelService;
+    private final ForkJoinPool searchPool;
+    private final SearchMetrics metrics;
+
+    @Autowired
+    public StreamingSearchService(SearchAlgorithmRegistry registry, SearchPlanner planner, GenomeRepository genomes,
+                                  ParallelGenericSearchService parallelService, ForkJoinPool searchPool,
+                                  SearchMetrics metrics) {
+        this.registry = registry;
+        this.planner = planner;
+        this.genomes = genomes;
+        this.parallelService = parallelService;
+        this.searchPool = searchPool;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Streams a sequential search. Hits are written in ascending position order (end positions for Myers).
+     */
+    public void streamSequential(MatchRequest request, String algoType, MatchStreamWriter.Format format,
+                                 OutputStream out) throws IOException {
+        long setupStart = System.nanoTime();
+        CharSequence text = genomes.genome(request.getGenomeId(), request.getSource());
+        String pattern = request.getPattern();
+        int n = text.length();
+        int m = pattern.length();
+
+        SearchAlgorithm algorithm = resolve(algoType, request, text);
+        int k = algorithm.errorBudget(pattern, request.getMaxErrors());
+        int context = m - 1 + k;
+        boolean endPositions = algorithm.reportsEndPositions();
+        boolean bothStrands = request.isBothStrands();
+        String label = algorithm.displayName() + " (stream" + (algorithm.approximate() ? ", k=" + k : "")
+                + (bothStrands ? ", both strands" : "") + ")";
+
+        MatchStreamWriter writer = new MatchStreamWriter(out, format, n, batchSize, progressIntervalMs);
+        writer.locateWith(GenomeRepository.records(text));
+        if (bothStrands) writer.withStrands();
+        SearchSink writerSink = writerSink(writer);
+        try {
+            SearchAlgorithm.Scanner scanner = bothStrands ? algorithm.prepareBothStrands(pattern, k) : algorithm.prepare(pattern, k);
+            for (int s = 0; s < n; s += segmentSize) {
+                // Segment owns hits in [s, e). Start positions: read m - 1 (+ k) past e so every match starting
+                // inside is complete. End positions: an end is exact after m - 1 + k bases of left context.
+                int e = (int) Math.min((long) s + segmentSize, n);
+                int scanFrom = endPositions ? Math.max(0, s - context) : s;
+                int scanTo = endPositions ? e : (int) Math.min((long) e + context, n);
+                scanner.scan(text, scanFrom, scanTo, new OwnedRangeSink(writerSink, s, e));
+                writer.progress(e);
+            }
+        } catch (RuntimeException e) {
+            writer.error("Search failed: " + e.getMessage());
+            metrics.record("stream", algorithm.name(), "error", false, System.nanoTime() - setupStart, 0, writer.matchCount(), 0);
+            throw e;
+        }
+        writer.summary(label, m);
+        long elapsedNs = System.nanoTime() - setupStart;
+        metrics.record("stream", algorithm.name(), "success", false, elapsedNs, n, writer.matchCount(), 0);
+        System.out.printf("Streaming Search (%s) completed in %.4f ms. Matches: %d%n",
+                label, elapsedNs / 1_000_000.0, writer.matchCount());
+    }
+
+    /**
+     * Streams a parallel search. Every leaf queues its own hits frame (tagged with the range it owns) as soon as
+     * it finishes, and this thread writes the queue to the response while the leaves run, so frames arrive in
+     * completion order; positions within a frame are sorted. Approximate algorithms ("hamming", "myers") use
+     * maxErrors.
+     */
+    public void streamParallel(MatchRequest request, MatchStreamWriter.Format format, OutputStream out) throws Exception {
+        long startTime = System.nanoTime();
+        CharSequence text;
+        try {
+            text = genomes.genome(request.getGenomeId(), request.getSource());
+        } catch (IOException e) {
+            throw new Exception("Failed to read genome file. Ensure the file generation endpoint was successfully called.", e);
+        }
+
+        String pattern = request.getPattern();
+        int m = pattern.length();
+        SearchAlgorithm algorithm = resolve(request.getAlgorithm(), request, text);
+        int k = algorithm.errorBudget(pattern, request.getMaxErrors());
+        int overlap = m - 1 + k;
+        boolean endPositions = algorithm.reportsEndPositions();
+
+        boolean bothStrands = request.isBothStrands();
+
+        MatchStreamWriter writer = new MatchStreamWriter(out, format, text.length(), batchSize, progressIntervalMs);
+        writer.locateWith(GenomeRepository.records(text));
+        List<Integer> leaves;
+        try {
+            SearchAlgorithm.Scanner scanner = bothStrands ? algorithm.prepareBothStrands(pattern, k) : algorithm.prepare(pattern, k);
+            ForkJoinTask<List<Integer>> search = parallelService.forkChunks(text, request.getNumChunks(), overlap, (genome, from, to, ownedEnd) -> {
+                // Same ownership rule as the non-streaming search (see OwnedRangeSink)
+                int ownedFrom = OwnedRangeSink.ownedFrom(from, endPositions, overlap);
+                int ownedTo = OwnedRangeSink.ownedTo(ownedEnd, endPositions, overlap);
+                MatchCollector hits = new MatchCollector(ResultMode.ALL, 0, 0).withStrands(bothStrands);
+                scanner.scan(genome, from, to, new OwnedRangeSink(hits, ownedFrom, ownedTo));
+                writer.chunk(ownedFrom, Math.min(ownedTo, genome.length()), hits.positions(),
+                        algorithm.approximate() ? hits.distances() : null, hits.strands());
+                return hits.positions().size();
+            });
+            writer.drainChunks(search);
+            leaves = parallelService.joinChunks(search);
+        } catch (Exception e) {
+            writer.error("Parallel execution failed: " + e.getMessage());
+            metrics.record("stream-parallel", algorithm.name(), "error", false, System.nanoTime() - startTime, 0, writer.matchCount(), 0);
+            throw e;
+        }
+        metrics.record("stream-parallel", algorithm.name(), "success", false, System.nanoTime() - startTime, text.length(), writer.matchCount(), 0);
+
+        String label = algorithm.approximate() ? algorithm.displayName() + " (k=" + k + ")"
+                : request.getAlgorithm() != null ? request.getAlgorithm() : algorithm.name();
+        writer.summary(label + " Parallel (stream" + (bothStrands ? ", both strands" : "") + ") (Chunks: " + leaves.size()
+                + " | Threads: " + searchPool.getParallelism() + ")", m);
+    }
+
+    private SearchAlgorithm resolve(String algoType, MatchRequest request, CharSequence text) {
+        return SearchAlgorithmRegistry.isAuto(algoType) ? planner.plan(request, text).algorithm() : registry.resolve(algoType);
+    }
+
+    private static SearchSink writerSink(MatchStreamWriter writer) {
+        return new SearchSink() {
+            @Override
+            public void onMatch(int position) {
+                writer.hit(position);
+            }
+
+            @Override
+            public void onMatch(int position, int distance) {
+                writer.hit(position, distance);
+            }
+
+            @Override
+            public void onReverseMatch(int position) {
+                writer.reverseHit(position);
+            }
+
+            @Override
+            public void onReverseMatch(int position, int distance) {
+                writer.reverseHit(position, distance);
+            }
+        };
+    }
+}
@@ -0,0 +1,142 @@
+package com.bio.service;
+
+import com.bio.algorithm.MatchCollector;
+import com.bio.algorithm.OwnedRangeSink;
+import com.bio.algorithm.SearchAlgorithm;
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import com.bio.utils.FastxReader;
+import com.bio.utils.GenomeDataGeneratorPro;
+import com.bio.utils.MappedGenome;
+import com.bio.utils.PackedGenomeFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Searches genome files of any size window by window, for genomes beyond the 2 GB reach of the in-memory
+ * paths (int positions, one buffer per genome).
+ *
+ * The file is parsed by FastxReader.stream (plain, FASTA or FASTQ; 2-bit packed files are unpacked on the fly,
+ * see PackedGenomeFile) into one reused direct buffer of {@code app.window.size} bases, so memory stays constant
+ * however large the genome is; only the hits kept by the result mode grow (use COUNT, FIRST_K or PAGE for very
+ * frequent patterns). Positions are 64-bit offsets in the parsed sequence and are returned in
+ * MatchResult.matchOffsets.
+ *
+ * Algorithms with state that carries across a window boundary (KMP, see SearchAlgorithm.prepareStream) resume
+ * where the previous window stopped and read every base once. The others keep the last m - 1 + k bases of a
+ * window as the start of the next one, and each window reports only the hits it owns, as parallel chunks do
+ * (see OwnedRangeSink). Indexed algorithms are rejected: their index would need the whole genome in memory.
+ */
+@Service
+public class WindowedSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(WindowedSearchService.class);
+
+    @Value("${app.window.size:67108864}")
+    private int windowSize = 1 << 26;
+
+    private final SearchAlgorithmRegistry registry;
+    private final GenomeRepository genomes;
+
+    public WindowedSearchService(SearchAlgorithmRegistry registry, GenomeRepository genomes) {
+        this.registry = registry;
+        this.genomes = genomes;
+    }
+
+    /**
+     * @param fileName file in the genome data directory (app.genomes.data-dir), or null for the default genome file
+     */
+    public MatchResult search(MatchRequest request, String fileName) throws IOException {
+        Path file = fileName == null || fileName.isBlank() ? GenomeDataGeneratorPro.genomeFile() : genomes.dataFile(fileName);
+        if (!Files.isRegularFile(file)) {
+            throw new IOException("Data file not found. Generate it first.");
+        }
+
+        String pattern = request.getPattern();
+        int m = pattern.length();
+        SearchAlgorithm algorithm = resolve(request);
+        int k = algorithm.errorBudget(pattern, request.getMaxErrors());
+        boolean endPositions = algorithm.reportsEndPositions();
+
+        // Both strands: the combined scanner has no resumable state, so windows overlap
+        boolean bothStrands = request.isBothStrands();
+        SearchAlgorithm.StreamScanner stream = bothStrands ? null : algorithm.prepareStream(pattern, k);
+        SearchAlgorithm.Scanner scanner = stream != null ? null
+                : bothStrands ? algorithm.prepareBothStrands(pattern, k) : algorithm.prepare(pattern, k);
+        int carry = stream != null ? 0 : m - 1 + k;
+        if (carry > windowSize / 2) {
+            throw new IllegalArgumentException("Pattern of " + m + " characters is too long for windows of "
+                    + windowSize + " bases (app.window.size).");
+        }
+
+        MatchCollector collector = MatchCollector.windowed(request);
+        ByteBuffer window = ByteBuffer.allocateDirect(windowSize);
+        long windowStart = 0;   // offset of window[0] in the parsed sequence
+        long scanned = 0;
+        int windows = 0;
+
+        long startTime = System.nanoTime();
+        try (ReadableByteChannel bases = FastxReader.stream(
+                PackedGenomeFile.openBases(file), file.getFileName().toString())) {
+            boolean eof = false;
+            while (!eof && !collector.isDone()) {
+                while (window.hasRemaining() && !eof) {
+                    eof = bases.read(window) == -1;
+                }
+                int length = window.position();
+                MappedGenome view = MappedGenome.wrap(window.duplicate().flip());
+                collector.setBase(windowStart);
+
+                if (stream != null) {
+                    stream.scan(view, 0, length, collector);
+                } else {
+                    // Start positions: the last `carry` bases begin hits that end in the next window.
+                    // End positions: the first `carry` bases were already reported by the previous window.
+                    int ownedFrom = endPositions && windowStart > 0 ? carry : 0;
+                    int ownedTo = eof || endPositions ? length : length - carry;
+                    scanner.scan(view, 0, length, new OwnedRangeSink(collector, ownedFrom, ownedTo));
+                }
+                scanned = windowStart + length;
+                windows++;
+
+                // The carry-over moves to the front of the buffer and becomes the start of the next window
+                int keep = Math.min(carry, length);
+                window.flip().position(length - keep);
+                window.compact();
+                windowStart += length - keep;
+            }
+        }
+        long executionTimeNs = System.nanoTime() - startTime;
+
+        String label = algorithm.displayName() + (algorithm.approximate() ? " (k=" + k + ")" : "")
+                + (bothStrands ? " (both strands)" : "") + " Windowed (" + windows + " x " + (windowSize >> 20) + " MB, "
+                + (stream != null ? "state carried across windows" : "overlap " + carry) + ")";
+        MatchResult result = collector.toResult(label, executionTimeNs, scanned, m);
+        // Latency, bases and matches are recorded by the caller's SearchMetrics.time("windowed", ...)
+        log.debug("Windowed search ({}) scanned {} bases of {} in {} ms, {} matches",
+                label, scanned, file.getFileName(), executionTimeNs / 1_000_000, result.getMatchCount());
+        return result;
+    }
+
+    // "auto" has no whole genome to plan on: KMP for exact patterns (it resumes across windows), else k-mismatch
+    private SearchAlgorithm resolve(MatchRequest request) {
+        String requested = request.getAlgorithm();
+        if (requested == null || SearchAlgorithmRegistry.isAuto(requested)) {
+            requested = request.getMaxErrors() > 0 ? "hamming" : "kmp";
+        }
+        SearchAlgorithm algorithm = registry.resolve(requested);
+        if (algorithm.indexed()) {
+            throw new IllegalArgumentException("Algorithm '" + algorithm.name()
+                    + "' builds an index over the whole genome and cannot search window by window.");
+        }
+        return algorithm;
+    }
+}
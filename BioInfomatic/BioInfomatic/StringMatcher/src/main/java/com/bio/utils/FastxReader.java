@@ -0,0 +1,359 @@
+package com.bio.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming reader for plain sequence, multi-record FASTA and FASTQ files.
+ *
+ * The channel is read in 64 KB chunks that are filtered in place (line breaks, blanks, headers, '+' lines and
+ * quality strings dropped) and bulk-copied into one direct buffer, so the heap only ever holds one chunk and
+ * the current header, whatever the file size. Records are concatenated with a GenomeRecords.SEPARATOR byte
+ * between them, and their names and offsets are collected into a GenomeRecords. stream() runs the same parser
+ * lazily as a channel of bases, for genomes too large to hold in memory at all.
+ *
+ * The format is taken from the first non-blank byte: '>' or ';' starts FASTA, '@' starts FASTQ, anything else
+ * is a plain sequence. A plain sequence that later turns into FASTA keeps its leading bases as a record named
+ * after the genome. FASTQ records may wrap over several lines: the quality string is skipped by counting as
+ * many symbols as the record has bases, so quality lines starting with '@' or '+' are not mistaken for headers.
+ * Bases are folded to upper case as they are kept: soft-masked (lower-case) regions of a reference are searched
+ * like the rest, and the 2-bit packing and the DNA-only scanners see ACGT instead of exceptions.
+ */
+public final class FastxReader {
+
+    public enum Format { PLAIN, FASTA, FASTQ }
+
+    private static final int READ_CHUNK = 1 << 16;
+    private static final int MAX_SEQUENCE = Integer.MAX_VALUE - 8;
+
+    // Parser states
+    private static final int LINE_START = 0;
+    private static final int SEQUENCE = 1;
+    private static final int HEADER = 2;
+    private static final int COMMENT = 3;
+    private static final int PLUS_LINE = 4;
+    private static final int QUALITY = 5;
+    private static final int AFTER_QUALITY = 6;
+
+    /**
+     * A parsed genome: the bases between the buffer's position and limit, and the record layout (null for a
+     * plain sequence, which is a single unnamed record).
+     */
+    public static final class Result {
+        private final ByteBuffer sequence;
+        private final GenomeRecords records;
+        private final Format format;
+
+        private Result(ByteBuffer sequence, GenomeRecords records, Format format) {
+            this.sequence = sequence;
+            this.records = records;
+            this.format = format;
+        }
+
+        public ByteBuffer sequence() {
+            return sequence;
+        }
+
+        public GenomeRecords records() {
+            return records;
+        }
+
+        public Format format() {
+            return format;
+        }
+    }
+
+    private final String genomeName;
+    private ByteBuffer sequence;                // read(): the buffer being filled; stream(): unused
+    private final long maxBytes;                 // read(): hard cap on the buffer
+    private final GenomeRecords.Builder records; // null when streaming
+    private Format format;
+    private long emitted;                        // bases (and separators) output before the current chunk
+
+    private int state = LINE_START;
+    private final byte[] name = new byte[GenomeRecords.Builder.MAX_NAME];
+    private int nameLength;
+    private int nameState;          // 0 = before the name, 1 = in it, 2 = past it (description)
+    private boolean inRecord;
+    private boolean anyRecord;
+    private long recordStart;
+    private long recordEnd;         // FASTQ: end of the bases, fixed by the '+' line
+    private long qualityRemaining;
+    private long lines = 1;
+
+    private FastxReader(String genomeName, ByteBuffer sequence, long maxBytes, GenomeRecords.Builder records) {
+        this.genomeName = genomeName;
+        this.sequence = sequence;
+        this.maxBytes = maxBytes;
+        this.records = records;
+    }
+
+    /**
+     * Reads the whole channel into a new direct buffer. The channel is not closed.
+     *
+     * @param sizeHint   expected size in bytes (sizes the buffer up front), or -1 if unknown
+     * @param maxBytes   most bytes the buffer may take (e.g. what is left of a memory budget); the read fails as
+     *                   soon as the parsed sequence needs more, so an upload of unknown size cannot grow unbounded
+     * @param genomeName name of the implicit record holding bases that precede the first FASTA header
+     * @throws IOException              if reading fails, the sequence exceeds 2 GB or a FASTQ record is malformed
+     * @throws IllegalArgumentException if the sequence needs more than {@code maxBytes}
+     */
+    public static Result read(ReadableByteChannel channel, long sizeHint, long maxBytes, String genomeName) throws IOException {
+        long limit = Math.max(0, Math.min(maxBytes, MAX_SEQUENCE));
+        ByteBuffer sequence = ByteBuffer.allocateDirect((int) Math.min(Math.max(sizeHint, READ_CHUNK), limit));
+        return new FastxReader(genomeName, sequence, limit, new GenomeRecords.Builder()).readAll(channel);
+    }
+
+    /**
+     * Parses the channel lazily: the returned channel yields the bases (with record separators) in file order,
+     * one filtered chunk at a time, so a genome of any size is read in constant memory. No record table is
+     * kept (a FASTQ run can hold more reads than the heap has room for); positions are plain 64-bit offsets.
+     * Closing the returned channel closes {@code channel}.
+     */
+    public static ReadableByteChannel stream(ReadableByteChannel channel, String genomeName) {
+        return new FastxReader(genomeName, null, MAX_SEQUENCE, null).new Bases(channel);
+    }
+
+    private final class Bases implements ReadableByteChannel {
+        private final ReadableByteChannel channel;
+        private final byte[] chunk = new byte[READ_CHUNK];
+        private final ByteBuffer chunkBuffer = ByteBuffer.wrap(chunk);
+        private int pendingFrom;
+        private int pendingTo;
+        private boolean eof;
+
+        private Bases(ReadableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read(ByteBuffer target) throws IOException {
+            if (!target.hasRemaining()) return 0;
+            while (pendingFrom == pendingTo) {
+                if (eof) return -1;
+                int read = channel.read(chunkBuffer.clear());
+                if (read == -1) {
+                    eof = true;
+                    finish();
+                    return -1;
+                }
+                pendingFrom = 0;
+                pendingTo = filter(chunk, read);
+                emitted += pendingTo;
+            }
+            int n = Math.min(target.remaining(), pendingTo - pendingFrom);
+            target.put(chunk, pendingFrom, n);
+            pendingFrom += n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private Result readAll(ReadableByteChannel channel) throws IOException {
+        byte[] chunk = new byte[READ_CHUNK];
+        ByteBuffer chunkBuffer = ByteBuffer.wrap(chunk);
+        int read;
+        while ((read = channel.read(chunkBuffer.clear())) != -1) {
+            int kept = filter(chunk, read);
+            if (kept > sequence.remaining()) {
+                grow(kept);
+            }
+            sequence.put(chunk, 0, kept);
+            emitted += kept;
+        }
+        finish();
+        sequence.flip();
+
+        // Unknown-size uploads grow by doubling: give back the slack if it is large
+        if (sequence.capacity() - sequence.limit() > sequence.limit() / 8) {
+            ByteBuffer exact = ByteBuffer.allocateDirect(Math.max(1, sequence.limit()));
+            exact.put(sequence).flip();
+            sequence = exact;
+        }
+        return new Result(sequence, format == Format.PLAIN ? null : records.build(), format);
+    }
+
+    /**
+     * Runs the parser over one chunk, compacting the bases (and record separators) to its front. Every header
+     * drops at least its '>' or '@', so the separator written for it never overtakes the read index.
+     *
+     * @return the number of bytes kept
+     */
+    private int filter(byte[] chunk, int read) throws IOException {
+        int kept = 0;
+        for (int i = 0; i < read; i++) {
+            byte b = chunk[i];
+            if (b == '\n') lines++;
+            switch (state) {
+                case LINE_START:
+                    if (b == '\n' || b == '\r' || b == ' ' || b == '\t') break;
+                    if (format == null) {
+                        format = b == '>' || b == ';' ? Format.FASTA : b == '@' ? Format.FASTQ : Format.PLAIN;
+                    }
+                    if (format == Format.FASTQ) {
+                        if (b == '@' && !inRecord) {
+                            state = HEADER;
+                        } else if (b == '+' && inRecord) {
+                            state = PLUS_LINE;
+                            recordEnd = position(kept);
+                            qualityRemaining = recordEnd - recordStart;
+                        } else if (b == '@') {
+                            throw malformed("sequence line starting with '@' (missing '+' line?)");
+                        } else {
+                            chunk[kept++] = upper(b);
+                            state = SEQUENCE;
+                        }
+                    } else if (b == '>') {
+                        kept = beginHeader(chunk, kept);
+                        state = HEADER;
+                    } else if (b == ';') {
+                        state = COMMENT;
+                    } else {
+                        chunk[kept++] = upper(b);
+                        state = SEQUENCE;
+                    }
+                    break;
+                case SEQUENCE:
+                    if (b == '\n') {
+                        state = LINE_START;
+                    } else if (b != '\r' && b != ' ' && b != '\t') {
+                        chunk[kept++] = upper(b);
+                    }
+                    break;
+                case HEADER:
+                    if (b == '\n') {
+                        beginRecord(name, nameLength, position(kept));
+                        nameLength = 0;
+                        nameState = 0;
+                        state = LINE_START;
+                    } else if (b == ' ' || b == '\t' || b == '\r') {
+                        if (nameState == 1) nameState = 2;
+                    } else if (nameState < 2) {
+                        nameState = 1;
+                        if (nameLength < name.length) name[nameLength++] = b;
+                    }
+                    break;
+                case COMMENT:
+                    if (b == '\n') state = LINE_START;
+                    break;
+                case PLUS_LINE:
+                    if (b == '\n') state = qualityRemaining == 0 ? endFastqRecord() : QUALITY;
+                    break;
+                case QUALITY:
+                    if (b != '\n' && b != '\r' && --qualityRemaining == 0) {
+                        state = endFastqRecord();
+                    }
+                    break;
+                case AFTER_QUALITY:
+                default:
+                    if (b == '\n' || b == '\r' || b == ' ' || b == '\t') break;
+                    if (b != '@') {
+                        throw malformed("expected a '@' header after the quality string");
+                    }
+                    kept = separator(chunk, kept);
+                    state = HEADER;
+                    break;
+            }
+        }
+        return kept;
+    }
+
+    // A FASTA header ends the current record (or turns leading plain bases into a record of their own)
+    private int beginHeader(byte[] chunk, int kept) {
+        format = Format.FASTA;
+        long position = position(kept);
+        if (inRecord) {
+            endRecord(position);
+        } else if (!anyRecord && position > 0) {
+            byte[] implicit = genomeName.getBytes(StandardCharsets.ISO_8859_1);
+            beginRecord(implicit, implicit.length, 0);
+            endRecord(position);
+        } else {
+            return kept;
+        }
+        return separator(chunk, kept);
+    }
+
+    private int endFastqRecord() {
+        endRecord(recordEnd);
+        return AFTER_QUALITY;
+    }
+
+    private void beginRecord(byte[] recordName, int recordNameLength, long start) {
+        if (records != null) records.begin(recordName, recordNameLength, (int) start);
+        recordStart = start;
+        inRecord = true;
+        anyRecord = true;
+    }
+
+    private void endRecord(long end) {
+        if (!inRecord) return;
+        if (records != null) records.end((int) end);
+        inRecord = false;
+    }
+
+    private static byte upper(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - ('a' - 'A')) : b;
+    }
+
+    private static int separator(byte[] chunk, int kept) {
+        chunk[kept] = GenomeRecords.SEPARATOR;
+        return kept + 1;
+    }
+
+    private void finish() throws IOException {
+        switch (state) {
+            case HEADER:
+                if (format == Format.FASTQ) throw malformed("file ends inside a header");
+                // Header on the last line without a newline: an empty record
+                beginRecord(name, nameLength, position(0));
+                break;
+            case PLUS_LINE:
+            case QUALITY:
+                if (qualityRemaining > 0) throw malformed("file ends inside a quality string");
+                break;
+            case LINE_START:
+            case SEQUENCE:
+                if (format == Format.FASTQ && inRecord) throw malformed("file ends before the '+' line");
+                break;
+            default:
+                break;
+        }
+        endRecord(position(0));
+    }
+
+    // Position in the parsed sequence of the next kept byte
+    private long position(int kept) {
+        return emitted + kept;
+    }
+
+    private IOException malformed(String problem) {
+        return new IOException("Malformed FASTQ near line " + lines + ": " + problem);
+    }
+
+    private void grow(int needed) throws IOException {
+        long required = (long) sequence.position() + needed;
+        if (required > MAX_SEQUENCE) {
+            throw new IOException("Genome '" + genomeName + "' is larger than 2 GB, which one buffer cannot hold.");
+        }
+        if (required > maxBytes) {
+            throw new IllegalArgumentException("Genome '" + genomeName + "' needs more than the " + maxBytes
+                    + " bytes left for it in the repository budget (app.genomes.max-bytes).");
+        }
+        int capacity = (int) Math.min(Math.max(required, 2L * sequence.capacity()), maxBytes);
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        grown.put(sequence.flip());
+        sequence = grown;
+    }
+}
@@ -1,98 +1,201 @@
 package com.bio.utils;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Random;
-import java.util.stream.Collectors;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 public class GenomeDataGeneratorPro {
 
     // --- Configuration ---
-    private static final long FIXED_SEED = 42L;
     private static final String FILE_NAME = "genome_data.txt"; // Standardized filename
 
     // --- MEMORY CACHE (RAM) ---
     // This variable stores the genome in memory. Static means it stays alive as long as the app runs.
-    private static String cachedGenomeData = null;
+    // Kept 2-bit packed (see PackedGenome): ~n/4 bytes instead of n bytes for a Latin-1 String. A genome that
+    // is mostly not ACGT stays a Latin-1 byte[] instead (see PackedGenome.compact).
+    // Volatile so metrics can read it without waiting on a load in progress.
+    private static volatile CharSequence cachedGenome = null;
+
+    // Read-only mapping of the genome file (lives in the OS page cache, not on the heap)
+    private static volatile MappedGenome mappedGenome = null;
+
+    // Bumped whenever the genome is regenerated; result caches key their entries by it
+    private static final AtomicLong genomeVersion = new AtomicLong();
+
+    // One generation at a time, whoever starts it (/generate-file or a job): each writes and packs a whole genome
+    private static final ReentrantLock generation = new ReentrantLock();
+
+    // Told about every view (packed, mapped) a regeneration replaces, e.g. to drop the indexes built on it
+    private static final List<Consumer<CharSequence>> replacedListeners = new CopyOnWriteArrayList<>();
     // --------------------------
 
+    public static final String SOURCE_PACKED = "packed";
+    public static final String SOURCE_MAPPED = "mapped";
+
     /**
      * Generates a sequence, saves it to Disk, AND updates the Memory Cache.
      */
     public static Path generateAndSaveFile(String pattern, int size) throws IOException {
-        Path filePath = Path.of(FILE_NAME);
+        return generateAndSaveFile(pattern, size, null);
+    }
 
-        // --- STEP 1: CLEANUP ---
-        if (Files.exists(filePath)) {
-            Files.delete(filePath);
-            System.out.println("Old file deleted from disk: " + filePath.toAbsolutePath());
+    /**
+     * Same as generateAndSaveFile(pattern, size), reporting the bases written to {@code progress} (may be null).
+     *
+     * The sequence is written to a temporary file next to the genome file, which then replaces it with an atomic
+     * rename. Searches keep using the previous genome until then: nothing ever maps a partial file, and a
+     * mapping of the old file stays valid because the old file is unlinked, never truncated. The caches and
+     * the version change together, under the lock loadGenome() and mapGenomeFile() take. A cancelled
+     * generation deletes its temporary file and leaves the previous genome in place.
+     *
+     * Generations run one at a time; a second one waits for the first (or stops waiting once cancelled).
+     */
+    public static Path generateAndSaveFile(String pattern, int size, Progress progress) throws IOException {
+        lockGeneration(progress);
+        try {
+            return generate(pattern, size, progress);
+        } finally {
+            generation.unlock();
         }
+    }
 
-        // Clear the old cache to ensure we don't serve stale data
-        cachedGenomeData = null;
+    private static void lockGeneration(Progress progress) throws IOException {
+        try {
+            while (!generation.tryLock(100, TimeUnit.MILLISECONDS)) {
+                if (progress != null) progress.checkCancelled();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for another genome generation.");
+        }
+    }
 
-        // --- STEP 2: PREPARE DYNAMIC ALPHABET ---
-        String p = pattern.toUpperCase();
-        String uniqueChars = p.chars()
-                .distinct()
-                .mapToObj(c -> String.valueOf((char) c))
-                .collect(Collectors.joining());
+    private static Path generate(String pattern, int size, Progress progress) throws IOException {
+        Path filePath = Path.of(FILE_NAME);
+        Path directory = filePath.toAbsolutePath().getParent();
+        Path tempPath = Files.createTempFile(directory, FILE_NAME, ".tmp");
+
+        CharSequence genome;
+        try {
+            // --- GENERATE AND WRITE (dynamic alphabet, known matches injected) ---
+            // Written block by block in parallel (see ParallelGenomeGenerator); the sequence is never on the heap
+            ParallelGenomeGenerator generator = new ParallelGenomeGenerator(pattern, size);
+            System.out.println("Generating " + size + " char sequence from pattern: " + pattern.toUpperCase());
+            generator.write(tempPath, false, progress);
+
+            // Pack the sequence in RAM so subsequent searches don't read from disk. The mapping of the temporary
+            // file stays valid after the rename: it is the same file.
+            genome = PackedGenome.compact(MappedGenome.map(tempPath));
+
+            CharSequence oldGenome;
+            CharSequence oldMapping;
+            synchronized (GenomeDataGeneratorPro.class) {
+                replace(tempPath, filePath);
+                oldGenome = cachedGenome;
+                oldMapping = mappedGenome;
+                cachedGenome = genome;
+                mappedGenome = null;    // mapped again on demand, from the new file
+                genomeVersion.incrementAndGet();
+            }
+            for (Consumer<CharSequence> listener : replacedListeners) {
+                if (oldGenome != null) listener.accept(oldGenome);
+                if (oldMapping != null && oldMapping != oldGenome) listener.accept(oldMapping);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
 
-        char[] dynamicBases = uniqueChars.toCharArray();
+        System.out.println("File successfully generated and saved to Disk: " + filePath.toAbsolutePath());
+        System.out.println("Genome data cached in RAM (Size: " + genome.length()
+                + (genome instanceof PackedGenome ? ", Packed: " : ", Latin-1: ")
+                + memoryBytes(genome) / 1024 + " KB)");
+        return filePath;
+    }
 
-        if (dynamicBases.length == 0) {
-            throw new IOException("Pattern must contain at least one character to generate a file.");
+    // Atomic rename over the old file where the file system supports it
+    private static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
         }
+    }
 
-        System.out.println("Generating " + size + " char sequence using alphabet " + uniqueChars + " from pattern: " + p);
+    /**
+     * Writes {@code size} random bases drawn from the pattern's distinct (upper-cased) characters into
+     * {@code target} at its position, with the pattern injected at 1000, size / 2 and size - m - 1000.
+     * The same (pattern, size) always yields the same sequence, the one generateAndSaveFile writes to disk.
+     * Used for synthetic genomes in the GenomeRepository (written straight into a direct buffer).
+     */
+    public static void generateSequence(String pattern, int size, ByteBuffer target) throws IOException {
+        ParallelGenomeGenerator generator = new ParallelGenomeGenerator(pattern, size);
+        System.out.println("Generating " + size + " char sequence from pattern: " + pattern.toUpperCase());
+        generator.fill(target);
+    }
 
-        Random random = new Random(FIXED_SEED);
+    /**
+     * @return the current genome version; it changes every time generateAndSaveFile runs.
+     */
+    /**
+     * Registers {@code listener} to be called with each view of the default genome (packed and mapped) that a
+     * regeneration replaces.
+     */
+    public static void onGenomeReplaced(Consumer<CharSequence> listener) {
+        replacedListeners.add(listener);
+    }
 
-        // 3. Generate the sequence
-        // Pre-allocating size improves performance significantly during generation
-        StringBuilder genome = new StringBuilder(size);
-        for (int i = 0; i < size; i++) {
-            genome.append(dynamicBases[random.nextInt(dynamicBases.length)]);
-        }
+    public static long genomeVersion() {
+        return genomeVersion.get();
+    }
 
-        // 4. Inject known matches
-        int pLen = p.length();
-        int[] injectionPoints = {
-                1000,
-                size / 2,
-                size - pLen - 1000
-        };
-
-        for (int idx : injectionPoints) {
-            if (idx >= 0 && idx + pLen <= size) {
-                genome.replace(idx, idx + pLen, p);
-            }
-        }
+    /**
+     * @return heap bytes held by the genome cache, or 0 when nothing is cached.
+     */
+    public static long cachedGenomeBytes() {
+        CharSequence genome = cachedGenome;
+        return genome == null ? 0 : memoryBytes(genome);
+    }
 
-        // 5. Write to file (Persistence)
-        String finalData = genome.toString();
-        Files.writeString(filePath, finalData);
-        System.out.println("File successfully generated and saved to Disk.");
+    private static long memoryBytes(CharSequence genome) {
+        return genome instanceof PackedGenome ? ((PackedGenome) genome).memoryBytes() : genome.length();
+    }
 
-        // --- STEP 6: UPDATE CACHE ---
-        // Store the String in RAM so subsequent searches don't read from disk
-        cachedGenomeData = finalData;
-        System.out.println("Genome data cached in RAM (Size: " + finalData.length() + ")");
+    /**
+     * @return length of the cached genome, or 0 when nothing is cached.
+     */
+    public static long cachedGenomeLength() {
+        CharSequence genome = cachedGenome;
+        return genome == null ? 0 : genome.length();
+    }
 
-        return filePath;
+    /**
+     * @return the default genome file (written by generateAndSaveFile); it may not exist yet
+     */
+    public static Path genomeFile() {
+        return Path.of(FILE_NAME);
     }
 
     /**
-     * Helper to read the file.
+     * Returns the in-memory genome: packed, or Latin-1 bytes when packing does not pay (see PackedGenome.compact).
      * INTELLIGENT CACHING: Returns data from RAM if available; otherwise reads from Disk.
      */
-    public static String readGenomeFile() throws IOException {
+    public static synchronized CharSequence loadGenome() throws IOException {
         // 1. Check RAM Cache (Fastest - Nanoseconds)
-        if (cachedGenomeData != null) {
+        if (cachedGenome != null) {
             // Uncomment the line below if you want to verify it's working in logs
             // System.out.println("Cache Hit: Serving genome data from RAM.");
-            return cachedGenomeData;
+            return cachedGenome;
         }
 
         // 2. Fallback to Disk (Slow - Milliseconds)
@@ -102,7 +205,43 @@ public class GenomeDataGeneratorPro {
         }
 
         System.out.println("Cache Miss: Reading genome data from Disk...");
-        cachedGenomeData = Files.readString(filePath); // Load into cache for next time
-        return cachedGenomeData;
+        // Pack straight from the mapped bytes: no UTF-8 decode and no intermediate String
+        cachedGenome = PackedGenome.compact(mapGenomeFile()); // Load into cache for next time
+        return cachedGenome;
+    }
+
+    /**
+     * Returns a zero-copy view of the genome file mapped with FileChannel.map.
+     * The first search can start as soon as the mapping exists; pages fault in on demand.
+     */
+    public static synchronized MappedGenome mapGenomeFile() throws IOException {
+        if (mappedGenome != null) {
+            return mappedGenome;
+        }
+
+        Path filePath = Path.of(FILE_NAME);
+        if (!Files.exists(filePath)) {
+            throw new IOException("Data file not found. Generate it first.");
+        }
+
+        mappedGenome = MappedGenome.map(filePath);
+        return mappedGenome;
+    }
+
+    /**
+     * Resolves the genome for a search request.
+     *
+     * @param source "mapped" for the memory-mapped byte view, anything else (or null) for the RAM cache.
+     */
+    public static CharSequence loadGenome(String source) throws IOException {
+        return SOURCE_MAPPED.equalsIgnoreCase(source) ? mapGenomeFile() : loadGenome();
+    }
+
+    /**
+     * Helper to read the file as a String.
+     * NOTE: Unpacks a full String copy of the genome; search paths should use loadGenome() instead.
+     */
+    public static String readGenomeFile() throws IOException {
+        return loadGenome().toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.bio.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Record layout of a genome parsed from multi-record FASTA/FASTQ: record i is named name(i) and occupies
+ * [start(i), start(i) + length(i)) of the concatenated sequence. Records are separated by one
+ * {@link #SEPARATOR} byte, which no exact match can contain, so a hit never spans two records.
+ *
+ * Names are stored as one Latin-1 byte array plus end offsets rather than as Strings: a FASTQ file holds
+ * millions of reads, and a String per read name would cost several times the name itself in heap.
+ */
+public final class GenomeRecords {
+
+    public static final byte SEPARATOR = '\n';
+
+    private final byte[] names;
+    private final int[] nameEnds;
+    private final int[] starts;
+    private final int[] lengths;
+
+    private GenomeRecords(byte[] names, int[] nameEnds, int[] starts, int[] lengths) {
+        this.names = names;
+        this.nameEnds = nameEnds;
+        this.starts = starts;
+        this.lengths = lengths;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public String name(int record) {
+        int from = record == 0 ? 0 : nameEnds[record - 1];
+        return new String(names, from, nameEnds[record] - from, StandardCharsets.ISO_8859_1);
+    }
+
+    public int start(int record) {
+        return starts[record];
+    }
+
+    public int length(int record) {
+        return lengths[record];
+    }
+
+    /**
+     * @return the record containing the global position, or -1 if it falls on a separator or outside every record
+     */
+    public int recordAt(int position) {
+        int i = Arrays.binarySearch(starts, position);
+        if (i < 0) i = -i - 2;
+        return i >= 0 && position < starts[i] + lengths[i] ? i : -1;
+    }
+
+    /**
+     * Translates global match positions into (record name, position within the record). The view is computed
+     * on access, so it costs nothing until it is serialized; names are only materialized per element.
+     */
+    public List<Location> locate(List<Integer> positions) {
+        return new Locations(this, positions);
+    }
+
+    /**
+     * A hit in record coordinates: 0-based, like the global match positions.
+     */
+    public static final class Location {
+        private final String record;
+        private final int position;
+
+        public Location(String record, int position) {
+            this.record = record;
+            this.position = position;
+        }
+
+        public String getRecord() {
+            return record;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        @Override
+        public String toString() {
+            return record + ":" + position;
+        }
+    }
+
+    private static final class Locations extends AbstractList<Location> implements RandomAccess {
+        private final GenomeRecords records;
+        private final List<Integer> positions;
+
+        Locations(GenomeRecords records, List<Integer> positions) {
+            this.records = records;
+            this.positions = positions;
+        }
+
+        @Override
+        public Location get(int index) {
+            int position = positions instanceof IntList ? ((IntList) positions).getInt(index) : positions.get(index);
+            int record = records.recordAt(position);
+            return record < 0 ? new Location(null, position) : new Location(records.name(record), position - records.start(record));
+        }
+
+        @Override
+        public int size() {
+            return positions.size();
+        }
+    }
+
+    /**
+     * Collects records while a parser streams through a file. Record names are truncated to MAX_NAME bytes.
+     */
+    public static final class Builder {
+        public static final int MAX_NAME = 256;
+
+        private byte[] names = new byte[1024];
+        private int namesLength;
+        private final IntList nameEnds = new IntList();
+        private final IntList starts = new IntList();
+        private final IntList lengths = new IntList();
+        private boolean open;
+
+        /**
+         * Starts a record at {@code start}; the previous one must have been ended.
+         */
+        public void begin(byte[] name, int nameLength, int start) {
+            int length = Math.min(nameLength, MAX_NAME);
+            if (namesLength + length > names.length) {
+                names = Arrays.copyOf(names, Math.max(names.length * 2, namesLength + length));
+            }
+            System.arraycopy(name, 0, names, namesLength, length);
+            namesLength += length;
+            nameEnds.addInt(namesLength);
+            starts.addInt(start);
+            open = true;
+        }
+
+        public void end(int end) {
+            if (!open) return;
+            lengths.addInt(end - starts.getInt(starts.size() - 1));
+            open = false;
+        }
+
+        public boolean isOpen() {
+            return open;
+        }
+
+        public int size() {
+            return starts.size();
+        }
+
+        public GenomeRecords build() {
+            return new GenomeRecords(Arrays.copyOf(names, namesLength), nameEnds.toIntArray(),
+                    starts.toIntArray(), lengths.toIntArray());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.bio.utils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Growable long[] buffer for match positions beyond the int range (windowed searches over genomes larger
+ * than 2 GB). Like IntList it is a {@code List<Long>} for MatchResult and Jackson, but stores 8 bytes per hit.
+ */
+public final class LongList extends AbstractList<Long> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] values;
+    private int size;
+
+    public LongList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongList(int initialCapacity) {
+        this.values = new long[Math.max(1, initialCapacity)];
+    }
+
+    public void addLong(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(size + 1, values.length + (values.length >> 1)));
+        }
+        values[size++] = value;
+    }
+
+    public long getLong(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        return values[index];
+    }
+
+    /**
+     * @return a trimmed copy of the contents.
+     */
+    public long[] toLongArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    // --- List<Long> ---
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public boolean add(Long value) {
+        addLong(value);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,122 @@
+package com.bio.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Zero-copy byte view of a genome file mapped with {@link FileChannel#map}.
+ *
+ * Bytes are exposed as Latin-1 chars through {@link CharSequence}, so the existing algorithms search the
+ * mapped pages directly: nothing is decoded or copied onto the heap, and because the mapping is read-only
+ * the OS page cache is shared by every process that maps the same file.
+ */
+public final class MappedGenome implements CharSequence {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+    private final GenomeRecords records;    // record layout of a multi-record FASTA/FASTQ genome, or null
+
+    private MappedGenome(ByteBuffer buffer, int offset, int length) {
+        this(buffer, offset, length, null);
+    }
+
+    private MappedGenome(ByteBuffer buffer, int offset, int length, GenomeRecords records) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.records = records;
+    }
+
+    /**
+     * Maps the whole file read-only. The channel is closed immediately; the mapping stays valid until
+     * the buffer is garbage collected.
+     */
+    public static MappedGenome map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Genome file too large to map as one buffer (" + size + " bytes): " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new MappedGenome(mapped, 0, (int) size);
+        }
+    }
+
+    /**
+     * Wraps an existing byte[] (e.g. a buffer read from a socket) without copying it.
+     */
+    public static MappedGenome wrap(byte[] bytes) {
+        return new MappedGenome(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /**
+     * Wraps the bytes between the buffer's position and limit without copying them, e.g. an off-heap
+     * (direct) buffer owned by the GenomeRepository.
+     */
+    public static MappedGenome wrap(ByteBuffer buffer) {
+        return new MappedGenome(buffer, buffer.position(), buffer.remaining());
+    }
+
+    /**
+     * @return the same bytes, tagged with the record layout they were parsed with (see FastxReader)
+     */
+    public MappedGenome withRecords(GenomeRecords records) {
+        return new MappedGenome(buffer, offset, length, records);
+    }
+
+    /**
+     * @return the record layout, or null for a single unnamed sequence. Subsequences do not carry it.
+     */
+    public GenomeRecords records() {
+        return records;
+    }
+
+    public byte byteAt(int index) {
+        return buffer.get(offset + index);
+    }
+
+    /**
+     * @return a read-only buffer positioned on this view (shares the mapped pages).
+     */
+    public ByteBuffer buffer() {
+        ByteBuffer view = buffer.asReadOnlyBuffer();
+        view.position(offset).limit(offset + length);
+        return view.slice();
+    }
+
+    // --- CharSequence ---
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public MappedGenome subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new MappedGenome(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length];
+        buffer().get(bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,318 @@
+package com.bio.utils;
+
+import java.util.Arrays;
+
+/**
+ * 2-bit packed nucleotide store.
+ *
+ * A/C/G/T are packed 32 bases per long (base i lives in word i / 32 at bit offset 2 * (i % 32)).
+ * Any other symbol (N, IUPAC codes, soft-masked lower case...) is kept in a sorted, sparse list of
+ * runs, so long N-blocks cost a single entry. Under a run the packed bits are 0 and must be ignored.
+ * Packing only pays while such runs are rare: see {@link #compact(MappedGenome)} for the fallback.
+ *
+ * The class implements {@link CharSequence} so every algorithm that accepts a CharSequence can scan
+ * it directly; {@link #subSequence(int, int)} returns a view that shares the packed words.
+ */
+public final class PackedGenome implements CharSequence {
+
+    public static final int BASES_PER_WORD = 32;
+
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+    private static final byte[] CODES = new byte[128];
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        CODES['A'] = 0;
+        CODES['C'] = 1;
+        CODES['G'] = 2;
+        CODES['T'] = 3;
+    }
+
+    private final long[] words;
+    // Exception runs: [runStarts[r], runEnds[r]) holds runSymbols[r] (absolute positions in 'words')
+    private final int[] runStarts;
+    private final int[] runEnds;
+    private final char[] runSymbols;
+    // View window over the packed words
+    private final int offset;
+    private final int length;
+
+    private PackedGenome(long[] words, int[] runStarts, int[] runEnds, char[] runSymbols, int offset, int length) {
+        this.words = words;
+        this.runStarts = runStarts;
+        this.runEnds = runEnds;
+        this.runSymbols = runSymbols;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Packs the given sequence. Runs in O(n) and allocates roughly n / 4 bytes plus 12 bytes per exception run.
+     */
+    public static PackedGenome of(CharSequence sequence) {
+        Builder builder = new Builder(sequence.length());
+        for (int i = 0; i < sequence.length(); i++) {
+            builder.append(sequence.charAt(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Compact heap copy of a genome: packed while it has at most {@link #maxExceptionRuns(int)} exception runs,
+     * otherwise a Latin-1 byte[] wrapped as a MappedGenome. Every run costs 10 bytes and a step of each charAt's
+     * binary search, so a sequence that is mostly not ACGT (say a generated genome over the alphabet HELO, one
+     * run per base) would take several times the n bytes of the copy and scan tens of times slower.
+     */
+    public static CharSequence compact(MappedGenome sequence) {
+        int n = sequence.length();
+        Builder builder = new Builder(n, maxExceptionRuns(n));
+        for (int i = 0; i < n && !builder.isOverflowed(); i++) {
+            builder.append(sequence.charAt(i));
+        }
+        if (!builder.isOverflowed()) {
+            return builder.build();
+        }
+        byte[] bytes = new byte[n];
+        sequence.buffer().get(bytes);
+        return MappedGenome.wrap(bytes);
+    }
+
+    /**
+     * @return the most exception runs {@link #compact(MappedGenome)} packs a sequence of {@code length} bases with:
+     *         one per 64 bases, at which the runs add 0.16 bytes per base to the packed 0.25
+     */
+    public static int maxExceptionRuns(int length) {
+        return length / 64 + 16;
+    }
+
+    /**
+     * @return the 2-bit code of an upper-case nucleotide (A=0, C=1, G=2, T=3), or -1 for any other symbol.
+     */
+    public static int code(char c) {
+        return c < 128 ? CODES[c] : -1;
+    }
+
+    /**
+     * Packs a pattern of at most 31 bases into one word using the genome's bit layout.
+     *
+     * @return the packed word, or -1 if the pattern is too long or contains a non-ACGT symbol
+     *         (a packed pattern of 31 bases or fewer never has its top bits set, so -1 is unambiguous).
+     */
+    public static long packPattern(CharSequence pattern) {
+        int m = pattern.length();
+        if (m == 0 || m >= BASES_PER_WORD) return -1;
+        long packed = 0;
+        for (int j = 0; j < m; j++) {
+            int c = code(pattern.charAt(j));
+            if (c < 0) return -1;
+            packed |= (long) c << (j << 1);
+        }
+        return packed;
+    }
+
+    /**
+     * @return a mask selecting the low {@code bases} bases of a word from {@link #readBases(int)}.
+     */
+    public static long baseMask(int bases) {
+        return bases >= BASES_PER_WORD ? -1L : (1L << (bases << 1)) - 1;
+    }
+
+    // --- CharSequence ---
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        int p = offset + index;
+        if (runStarts.length != 0) {
+            int r = findRun(p);
+            if (r >= 0) return runSymbols[r];
+        }
+        return BASES[(int) (words[p >>> 5] >>> ((p & 31) << 1)) & 3];
+    }
+
+    @Override
+    public PackedGenome subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new PackedGenome(words, runStarts, runEnds, runSymbols, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(charAt(i));
+        }
+        return sb.toString();
+    }
+
+    // --- Packed access ---
+
+    /**
+     * @return the raw 2-bit code at {@code index}; meaningless (0) when {@link #isException(int)} is true.
+     */
+    public int codeAt(int index) {
+        int p = offset + index;
+        return (int) (words[p >>> 5] >>> ((p & 31) << 1)) & 3;
+    }
+
+    /**
+     * Bulk read: returns 32 consecutive bases starting at {@code index}, base {@code index + k}
+     * in bits 2k..2k+1. Bases past the end of the backing store read as 0.
+     */
+    public long readBases(int index) {
+        int p = offset + index;
+        int w = p >>> 5;
+        int shift = (p & 31) << 1;
+        long bits = words[w] >>> shift;
+        if (shift != 0 && w + 1 < words.length) {
+            bits |= words[w + 1] << (64 - shift);
+        }
+        return bits;
+    }
+
+    public boolean isException(int index) {
+        return runStarts.length != 0 && findRun(offset + index) >= 0;
+    }
+
+    /**
+     * @return the first position {@code >= from} holding a non-ACGT symbol, or {@link #length()} if there is none.
+     */
+    public int nextException(int from) {
+        if (runStarts.length == 0) return length;
+        int p = offset + from;
+        // First run whose end lies beyond p
+        int lo = 0, hi = runEnds.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (runEnds[mid] <= p) lo = mid + 1; else hi = mid;
+        }
+        if (lo == runEnds.length) return length;
+        int next = Math.max(p, runStarts[lo]) - offset;
+        return Math.min(next, length);
+    }
+
+    /**
+     * @return the first position {@code >= from} holding an ACGT base (i.e. the end of the exception run
+     *         covering {@code from}, or {@code from} itself when it is not an exception).
+     */
+    public int nextBase(int from) {
+        if (runStarts.length == 0) return from;
+        int r = findRun(offset + from);
+        return r < 0 ? from : Math.min(runEnds[r] - offset, length);
+    }
+
+    public int exceptionRunCount() {
+        return runStarts.length;
+    }
+
+    /**
+     * @return approximate heap footprint of the backing arrays in bytes (shared by all views).
+     */
+    public long memoryBytes() {
+        return (long) words.length * Long.BYTES + (long) runStarts.length * (2 * Integer.BYTES + Character.BYTES);
+    }
+
+    // Index of the run containing absolute position p, or -1
+    private int findRun(int p) {
+        int lo = 0, hi = runStarts.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (runEnds[mid] <= p) {
+                lo = mid + 1;
+            } else if (runStarts[mid] > p) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Streaming builder: append symbols one at a time without ever holding the sequence as a String.
+     */
+    public static final class Builder {
+        private long[] words;
+        private int length;
+        private int[] runStarts = new int[8];
+        private int[] runEnds = new int[8];
+        private char[] runSymbols = new char[8];
+        private int runCount;
+        private final int maxRuns;
+        private boolean overflowed;
+
+        public Builder(int expectedLength) {
+            this(expectedLength, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Builder that gives up at exception run maxRuns + 1: it then ignores further symbols, isOverflowed()
+         * turns true and build() throws. The run arrays never grow past maxRuns entries.
+         */
+        public Builder(int expectedLength, int maxRuns) {
+            this.words = new long[Math.max(1, (expectedLength + BASES_PER_WORD - 1) / BASES_PER_WORD)];
+            this.maxRuns = maxRuns;
+        }
+
+        public Builder append(char c) {
+            if (overflowed) return this;
+            int w = length >>> 5;
+            if (w == words.length) {
+                words = Arrays.copyOf(words, words.length + (words.length >> 1) + 1);
+            }
+            int code = code(c);
+            if (code >= 0) {
+                words[w] |= (long) code << ((length & 31) << 1);
+            } else if (runCount > 0 && runEnds[runCount - 1] == length && runSymbols[runCount - 1] == c) {
+                runEnds[runCount - 1]++;
+            } else {
+                if (runCount == maxRuns) {
+                    overflowed = true;
+                    return this;
+                }
+                if (runCount == runStarts.length) {
+                    int grown = (int) Math.min((long) runCount << 1, maxRuns);
+                    runStarts = Arrays.copyOf(runStarts, grown);
+                    runEnds = Arrays.copyOf(runEnds, grown);
+                    runSymbols = Arrays.copyOf(runSymbols, grown);
+                }
+                runStarts[runCount] = length;
+                runEnds[runCount] = length + 1;
+                runSymbols[runCount] = c;
+                runCount++;
+            }
+            length++;
+            return this;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public boolean isOverflowed() {
+            return overflowed;
+        }
+
+        public PackedGenome build() {
+            if (overflowed) {
+                throw new IllegalStateException("More than " + maxRuns + " exception runs; not worth packing.");
+            }
+            int wordCount = Math.max(1, (length + BASES_PER_WORD - 1) / BASES_PER_WORD);
+            return new PackedGenome(
+                    words.length == wordCount ? words : Arrays.copyOf(words, wordCount),
+                    Arrays.copyOf(runStarts, runCount),
+                    Arrays.copyOf(runEnds, runCount),
+                    Arrays.copyOf(runSymbols, runCount),
+                    0, length);
+        }
+    }
+}
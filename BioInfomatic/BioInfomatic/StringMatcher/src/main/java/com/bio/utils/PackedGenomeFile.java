@@ -0,0 +1,125 @@
+package com.bio.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 2-bit packed genome file, a quarter of the size of the plain sequence (ACGT only).
+ *
+ * Layout: the 8-byte magic "PKGENOME", the base count as a little-endian long, then 4 bases per byte with the
+ * first base in the lowest bits (A=0, C=1, G=2, T=3) - the byte order of PackedGenome's words, so a file could
+ * also be read straight into one. Written by ParallelGenomeGenerator; {@link #openBases} reads plain and
+ * packed files alike.
+ */
+public final class PackedGenomeFile {
+
+    public static final int HEADER_BYTES = 16;
+
+    private static final byte[] MAGIC = "PKGENOME".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BASES = {'A', 'C', 'G', 'T'};
+
+    private PackedGenomeFile() {
+    }
+
+    public static ByteBuffer header(long bases) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC).putLong(bases);
+        return header.flip();
+    }
+
+    /**
+     * @return the number of bases in a packed file, or -1 if the file is not packed
+     */
+    public static long baseCount(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // positional reads leave the channel position alone
+        }
+        if (header.hasRemaining() || !Arrays.equals(Arrays.copyOf(header.array(), MAGIC.length), MAGIC)) {
+            return -1;
+        }
+        return header.getLong(MAGIC.length);
+    }
+
+    /**
+     * Opens a genome file as a channel of bases: packed files are unpacked on the fly (one byte per base),
+     * anything else is returned as read. Closing the channel closes the file.
+     */
+    public static ReadableByteChannel openBases(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long bases = baseCount(channel);
+            if (bases < 0) return channel;
+            channel.position(HEADER_BYTES);
+            return new Unpacker(channel, bases);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Packs len bases of ACGT from block[0..len) into packed[0..ceil(len / 4))
+    static int pack(byte[] block, int len, byte[] packed) {
+        int bytes = (len + 3) >>> 2;
+        Arrays.fill(packed, 0, bytes, (byte) 0);
+        for (int i = 0; i < len; i++) {
+            packed[i >>> 2] |= (byte) (PackedGenome.code((char) block[i]) << ((i & 3) << 1));
+        }
+        return bytes;
+    }
+
+    private static final class Unpacker implements ReadableByteChannel {
+        private final FileChannel channel;
+        private final ByteBuffer packed = ByteBuffer.allocate(1 << 14);
+        private long remaining;
+        private int current;
+        private int shift = 8;      // bit offset of the next base in 'current'; 8 = take the next byte
+
+        private Unpacker(FileChannel channel, long bases) {
+            this.channel = channel;
+            this.remaining = bases;
+            packed.flip();
+        }
+
+        @Override
+        public int read(ByteBuffer target) throws IOException {
+            if (remaining == 0) return -1;
+            if (shift == 8 && !packed.hasRemaining()) {
+                packed.clear();
+                int read = channel.read(packed);
+                packed.flip();
+                if (read == -1) throw new IOException("Packed genome file is truncated (" + remaining + " bases missing).");
+            }
+            int n = 0;
+            while (target.hasRemaining() && remaining > 0) {
+                if (shift == 8) {
+                    if (!packed.hasRemaining()) break;
+                    current = packed.get();
+                    shift = 0;
+                }
+                target.put(BASES[(current >>> shift) & 3]);
+                shift += 2;
+                remaining--;
+                n++;
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
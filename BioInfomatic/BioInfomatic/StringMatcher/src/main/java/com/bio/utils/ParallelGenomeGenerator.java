@@ -0,0 +1,213 @@
+package com.bio.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Synthetic genome generator for large corpora: random bases over the pattern's distinct (upper-cased)
+ * characters, with the pattern injected at 1000, size / 2 and size - m - 1000.
+ *
+ * The sequence is cut into blocks of BLOCK_BASES, and block b draws from its own SplittableRandom, seeded
+ * with the b-th value of one fixed-seed generator. Any worker can fill any block, so the output depends only
+ * on (pattern, size), never on the thread count. Each worker reuses one block buffer and writes it with a
+ * positional FileChannel write, so the sequence is never held in memory as a whole and sizes are limited only
+ * by the disk. For power-of-two alphabets (ACGT, AT, ...) each random long yields 64 / log2(sigma) bases.
+ */
+public final class ParallelGenomeGenerator {
+
+    public static final int BLOCK_BASES = 1 << 22;
+
+    private static final long FIXED_SEED = 42L;
+
+    private final byte[] alphabet;
+    private final byte[] pattern;
+    private final long size;
+    private final long[] blockSeeds;
+    private final long[] injectionPoints;
+    private final int bitsPerBase;      // log2(alphabet size) for power-of-two alphabets, else -1
+
+    /**
+     * @throws IOException if the pattern is empty or not single-byte (the messages of the original generator)
+     */
+    public ParallelGenomeGenerator(String pattern, long size) throws IOException {
+        String p = pattern.toUpperCase();
+        if (p.isEmpty()) {
+            throw new IOException("Pattern must contain at least one character to generate a file.");
+        }
+        if (!p.chars().allMatch(c -> c < 256)) {
+            throw new IOException("Pattern must contain only single-byte (Latin-1) characters.");
+        }
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative.");
+        }
+        StringBuilder distinct = new StringBuilder();
+        p.chars().distinct().forEach(c -> distinct.append((char) c));
+
+        this.alphabet = distinct.toString().getBytes(StandardCharsets.ISO_8859_1);
+        this.pattern = p.getBytes(StandardCharsets.ISO_8859_1);
+        this.size = size;
+        this.bitsPerBase = Integer.bitCount(alphabet.length) == 1 ? Integer.numberOfTrailingZeros(alphabet.length) : -1;
+        this.injectionPoints = new long[]{1000, size / 2, size - this.pattern.length - 1000};
+
+        long blocks = (size + BLOCK_BASES - 1) / BLOCK_BASES;
+        if (blocks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Size " + size + " is too large.");
+        }
+        SplittableRandom seeds = new SplittableRandom(FIXED_SEED);
+        this.blockSeeds = new long[(int) blocks];
+        for (int b = 0; b < blockSeeds.length; b++) {
+            blockSeeds[b] = seeds.nextLong();
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return true if every base is A, C, G or T, so the sequence can be written 2-bit packed
+     */
+    public boolean packable() {
+        for (byte b : alphabet) {
+            if (PackedGenome.code((char) b) < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Fills target[position, position + size) (absolute puts; the buffer's position is not moved).
+     */
+    public void fill(ByteBuffer target) {
+        if (size > target.capacity() - target.position()) {
+            throw new IllegalArgumentException("Target buffer too small for " + size + " bases.");
+        }
+        int start = target.position();
+        forEachBlock(null, (block, bases, length) -> {
+            ByteBuffer slice = target.duplicate();
+            slice.position(start + (int) ((long) block * BLOCK_BASES));
+            slice.put(bases, 0, length);
+        });
+    }
+
+    /**
+     * Writes the sequence to {@code file} (created or truncated): one byte per base, or 2-bit packed with a
+     * PackedGenomeFile header.
+     *
+     * @return the file size in bytes
+     */
+    public long write(Path file, boolean packed) throws IOException {
+        return write(file, packed, null);
+    }
+
+    /**
+     * Same as write(file, packed), reporting each written block to {@code progress} (may be null).
+     *
+     * @throws java.util.concurrent.CancellationException if the progress was cancelled; the file is left
+     *         partially written
+     */
+    public long write(Path file, boolean packed, Progress progress) throws IOException {
+        if (progress != null) progress.setTotal(size);
+        if (packed && !packable()) {
+            throw new IllegalArgumentException("Only A, C, G and T can be 2-bit packed; the pattern's alphabet is "
+                    + new String(alphabet, StandardCharsets.ISO_8859_1) + ".");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long dataStart = 0;
+            if (packed) {
+                writeFully(channel, PackedGenomeFile.header(size), 0);
+                dataStart = PackedGenomeFile.HEADER_BYTES;
+            }
+            long offset = dataStart;
+            ThreadLocal<byte[]> packBuffers = ThreadLocal.withInitial(() -> new byte[BLOCK_BASES / 4]);
+            try {
+                forEachBlock(progress, (block, bases, length) -> {
+                    long blockStart = (long) block * BLOCK_BASES;
+                    if (packed) {
+                        byte[] packedBlock = packBuffers.get();
+                        int bytes = PackedGenomeFile.pack(bases, length, packedBlock);
+                        writeFully(channel, ByteBuffer.wrap(packedBlock, 0, bytes), offset + blockStart / 4);
+                    } else {
+                        writeFully(channel, ByteBuffer.wrap(bases, 0, length), offset + blockStart);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return channel.size();
+        }
+    }
+
+    @FunctionalInterface
+    private interface BlockConsumer {
+        void accept(int block, byte[] bases, int length) throws IOException;
+    }
+
+    // Blocks are dealt round-robin to the workers, so the file is written roughly front to back
+    private void forEachBlock(Progress progress, BlockConsumer consumer) {
+        int blocks = blockSeeds.length;
+        int workers = Math.min(blocks, ForkJoinPool.getCommonPoolParallelism() + 1);
+        IntStream.range(0, workers).parallel().forEach(worker -> {
+            byte[] bases = new byte[(int) Math.min(BLOCK_BASES, size)];
+            for (int block = worker; block < blocks; block += workers) {
+                if (progress != null) progress.checkCancelled();
+                int length = fillBlock(block, bases);
+                try {
+                    consumer.accept(block, bases, length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (progress != null) progress.add(length);
+            }
+        });
+    }
+
+    private int fillBlock(int block, byte[] bases) {
+        long blockStart = (long) block * BLOCK_BASES;
+        int length = (int) Math.min(BLOCK_BASES, size - blockStart);
+        SplittableRandom random = new SplittableRandom(blockSeeds[block]);
+
+        if (bitsPerBase == 0) {
+            Arrays.fill(bases, 0, length, alphabet[0]);
+        } else if (bitsPerBase > 0) {
+            int perLong = 64 / bitsPerBase;
+            int mask = alphabet.length - 1;
+            for (int i = 0; i < length; ) {
+                long bits = random.nextLong();
+                for (int j = 0; j < perLong && i < length; j++, i++) {
+                    bases[i] = alphabet[(int) bits & mask];
+                    bits >>>= bitsPerBase;
+                }
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                bases[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+        }
+
+        // Injected copies of the pattern that overlap this block
+        for (long point : injectionPoints) {
+            if (point < 0 || point + pattern.length > size) continue;
+            for (int j = 0; j < pattern.length; j++) {
+                long position = point + j - blockStart;
+                if (position >= 0 && position < length) bases[(int) position] = pattern[j];
+            }
+        }
+        return length;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            position += channel.write(data, position);
+        }
+    }
+}
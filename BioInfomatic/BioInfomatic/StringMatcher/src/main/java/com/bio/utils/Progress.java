@@ -0,0 +1,52 @@
+package com.bio.utils;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress and cancellation of one long-running job (see SearchJobService). The code doing the work adds the
+ * bases it has finished and calls checkCancelled between units of work (a search leaf, a generator block);
+ * pollers read done() and total(). Thread-safe: units finish on any worker thread.
+ */
+public final class Progress {
+
+    private final LongAdder done = new LongAdder();
+    private volatile long total = -1;
+    private volatile boolean cancelled;
+
+    /**
+     * @return bases to process, or -1 while unknown (e.g. before the genome is loaded)
+     */
+    public long total() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long done() {
+        return done.sum();
+    }
+
+    public void add(long bases) {
+        done.add(bases);
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if cancel() was called; the work stops and the job ends as cancelled
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Job cancelled.");
+        }
+    }
+}
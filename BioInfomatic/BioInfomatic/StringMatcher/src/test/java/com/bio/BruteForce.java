@@ -0,0 +1,127 @@
+package com.bio;
+
+import com.bio.algorithm.ApproximateMatchListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Oracles for the search tests: every position of the text is checked directly, so the answers are slow but
+ * obviously right.
+ */
+public final class BruteForce {
+
+    private BruteForce() {
+    }
+
+    public static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return every start position of {@code pattern} in {@code text}, ascending (overlapping hits included)
+     */
+    public static List<Integer> occurrences(CharSequence text, String pattern) {
+        return mismatches(text, 0, text.length(), pattern, 0).positions();
+    }
+
+    /**
+     * @return start positions in text[from, to) whose m-window has at most k mismatches, with the mismatch count
+     */
+    public static Hits mismatches(CharSequence text, int from, int to, String pattern, int k) {
+        Hits hits = new Hits();
+        int m = pattern.length();
+        for (int i = from; i + m <= to && m > 0; i++) {
+            int mismatches = 0;
+            for (int j = 0; j < m && mismatches <= k; j++) {
+                if (text.charAt(i + j) != pattern.charAt(j)) mismatches++;
+            }
+            if (mismatches <= k) hits.onMatch(i, mismatches);
+        }
+        return hits;
+    }
+
+    /**
+     * Semi-global edit distance DP (the alignment may start anywhere at or after {@code from}).
+     *
+     * @return end positions in text[from, to) with at most k edits, with the smallest edit count
+     */
+    public static Hits edits(CharSequence text, int from, int to, String pattern, int k) {
+        Hits hits = new Hits();
+        int m = pattern.length();
+        int[] column = new int[m + 1];
+        for (int j = 0; j <= m; j++) column[j] = j;
+        for (int i = from; i < to; i++) {
+            int diagonal = column[0]; // row 0 stays 0: free start
+            for (int j = 1; j <= m; j++) {
+                int cost = pattern.charAt(j - 1) == text.charAt(i) ? 0 : 1;
+                int value = Math.min(Math.min(column[j] + 1, column[j - 1] + 1), diagonal + cost);
+                diagonal = column[j];
+                column[j] = value;
+            }
+            if (column[m] <= k) hits.onMatch(i, column[m]);
+        }
+        return hits;
+    }
+
+    public static List<Integer> boxed(int[] values) {
+        return IntStream.of(values).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * Positions with their distances, in report order. Also a listener, so a search can report straight into one
+     * and be compared with equals().
+     */
+    public static final class Hits implements ApproximateMatchListener {
+        private final List<Integer> positions = new ArrayList<>();
+        private final List<Integer> distances = new ArrayList<>();
+
+        @Override
+        public void onMatch(int position, int distance) {
+            positions.add(position);
+            distances.add(distance);
+        }
+
+        public List<Integer> positions() {
+            return positions;
+        }
+
+        public List<Integer> distances() {
+            return distances;
+        }
+
+        public int size() {
+            return positions.size();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Hits)) return false;
+            Hits other = (Hits) o;
+            return positions.equals(other.positions) && distances.equals(other.distances);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(positions, distances);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder s = new StringBuilder("[");
+            for (int i = 0; i < positions.size(); i++) {
+                if (i > 0) s.append(", ");
+                s.append(positions.get(i)).append('/').append(distances.get(i));
+            }
+            return s.append(']').toString();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.bio.algorithm;
+
+import com.bio.BruteForce;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.bio.BruteForce.occurrences;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The automaton must report, for every pattern of the panel, exactly the start positions a naive scan finds:
+ * nested and overlapping patterns (reached through dictionary links), duplicates, and N runs that reset it.
+ */
+class AhoCorasickSearchTest {
+
+    @Test
+    void everyPatternMatchesANaiveScan() {
+        Random random = new Random(5);
+        for (int round = 0; round < 20; round++) {
+            String text = BruteForce.randomText(random, round % 2 == 0 ? "ACGT" : "AACGTN", 3000);
+            List<String> panel = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                int start = random.nextInt(text.length() - 12);
+                String pattern = text.substring(start, start + 1 + random.nextInt(10));
+                panel.add(pattern.indexOf('N') >= 0 ? BruteForce.randomText(random, "ACGT", pattern.length()) : pattern);
+            }
+            // Nested: suffix, prefix and a duplicate of an earlier pattern
+            String longest = panel.get(0) + "ACG";
+            panel.add(longest);
+            panel.add(longest.substring(1));
+            panel.add(longest.substring(0, 2));
+            panel.add(panel.get(3));
+
+            List<List<Integer>> grouped = new AhoCorasickSearch(panel).search(text);
+            for (int id = 0; id < panel.size(); id++) {
+                assertEquals(occurrences(text, panel.get(id)), grouped.get(id), "pattern " + id + " " + panel.get(id));
+            }
+        }
+    }
+
+    @Test
+    void periodicPatternsOverlapThemselves() {
+        String text = "AAAAAAANAAAACACACACAC";
+        List<String> panel = Arrays.asList("AA", "AAA", "ACA", "CAC", "ACACAC", "A");
+        List<List<Integer>> grouped = new AhoCorasickSearch(panel).search(text);
+        for (int id = 0; id < panel.size(); id++) {
+            assertEquals(occurrences(text, panel.get(id)), grouped.get(id), panel.get(id));
+        }
+    }
+
+    @Test
+    void rangedSearchReportsOnlyOwnedStarts() {
+        Random random = new Random(9);
+        String text = BruteForce.randomText(random, "AC", 500);
+        List<String> panel = Arrays.asList("A", "CA", "AACA", "CCAC");
+        AhoCorasickSearch automaton = new AhoCorasickSearch(panel);
+        for (int from = 0; from < 480; from += 37) {
+            int ownedEnd = from + 20;
+            int to = ownedEnd + automaton.maxPatternLength() - 1;
+            List<List<Integer>> hits = new ArrayList<>();
+            for (int id = 0; id < panel.size(); id++) hits.add(new ArrayList<>());
+            automaton.search(text, from, to, ownedEnd, (id, position) -> hits.get(id).add(position));
+            for (int id = 0; id < panel.size(); id++) {
+                List<Integer> expected = new ArrayList<>();
+                for (int position : occurrences(text, panel.get(id))) {
+                    if (position >= from && position < ownedEnd) expected.add(position);
+                }
+                assertEquals(expected, hits.get(id), "from " + from + ", pattern " + panel.get(id));
+            }
+        }
+    }
+
+    @Test
+    void rejectsEmptyAndNonDnaPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> new AhoCorasickSearch(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new AhoCorasickSearch(Arrays.asList("ACG", "")));
+        assertThrows(IllegalArgumentException.class, () -> new AhoCorasickSearch(Arrays.asList("ACG", "ANG")));
+    }
+}
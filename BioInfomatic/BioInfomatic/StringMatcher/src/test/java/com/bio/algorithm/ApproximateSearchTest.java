@@ -0,0 +1,88 @@
+package com.bio.algorithm;
+
+import com.bio.BruteForce;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.bio.BruteForce.randomText;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shift-And (k mismatches) and Myers (k edits) hits and distances, checked against direct mismatch counting and
+ * the semi-global edit distance DP. Pattern lengths cross the 64-bit word boundary.
+ */
+class ApproximateSearchTest {
+
+    private static final int[] PATTERN_LENGTHS = {1, 2, 5, 12, 63, 64, 65, 130};
+
+    @Test
+    void shiftAndReportsEveryWindowWithItsMismatchCount() {
+        Random random = new Random(21);
+        for (int m : PATTERN_LENGTHS) {
+            String text = randomText(random, "ACGT", 600);
+            String pattern = mutate(random, text.substring(100, 100 + m));
+            for (int k = 0; k < Math.min(m, 6); k++) {
+                BruteForce.Hits hits = new BruteForce.Hits();
+                new ShiftAndSearch().search(text, 0, text.length(), pattern, k, hits);
+                assertEquals(BruteForce.mismatches(text, 0, text.length(), pattern, k), hits, "m=" + m + " k=" + k);
+                if (k >= 2) assertTrue(hits.size() > 0, "m=" + m + " k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void myersReportsEveryEndPositionWithItsEditDistance() {
+        Random random = new Random(22);
+        for (int m : PATTERN_LENGTHS) {
+            String text = randomText(random, "ACGT", 400);
+            // One base deleted and two substituted: hits need an indel from k = 1 or 2 on
+            String window = text.substring(50, 51 + m);
+            String pattern = mutate(random, window.substring(0, m / 2) + window.substring(m / 2 + 1));
+            for (int k = 0; k < Math.min(m, 6); k++) {
+                BruteForce.Hits hits = new BruteForce.Hits();
+                new MyersSearch().search(text, 0, text.length(), pattern, k, hits);
+                assertEquals(BruteForce.edits(text, 0, text.length(), pattern, k), hits, "m=" + m + " k=" + k);
+                if (k >= 3 && m > 2) assertTrue(hits.size() > 0, "m=" + m + " k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void rangeSearchesOnlyUseTheRange() {
+        Random random = new Random(23);
+        String text = randomText(random, "ACGT", 500);
+        String pattern = mutate(random, text.substring(200, 220));
+
+        BruteForce.Hits hamming = new BruteForce.Hits();
+        new ShiftAndSearch().search(text, 150, 350, pattern, 3, hamming);
+        assertEquals(BruteForce.mismatches(text, 150, 350, pattern, 3), hamming);
+
+        BruteForce.Hits edits = new BruteForce.Hits();
+        new MyersSearch().search(text, 150, 350, pattern, 3, edits);
+        assertEquals(BruteForce.edits(text, 150, 350, pattern, 3), edits);
+    }
+
+    @Test
+    void errorBudgetMustBeBelowThePatternLength() {
+        SearchAlgorithm hamming = ApproximateScanAlgorithm.hamming();
+        SearchAlgorithm myers = ApproximateScanAlgorithm.editDistance();
+        assertEquals(3, hamming.errorBudget("ACGT", 3));
+        assertEquals(0, myers.errorBudget("ACGT", 0));
+        assertThrows(IllegalArgumentException.class, () -> hamming.errorBudget("ACGT", 4));
+        assertThrows(IllegalArgumentException.class, () -> myers.errorBudget("ACGT", -1));
+        assertEquals(0, new SuffixArrayAlgorithm().errorBudget("ACGT", 100));
+    }
+
+    // Substitutes two random bases, so patterns taken from the text match again within k = 2
+    private static String mutate(Random random, String pattern) {
+        char[] chars = pattern.toCharArray();
+        for (int i = 0; i < 2; i++) {
+            int position = random.nextInt(chars.length);
+            chars[position] = "ACGT".charAt((chars[position] + 1 + random.nextInt(3)) % 4);
+        }
+        return new String(chars);
+    }
+}
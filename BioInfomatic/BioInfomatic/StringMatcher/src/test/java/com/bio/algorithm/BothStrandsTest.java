@@ -0,0 +1,108 @@
+package com.bio.algorithm;
+
+import com.bio.BruteForce;
+import com.bio.config.SearchAlgorithmConfig;
+import com.bio.model.ResultMode;
+import com.bio.service.CompiledPatternCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.bio.BruteForce.occurrences;
+import static com.bio.BruteForce.randomText;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Both-strand searches: every hit of the pattern tagged '+', every hit of its reverse complement tagged '-',
+ * in position order with forward first on ties, checked against two separate scans. The text spans several
+ * tiles of the combined scanner.
+ */
+class BothStrandsTest {
+
+    private static final String TEXT = randomText(new Random(51), "ACGT", 3 * BothStrands.TILE + 1234);
+
+    private final List<SearchAlgorithm> exact;
+    private final SearchAlgorithm hamming = ApproximateScanAlgorithm.hamming();
+
+    BothStrandsTest() {
+        CompiledPatternCache patterns = new CompiledPatternCache(64);
+        SearchAlgorithmConfig config = new SearchAlgorithmConfig();
+        exact = List.of(config.naiveAlgorithm(patterns), config.kmpAlgorithm(patterns), config.boyerMooreAlgorithm(patterns),
+                config.qgramAlgorithm(patterns), new SuffixArrayAlgorithm(), new FMIndexAlgorithm(16, 8));
+    }
+
+    @Test
+    void exactHitsAreTaggedByStrand() {
+        for (SearchAlgorithm algorithm : exact) {
+            for (String pattern : new String[]{"AAC", "GATTACA", "CCGTTAGG"}) {
+                List<String> expected = expected(pattern, 0, false);
+                assertEquals(expected, scan(algorithm, pattern, 0), algorithm.name() + " " + pattern);
+
+                // Scans cannot count without searching (-1); indexes count both strands without locating
+                long counted = BothStrands.count(algorithm, TEXT, pattern);
+                if (counted >= 0) assertEquals(expected.size(), counted, algorithm.name() + " " + pattern);
+            }
+        }
+    }
+
+    @Test
+    void palindromesAreReportedOnceAsForward() {
+        for (SearchAlgorithm algorithm : exact) {
+            List<String> expected = new ArrayList<>();
+            for (int position : occurrences(TEXT, "ACGT")) expected.add(position + "+");
+            assertEquals(expected, scan(algorithm, "ACGT", 0), algorithm.name());
+        }
+    }
+
+    @Test
+    void approximateHitsAreTaggedByStrand() {
+        String pattern = "GATTACAGC";
+        for (int k = 0; k <= 2; k++) {
+            assertEquals(expected(pattern, k, true), scan(hamming, pattern, k), "k=" + k);
+        }
+    }
+
+    @Test
+    void reverseComplementCoversIupacAndRejectsOtherLetters() {
+        assertEquals("TGTAATC", BothStrands.reverseComplement("GATTACA"));
+        assertEquals("NYRBVKMDH", BothStrands.reverseComplement("DHKMBVYRN"));
+        assertEquals("cgta", BothStrands.reverseComplement("tacg"));
+        assertThrows(IllegalArgumentException.class, () -> BothStrands.reverseComplement("ACXT"));
+    }
+
+    // Positions tagged '+' / '-'; approximate scans also carry the distance after the tag
+    private static List<String> scan(SearchAlgorithm algorithm, String pattern, int k) {
+        MatchCollector collector = new MatchCollector(ResultMode.ALL, 0, 0).withStrands(true);
+        algorithm.prepareBothStrands(pattern, k).scan(TEXT, 0, TEXT.length(), collector);
+        List<String> hits = new ArrayList<>();
+        for (int i = 0; i < collector.positions().size(); i++) {
+            String hit = collector.positions().getInt(i) + (collector.strands().getInt(i) == 0 ? "+" : "-");
+            hits.add(algorithm.approximate() ? hit + collector.distances().getInt(i) : hit);
+        }
+        return hits;
+    }
+
+    // The oracle's forward and reverse-complement hits, merged by position with forward first on ties
+    private static List<String> expected(BruteForce.Hits forward, BruteForce.Hits reverse, boolean withDistances) {
+        List<String> merged = new ArrayList<>();
+        int f = 0, r = 0;
+        while (f < forward.size() || r < reverse.size()) {
+            boolean takeForward = r == reverse.size()
+                    || (f < forward.size() && forward.positions().get(f) <= reverse.positions().get(r));
+            BruteForce.Hits hits = takeForward ? forward : reverse;
+            int i = takeForward ? f++ : r++;
+            String hit = hits.positions().get(i) + (takeForward ? "+" : "-");
+            merged.add(withDistances ? hit + hits.distances().get(i) : hit);
+        }
+        return merged;
+    }
+
+    private static List<String> expected(String pattern, int k, boolean withDistances) {
+        String reverse = BothStrands.reverseComplement(pattern);
+        return expected(BruteForce.mismatches(TEXT, 0, TEXT.length(), pattern, k),
+                BruteForce.mismatches(TEXT, 0, TEXT.length(), reverse, k), withDistances);
+    }
+}
@@ -0,0 +1,127 @@
+package com.bio.algorithm;
+
+import com.bio.BruteForce;
+import com.bio.model.MatchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.bio.BruteForce.occurrences;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boyer-Moore and the q-gram Horspool built on it, against a naive scan. Periodic patterns exercise the
+ * good-suffix table and Galil's rule (after a match only pattern[verified, m) with verified = m - period is
+ * compared again); chars of 256 and above exercise the bad-character side list and the q-gram fallback.
+ */
+class BoyerMooreSearchTest {
+
+    private static final String[] PERIODIC = {"A", "AA", "AAAA", "ABAB", "ABABA", "ABAABA", "ACACAC", "AACAAC", "GCAGCAG"};
+
+    @Test
+    void goodSuffixTableHoldsThePeriod() {
+        assertEquals(1, BoyerMooreSearch.goodSuffixShifts("AAAA")[0]);
+        assertEquals(2, BoyerMooreSearch.goodSuffixShifts("ABAB")[0]);
+        assertEquals(2, BoyerMooreSearch.goodSuffixShifts("ABABA")[0]);
+        assertEquals(3, BoyerMooreSearch.goodSuffixShifts("ABAABA")[0]);
+        assertEquals(4, BoyerMooreSearch.goodSuffixShifts("ACGT")[0]);
+        // Mismatch at pattern[2] of "ABAB" after "B" matched: the next "AB" to the left is 2 back
+        assertArrayEquals(new int[]{2, 2, 2, 4, 1}, BoyerMooreSearch.goodSuffixShifts("ABAB"));
+    }
+
+    @Test
+    void periodicPatternsMatchANaiveScan() {
+        Random random = new Random(3);
+        List<String> texts = new ArrayList<>();
+        texts.add("A".repeat(200));
+        texts.add("AB".repeat(100) + "A" + "AB".repeat(50));
+        texts.add("ABAABAABAB".repeat(30));
+        for (int i = 0; i < 10; i++) texts.add(BruteForce.randomText(random, i % 2 == 0 ? "AB" : "ACG", 800));
+
+        for (String text : texts) {
+            for (String pattern : PERIODIC) {
+                assertSearches(text, pattern, new BoyerMooreSearch().compile(pattern));
+                assertSearches(text, pattern, new QGramHorspoolSearch().compile(pattern));
+            }
+        }
+    }
+
+    @Test
+    void galilSkipsTheVerifiedPrefix() {
+        // Every alignment matches; without Galil each would compare all m chars again
+        String text = "A".repeat(1000);
+        MatchResult result = new BoyerMooreSearch().compile("AAAAAAAA").search(text);
+        assertEquals(993, result.getMatchCount());
+        assertTrue(result.getComparisonCount() <= text.length(), "comparisons: " + result.getComparisonCount());
+
+        String repeats = "ACG".repeat(400);
+        MatchResult periodic = new BoyerMooreSearch().compile("ACGACGACG").search(repeats);
+        assertEquals(occurrences(repeats, "ACGACGACG"), periodic.getMatchIndices());
+        assertTrue(periodic.getComparisonCount() <= 2L * repeats.length(), "comparisons: " + periodic.getComparisonCount());
+    }
+
+    @Test
+    void charsBeyondLatin1UseTheSideTableAndTheQGramFallback() {
+        Random random = new Random(17);
+        String alphabet = "ACĀ中ÿ";
+        for (int round = 0; round < 30; round++) {
+            String text = BruteForce.randomText(random, alphabet, 600);
+            int start = random.nextInt(580);
+            for (String pattern : new String[]{text.substring(start, start + 1 + random.nextInt(12)),
+                    "ĀĀ", "A中A中", "ÿAĀ"}) {
+                assertSearches(text, pattern, new BoyerMooreSearch().compile(pattern));
+                CompiledPattern qgram = new QGramHorspoolSearch().compile(pattern);
+                assertSearches(text, pattern, qgram);
+            }
+        }
+        assertEquals("Boyer-Moore Search (q-gram fallback)",
+                new QGramHorspoolSearch().compile("A中A中").search("A中A中").getAlgorithm());
+    }
+
+    @Test
+    void qGramsOfEveryLengthMatchANaiveScan() {
+        Random random = new Random(23);
+        for (int round = 0; round < 20; round++) {
+            String text = BruteForce.randomText(random, round % 3 == 0 ? "ACGTN" : "ACGT", 2000);
+            for (int m : new int[]{1, 2, 3, 5, 6, 15, 16, 24}) {
+                int start = random.nextInt(text.length() - m);
+                String pattern = text.substring(start, start + m).replace('N', 'A');
+                for (int q : new int[]{0, 2, 3, 4}) {
+                    assertSearches(text, pattern, new QGramHorspoolSearch(q).compile(pattern));
+                }
+            }
+        }
+    }
+
+    // Whole text, an inner range with absolute positions, and a sink that stops after the second hit
+    private static void assertSearches(String text, String pattern, CompiledPattern compiled) {
+        List<Integer> expected = occurrences(text, pattern);
+        String label = compiled.algorithm() + " '" + pattern + "'";
+        assertEquals(expected, compiled.search(text).getMatchIndices(), label);
+
+        int from = text.length() / 5, to = text.length() - text.length() / 7;
+        List<Integer> inRange = new ArrayList<>();
+        for (int position : expected) {
+            if (position >= from && position + pattern.length() <= to) inRange.add(position);
+        }
+        assertEquals(inRange, compiled.search(text, from, to).getMatchIndices(), label + " in range");
+
+        List<Integer> firstTwo = new ArrayList<>();
+        compiled.search(text, 0, text.length(), new MatchSink() {
+            @Override
+            public void onMatch(int position) {
+                firstTwo.add(position);
+            }
+
+            @Override
+            public boolean isDone() {
+                return firstTwo.size() == 2;
+            }
+        });
+        assertEquals(expected.subList(0, Math.min(2, expected.size())), firstTwo, label + " early stop");
+    }
+}
@@ -0,0 +1,80 @@
+package com.bio.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.bio.BruteForce.boxed;
+import static com.bio.BruteForce.occurrences;
+import static com.bio.BruteForce.randomText;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * FM-index count and locate, checked against scanning every position, for several sampling rates.
+ */
+class FMIndexTest {
+
+    private static final int[][] SAMPLE_RATES = {{1, 1}, {3, 5}, {64, 32}, {128, 7}};
+
+    @Test
+    void countAndLocateMatchAScan() {
+        Random random = new Random(11);
+        for (String alphabet : new String[]{"A", "ACGT", "ACGTN"}) {
+            String text = randomText(random, alphabet, 3000);
+            for (int[] rates : SAMPLE_RATES) {
+                FMIndex index = FMIndex.build(text, rates[0], rates[1]);
+                for (int trial = 0; trial < 150; trial++) {
+                    String pattern = trial % 2 == 0
+                            ? randomText(random, alphabet, 1 + random.nextInt(8))
+                            : text.substring(trial * 7, trial * 7 + 1 + random.nextInt(15));
+                    List<Integer> expected = occurrences(text, pattern);
+                    String label = pattern + " occ=" + rates[0] + " sa=" + rates[1];
+
+                    assertEquals(expected.size(), index.count(pattern), label);
+                    int[] located = index.locate(pattern).positions();
+                    Arrays.sort(located);
+                    assertEquals(expected, boxed(located), label);
+                }
+            }
+        }
+    }
+
+    @Test
+    void patternsOutsideTheAlphabetHaveNoHits() {
+        FMIndex index = FMIndex.build("ACGTACGTAC", 4, 2);
+        assertEquals(0, index.count("ACX"));
+        assertEquals(0, index.locate("Z").positions().length);
+        assertEquals(0, index.count("ACGTACGTACG"));
+    }
+
+    @Test
+    void rangeSearchKeepsOnlyHitsInsideTheRange() {
+        String text = randomText(new Random(12), "ACGT", 2000);
+        FMIndexSearch search = new FMIndexSearch(16, 8);
+        for (String pattern : new String[]{"A", "GC", "TTG", text.substring(900, 905)}) {
+            List<Integer> expected = new ArrayList<>();
+            for (int position : occurrences(text, pattern)) {
+                if (position >= 500 && position + pattern.length() <= 1500) expected.add(position);
+            }
+            assertEquals(expected, search.search(text, 500, 1500, pattern).getMatchIndices(), pattern);
+        }
+    }
+
+    @Test
+    void indexesAreCachedPerGenomeAndSamplingRates() {
+        String first = randomText(new Random(13), "ACGT", 400);
+        String second = randomText(new Random(14), "ACGT", 400);
+        FMIndexSearch search = new FMIndexSearch(8, 4);
+
+        FMIndex firstIndex = search.indexFor(first);
+        FMIndex secondIndex = search.indexFor(second);
+        assertSame(firstIndex, search.indexFor(first));
+        assertSame(secondIndex, new FMIndexSearch(8, 4).indexFor(second));
+        assertNotSame(firstIndex, new FMIndexSearch(16, 4).indexFor(first));
+    }
+}
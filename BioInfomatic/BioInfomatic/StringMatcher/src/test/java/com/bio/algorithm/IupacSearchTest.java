@@ -0,0 +1,130 @@
+package com.bio.algorithm;
+
+import com.bio.BruteForce;
+import com.bio.utils.PackedGenome;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * IUPAC Shift-And and Horspool against a brute force over the 4-bit masks, on plain strings and on packed
+ * genomes (where the exact one-word Shift-And and Horspool read 2-bit codes). Texts carry N runs, which match
+ * nothing, and a few ambiguity codes and gaps; patterns are degenerate primers of one and several words.
+ */
+class IupacSearchTest {
+
+    private static final String[] PRIMERS = {
+            "A", "N", "GAYTCN", "gaytcn", "RYRYRY", "NNNNNN", "ACGTU", "WSKMBDHV", "CCNGG", "TTTTNNNNAAAA"};
+
+    @Test
+    void masksFollowTheIupacTable() {
+        assertEquals(1, IupacSearch.mask('A'));
+        assertEquals(8, IupacSearch.mask('U'));
+        assertEquals(5, IupacSearch.mask('R'));
+        assertEquals(10, IupacSearch.mask('y'));
+        assertEquals(14, IupacSearch.mask('B'));
+        assertEquals(15, IupacSearch.mask('N'));
+        assertEquals(0, IupacSearch.mask('-'));
+        assertEquals(0, IupacSearch.mask('É'));
+        assertThrows(IllegalArgumentException.class, () -> new IupacSearch().compileShiftAnd("GAXTC"));
+        assertThrows(IllegalArgumentException.class, () -> new IupacSearch().compileHorspool(""));
+    }
+
+    @Test
+    void degeneratePrimersMatchTheBruteForce() {
+        Random random = new Random(31);
+        for (int round = 0; round < 12; round++) {
+            String text = textWithGaps(random, 1500);
+            CharSequence packed = PackedGenome.of(text);
+            List<String> patterns = new ArrayList<>(List.of(PRIMERS));
+            // Longer than one Shift-And word, so the multi-row scan runs
+            patterns.add(degenerate(random, text.substring(100, 170)));
+            patterns.add(degenerate(random, text.substring(700, 790)));
+            for (int m : new int[]{3, 12, 31, 33, 64}) {
+                int start = random.nextInt(text.length() - m);
+                patterns.add(degenerate(random, text.substring(start, start + m)));
+            }
+
+            for (String pattern : patterns) {
+                IupacSearch.ShiftAnd shiftAnd = new IupacSearch().compileShiftAnd(pattern);
+                CompiledPattern horspool = new IupacSearch().compileHorspool(pattern);
+                for (CharSequence genome : new CharSequence[]{text, packed}) {
+                    String label = pattern + (genome instanceof PackedGenome ? " (packed)" : "");
+                    for (int k = 0; k <= 2; k++) {
+                        BruteForce.Hits hits = new BruteForce.Hits();
+                        shiftAnd.scan(genome, 0, genome.length(), k, hits);
+                        assertEquals(bruteForce(text, 0, text.length(), pattern, k), hits, label + ", k=" + k);
+                    }
+                    assertEquals(bruteForce(text, 0, text.length(), pattern, 0).positions(),
+                            horspool.search(genome).getMatchIndices(), label + ", Horspool");
+
+                    int from = 211, to = genome.length() - 97;
+                    BruteForce.Hits inRange = new BruteForce.Hits();
+                    shiftAnd.scan(genome, from, to, 0, inRange);
+                    BruteForce.Hits expected = bruteForce(text, from, to, pattern, 0);
+                    assertEquals(expected, inRange, label + " in range");
+                    assertEquals(expected.positions(), horspool.search(genome, from, to).getMatchIndices(), label + ", Horspool in range");
+                }
+            }
+        }
+    }
+
+    @Test
+    void nInTheTextNeverMatches() {
+        String text = "ACGTNNNNACGT";
+        assertEquals(List.of(0, 8), new IupacSearch().compileHorspool("NNNN").search(text).getMatchIndices());
+        assertEquals(List.of(0, 8), new IupacSearch().compileHorspool("ACGN").search(PackedGenome.of(text)).getMatchIndices());
+        assertEquals(List.of(0, 8), new IupacSearch().search(PackedGenome.of(text), "ANGT", 0).getMatchIndices());
+        // Every window over the N run counts its Ns as mismatches, whatever the pattern says
+        assertEquals(List.of(0, 1, 2, 3, 4, 3, 2, 1, 0),
+                new IupacSearch().search(text, "NNNN", 4).getMatchDistances());
+    }
+
+    // Mask-based oracle: a text N (or any non-IUPAC char) shares no base with anything
+    private static BruteForce.Hits bruteForce(String text, int from, int to, String pattern, int k) {
+        BruteForce.Hits hits = new BruteForce.Hits();
+        int m = pattern.length();
+        for (int i = from; i + m <= to; i++) {
+            int mismatches = 0;
+            for (int j = 0; j < m; j++) {
+                char c = text.charAt(i + j);
+                int textMask = c == 'N' ? 0 : IupacSearch.mask(c);
+                if ((IupacSearch.mask(pattern.charAt(j)) & textMask) == 0) mismatches++;
+            }
+            if (mismatches <= k) hits.onMatch(i, mismatches);
+        }
+        return hits;
+    }
+
+    // ACGT with N runs of 1-40 bases (some crossing 32-base words), and the odd ambiguity code or gap
+    private static String textWithGaps(Random random, int length) {
+        StringBuilder text = new StringBuilder(BruteForce.randomText(random, "ACGT", length));
+        for (int run = 0; run < 8; run++) {
+            int start = random.nextInt(length - 40);
+            for (int i = start, end = start + 1 + random.nextInt(40); i < end; i++) text.setCharAt(i, 'N');
+        }
+        for (int i = 0; i < 10; i++) text.setCharAt(random.nextInt(length), "RY-".charAt(i % 3));
+        return text.toString();
+    }
+
+    // Replaces about a third of the bases with a code that still covers them (or N)
+    private static String degenerate(Random random, String bases) {
+        StringBuilder pattern = new StringBuilder(bases.length());
+        for (int i = 0; i < bases.length(); i++) {
+            char c = bases.charAt(i);
+            if (IupacSearch.mask(c) == 0 || c == 'N' || random.nextInt(3) == 0) {
+                pattern.append('N');
+            } else if (random.nextInt(3) == 0) {
+                pattern.append("AG".indexOf(c) >= 0 ? 'R' : c == 'C' || c == 'T' ? 'Y' : c);
+            } else {
+                pattern.append(c);
+            }
+        }
+        return pattern.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.bio.algorithm;
+
+import com.bio.config.SearchAlgorithmConfig;
+import com.bio.model.ResultMode;
+import com.bio.service.CompiledPatternCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.bio.BruteForce.occurrences;
+import static com.bio.BruteForce.randomText;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * COUNT, EXISTS, FIRST_K and PAGE applied during a scan, checked against slicing the full list of hits.
+ */
+class MatchCollectorTest {
+
+    private final SearchAlgorithm kmp = new SearchAlgorithmConfig().kmpAlgorithm(new CompiledPatternCache(16));
+
+    @Test
+    void modesReturnTheirSliceOfAllHits() {
+        String text = randomText(new Random(31), "ACGT", 5000);
+        for (String pattern : new String[]{"A", "ACG", "TTTTTTTTTT"}) {
+            List<Integer> all = occurrences(text, pattern);
+            for (int[] window : new int[][]{{0, 0}, {0, 1}, {0, 7}, {3, 5}, {all.size() - 2, 10}, {all.size() + 5, 3}}) {
+                int offset = Math.max(0, window[0]), limit = window[1];
+                String label = pattern + " offset=" + offset + " limit=" + limit;
+
+                MatchCollector page = scan(text, pattern, ResultMode.PAGE, offset, limit);
+                List<Integer> expected = all.subList(Math.min(offset, all.size()), Math.min(offset + limit, all.size()));
+                assertEquals(expected, page.positions(), label);
+                assertEquals(offset + limit <= all.size(), page.isDone(), label);
+
+                MatchCollector firstK = scan(text, pattern, ResultMode.FIRST_K, 0, limit);
+                assertEquals(all.subList(0, Math.min(limit, all.size())), firstK.positions(), label);
+                // The scan stops once the limit is reached: the count is a lower bound, exact when fewer hits exist
+                assertTrue(firstK.count() >= Math.min(limit, all.size()) && firstK.count() <= all.size(), label);
+                if (limit > all.size()) assertEquals(all.size(), firstK.count(), label);
+            }
+
+            MatchCollector count = scan(text, pattern, ResultMode.COUNT, 0, 0);
+            assertEquals(all.size(), count.count(), pattern);
+            assertEquals(0, count.positions().size(), pattern);
+
+            MatchCollector exists = scan(text, pattern, ResultMode.EXISTS, 0, 0);
+            assertEquals(all.isEmpty() ? List.of() : all.subList(0, 1), exists.positions(), pattern);
+        }
+    }
+
+    @Test
+    void resultMarksTruncatedAnswers() {
+        String text = "ACGTACGTACGTACGT";
+        MatchCollector firstK = scan(text, "ACGT", ResultMode.FIRST_K, 0, 2);
+        assertEquals(List.of(0, 4), firstK.toResult("kmp", 0, text.length(), 4).getMatchIndices());
+        assertTrue(firstK.toResult("kmp", 0, text.length(), 4).isTruncated());
+
+        MatchCollector all = scan(text, "ACGT", ResultMode.ALL, 0, 0);
+        assertEquals(4, all.toResult("kmp", 0, text.length(), 4).getMatchCount());
+        assertFalse(all.toResult("kmp", 0, text.length(), 4).isTruncated());
+    }
+
+    private MatchCollector scan(String text, String pattern, ResultMode mode, int offset, int limit) {
+        MatchCollector collector = new MatchCollector(mode, offset, limit);
+        kmp.prepare(pattern, 0).scan(text, 0, text.length(), collector);
+        return collector;
+    }
+}
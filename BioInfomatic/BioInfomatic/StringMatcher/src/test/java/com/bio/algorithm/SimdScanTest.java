@@ -0,0 +1,105 @@
+package com.bio.algorithm;
+
+import com.bio.BruteForce;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.bio.BruteForce.randomText;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The engine chosen for this JVM (vector under the jdk17 profile, scalar elsewhere) and the scalar loop, both
+ * checked against a direct scan. Pattern lengths run from 1 past the widest vector (64 lanes), and ranges start
+ * and end off the lane grid so every scan has a scalar tail.
+ */
+class SimdScanTest {
+
+    private static final int[] PATTERN_LENGTHS = {1, 2, 3, 17, 63, 64, 65, 130, 200};
+
+    @Test
+    void enginesMatchADirectScan() {
+        Random random = new Random(61);
+        // Two letters: short patterns hit often and long ones still pass the first/last filter now and then
+        String text = randomText(random, "AC", 1500);
+        for (ByteBuffer buffer : buffers(text)) {
+            for (int m : PATTERN_LENGTHS) {
+                String pattern = text.substring(700, 700 + m);
+                for (int[] range : new int[][]{{0, text.length()}, {3, 1497}, {1, 700 + m}, {700, 700 + m}, {650, 710}}) {
+                    String label = (buffer.isDirect() ? "direct" : "heap") + " m=" + m + " [" + range[0] + ", " + range[1] + ")";
+                    List<Integer> expected = BruteForce.mismatches(text, range[0], range[1], pattern, 0).positions();
+                    assertEquals(expected, scan(buffer, range[0], range[1], pattern, false), label + " " + SimdScan.engineName());
+                    assertEquals(expected, scan(buffer, range[0], range[1], pattern, true), label + " scalar");
+                }
+            }
+        }
+    }
+
+    @Test
+    void hitsAtTheEndOfTheRangeAreFound() {
+        // One hit per block of 70, the last one ending exactly at the range end
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20; i++) text.append("A".repeat(69)).append('C');
+        for (ByteBuffer buffer : buffers(text.toString())) {
+            for (String pattern : new String[]{"C", "AC", "A".repeat(69) + "C"}) {
+                List<Integer> expected = BruteForce.mismatches(text, 0, text.length(), pattern, 0).positions();
+                assertEquals(text.length() - pattern.length(), (int) expected.get(expected.size() - 1));
+                assertEquals(expected, scan(buffer, 0, text.length(), pattern, false), pattern.length() + " " + SimdScan.engineName());
+            }
+        }
+    }
+
+    @Test
+    void scanStopsWhenTheSinkIsDone() {
+        ByteBuffer buffer = buffers("ACGT".repeat(200)).get(0);
+        List<Integer> hits = new ArrayList<>();
+        SimdScan.scan(buffer, 0, buffer.capacity(), "GTAC".getBytes(StandardCharsets.US_ASCII), new MatchSink() {
+            @Override
+            public void onMatch(int position) {
+                hits.add(position);
+            }
+
+            @Override
+            public boolean isDone() {
+                return hits.size() == 3;
+            }
+        });
+        assertEquals(List.of(2, 6, 10), hits);
+    }
+
+    @Test
+    void vectorEngineIsUsedWhereTheModuleIsLoaded() {
+        // Under the jdk17 profile the tests run with the incubator module; the trial scan in load() must pass there.
+        // Newer JVMs may still load a JDK 17 build, which must fall back to scalar instead (see SimdScan).
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        boolean compiled = SimdScan.class.getResource("VectorFirstLastScan.class") != null;
+        boolean sameApi = Runtime.version().feature() < 19;
+        if (vectorModule && compiled && sameApi && Boolean.parseBoolean(System.getProperty("bio.simd", "true"))) {
+            assertTrue(SimdScan.engineName().startsWith("vector"), SimdScan.engineName());
+        }
+    }
+
+    private static List<Integer> scan(ByteBuffer text, int from, int to, String pattern, boolean scalar) {
+        List<Integer> hits = new ArrayList<>();
+        byte[] bytes = pattern.getBytes(StandardCharsets.US_ASCII);
+        if (scalar) {
+            SimdScan.scanScalar(text, from, to, bytes, hits::add);
+        } else {
+            SimdScan.scan(text, from, to, bytes, hits::add);
+        }
+        return hits;
+    }
+
+    // Direct (as MappedGenome maps files) and heap buffers over the same bytes
+    private static List<ByteBuffer> buffers(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).clear();
+        return List.of(direct, ByteBuffer.wrap(bytes));
+    }
+}
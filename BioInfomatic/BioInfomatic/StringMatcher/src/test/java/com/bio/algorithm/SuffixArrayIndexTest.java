@@ -0,0 +1,116 @@
+package com.bio.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.bio.BruteForce.boxed;
+import static com.bio.BruteForce.occurrences;
+import static com.bio.BruteForce.randomText;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SA-IS, Kasai LCP and the mlr search, checked against sorting every suffix and scanning every position.
+ */
+class SuffixArrayIndexTest {
+
+    private static final String[] ALPHABETS = {"A", "AC", "ACGT", "ACGTN"};
+
+    @Test
+    void suffixArrayAndLcpMatchSortedSuffixes() {
+        Random random = new Random(3);
+        for (String alphabet : ALPHABETS) {
+            for (int length = 1; length <= 300; length += 1 + length / 4) {
+                String text = randomText(random, alphabet, length);
+                SuffixArrayIndex index = SuffixArrayIndex.build(text);
+
+                int[] expected = sortedSuffixes(text);
+                assertArrayEquals(expected, index.suffixArray(), text);
+                for (int i = 0; i < expected.length; i++) {
+                    int lcp = i == 0 ? 0 : commonPrefix(text, expected[i - 1], expected[i]);
+                    assertEquals(lcp, index.lcpArray()[i], text + " lcp[" + i + "]");
+                }
+            }
+        }
+    }
+
+    @Test
+    void repetitiveTextsNeedingRecursion() {
+        for (String text : new String[]{"AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA",
+                "ACACACACACACACACACACACACACACACACACACACACACACACACACACA",
+                "mmiissiissiippii", "GATTACAGATTACAGATTACAGATTACAGATTACA"}) {
+            assertArrayEquals(sortedSuffixes(text), SuffixArrayIndex.build(text).suffixArray(), text);
+        }
+    }
+
+    @Test
+    void searchFindsEveryOccurrence() {
+        Random random = new Random(4);
+        for (String alphabet : ALPHABETS) {
+            String text = randomText(random, alphabet, 2000);
+            SuffixArrayIndex index = SuffixArrayIndex.build(text);
+            for (int trial = 0; trial < 200; trial++) {
+                String pattern = trial % 2 == 0
+                        ? randomText(random, alphabet, 1 + random.nextInt(8))
+                        : text.substring(trial, trial + 1 + random.nextInt(12));
+                List<Integer> expected = occurrences(text, pattern);
+
+                int[] found = index.search(pattern, null);
+                Arrays.sort(found);
+                assertEquals(expected, boxed(found), pattern);
+
+                int[] interval = index.findInterval(pattern, null);
+                assertEquals(expected.size(), interval[1] - interval[0], pattern);
+            }
+        }
+    }
+
+    @Test
+    void rangeBuildReportsAbsolutePositions() {
+        String text = randomText(new Random(5), "ACGT", 1000);
+        SuffixArrayIndex index = SuffixArrayIndex.build(text, 200, 700);
+        for (String pattern : new String[]{"A", "CG", "TTA", text.substring(300, 306)}) {
+            List<Integer> expected = new ArrayList<>();
+            for (int position : occurrences(text, pattern)) {
+                if (position >= 200 && position + pattern.length() <= 700) expected.add(position);
+            }
+            int[] found = index.search(pattern, null);
+            Arrays.sort(found);
+            assertEquals(expected, boxed(found), pattern);
+        }
+    }
+
+    @Test
+    void searchReusesTheIndexOfEachGenome() {
+        String first = randomText(new Random(6), "ACGT", 500);
+        String second = randomText(new Random(7), "ACGT", 500);
+        SuffixArrayIndex firstIndex = SuffixTreeSearch.indexFor(first);
+        SuffixArrayIndex secondIndex = SuffixTreeSearch.indexFor(second);
+
+        assertTrue(SuffixTreeSearch.isIndexed(first) && SuffixTreeSearch.isIndexed(second));
+        assertSame(firstIndex, SuffixTreeSearch.indexFor(first));
+        assertSame(secondIndex, SuffixTreeSearch.indexFor(second));
+        assertEquals(occurrences(first, "ACG"), new SuffixTreeSearch().search(first, "ACG").getMatchIndices());
+    }
+
+    private static int[] sortedSuffixes(String text) {
+        return IntStream.range(0, text.length()).boxed()
+                .sorted((a, b) -> text.substring(a).compareTo(text.substring(b)))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int commonPrefix(String text, int a, int b) {
+        int length = 0;
+        while (a + length < text.length() && b + length < text.length() && text.charAt(a + length) == text.charAt(b + length)) {
+            length++;
+        }
+        return length;
+    }
+}
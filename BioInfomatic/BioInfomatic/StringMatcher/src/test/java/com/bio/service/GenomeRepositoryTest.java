@@ -0,0 +1,131 @@
+package com.bio.service;
+
+import com.bio.algorithm.FMIndexSearch;
+import com.bio.algorithm.SuffixTreeSearch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The off-heap budget: uploads of unknown size are capped by it, loads reserve their size hint while they run,
+ * and storing evicts the least recently searched genomes. A genome that goes away takes its indexes with it.
+ */
+class GenomeRepositoryTest {
+
+    private static final long BUDGET = 1000;
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void uploadOfUnknownSizeStopsAtTheBudget() throws IOException {
+        GenomeRepository genomes = new GenomeRepository(BUDGET, dataDir.toString());
+        upload(genomes, "small", 300, -1);
+
+        assertThrows(IllegalArgumentException.class, () -> upload(genomes, "huge", 50_000, -1));
+        assertEquals(300, genomes.usedBytes());
+        assertEquals(1, genomes.size());
+        // The failed load released its id
+        upload(genomes, "huge", 600, -1);
+        assertEquals(900, genomes.usedBytes());
+    }
+
+    @Test
+    void storingEvictsTheLeastRecentlySearched() throws IOException {
+        GenomeRepository genomes = new GenomeRepository(BUDGET, dataDir.toString());
+        upload(genomes, "a", 400, 400);
+        upload(genomes, "b", 400, 400);
+        genomes.get("a");
+        upload(genomes, "c", 300, -1);
+
+        assertEquals(1, genomes.getEvictions());
+        assertEquals(700, genomes.usedBytes());
+        assertThrows(IOException.class, () -> genomes.get("b"));
+        assertEquals("AAA", genomes.get("a").subSequence(0, 3).toString());
+    }
+
+    @Test
+    void runningLoadsReserveTheirSizeHint() throws Exception {
+        GenomeRepository genomes = new GenomeRepository(BUDGET, dataDir.toString());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream slow = new InputStream() {
+            private int left = 700;
+
+            @Override
+            public int read() throws IOException {
+                started.countDown();
+                try {
+                    if (!release.await(10, TimeUnit.SECONDS)) throw new IOException("test timed out");
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return left-- > 0 ? 'G' : -1;
+            }
+        };
+        CompletableFuture<?> big = CompletableFuture.runAsync(() -> {
+            try {
+                genomes.loadStream("big", slow, 700);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertEquals(700, genomes.usedBytes());
+
+        // A second load cannot reserve past the budget, nor outgrow what the first one left
+        assertThrows(IllegalStateException.class, () -> upload(genomes, "other", 400, 400));
+        assertThrows(IllegalArgumentException.class, () -> upload(genomes, "other", 400, -1));
+        upload(genomes, "other", 250, -1);
+        assertEquals(950, genomes.usedBytes());
+
+        release.countDown();
+        big.get(10, TimeUnit.SECONDS);
+        assertEquals(950, genomes.usedBytes());
+        assertEquals(2, genomes.size());
+    }
+
+    @Test
+    void removedReplacedAndEvictedGenomesDropTheirIndexes() throws IOException {
+        GenomeRepository genomes = new GenomeRepository(BUDGET, dataDir.toString());
+        FMIndexSearch fm = new FMIndexSearch(8, 4);
+
+        upload(genomes, "removed", 300, 300);
+        CharSequence removed = indexed(genomes.get("removed"), fm);
+        genomes.remove("removed");
+        assertFalse(SuffixTreeSearch.isIndexed(removed) || fm.isIndexed(removed));
+
+        upload(genomes, "replaced", 300, 300);
+        CharSequence replaced = indexed(genomes.get("replaced"), fm);
+        upload(genomes, "replaced", 200, 200);
+        assertFalse(SuffixTreeSearch.isIndexed(replaced) || fm.isIndexed(replaced));
+
+        CharSequence evicted = indexed(genomes.get("replaced"), fm);
+        upload(genomes, "big", 900, 900);
+        assertFalse(SuffixTreeSearch.isIndexed(evicted) || fm.isIndexed(evicted));
+    }
+
+    private static CharSequence indexed(CharSequence text, FMIndexSearch fm) {
+        SuffixTreeSearch.indexFor(text);
+        fm.indexFor(text);
+        assertTrue(SuffixTreeSearch.isIndexed(text) && fm.isIndexed(text));
+        return text;
+    }
+
+    private static void upload(GenomeRepository genomes, String id, int bases, long sizeHint) throws IOException {
+        byte[] sequence = "A".repeat(bases).getBytes();
+        genomes.loadStream(id, new ByteArrayInputStream(sequence), sizeHint);
+    }
+}
@@ -0,0 +1,107 @@
+package com.bio.service;
+
+import com.bio.utils.IntList;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chunk frames queued by pool workers and written by the draining thread, a client that goes away mid-stream,
+ * and progress frames while hits keep flushing.
+ */
+class MatchStreamWriterTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void workersQueueChunksAndTheCallerWritesThem() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MatchStreamWriter writer = new MatchStreamWriter(out, MatchStreamWriter.Format.NDJSON, 100_000, 10, 1000);
+        // More chunks than the queue holds: workers must wait for the drain instead of failing
+        int chunks = 4 * MatchStreamWriter.MAX_PENDING_CHUNKS;
+        ForkJoinTask<?> search = pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(i -> {
+            IntList positions = new IntList();
+            positions.addInt(i * 10);
+            positions.addInt(i * 10 + 5);
+            writer.chunk(i * 10, i * 10 + 10, positions, null, null);
+        }));
+        writer.drainChunks(search);
+        search.join();
+        writer.summary("test", 3);
+
+        List<String> hits = frames(out, "hits");
+        assertEquals(chunks, hits.size());
+        assertEquals(2L * chunks, writer.matchCount());
+        assertTrue(hits.contains("{\"type\":\"hits\",\"from\":370,\"to\":380,\"count\":2,\"positions\":[370,375]}"));
+        assertEquals(1, frames(out, "summary").size());
+    }
+
+    @Test
+    void workersStopWhenTheClientHasGone() throws Exception {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        MatchStreamWriter writer = new MatchStreamWriter(broken, MatchStreamWriter.Format.SSE, 100_000, 10, 1000);
+        ForkJoinTask<?> search = pool.submit(() -> IntStream.range(0, 4 * MatchStreamWriter.MAX_PENDING_CHUNKS).parallel().forEach(i -> {
+            IntList positions = new IntList();
+            positions.addInt(i);
+            writer.chunk(i, i + 1, positions, null, null);
+        }));
+        assertThrows(UncheckedIOException.class, () -> writer.drainChunks(search));
+        // Workers blocked on the full queue give up rather than wait for a writer that has gone
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> search.get(10, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof UncheckedIOException, String.valueOf(failure.getCause()));
+    }
+
+    @Test
+    void progressIsNotHeldBackByHitFlushes() throws InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Batches of one: every hit flushes, which used to reset the progress clock too
+        MatchStreamWriter writer = new MatchStreamWriter(out, MatchStreamWriter.Format.NDJSON, 1000, 1, 5);
+        for (int i = 0; i < 40; i++) {
+            writer.hit(i);
+            Thread.sleep(1);
+            writer.progress(i + 1);
+        }
+        assertEquals(40, frames(out, "hits").size());
+        assertTrue(frames(out, "progress").size() >= 2, out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> frames(ByteArrayOutputStream out, String type) {
+        return Stream.of(out.toString(StandardCharsets.UTF_8).split("\n"))
+                .filter(line -> line.contains("\"type\":\"" + type + "\""))
+                .map(line -> line.startsWith("data: ") ? line.substring(6) : line)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,73 @@
+package com.bio.service;
+
+import com.bio.BruteForce;
+import com.bio.model.MultiMatchRequest;
+import com.bio.model.MultiMatchResult;
+import com.bio.model.PatternMatches;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.bio.BruteForce.occurrences;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The parallel panel search splits the genome into leaves of a few dozen bases and buckets their (pattern,
+ * position) pairs afterwards; every pattern must still get exactly the sorted hits of a naive scan.
+ */
+class MultiPatternSearchServiceTest {
+
+    private static final String GENOME = "panel";
+
+    private static ForkJoinPool pool;
+    private static MultiPatternSearchService service;
+    private static String text;
+
+    @BeforeAll
+    static void setUp(@TempDir Path dataDir) throws Exception {
+        pool = new ForkJoinPool(4);
+        GenomeRepository genomes = new GenomeRepository(1L << 20, dataDir.toString());
+        SearchAlgorithmRegistry registry = new SearchAlgorithmRegistry(List.of());
+        ParallelGenericSearchService parallel = new ParallelGenericSearchService(registry,
+                new SearchPlanner(registry, pool), genomes, new SearchResultCache(0, genomes), pool);
+        ReflectionTestUtils.setField(parallel, "grainSize", 29);
+        service = new MultiPatternSearchService(parallel, genomes);
+
+        text = BruteForce.randomText(new Random(13), "AACGTN", 5000);
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        genomes.loadStream(GENOME, new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void parallelAndSequentialMatchANaiveScan() throws Exception {
+        List<String> panel = Arrays.asList("A", "AA", "ACG", "CGT", "AAC", "GTAA", "ACG", "TTTT");
+        MultiMatchRequest request = new MultiMatchRequest(panel);
+        request.setGenomeId(GENOME);
+        request.setNumChunks(16);
+
+        for (MultiMatchResult result : new MultiMatchResult[]{service.executeSearch(request), service.executeParallelSearch(request)}) {
+            long total = 0;
+            for (int id = 0; id < panel.size(); id++) {
+                PatternMatches matches = result.getResults().get(id);
+                assertEquals(occurrences(text, panel.get(id)), matches.getMatchIndices(), result.getAlgorithm() + " " + panel.get(id));
+                total += matches.getMatchCount();
+            }
+            assertEquals(total, result.getTotalMatches());
+        }
+    }
+}
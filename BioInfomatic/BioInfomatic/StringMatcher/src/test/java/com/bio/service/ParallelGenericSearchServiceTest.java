@@ -0,0 +1,148 @@
+package com.bio.service;
+
+import com.bio.BruteForce;
+import com.bio.config.SearchAlgorithmConfig;
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import com.bio.model.ResultMode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.bio.BruteForce.occurrences;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parallel searches split into leaves of a few dozen bases, so many hits straddle a leaf boundary or sit in an
+ * overlap. Every algorithm and result mode must return exactly the hits of one scan over the whole text.
+ */
+class ParallelGenericSearchServiceTest {
+
+    private static final String GENOME = "leaves";
+    private static final int GRAIN_SIZE = 37;
+
+    private static ForkJoinPool pool;
+    private static ParallelGenericSearchService service;
+    private static String text;
+
+    @BeforeAll
+    static void setUp(@TempDir Path dataDir) throws Exception {
+        CompiledPatternCache patterns = new CompiledPatternCache(64);
+        SearchAlgorithmConfig config = new SearchAlgorithmConfig();
+        SearchAlgorithmRegistry registry = new SearchAlgorithmRegistry(List.of(
+                config.naiveAlgorithm(patterns), config.kmpAlgorithm(patterns), config.boyerMooreAlgorithm(patterns),
+                config.qgramAlgorithm(patterns), config.suffixArrayAlgorithm(2), config.fmIndexAlgorithm(8, 4, 2),
+                config.hammingAlgorithm(), config.editDistanceAlgorithm()));
+        pool = new ForkJoinPool(4);
+        GenomeRepository genomes = new GenomeRepository(1L << 20, dataDir.toString());
+        service = new ParallelGenericSearchService(registry, new SearchPlanner(registry, pool), genomes,
+                new SearchResultCache(0, genomes), pool);
+        ReflectionTestUtils.setField(service, "grainSize", GRAIN_SIZE);
+
+        // Two-letter alphabet: short patterns occur every few bases, so leaf boundaries cut through many hits
+        Random random = new Random(41);
+        StringBuilder sequence = new StringBuilder();
+        for (int i = 0; i < 4000; i++) sequence.append(random.nextInt(4) == 0 ? 'C' : 'A');
+        text = sequence.toString();
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        genomes.loadStream(GENOME, new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void exactAlgorithmsFindEveryHitOnce() throws Exception {
+        for (String algorithm : new String[]{"naive", "kmp", "bm", "qgram", "suffix", "fm"}) {
+            for (String pattern : new String[]{"A", "AC", "AACAA", "CAAAAAAC"}) {
+                MatchResult result = service.executeParallelSearch(request(pattern, algorithm));
+                assertEquals(occurrences(text, pattern), result.getMatchIndices(), algorithm + " " + pattern);
+            }
+        }
+    }
+
+    @Test
+    void approximateAlgorithmsFindEveryHitOnce() throws Exception {
+        String pattern = "ACAAAC";
+        for (int k = 0; k <= 2; k++) {
+            MatchRequest hamming = request(pattern, "hamming");
+            hamming.setMaxErrors(k);
+            MatchResult mismatches = service.executeApproximateSearch(hamming);
+            BruteForce.Hits expected = BruteForce.mismatches(text, 0, text.length(), pattern, k);
+            assertEquals(expected.positions(), mismatches.getMatchIndices(), "hamming k=" + k);
+            assertEquals(expected.distances(), mismatches.getMatchDistances(), "hamming k=" + k);
+
+            // End positions: owned m - 1 + k past each leaf start
+            MatchRequest myers = request(pattern, "myers");
+            myers.setMaxErrors(k);
+            MatchResult edits = service.executeApproximateSearch(myers);
+            BruteForce.Hits expectedEdits = BruteForce.edits(text, 0, text.length(), pattern, k);
+            assertEquals(expectedEdits.positions(), edits.getMatchIndices(), "myers k=" + k);
+            assertEquals(expectedEdits.distances(), edits.getMatchDistances(), "myers k=" + k);
+        }
+    }
+
+    @Test
+    void resultModesMatchTheSequentialAnswer() throws Exception {
+        for (String algorithm : new String[]{"kmp", "qgram", "suffix"}) {
+            for (String pattern : new String[]{"AC", "CAAAAAAC"}) {
+                List<Integer> all = occurrences(text, pattern);
+                String label = algorithm + " " + pattern;
+
+                MatchRequest count = request(pattern, algorithm);
+                count.setResultMode(ResultMode.COUNT);
+                assertEquals(all.size(), service.executeParallelSearch(count).getMatchCount(), label);
+
+                for (int limit : new int[]{1, 5, 40}) {
+                    MatchRequest firstK = request(pattern, algorithm);
+                    firstK.setResultMode(ResultMode.FIRST_K);
+                    firstK.setLimit(limit);
+                    assertEquals(all.subList(0, Math.min(limit, all.size())),
+                            service.executeParallelSearch(firstK).getMatchIndices(), label + " first " + limit);
+
+                    MatchRequest page = request(pattern, algorithm);
+                    page.setResultMode(ResultMode.PAGE);
+                    page.setOffset(7);
+                    page.setLimit(limit);
+                    assertEquals(all.subList(Math.min(7, all.size()), Math.min(7 + limit, all.size())),
+                            service.executeParallelSearch(page).getMatchIndices(), label + " page 7+" + limit);
+                }
+            }
+        }
+    }
+
+    @Test
+    void leavesReallyCutThroughHits() throws Exception {
+        String pattern = "CAAAAAAC";
+        List<Integer> leafEnds = new ArrayList<>();
+        for (int[] leaf : service.searchChunks(text, 0, pattern.length() - 1, (genome, from, to, ownedEnd) -> new int[]{from, ownedEnd})) {
+            leafEnds.add(leaf[1]);
+        }
+        int straddling = 0;
+        for (int position : occurrences(text, pattern)) {
+            for (int end : leafEnds) {
+                if (position < end && end < position + pattern.length()) straddling++;
+            }
+        }
+        assertTrue(leafEnds.size() > 50 && straddling > 3, leafEnds.size() + " leaves, " + straddling + " hits across a boundary");
+    }
+
+    private static MatchRequest request(String pattern, String algorithm) {
+        MatchRequest request = new MatchRequest(null, pattern, algorithm);
+        request.setGenomeId(GENOME);
+        return request;
+    }
+}
@@ -0,0 +1,82 @@
+package com.bio.service;
+
+import com.bio.BruteForce;
+import com.bio.config.SearchAlgorithmConfig;
+import com.bio.model.JobStatus;
+import com.bio.model.MatchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Finished jobs beyond app.jobs.max-retained are dropped oldest first, without waiting for their TTL.
+ */
+class SearchJobServiceTest {
+
+    private static final int MAX_RETAINED = 3;
+    private static final String TEXT = "ACGTACGTTTGACGT".repeat(100);
+
+    @TempDir
+    Path dataDir;
+
+    private ForkJoinPool pool;
+    private SearchJobService jobs;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CompiledPatternCache patterns = new CompiledPatternCache(16);
+        SearchAlgorithmRegistry registry = new SearchAlgorithmRegistry(List.of(new SearchAlgorithmConfig().kmpAlgorithm(patterns)));
+        pool = new ForkJoinPool(2);
+        GenomeRepository genomes = new GenomeRepository(1 << 20, dataDir.toString());
+        genomes.loadStream("g", new ByteArrayInputStream(TEXT.getBytes()), -1);
+        SearchResultCache cache = new SearchResultCache(0, genomes);
+        ParallelGenericSearchService parallel = new ParallelGenericSearchService(registry,
+                new SearchPlanner(registry, pool), genomes, cache, pool);
+        SearchMetrics metrics = new SearchMetrics(new SimpleMeterRegistry(), registry, pool, cache, patterns, genomes);
+        jobs = new SearchJobService(parallel, metrics, 1, 64, 600_000, MAX_RETAINED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobs.shutdown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void oldestFinishedJobsAreDroppedBeyondTheCap() throws InterruptedException {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            MatchRequest request = new MatchRequest(null, "ACGT", "kmp");
+            request.setGenomeId("g");
+            ids.add(jobs.submitSearch(request, 0).getId());
+        }
+        // One worker runs the jobs in submission order: once the last has finished, the first five are gone
+        String last = ids.get(ids.size() - 1);
+        for (int i = 0; i < 1000 && !finished(jobs.status(last)); i++) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(ids.subList(8 - MAX_RETAINED, 8),
+                jobs.list().stream().map(JobStatus::getId).collect(Collectors.toList()));
+        assertNull(jobs.status(ids.get(0)));
+        assertNotNull(jobs.result(last));
+        assertEquals(BruteForce.occurrences(TEXT, "ACGT").size(), jobs.result(last).getMatchCount());
+    }
+
+    private static boolean finished(JobStatus status) {
+        return status != null && status.getFinishedAt() != 0;
+    }
+}
@@ -0,0 +1,94 @@
+package com.bio.service;
+
+import com.bio.config.SearchAlgorithmConfig;
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Algorithm tags come from the registry (aliases share the canonical name, unknown names are "other"), and
+ * "auto" searches are tagged with the algorithm their plan chose.
+ */
+class SearchMetricsTest {
+
+    @TempDir
+    Path dataDir;
+
+    private ForkJoinPool pool;
+    private SimpleMeterRegistry meters;
+    private SearchAlgorithmRegistry registry;
+    private SearchMetrics metrics;
+    private ParallelGenericSearchService parallel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CompiledPatternCache patterns = new CompiledPatternCache(16);
+        SearchAlgorithmConfig config = new SearchAlgorithmConfig();
+        registry = new SearchAlgorithmRegistry(List.of(config.naiveAlgorithm(patterns), config.kmpAlgorithm(patterns),
+                config.boyerMooreAlgorithm(patterns), config.suffixArrayAlgorithm(2), config.hammingAlgorithm()));
+        pool = new ForkJoinPool(2);
+        GenomeRepository genomes = new GenomeRepository(1 << 20, dataDir.toString());
+        byte[] text = "ACGTTGCA".repeat(500).getBytes(StandardCharsets.US_ASCII);
+        genomes.loadStream("g", new ByteArrayInputStream(text), text.length);
+        SearchResultCache cache = new SearchResultCache(1 << 20, genomes);
+        parallel = new ParallelGenericSearchService(registry, new SearchPlanner(registry, pool), genomes, cache, pool);
+        meters = new SimpleMeterRegistry();
+        metrics = new SearchMetrics(meters, registry, pool, cache, patterns, genomes);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void tagsAreRegistryNames() {
+        assertEquals("bm", metrics.algorithmTag("Boyer-Moore"));
+        assertEquals("bm", metrics.algorithmTag("BoyerMoore Search"));
+        assertEquals("suffix", metrics.algorithmTag("suffix-tree"));
+        assertEquals("hamming", metrics.algorithmTag("shift-and"));
+        assertEquals("naive", metrics.algorithmTag(null));
+        assertEquals("auto", metrics.algorithmTag("AUTO"));
+        assertEquals("fm-count", metrics.algorithmTag("fm-count"));
+        assertEquals("aho-corasick", metrics.algorithmTag("aho-corasick"));
+        // Not registered here, and not one of the fixed endpoints
+        assertEquals("other", metrics.algorithmTag("myers"));
+        assertEquals("other", metrics.algorithmTag("x' OR 1=1"));
+    }
+
+    @Test
+    void autoSearchesAreTaggedWithThePlannedAlgorithm() throws Exception {
+        MatchRequest request = new MatchRequest(null, "GTTG", "auto");
+        request.setGenomeId("g");
+        MatchResult result = metrics.time("parallel", "auto", () -> parallel.executeParallelSearch(request));
+        String planned = result.getPlannedAlgorithm();
+        assertNotNull(planned);
+        assertEquals(planned, registry.resolve(planned).name());
+        assertEquals(1, meters.get(SearchMetrics.SEARCH_TIMER).tag("algorithm", planned).timer().count());
+
+        // Served from the result cache: the cached copy keeps its plan
+        MatchResult cached = metrics.time("parallel", "auto", () -> parallel.executeParallelSearch(request));
+        assertEquals(planned, cached.getPlannedAlgorithm());
+        assertEquals(1, meters.get(SearchMetrics.SEARCH_TIMER).tags("algorithm", planned, "cached", "true").timer().count());
+
+        // Without a result there is no plan to report
+        assertThrows(IllegalStateException.class, () -> metrics.time("parallel", "auto", () -> {
+            throw new IllegalStateException("failed");
+        }));
+        assertEquals(1, meters.get(SearchMetrics.SEARCH_TIMER).tags("algorithm", "auto", "outcome", "error").timer().count());
+    }
+}
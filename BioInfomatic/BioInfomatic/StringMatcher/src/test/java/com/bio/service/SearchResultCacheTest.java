@@ -0,0 +1,172 @@
+package com.bio.service;
+
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import com.bio.model.ResultMode;
+import com.bio.utils.GenomeDataGeneratorPro;
+import com.bio.utils.IntList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The default-genome cache (SearchResultCache(long)): entries keyed by genome version and request, LRU eviction
+ * by the bytes of their hit lists, and read-only snapshots that no response can change.
+ */
+class SearchResultCacheTest {
+
+    // Overhead plus 4 bytes per position and per distance for IntLists
+    private static final long HUNDRED_HITS_BYTES = 256 + 100 * 2 * Integer.BYTES;
+
+    @Test
+    void repeatedRequestsAreServedFromTheCache() {
+        SearchResultCache cache = new SearchResultCache(1 << 20);
+        AtomicInteger runs = new AtomicInteger();
+
+        MatchResult first = cache.getOrCompute("sequential:kmp", request("ACGT"), () -> result(runs, 100));
+        MatchResult second = cache.getOrCompute("sequential:kmp", request("ACGT"), () -> result(runs, 100));
+        assertEquals(1, runs.get());
+        assertFalse(first.isCached());
+        assertTrue(second.isCached());
+        assertEquals(first.getMatchIndices(), second.getMatchIndices());
+        assertEquals(1, second.getCacheHits());
+        assertEquals(1, second.getCacheMisses());
+
+        // Anything that changes the answer is part of the key
+        cache.getOrCompute("sequential:bm", request("ACGT"), () -> result(runs, 100));
+        cache.getOrCompute("sequential:kmp", request("ACGA"), () -> result(runs, 100));
+        MatchRequest count = request("ACGT");
+        count.setResultMode(ResultMode.COUNT);
+        cache.getOrCompute("sequential:kmp", count, () -> result(runs, 100));
+        assertEquals(4, runs.get());
+        assertEquals(4, cache.size());
+
+        // Errors are never cached
+        cache.getOrCompute("sequential:kmp", request("TTTT"), () -> new MatchResult("failed"));
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedByBytes() {
+        SearchResultCache cache = new SearchResultCache(3 * HUNDRED_HITS_BYTES);
+        AtomicInteger runs = new AtomicInteger();
+        for (String pattern : new String[]{"A", "C", "G"}) {
+            cache.getOrCompute("naive", request(pattern), () -> result(runs, 100));
+        }
+        assertEquals(3, cache.size());
+        assertEquals(3 * HUNDRED_HITS_BYTES, cache.totalBytes());
+
+        // Touch A, so C is the least recently used when T arrives
+        cache.getOrCompute("naive", request("A"), () -> result(runs, 100));
+        cache.getOrCompute("naive", request("T"), () -> result(runs, 100));
+        assertEquals(3, cache.size());
+        assertEquals(4, runs.get());
+        cache.getOrCompute("naive", request("A"), () -> result(runs, 100));
+        cache.getOrCompute("naive", request("G"), () -> result(runs, 100));
+        assertEquals(4, runs.get());
+        cache.getOrCompute("naive", request("C"), () -> result(runs, 100));
+        assertEquals(5, runs.get());
+
+        // A result larger than the whole cache is returned but not stored, and evicts nothing
+        MatchResult huge = cache.getOrCompute("naive", request("AC"), () -> result(runs, 1000));
+        assertEquals(1000, huge.getMatchIndices().size());
+        assertEquals(3, cache.size());
+        assertEquals(3 * HUNDRED_HITS_BYTES, cache.totalBytes());
+
+        // Boxed lists are charged for their Integers
+        SearchResultCache boxed = new SearchResultCache(1 << 20);
+        boxed.getOrCompute("naive", request("A"), () -> {
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < 100; i++) positions.add(i);
+            return new MatchResult("Boxed", 0, positions, 1000, 1);
+        });
+        assertEquals(256 + 100 * 20, boxed.totalBytes());
+    }
+
+    @Test
+    void snapshotsAreFrozen() {
+        SearchResultCache cache = new SearchResultCache(1 << 20);
+        AtomicInteger runs = new AtomicInteger();
+
+        MatchResult computed = cache.getOrCompute("naive", request("ACGT"), () -> result(runs, 10));
+        MatchResult served = cache.getOrCompute("naive", request("ACGT"), () -> result(runs, 10));
+        for (MatchResult response : new MatchResult[]{computed, served}) {
+            assertThrows(UnsupportedOperationException.class, () -> response.getMatchIndices().add(99));
+            assertThrows(UnsupportedOperationException.class, () -> response.getMatchDistances().set(0, 5));
+            // Replacing a field of a response leaves the entry alone
+            response.setAlgorithm("changed");
+            response.setMatchIndices(new IntList());
+        }
+
+        MatchResult again = cache.getOrCompute("naive", request("ACGT"), () -> result(runs, 10));
+        assertEquals(1, runs.get());
+        assertEquals("Test", again.getAlgorithm());
+        assertEquals(10, again.getMatchIndices().size());
+        assertEquals(10, again.getMatchCount());
+    }
+
+    @Test
+    void regeneratingTheDefaultGenomeInvalidatesItsEntries(@TempDir Path backupDir) throws Exception {
+        // Regeneration writes the default genome file into the working directory; keep whatever was there
+        Path genomeFile = GenomeDataGeneratorPro.genomeFile();
+        Path backup = backupDir.resolve("genome_data.txt");
+        boolean existed = Files.exists(genomeFile);
+        if (existed) Files.copy(genomeFile, backup);
+        try {
+            SearchResultCache cache = new SearchResultCache(1 << 20);
+            AtomicInteger runs = new AtomicInteger();
+            cache.getOrCompute("naive", request("ACGT"), () -> result(runs, 10));
+            cache.getOrCompute("naive", request("TTTT"), () -> result(runs, 10));
+
+            GenomeDataGeneratorPro.generateAndSaveFile("ACGT", 4000);
+            cache.getOrCompute("naive", request("ACGT"), () -> result(runs, 10));
+            assertEquals(3, runs.get());
+            // Storing the first result of the new version drops every entry of the old one
+            assertEquals(1, cache.size());
+            assertEquals(256 + 10 * 2 * Integer.BYTES, cache.totalBytes());
+
+            // A search that sees the genome replaced mid-run is filed under the old version and never served
+            cache.getOrCompute("naive", request("GGGG"), () -> {
+                GenomeDataGeneratorPro.generateAndSaveFile("ACGT", 4000);
+                return result(runs, 10);
+            });
+            cache.getOrCompute("naive", request("CCCC"), () -> result(runs, 10));
+            cache.getOrCompute("naive", request("GGGG"), () -> result(runs, 10));
+            assertEquals(6, runs.get());
+        } finally {
+            if (existed) {
+                Files.move(backup, genomeFile, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(genomeFile);
+            }
+        }
+    }
+
+    private static MatchRequest request(String pattern) {
+        return new MatchRequest(null, pattern, "kmp");
+    }
+
+    private static MatchResult result(AtomicInteger runs, int hits) {
+        runs.incrementAndGet();
+        IntList positions = new IntList();
+        IntList distances = new IntList();
+        for (int i = 0; i < hits; i++) {
+            positions.addInt(i * 7);
+            distances.addInt(0);
+        }
+        MatchResult result = new MatchResult("Test", 0, positions, 1000, 4);
+        result.setMatchDistances(distances);
+        return result;
+    }
+}
@@ -0,0 +1,138 @@
+package com.bio.service;
+
+import com.bio.BruteForce;
+import com.bio.algorithm.MatchCollector;
+import com.bio.algorithm.SearchAlgorithm;
+import com.bio.config.SearchAlgorithmConfig;
+import com.bio.model.MatchRequest;
+import com.bio.model.MatchResult;
+import com.bio.model.ResultMode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Windowed searches with windows of 64 bases, so nearly every hit of a 3000-base file straddles a window edge
+ * or sits in a carried-over overlap. Start-position scanners (overlapping windows), Myers' end positions and
+ * KMP's stream scanner (state carried across windows) must all return the hits of one scan over the whole text.
+ */
+class WindowedSearchServiceTest {
+
+    private static final String FILE = "windowed.txt";
+    private static final int WINDOW_SIZE = 64;
+
+    private static SearchAlgorithmRegistry registry;
+    private static WindowedSearchService service;
+    private static String text;
+
+    @BeforeAll
+    static void setUp(@TempDir Path dataDir) throws Exception {
+        CompiledPatternCache patterns = new CompiledPatternCache(64);
+        SearchAlgorithmConfig config = new SearchAlgorithmConfig();
+        registry = new SearchAlgorithmRegistry(List.of(
+                config.naiveAlgorithm(patterns), config.kmpAlgorithm(patterns), config.boyerMooreAlgorithm(patterns),
+                config.qgramAlgorithm(patterns), config.suffixArrayAlgorithm(2), config.hammingAlgorithm(),
+                config.editDistanceAlgorithm()));
+        GenomeRepository genomes = new GenomeRepository(1L << 20, dataDir.toString());
+        service = new WindowedSearchService(registry, genomes);
+        ReflectionTestUtils.setField(service, "windowSize", WINDOW_SIZE);
+
+        text = BruteForce.randomText(new Random(29), "AAACGT", 3000);
+        Files.write(dataDir.resolve(FILE), text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void exactScannersMatchAWholeTextScan() throws Exception {
+        for (String algorithm : new String[]{"kmp", "naive", "bm", "qgram", "auto"}) {
+            for (String pattern : new String[]{"A", "AA", "AAAC", "ACGTA", "AAAAAAA", "TTTTTTTTTTTTTTTTTTTTTTTTTT"}) {
+                MatchResult result = service.search(request(pattern, algorithm, 0), FILE);
+                assertEquals(longs(BruteForce.occurrences(text, pattern)), result.getMatchOffsets(), algorithm + " " + pattern);
+                assertEquals(text.length(), result.getTextLength());
+            }
+        }
+    }
+
+    @Test
+    void approximateScannersMatchAWholeTextScan() throws Exception {
+        for (String pattern : new String[]{"ACGT", "AAACGTAC", "GATTACA"}) {
+            for (int k = 1; k <= 2; k++) {
+                BruteForce.Hits mismatches = BruteForce.mismatches(text, 0, text.length(), pattern, k);
+                MatchResult hamming = service.search(request(pattern, "hamming", k), FILE);
+                assertEquals(longs(mismatches.positions()), hamming.getMatchOffsets(), "hamming " + pattern + " k=" + k);
+                assertEquals(mismatches.distances(), hamming.getMatchDistances(), "hamming " + pattern + " k=" + k);
+
+                // Myers: end positions, the first m - 1 + k bases of each window were reported by the previous one
+                BruteForce.Hits edits = BruteForce.edits(text, 0, text.length(), pattern, k);
+                MatchResult myers = service.search(request(pattern, "myers", k), FILE);
+                assertEquals(longs(edits.positions()), myers.getMatchOffsets(), "myers " + pattern + " k=" + k);
+                assertEquals(edits.distances(), myers.getMatchDistances(), "myers " + pattern + " k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void bothStrandsMatchAWholeTextScan() throws Exception {
+        for (String algorithm : new String[]{"kmp", "bm"}) {
+            for (String pattern : new String[]{"AAC", "ACGTA", "GTTT"}) {
+                SearchAlgorithm.Scanner scanner = registry.resolve(algorithm).prepareBothStrands(pattern, 0);
+                MatchCollector expected = new MatchCollector(ResultMode.ALL, 0, 0).withStrands(true);
+                scanner.scan(text, 0, text.length(), expected);
+                MatchResult whole = expected.toResult(algorithm, 0, text.length(), pattern.length());
+
+                MatchRequest request = request(pattern, algorithm, 0);
+                request.setBothStrands(true);
+                MatchResult windowed = service.search(request, FILE);
+                assertEquals(longs(whole.getMatchIndices()), windowed.getMatchOffsets(), algorithm + " " + pattern);
+                assertEquals(whole.getMatchStrands(), windowed.getMatchStrands(), algorithm + " " + pattern);
+            }
+        }
+    }
+
+    @Test
+    void resultModesStopAcrossWindows() throws Exception {
+        List<Integer> all = BruteForce.occurrences(text, "AAC");
+
+        MatchRequest count = request("AAC", "kmp", 0);
+        count.setResultMode(ResultMode.COUNT);
+        assertEquals(all.size(), service.search(count, FILE).getMatchCount());
+
+        MatchRequest page = request("AAC", "bm", 0);
+        page.setResultMode(ResultMode.PAGE);
+        page.setOffset(40);
+        page.setLimit(25);
+        assertEquals(longs(all.subList(40, 65)), service.search(page, FILE).getMatchOffsets());
+    }
+
+    @Test
+    void rejectsPatternsLongerThanHalfAWindowAndIndexes() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> service.search(request("A".repeat(40), "bm", 0), FILE));
+        assertThrows(IllegalArgumentException.class, () -> service.search(request("ACGT", "suffix", 0), FILE));
+        // KMP carries its state instead of an overlap, so a long pattern still fits
+        String runs = "A".repeat(8);
+        assertEquals(longs(BruteForce.occurrences(text, runs)), service.search(request(runs, "kmp", 0), FILE).getMatchOffsets());
+        assertEquals(List.of(), service.search(request("A".repeat(40), "kmp", 0), FILE).getMatchOffsets());
+    }
+
+    private static MatchRequest request(String pattern, String algorithm, int maxErrors) {
+        MatchRequest request = new MatchRequest(null, pattern, algorithm);
+        request.setMaxErrors(maxErrors);
+        return request;
+    }
+
+    private static List<Long> longs(List<Integer> positions) {
+        List<Long> offsets = new ArrayList<>(positions.size());
+        for (int position : positions) offsets.add((long) position);
+        return offsets;
+    }
+}
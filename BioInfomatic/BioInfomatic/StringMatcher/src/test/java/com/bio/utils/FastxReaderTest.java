@@ -0,0 +1,140 @@
+package com.bio.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Parsed bases and record tables for plain, FASTA and FASTQ input. Every file is also fed one byte per read, so
+ * each parser state is crossed at a chunk boundary, and through stream(), which must yield the same bases.
+ */
+class FastxReaderTest {
+
+    @Test
+    void plainSequenceIsFoldedToUpperCase() throws IOException {
+        FastxReader.Result result = parse("acgtn\nACGT \r\nggcc\n");
+        assertEquals(FastxReader.Format.PLAIN, result.format());
+        assertEquals("ACGTNACGTGGCC", bases(result));
+        assertNull(result.records());
+    }
+
+    @Test
+    void leadingBasesBecomeAnImplicitRecord() throws IOException {
+        FastxReader.Result result = parse("acgt\nAC\n>chr1 first chromosome\nGGnn\nA\n;comment\n>chr2\nTT\n");
+        assertEquals(FastxReader.Format.FASTA, result.format());
+        assertEquals("ACGTAC\nGGNNA\nTT", bases(result));
+        assertEquals(List.of("genome:0+6", "chr1:7+5", "chr2:13+2"), records(result));
+    }
+
+    @Test
+    void crlfLineBreaksAreDropped() throws IOException {
+        FastxReader.Result fasta = parse(">chr1 x\r\nAC\r\nGT\r\n>chr2\r\nTT\r\n");
+        assertEquals("ACGT\nTT", bases(fasta));
+        assertEquals(List.of("chr1:0+4", "chr2:5+2"), records(fasta));
+
+        FastxReader.Result fastq = parse("@r1\r\nACG\r\n+\r\nIII\r\n@r2\r\nTT\r\n+\r\nII\r\n");
+        assertEquals("ACG\nTT", bases(fastq));
+        assertEquals(List.of("r1:0+3", "r2:4+2"), records(fastq));
+    }
+
+    @Test
+    void headerAtEndOfFileIsAnEmptyRecord() throws IOException {
+        FastxReader.Result result = parse(">a\nAC\n>b");
+        assertEquals("AC\n", bases(result));
+        assertEquals(List.of("a:0+2", "b:3+0"), records(result));
+    }
+
+    @Test
+    void wrappedFastqIsSkippedByQualityLength() throws IOException {
+        // Quality lines of r1 start with '+' and '@'; r2's starts with '@' and its '+' line repeats the name
+        String file = "@r1 sample\nACG\nta\n+\n+I\n@II\n@r2\nGG\n+r2\n@+\n\n@r3\nC\n+\n#";
+        FastxReader.Result result = parse(file);
+        assertEquals(FastxReader.Format.FASTQ, result.format());
+        assertEquals("ACGTA\nGG\nC", bases(result));
+        assertEquals(List.of("r1:0+5", "r2:6+2", "r3:9+1"), records(result));
+    }
+
+    @Test
+    void malformedFastqIsRejected() {
+        assertThrows(IOException.class, () -> parse("@r1\nACG\n@r2\nTT\n+\nII\n"));
+        assertThrows(IOException.class, () -> parse("@r1\nACG\n+\nII"));
+        assertThrows(IOException.class, () -> parse("@r1\nACG\n+\nIII\nTT\n"));
+        assertThrows(IOException.class, () -> parse("@r1\nACG\n"));
+    }
+
+    // Reads the file in one go and a byte at a time; both, and the streamed bases, must agree
+    private static FastxReader.Result parse(String file) throws IOException {
+        byte[] bytes = file.getBytes(StandardCharsets.ISO_8859_1);
+        FastxReader.Result whole = FastxReader.read(Channels.newChannel(new ByteArrayInputStream(bytes)), bytes.length, Long.MAX_VALUE, "genome");
+        FastxReader.Result trickled = FastxReader.read(new OneByteChannel(bytes), -1, Long.MAX_VALUE, "genome");
+        assertEquals(bases(whole), bases(trickled), "one byte per read");
+        assertEquals(records(whole), records(trickled), "one byte per read");
+        assertEquals(bases(whole), streamed(bytes), "stream()");
+        return whole;
+    }
+
+    private static String streamed(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ReadableByteChannel channel = FastxReader.stream(new OneByteChannel(bytes), "genome")) {
+            ByteBuffer buffer = ByteBuffer.allocate(3);
+            while (channel.read(buffer.clear()) != -1) {
+                out.write(buffer.array(), 0, buffer.position());
+            }
+        }
+        return out.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static String bases(FastxReader.Result result) {
+        ByteBuffer sequence = result.sequence().duplicate();
+        byte[] bytes = new byte[sequence.remaining()];
+        sequence.get(bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    // "name:start+length" per record
+    private static List<String> records(FastxReader.Result result) {
+        List<String> records = new ArrayList<>();
+        GenomeRecords table = result.records();
+        for (int i = 0; table != null && i < table.size(); i++) {
+            records.add(table.name(i) + ":" + table.start(i) + "+" + table.length(i));
+        }
+        return records;
+    }
+
+    private static final class OneByteChannel implements ReadableByteChannel {
+        private final byte[] bytes;
+        private int next;
+
+        OneByteChannel(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read(ByteBuffer target) {
+            if (next == bytes.length) return -1;
+            target.put(bytes[next++]);
+            return 1;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.bio.utils;
+
+import com.bio.BruteForce;
+import com.bio.algorithm.BoyerMooreSearch;
+import com.bio.algorithm.CompiledPattern;
+import com.bio.algorithm.KMPSearch;
+import com.bio.algorithm.NaiveSearch;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.bio.BruteForce.occurrences;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PackedGenome against the String it was packed from: characters, exception runs, bulk reads and searches, on
+ * sequences whose N runs start and end on 32-base word boundaries, and on views that start mid-word.
+ */
+class PackedGenomeTest {
+
+    @Test
+    void charactersAndRunsMatchTheSource() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            String text = withRuns(random, 700);
+            PackedGenome packed = PackedGenome.of(text);
+            assertEquals(text, packed.toString());
+            assertViewMatches(text, packed);
+            for (int start : new int[]{1, 31, 32, 33, 95}) {
+                int end = text.length() - random.nextInt(40);
+                assertViewMatches(text.substring(start, end), packed.subSequence(start, end));
+            }
+        }
+    }
+
+    @Test
+    void runsAreMergedPerSymbol() {
+        // NNNN, RR, then a, c, g and t (soft-masked, one run each since the symbols differ), then N
+        PackedGenome packed = PackedGenome.of("ACNNNNRRacgtNA");
+        assertEquals(7, packed.exceptionRunCount());
+        assertEquals(6, packed.nextBase(2));
+        assertEquals(8, packed.nextBase(6));
+        assertEquals(9, packed.nextBase(8));
+        assertEquals("ACNNNNRRacgtNA", packed.toString());
+    }
+
+    @Test
+    void readBasesReturns32CodesFromAnyPosition() {
+        Random random = new Random(11);
+        String text = withRuns(random, 500);
+        for (PackedGenome genome : new PackedGenome[]{PackedGenome.of(text), PackedGenome.of(text).subSequence(13, 470)}) {
+            String view = genome.toString();
+            for (int i = 0; i < view.length(); i++) {
+                long bases = genome.readBases(i);
+                for (int k = 0; k < PackedGenome.BASES_PER_WORD && i + k < view.length(); k++, bases >>>= 2) {
+                    int code = PackedGenome.code(view.charAt(i + k));
+                    if (code >= 0) assertEquals(code, (int) bases & 3, "base " + (i + k) + " read from " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void compactPacksUntilTheRunBudgetThenFallsBackToLatin1() {
+        int n = 64 * 40;
+        int budget = PackedGenome.maxExceptionRuns(n);
+
+        String fewRuns = sequenceWithRuns(n, budget);
+        CharSequence packed = PackedGenome.compact(MappedGenome.wrap(fewRuns.getBytes(StandardCharsets.ISO_8859_1)));
+        assertTrue(packed instanceof PackedGenome);
+        assertEquals(budget, ((PackedGenome) packed).exceptionRunCount());
+        assertEquals(fewRuns, packed.toString());
+
+        String tooMany = sequenceWithRuns(n, budget + 1);
+        CharSequence fallback = PackedGenome.compact(MappedGenome.wrap(tooMany.getBytes(StandardCharsets.ISO_8859_1)));
+        assertTrue(fallback instanceof MappedGenome);
+        assertEquals(tooMany, fallback.toString());
+
+        // A generated genome over a non-ACGT alphabet (one run per base) is never packed
+        String helo = BruteForce.randomText(new Random(3), "HELOÿ", n);
+        CharSequence latin1 = PackedGenome.compact(MappedGenome.wrap(helo.getBytes(StandardCharsets.ISO_8859_1)));
+        assertTrue(latin1 instanceof MappedGenome);
+        assertEquals(helo, latin1.toString());
+
+        PackedGenome.Builder builder = new PackedGenome.Builder(10, 1);
+        for (char c : "ANANA".toCharArray()) builder.append(c);
+        assertTrue(builder.isOverflowed());
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    void packedPatternsUseTheGenomeLayout() {
+        assertEquals(0b11_10_01_00, PackedGenome.packPattern("ACGT"));
+        assertEquals(-1, PackedGenome.packPattern("ACNT"));
+        assertEquals(-1, PackedGenome.packPattern("A".repeat(PackedGenome.BASES_PER_WORD)));
+        assertEquals(-1, PackedGenome.packPattern(""));
+        assertEquals(0xFF, PackedGenome.baseMask(4));
+        assertEquals(-1L, PackedGenome.baseMask(PackedGenome.BASES_PER_WORD));
+    }
+
+    @Test
+    void searchesOverPackedGenomesMatchTheString() {
+        Random random = new Random(19);
+        for (int round = 0; round < 15; round++) {
+            String text = withRuns(random, 1200);
+            PackedGenome packed = PackedGenome.of(text);
+            List<String> patterns = new ArrayList<>(List.of("A", "AC", "ACGTN", "NNN", "Na"));
+            // Packable (Naive's word compare), 31 bases (the longest packable), and longer (charAt path)
+            for (int m : new int[]{3, 8, 17, 31, 32, 45}) {
+                int start = random.nextInt(text.length() - m);
+                patterns.add(text.substring(start, start + m));
+            }
+
+            for (String pattern : patterns) {
+                List<Integer> expected = occurrences(text, pattern);
+                for (CompiledPattern compiled : new CompiledPattern[]{new NaiveSearch().compile(pattern),
+                        new KMPSearch().compile(pattern), new BoyerMooreSearch().compile(pattern)}) {
+                    String label = compiled.algorithm() + " '" + pattern + "'";
+                    assertEquals(expected, compiled.search(packed).getMatchIndices(), label);
+
+                    // Range starting and ending mid-word
+                    int from = 45, to = text.length() - 77;
+                    List<Integer> inRange = new ArrayList<>();
+                    for (int position : expected) {
+                        if (position >= from && position + pattern.length() <= to) inRange.add(position);
+                    }
+                    assertEquals(inRange, compiled.search(packed, from, to).getMatchIndices(), label + " in range");
+
+                    // A view that starts mid-word reports positions relative to the view
+                    PackedGenome view = packed.subSequence(21, text.length());
+                    assertEquals(occurrences(text.substring(21), pattern), compiled.search(view).getMatchIndices(), label + " in view");
+                }
+            }
+        }
+    }
+
+    private static void assertViewMatches(String expected, PackedGenome genome) {
+        assertEquals(expected.length(), genome.length());
+        for (int i = 0; i < expected.length(); i++) {
+            char c = expected.charAt(i);
+            assertEquals(c, genome.charAt(i), "charAt " + i);
+            boolean exception = PackedGenome.code(c) < 0;
+            assertEquals(exception, genome.isException(i), "isException " + i);
+            if (!exception) assertEquals(PackedGenome.code(c), genome.codeAt(i), "codeAt " + i);
+
+            int nextException = i;
+            while (nextException < expected.length() && PackedGenome.code(expected.charAt(nextException)) >= 0) nextException++;
+            assertEquals(nextException, genome.nextException(i), "nextException " + i);
+            int nextBase = i;
+            if (exception) {
+                // End of the run of this one symbol
+                while (nextBase < expected.length() && expected.charAt(nextBase) == c) nextBase++;
+            }
+            assertEquals(nextBase, genome.nextBase(i), "nextBase " + i);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> genome.charAt(expected.length()));
+    }
+
+    // ACGT with N runs aligned to word boundaries (and crossing them), plus short runs of other symbols
+    private static String withRuns(Random random, int length) {
+        StringBuilder text = new StringBuilder(BruteForce.randomText(random, "ACGT", length));
+        int[][] runs = {{32, 64}, {96, 97}, {127, 129}, {160, 224}, {255, 256}};
+        for (int[] run : runs) {
+            for (int i = run[0]; i < run[1] && i < length; i++) text.setCharAt(i, 'N');
+        }
+        for (int r = 0; r < 6; r++) {
+            int start = 300 + random.nextInt(length - 340);
+            char symbol = "NRa-".charAt(random.nextInt(4));
+            for (int i = start, end = start + 1 + random.nextInt(35); i < end; i++) text.setCharAt(i, symbol);
+        }
+        return text.toString();
+    }
+
+    // `runs` single-N runs, evenly spread over n bases of A
+    private static String sequenceWithRuns(int n, int runs) {
+        StringBuilder text = new StringBuilder("A".repeat(n));
+        for (int r = 0; r < runs; r++) text.setCharAt((int) ((long) r * n / runs), 'N');
+        return text.toString();
+    }
+}
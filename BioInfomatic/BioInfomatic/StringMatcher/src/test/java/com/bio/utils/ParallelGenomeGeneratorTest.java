@@ -0,0 +1,136 @@
+package com.bio.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The generator's output must depend only on (pattern, size). The common pool's parallelism is fixed when a JVM
+ * starts, so write() runs in child JVMs with different settings and the files are compared byte for byte; the
+ * packed file must unpack to the plain one.
+ */
+class ParallelGenomeGeneratorTest {
+
+    // Three full blocks and a partial one that is not a multiple of 4 bases (a partly filled last packed byte)
+    private static final long SIZE = 3L * ParallelGenomeGenerator.BLOCK_BASES + 12_345;
+    private static final String[] PATTERNS = {"GATTACA", "ACG"};
+
+    @Test
+    void outputIsIdenticalForEveryCommonPoolParallelism(@TempDir Path dir) throws Exception {
+        for (String parallelism : new String[]{"1", "3", "8"}) {
+            Path out = Files.createDirectory(dir.resolve("p" + parallelism));
+            runWriter(out, parallelism);
+        }
+        Path local = Files.createDirectory(dir.resolve("local"));
+        Writer.main(new String[]{local.toString()});
+
+        for (String file : files()) {
+            byte[] expected = Files.readAllBytes(local.resolve(file));
+            for (String parallelism : new String[]{"1", "3", "8"}) {
+                assertArrayEquals(expected, Files.readAllBytes(dir.resolve("p" + parallelism).resolve(file)),
+                        file + " with parallelism " + parallelism);
+            }
+        }
+    }
+
+    @Test
+    void packedOutputUnpacksToThePlainSequence(@TempDir Path dir) throws Exception {
+        Writer.main(new String[]{dir.toString()});
+        byte[] plain = Files.readAllBytes(dir.resolve("GATTACA.txt"));
+        Path packed = dir.resolve("GATTACA.2bit");
+
+        assertEquals(SIZE, plain.length);
+        assertEquals(PackedGenomeFile.HEADER_BYTES + (SIZE + 3) / 4, Files.size(packed));
+        try (FileChannel channel = FileChannel.open(packed)) {
+            assertEquals(SIZE, PackedGenomeFile.baseCount(channel));
+        }
+        assertArrayEquals(plain, readBases(packed));
+        // A plain file goes through openBases unchanged
+        assertArrayEquals(plain, readBases(dir.resolve("GATTACA.txt")));
+
+        // fill() produces the same sequence in memory
+        ParallelGenomeGenerator generator = new ParallelGenomeGenerator("gattaca", SIZE);
+        ByteBuffer filled = ByteBuffer.allocate((int) SIZE + 5);
+        filled.position(5);
+        generator.fill(filled);
+        byte[] inMemory = new byte[(int) SIZE];
+        filled.get(inMemory);
+        assertArrayEquals(plain, inMemory);
+
+        String sequence = new String(plain, StandardCharsets.US_ASCII);
+        for (long point : new long[]{1000, SIZE / 2, SIZE - 7 - 1000}) {
+            assertEquals("GATTACA", sequence.substring((int) point, (int) point + 7));
+        }
+        assertTrue(sequence.chars().allMatch(c -> "GATC".indexOf(c) >= 0));
+    }
+
+    @Test
+    void onlyAcgtAlphabetsCanBePacked(@TempDir Path dir) throws Exception {
+        ParallelGenomeGenerator generator = new ParallelGenomeGenerator("HELO", 5000);
+        assertThrows(IllegalArgumentException.class, () -> generator.write(dir.resolve("helo.2bit"), true));
+        assertEquals(5000, generator.write(dir.resolve("helo.txt"), false));
+        assertThrows(IOException.class, () -> new ParallelGenomeGenerator("", 10));
+    }
+
+    private static List<String> files() {
+        List<String> files = new ArrayList<>();
+        for (String pattern : PATTERNS) {
+            files.add(pattern + ".txt");
+            files.add(pattern + ".2bit");
+        }
+        return files;
+    }
+
+    private static byte[] readBases(Path file) throws IOException {
+        ByteArrayOutputStream bases = new ByteArrayOutputStream();
+        try (ReadableByteChannel channel = PackedGenomeFile.openBases(file)) {
+            Channels.newInputStream(channel).transferTo(bases);
+        }
+        return bases.toByteArray();
+    }
+
+    private static void runWriter(Path out, String parallelism) throws Exception {
+        Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+        Process process = new ProcessBuilder(java.toString(),
+                "-Djava.util.concurrent.ForkJoinPool.common.parallelism=" + parallelism,
+                "-cp", System.getProperty("java.class.path"), Writer.class.getName(), out.toString())
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(process.waitFor(2, TimeUnit.MINUTES), "writer did not finish");
+        assertEquals(0, process.exitValue(), output);
+        assertEquals(parallelism, output.trim(), "common pool parallelism of the child JVM");
+    }
+
+    // Entry point of the child JVMs: writes every pattern plain and packed into the directory args[0]
+    static final class Writer {
+        public static void main(String[] args) throws IOException {
+            Path dir = Paths.get(args[0]);
+            for (String pattern : PATTERNS) {
+                ParallelGenomeGenerator generator = new ParallelGenomeGenerator(pattern, SIZE);
+                generator.write(dir.resolve(pattern + ".txt"), false);
+                generator.write(dir.resolve(pattern + ".2bit"), true);
+            }
+            System.out.println(ForkJoinPool.getCommonPoolParallelism());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.bio.benchmarks;
+
+import com.bio.utils.MappedGenome;
+import com.bio.utils.PackedGenome;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic genomes for the benchmarks. The same parameters always produce the same text and
+ * pattern, so runs on different commits measure identical inputs.
+ */
+final class BenchmarkData {
+
+    private static final long SEED = 0x5EEDL;
+
+    static final String DNA = "ACGT";
+    static final String PROTEIN = "ACDEFGHIKLMNPQRSTVWY";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Random text over the alphabet, with the pattern planted {@code hitsPerMb} times per million characters
+     * (on top of any occurrences the random text already contains).
+     *
+     * @param alphabet DNA, DNA_N (DNA with ~1% of the text in N runs, like assembly gaps) or PROTEIN
+     */
+    static String genome(int size, String alphabet, String pattern, int hitsPerMb) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        String symbols = symbols(alphabet);
+        char[] text = new char[size];
+        for (int i = 0; i < size; i++) {
+            text[i] = symbols.charAt(random.nextInt(symbols.length()));
+        }
+
+        if ("DNA_N".equals(alphabet)) {
+            // N runs of 50-500 bases covering about 1% of the genome
+            long nBases = size / 100;
+            while (nBases > 0 && size > 500) {
+                int run = 50 + random.nextInt(451);
+                int start = random.nextInt(size - run);
+                for (int i = start; i < start + run; i++) text[i] = 'N';
+                nBases -= run;
+            }
+        }
+
+        int m = pattern.length();
+        long hits = (long) size * hitsPerMb / 1_000_000L;
+        for (long h = 0; h < hits && size > m; h++) {
+            pattern.getChars(0, m, text, random.nextInt(size - m + 1));
+        }
+        return new String(text);
+    }
+
+    /**
+     * Random pattern drawn from the alphabet (ACGT only for DNA_N, so it never contains an N).
+     */
+    static String pattern(String alphabet, int length) {
+        SplittableRandom random = new SplittableRandom(SEED ^ length);
+        String symbols = symbols(alphabet);
+        StringBuilder pattern = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            pattern.append(symbols.charAt(random.nextInt(symbols.length())));
+        }
+        return pattern.toString();
+    }
+
+    /**
+     * @param representation "packed" (the 2-bit genome the service searches), "mapped" (one byte per base, as
+     *                       genome files and FASTA loads are held) or "string"
+     */
+    static CharSequence text(String genome, String representation) {
+        switch (representation) {
+            case "packed":
+                return PackedGenome.of(genome);
+            case "mapped":
+                return MappedGenome.wrap(genome.getBytes(StandardCharsets.ISO_8859_1));
+            default:
+                return genome;
+        }
+    }
+
+    private static String symbols(String alphabet) {
+        switch (alphabet) {
+            case "DNA":
+            case "DNA_N":
+                return DNA;
+            case "PROTEIN":
+                return PROTEIN;
+            default:
+                throw new IllegalArgumentException("Unknown alphabet: " + alphabet);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.bio.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so every result also reports allocation rate
+ * (gc.alloc.rate.norm = bytes allocated per search) next to the time, and writes results.json for comparing
+ * commits.
+ *
+ * Usage: mvn -pl benchmarks -am package, then
+ *   java -cp benchmarks/target/benchmarks.jar com.bio.benchmarks.BenchmarkRunner [regex]
+ * or the plain JMH launcher, e.g.
+ *   java -jar benchmarks/target/benchmarks.jar ExactSearch -prof gc -p genomeSize=1000000 -p alphabet=DNA
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "com\\.bio\\.benchmarks\\..*")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("results.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.bio.benchmarks;
+
+import com.bio.algorithm.BoyerMooreSearch;
+import com.bio.algorithm.KMPSearch;
+import com.bio.algorithm.NaiveSearch;
+import com.bio.algorithm.NativeJavaSearch;
+import com.bio.algorithm.QGramHorspoolSearch;
+import com.bio.algorithm.SuffixTreeSearch;
+import com.bio.model.MatchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-genome exact search, one benchmark per algorithm. Each invocation runs the public search(text, pattern)
+ * entry point the services call, including pattern preprocessing and result-list building.
+ *
+ * The suffix-array benchmark measures queries against the cached index (built once in setup);
+ * SuffixArrayBuildBenchmark measures the build itself.
+ *
+ * Naive search on "mapped" text runs SimdScan's vector engine when the build had the jdk17 profile and the forks
+ * get the module: {@code java -jar target/benchmarks.jar -jvmArgsAppend "--add-modules jdk.incubator.vector"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ExactSearchBenchmark {
+
+    @Param({"1000000", "16000000"})
+    private int genomeSize;
+
+    @Param({"DNA", "DNA_N", "PROTEIN"})
+    private String alphabet;
+
+    @Param({"8", "32", "256"})
+    private int patternLength;
+
+    // Planted occurrences per million characters
+    @Param({"0", "10", "1000"})
+    private int hitsPerMb;
+
+    // "packed" is what the service searches; "mapped" is a byte per base; "string" isolates the algorithm
+    // from PackedGenome.charAt
+    @Param({"packed", "mapped", "string"})
+    private String representation;
+
+    private String genome;
+    private CharSequence text;
+    private String pattern;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pattern = BenchmarkData.pattern(alphabet, patternLength);
+        genome = BenchmarkData.genome(genomeSize, alphabet, pattern, hitsPerMb);
+        text = BenchmarkData.text(genome, representation);
+        SuffixTreeSearch.indexFor(text);
+    }
+
+    @Benchmark
+    public MatchResult naive() {
+        return new NaiveSearch().search(text, pattern);
+    }
+
+    @Benchmark
+    public MatchResult kmp() {
+        return new KMPSearch().search(text, pattern);
+    }
+
+    @Benchmark
+    public MatchResult boyerMoore() {
+        return new BoyerMooreSearch().search(text, pattern);
+    }
+
+    @Benchmark
+    public MatchResult qgramHorspool() {
+        return new QGramHorspoolSearch().search(text, pattern);
+    }
+
+    @Benchmark
+    public MatchResult suffixArrayQuery() {
+        return new SuffixTreeSearch().search(text, pattern);
+    }
+
+    // String.indexOf needs a String; runs on the unpacked genome regardless of representation
+    @Benchmark
+    public MatchResult nativeJava() {
+        return new NativeJavaSearch().search(genome, pattern);
+    }
+}
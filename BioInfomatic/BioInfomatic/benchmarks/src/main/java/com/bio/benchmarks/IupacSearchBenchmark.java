@@ -0,0 +1,83 @@
+package com.bio.benchmarks;
+
+import com.bio.algorithm.BioJavaSearch;
+import com.bio.algorithm.IupacSearch;
+import com.bio.model.MatchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IUPAC ambiguity-code search (the /match/biojava endpoint and the "iupac" algorithms). Kept apart from
+ * ExactSearchBenchmark because the patterns are degenerate DNA.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class IupacSearchBenchmark {
+
+    @Param({"1000000", "16000000"})
+    private int genomeSize;
+
+    @Param({"DNA", "DNA_N"})
+    private String alphabet;
+
+    @Param({"8", "32", "256"})
+    private int patternLength;
+
+    @Param({"0", "10", "1000"})
+    private int hitsPerMb;
+
+    // Every n-th pattern base becomes the two-base code containing it (A -> R, C -> Y, ...); 0 = concrete
+    @Param({"0", "4"})
+    private int degenerateEvery;
+
+    @Param({"packed", "string"})
+    private String representation;
+
+    private String genome;
+    private CharSequence text;
+    private String pattern;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String planted = BenchmarkData.pattern(alphabet, patternLength);
+        genome = BenchmarkData.genome(genomeSize, alphabet, planted, hitsPerMb);
+        text = BenchmarkData.text(genome, representation);
+        char[] degenerate = planted.toCharArray();
+        for (int i = degenerateEvery - 1; degenerateEvery > 0 && i < degenerate.length; i += degenerateEvery) {
+            degenerate[i] = "RYRY".charAt("ACGT".indexOf(degenerate[i]));
+        }
+        pattern = new String(degenerate);
+    }
+
+    // The endpoint's path: whole String text
+    @Benchmark
+    public MatchResult endpoint() throws Exception {
+        return new BioJavaSearch().search(genome, pattern);
+    }
+
+    @Benchmark
+    public MatchResult shiftAnd() {
+        return new IupacSearch().search(text, pattern, 0);
+    }
+
+    @Benchmark
+    public MatchResult horspool() {
+        return new IupacSearch().compileHorspool(pattern).search(text);
+    }
+}
@@ -0,0 +1,97 @@
+package com.bio.benchmarks;
+
+import com.bio.algorithm.CompiledPattern;
+import com.bio.algorithm.MatchCollector;
+import com.bio.algorithm.OwnedRangeSink;
+import com.bio.model.ResultMode;
+import com.bio.service.CompiledPatternCache;
+import com.bio.service.ParallelGenericSearchService;
+import com.bio.service.SearchResultCache;
+import com.bio.utils.IntList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The parallel service's chunked search (ParallelGenericSearchService.searchChunks) on an in-memory genome:
+ * adaptive splitting on the work-stealing pool, per-leaf scans of a shared compiled pattern that keep only the
+ * hits each leaf owns, and the merge.
+ * The genome file and the result cache are left out so only the search itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ParallelSearchBenchmark {
+
+    @Param({"16000000", "64000000"})
+    private int genomeSize;
+
+    @Param({"DNA", "DNA_N"})
+    private String alphabet;
+
+    @Param({"8", "32", "256"})
+    private int patternLength;
+
+    @Param({"0", "10", "1000"})
+    private int hitsPerMb;
+
+    @Param({"naive", "kmp", "bm", "qgram"})
+    private String algorithm;
+
+    // 0 = available processors, as app.parallel.num-threads
+    @Param({"0"})
+    private int threads;
+
+    private CharSequence text;
+    private String pattern;
+    private ForkJoinPool pool;
+    private ParallelGenericSearchService service;
+    private CompiledPattern compiled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pattern = BenchmarkData.pattern(alphabet, patternLength);
+        text = BenchmarkData.text(BenchmarkData.genome(genomeSize, alphabet, pattern, hitsPerMb), "packed");
+        pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        service = new ParallelGenericSearchService(null, null, null, new SearchResultCache(0), pool);
+        compiled = new CompiledPatternCache(16).get(algorithm, pattern);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    // Leaf and merge as in ParallelGenericSearchService.searchAll: each leaf keeps only the hits it owns,
+    // [from, ownedEnd), so hits starting in the overlap are counted once
+    @Benchmark
+    public IntList parallelSearch() throws Exception {
+        List<MatchCollector> chunks = service.searchChunks(text, 0, pattern.length() - 1, (genome, from, to, ownedEnd) -> {
+            MatchCollector hits = new MatchCollector(ResultMode.ALL, 0, 0);
+            compiled.search(genome, from, to, new OwnedRangeSink(hits, from, ownedEnd));
+            return hits;
+        });
+        int total = 0;
+        for (MatchCollector chunk : chunks) total += chunk.positions().size();
+        IntList all = new IntList(total);
+        for (MatchCollector chunk : chunks) all.addAll(chunk.positions());
+        return all;
+    }
+}
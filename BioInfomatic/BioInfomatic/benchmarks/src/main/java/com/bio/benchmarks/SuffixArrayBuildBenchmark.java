@@ -0,0 +1,52 @@
+package com.bio.benchmarks;
+
+import com.bio.algorithm.SuffixArrayIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SA-IS + LCP construction, the one-off cost paid by the first suffix-array query on a new genome.
+ * Single-shot: a build takes seconds and is never repeated on the same genome in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SuffixArrayBuildBenchmark {
+
+    @Param({"1000000", "16000000"})
+    private int genomeSize;
+
+    @Param({"DNA", "DNA_N", "PROTEIN"})
+    private String alphabet;
+
+    @Param({"packed", "string"})
+    private String representation;
+
+    private CharSequence text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String genome = BenchmarkData.genome(genomeSize, alphabet, BenchmarkData.pattern(alphabet, 8), 0);
+        text = BenchmarkData.text(genome, representation);
+    }
+
+    @Benchmark
+    public SuffixArrayIndex build() {
+        return SuffixArrayIndex.build(text);
+    }
+}